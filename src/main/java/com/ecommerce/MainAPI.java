@@ -1,14 +1,39 @@
 package com.ecommerce;
 
+import com.ecommerce.catalog.CatalogSnapshotManager;
+import com.ecommerce.config.DatabaseConfig;
 import com.ecommerce.controller.AuthController;
 import com.ecommerce.controller.CategoriesController;
+import com.ecommerce.controller.MetricsController;
 import com.ecommerce.controller.ProductsController;
+import com.ecommerce.dao.CategoryDAO;
+import com.ecommerce.dao.ChangeLogDAO;
+import com.ecommerce.filter.AuthenticationFilter;
+import com.ecommerce.filter.ConnectionScopeFilter;
+import com.ecommerce.filter.ReadYourWritesFilter;
+import com.ecommerce.filter.TrustedProxyCustomizer;
+import com.ecommerce.search.ProductSearchIndex;
+import com.ecommerce.service.CacheInvalidator;
+import com.ecommerce.service.ChangeLogPoller;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
+import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.VirtualThreads;
+import org.eclipse.jetty.util.compression.CompressionPool;
+import org.eclipse.jetty.util.compression.DeflaterPool;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.concurrent.Executor;
+
 /**
  * Main API application class that starts the Jetty server and registers all controllers.
  */
@@ -25,33 +50,53 @@ public class MainAPI {
             }
         }
         
-        Server server = new Server(port);
-        
-        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
-        context.setContextPath("/");
-        server.setHandler(context);
-        
-        // Register controllers
-        context.addServlet(new ServletHolder(new AuthController()), "/api/auth/*");
-        context.addServlet(new ServletHolder(new ProductsController()), "/api/products/*");
-        context.addServlet(new ServletHolder(new CategoriesController()), "/api/categories/*");
-        
-        // Enable CORS
-        org.eclipse.jetty.servlet.FilterHolder corsFilter = new org.eclipse.jetty.servlet.FilterHolder(new com.ecommerce.filter.CORSFilter());
-        context.addFilter(corsFilter, "/*", null);
+        Server server = createServer(port, DatabaseConfig.getInstance().isVirtualThreads());
         
         try {
+            // Evict rows written by other instances from the local caches. The poller takes its
+            // watermark now, so that writes made while the index and snapshot load are replayed
+            DatabaseConfig config = DatabaseConfig.getInstance();
+            ChangeLogPoller changeLogPoller = null;
+            if (config.isChangeLogEnabled()) {
+                // Replay each batch once replicas are past their read-your-writes lag bound
+                long replayDelayMillis = config.getRoutingDataSource().hasReplicas() ? config.getReadYourWritesMillis() : 0;
+                changeLogPoller = new ChangeLogPoller(new ChangeLogDAO(), new CacheInvalidator(),
+                                                      config.getChangeLogBatchSize(),
+                                                      config.getChangeLogRetentionMinutes(), replayDelayMillis);
+            }
+            
+            // Build the product search index, and the category closure of older databases, before accepting requests
+            ProductSearchIndex.getInstance().rebuild();
+            new CategoryDAO().migrateClosure();
+            
+            // Serve catalog reads from memory once the first snapshot is loaded
+            if (config.isCatalogSnapshotEnabled()) {
+                CatalogSnapshotManager.getInstance().start();
+            }
+            
+            if (changeLogPoller != null) {
+                changeLogPoller.start(config.getChangeLogPollMillis());
+            }
+            
             server.start();
             logger.info("Server started on port {}", port);
             logger.info("Available endpoints:");
             logger.info("  POST   /api/auth/login     - User authentication");
-            logger.info("  GET    /api/products       - Get all products");
+            logger.info("  GET    /api/products       - Get products (paged via limit/after; category includes subcategories)");
             logger.info("  GET    /api/products/{id}  - Get product by ID");
+            logger.info("  GET    /api/products/export - Stream the full catalog as JSON (requires auth)");
+            logger.info("  GET    /api/products/search?q= - Search products by name, brand and description");
             logger.info("  POST   /api/products       - Create new product (requires auth)");
+            logger.info("  POST   /api/products/import - Bulk import products from CSV or NDJSON (requires admin)");
             logger.info("  PUT    /api/products/{id}  - Update product (requires auth)");
             logger.info("  DELETE /api/products/{id}  - Delete product (requires auth)");
             logger.info("  GET    /api/categories     - Get all categories");
             logger.info("  GET    /api/categories/{id} - Get category by ID");
+            logger.info("  GET    /api/categories/tree - Get the nested category hierarchy");
+            logger.info("  GET    /api/categories/{id}/tree - Get a category with its nested subcategories");
+            logger.info("  GET    /api/categories/{id}/breadcrumbs - Get the ancestors of a category, top-level first");
+            logger.info("  GET    /api/metrics        - Database query, pool, cache and catalog memory metrics (JSON)");
+            logger.info("  GET    /api/metrics/prometheus - Database, cache and catalog metrics for Prometheus");
             server.join();
         } catch (Exception e) {
             logger.error("Error starting server", e);
@@ -59,4 +104,97 @@ public class MainAPI {
             server.destroy();
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Creates the Jetty server with all controllers and filters registered, without starting it.
+     *
+     * @param port The port to listen on, or 0 for any free port
+     * @param virtualThreads Whether to run requests on virtual threads
+     * @return The server
+     */
+    public static Server createServer(int port, boolean virtualThreads) {
+        Server server = new Server(createThreadPool(virtualThreads));
+        HttpConfiguration httpConfig = new HttpConfiguration();
+        // Attribute requests relayed by the load balancer to the client they came from
+        List<String> trustedProxies = DatabaseConfig.getInstance().getTrustedProxies();
+        if (!trustedProxies.isEmpty()) {
+            httpConfig.addCustomizer(new TrustedProxyCustomizer(trustedProxies));
+        }
+        ServerConnector connector = new ServerConnector(server, new HttpConnectionFactory(httpConfig));
+        connector.setPort(port);
+        server.addConnector(connector);
+        
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+        context.setContextPath("/");
+        server.setHandler(createCompressionHandler(context));
+        
+        // Register controllers
+        context.addServlet(new ServletHolder(new AuthController()), "/api/auth/*");
+        context.addServlet(new ServletHolder(new ProductsController()), "/api/products/*");
+        context.addServlet(new ServletHolder(new CategoriesController()), "/api/categories/*");
+        context.addServlet(new ServletHolder(new MetricsController()), "/api/metrics/*");
+        
+        // Enable CORS
+        org.eclipse.jetty.servlet.FilterHolder corsFilter = new org.eclipse.jetty.servlet.FilterHolder(new com.ecommerce.filter.CORSFilter());
+        context.addFilter(corsFilter, "/*", null);
+        
+        // Authenticate API requests once, except on the public routes
+        context.addFilter(new FilterHolder(new AuthenticationFilter(DatabaseConfig.getInstance().getAuthPublicRoutes())),
+                          "/api/*", null);
+        
+        // Share one pooled connection per API request when enabled
+        if (DatabaseConfig.getInstance().isRequestScopedConnections()) {
+            context.addFilter(new FilterHolder(new ConnectionScopeFilter()), "/api/*", null);
+        }
+        
+        // Track read-your-writes per client when reads are routed to replicas
+        if (DatabaseConfig.getInstance().getRoutingDataSource().hasReplicas()) {
+            context.addFilter(new FilterHolder(new ReadYourWritesFilter()), "/api/*", null);
+        }
+        
+        return server;
+    }
+
+    /**
+     * Creates the request thread pool. In virtual thread mode the pool still runs Jetty's
+     * selectors and acceptors, while every request is dispatched to a new virtual thread, so
+     * requests blocked on the database park instead of holding a platform thread.
+     *
+     * @param virtualThreads Whether to run requests on virtual threads
+     * @return The thread pool
+     */
+    private static QueuedThreadPool createThreadPool(boolean virtualThreads) {
+        QueuedThreadPool threadPool = new QueuedThreadPool();
+        threadPool.setName("jetty");
+        if (virtualThreads) {
+            Executor executor = VirtualThreads.getDefaultVirtualThreadsExecutor();
+            if (executor != null) {
+                threadPool.setVirtualThreadsExecutor(executor);
+                logger.info("Serving requests on virtual threads");
+            } else {
+                logger.warn("Virtual threads are not available on Java {}, serving requests on platform threads",
+                            Runtime.version().feature());
+            }
+        }
+        return threadPool;
+    }
+
+    /**
+     * Wraps the application in gzip compression when enabled. Responses the controllers have
+     * already compressed, such as cached JSON, carry a Content-Encoding and are passed through.
+     *
+     * @param context The application handler
+     * @return The handler to install on the server
+     */
+    private static Handler createCompressionHandler(ServletContextHandler context) {
+        DatabaseConfig config = DatabaseConfig.getInstance();
+        if (!config.isCompressionEnabled()) {
+            return context;
+        }
+        GzipHandler gzip = new GzipHandler();
+        gzip.setMinGzipSize(config.getCompressionMinSize());
+        gzip.setDeflaterPool(new DeflaterPool(CompressionPool.DEFAULT_CAPACITY, config.getCompressionLevel(), true));
+        gzip.setHandler(context);
+        return gzip;
+    }
+}
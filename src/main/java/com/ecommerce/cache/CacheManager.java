@@ -0,0 +1,96 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.config.DatabaseConfig;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Registry of the named entity caches. Every cache is sized and expired according to the
+ * cache.* settings in application.properties; with cache.enabled=false the caches hold nothing
+ * and every lookup goes to the database.
+ * This class follows the Singleton pattern so that all DAO instances share the same caches.
+ */
+public class CacheManager {
+    private static CacheManager instance;
+
+    private final Map<String, EntityCache<?, ?>> caches = new ConcurrentHashMap<>();
+    private final int sizeLimit;
+    private final long expirationMinutes;
+
+    private CacheManager() {
+        DatabaseConfig config = DatabaseConfig.getInstance();
+        this.sizeLimit = config.isCacheEnabled() ? config.getCacheSizeLimit() : 0;
+        this.expirationMinutes = config.getCacheExpirationMinutes();
+    }
+
+    /**
+     * Gets the singleton instance of CacheManager.
+     *
+     * @return The singleton instance
+     */
+    public static synchronized CacheManager getInstance() {
+        if (instance == null) {
+            instance = new CacheManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the cache with the given name, creating it on first use.
+     *
+     * @param name The name of the cache
+     * @param <K> The type of the keys
+     * @param <V> The type of the cached values
+     * @return The cache
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> EntityCache<K, V> getCache(String name) {
+        return (EntityCache<K, V>) caches.computeIfAbsent(name,
+                key -> new EntityCache<>(key, sizeLimit, expirationMinutes, TimeUnit.MINUTES));
+    }
+
+    /**
+     * Builds a snapshot of the statistics of every cache, keyed by cache name.
+     *
+     * @return The statistics snapshot
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new TreeMap<>();
+        caches.forEach((name, cache) -> snapshot.put(name, cache.snapshot()));
+        return snapshot;
+    }
+
+    /**
+     * Renders the statistics of every cache in the Prometheus text exposition format.
+     *
+     * @return The metrics text
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        appendCounter(out, "cache_hits_total", "Lookups served from the cache.", EntityCache::getHits);
+        appendCounter(out, "cache_misses_total", "Lookups that loaded from the database.", EntityCache::getMisses);
+        appendCounter(out, "cache_coalesced_total", "Misses that shared a load already in flight.",
+                      EntityCache::getCoalesced);
+        appendCounter(out, "cache_evictions_total", "Entries evicted to stay within the size limit.",
+                      EntityCache::getEvictions);
+        appendCounter(out, "cache_expirations_total", "Entries dropped after their time-to-live.",
+                      EntityCache::getExpirations);
+        out.append("# HELP cache_size Entries currently cached.\n");
+        out.append("# TYPE cache_size gauge\n");
+        caches.forEach((name, cache) -> out.append("cache_size{cache=\"").append(name).append("\"} ")
+                                           .append(cache.size()).append('\n'));
+        return out.toString();
+    }
+
+    private void appendCounter(StringBuilder out, String metric, String help,
+                               ToLongFunction<EntityCache<?, ?>> value) {
+        out.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(metric).append(" counter\n");
+        caches.forEach((name, cache) -> out.append(metric).append("{cache=\"").append(name).append("\"} ")
+                                           .append(value.applyAsLong(cache)).append('\n'));
+    }
+}
@@ -0,0 +1,234 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.util.SingleFlight;
+import com.ecommerce.util.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Size-bounded read-through cache with a segmented LRU eviction policy and a time-to-live.
+ * New entries enter a probation segment; an entry read again while on probation is promoted to
+ * the protected segment, which holds 80% of the capacity. Evictions take the least recently used
+ * probation entry first, so a scan of one-off reads cannot flush the frequently read entries.
+ * Concurrent misses for the same key share a single load.
+ * Values are shared between callers and must not be modified.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the cached values
+ */
+public class EntityCache<K, V> {
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private final String name;
+    private final int maximumSize;
+    private final int protectedSize;
+    private final long ttlNanos;
+
+    // Both segments are guarded by this cache's monitor
+    private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Entry<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private long invalidations;
+    private final SingleFlight<List<Object>, V> loads = new SingleFlight<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * Constructor for creating a new EntityCache.
+     *
+     * @param name The name of the cache, used in metrics
+     * @param maximumSize The maximum number of entries (0 disables caching)
+     * @param ttl The time an entry stays valid after it is loaded
+     * @param ttlUnit The unit of the time-to-live
+     */
+    public EntityCache(String name, int maximumSize, long ttl, TimeUnit ttlUnit) {
+        if (maximumSize < 0 || ttl <= 0) {
+            throw new IllegalArgumentException("Cache size must not be negative and TTL must be positive");
+        }
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.protectedSize = (int) (maximumSize * PROTECTED_RATIO);
+        this.ttlNanos = ttlUnit.toNanos(ttl);
+    }
+
+    /**
+     * Gets the value for a key, loading and caching it on a miss. Null results are not cached.
+     * A value loaded while the key was invalidated is returned but not cached, so a concurrent
+     * write can never be overwritten by the stale row it replaced. A value loaded inside a
+     * transaction is not cached either, since it may hold uncommitted writes that roll back.
+     *
+     * @param key The key to look up
+     * @param loader Loads the value from the database on a miss
+     * @return The cached or loaded value, or null if the loader returned null
+     */
+    public V get(K key, Function<K, V> loader) {
+        long generation;
+        synchronized (this) {
+            Entry<V> entry = lookup(key);
+            if (entry != null) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+            generation = invalidations;
+        }
+        misses.incrementAndGet();
+
+        // Loads are shared only within one generation, so nobody joins a load begun before an invalidation
+        V value = loads.execute(List.of(generation, key), () -> loader.apply(key));
+        if (value != null && maximumSize > 0 && !TransactionTemplate.isTransactionActive()) {
+            synchronized (this) {
+                if (generation == invalidations) {
+                    put(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Removes a key now and again once the current transaction completes, so that a reader
+     * cannot re-cache the old row between the write and its commit.
+     *
+     * @param key The key to remove
+     */
+    public void invalidate(K key) {
+        remove(key);
+        TransactionTemplate.afterCompletion(() -> remove(key));
+    }
+
+    /**
+     * Removes every entry now and again once the current transaction completes.
+     */
+    public void invalidateAll() {
+        clear();
+        TransactionTemplate.afterCompletion(this::clear);
+    }
+
+    /**
+     * Gets the number of entries currently cached, including expired entries not yet removed.
+     *
+     * @return The number of entries
+     */
+    public synchronized int size() {
+        return probation.size() + protectedSegment.size();
+    }
+
+    /**
+     * Builds a snapshot of the cache statistics, suitable for JSON serialization.
+     *
+     * @return The statistics snapshot
+     */
+    public Map<String, Object> snapshot() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("maximumSize", maximumSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("coalesced", loads.getCoalesced());
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        return stats;
+    }
+
+    // Getters
+    public String getName() { return name; }
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getCoalesced() { return loads.getCoalesced(); }
+    public long getEvictions() { return evictions.get(); }
+    public long getExpirations() { return expirations.get(); }
+
+    /**
+     * Finds a live entry, promoting it from probation to the protected segment.
+     */
+    private Entry<V> lookup(K key) {
+        Entry<V> entry = protectedSegment.get(key);
+        if (entry == null) {
+            entry = probation.remove(key);
+            if (entry == null) {
+                return null;
+            }
+            if (!entry.isExpired()) {
+                protectedSegment.put(key, entry);
+                demoteOverflow();
+            }
+        }
+        if (entry.isExpired()) {
+            protectedSegment.remove(key);
+            expirations.incrementAndGet();
+            return null;
+        }
+        return entry;
+    }
+
+    private void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+        if (protectedSegment.containsKey(key)) {
+            protectedSegment.put(key, entry);
+            return;
+        }
+        probation.remove(key);
+        probation.put(key, entry);
+        while (probation.size() + protectedSegment.size() > maximumSize) {
+            LinkedHashMap<K, Entry<V>> victims = probation.isEmpty() ? protectedSegment : probation;
+            Iterator<K> eldest = victims.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Moves the least recently used protected entries back to probation while the protected
+     * segment is over its share of the capacity.
+     */
+    private void demoteOverflow() {
+        while (protectedSegment.size() > protectedSize) {
+            Iterator<Map.Entry<K, Entry<V>>> eldest = protectedSegment.entrySet().iterator();
+            Map.Entry<K, Entry<V>> demoted = eldest.next();
+            eldest.remove();
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    private synchronized void remove(K key) {
+        invalidations++;
+        probation.remove(key);
+        protectedSegment.remove(key);
+    }
+
+    private synchronized void clear() {
+        invalidations++;
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    /**
+     * A cached value and the time at which it expires.
+     */
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAtNanos;
+
+        private Entry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.config.DatabaseConfig;
+import com.ecommerce.util.JsonUtil;
+import com.google.gson.Gson;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves JSON GET responses with strong ETags and answers If-None-Match with 304 Not Modified.
+ * The serialized body is cached per catalog version and request URI, together with an ETag
+ * hashed from the body bytes. A repeat request at the same version is then either a 304 without
+ * serializing anything or a single write of the cached bytes. Because the ETag is derived from
+ * the content rather than the version number, it stays valid across restarts and instances.
+ * Bodies of at least the minimum compression size are sent gzip-compressed to clients that
+ * accept it. The compressed bytes are kept with the cached body, so a hot response is compressed
+ * once per version rather than on every request. The gzip representation carries its own ETag,
+ * the plain one with a --gzip suffix, as Jetty's GzipHandler uses for the responses it compresses.
+ * Bodies are serialized straight to UTF-8 bytes, without building the JSON as a String first.
+ */
+public class ResponseCache {
+    private static final String GZIP_ETAG_SUFFIX = "--gzip";
+    private static final int INITIAL_BODY_SIZE = 8192;
+
+    private final EntityCache<String, CachedBody> bodies;
+    private final Gson gson;
+    private final int minCompressSize;
+    private final int compressionLevel;
+
+    /**
+     * Constructor for creating a new ResponseCache backed by the shared "responses" cache and
+     * compressing as configured by the server.compression.* settings.
+     *
+     * @param gson The Gson instance used to serialize responses
+     */
+    public ResponseCache(Gson gson) {
+        this(gson, DatabaseConfig.getInstance().isCompressionEnabled()
+                   ? DatabaseConfig.getInstance().getCompressionMinSize() : Integer.MAX_VALUE,
+             DatabaseConfig.getInstance().getCompressionLevel());
+    }
+
+    /**
+     * Constructor for creating a new ResponseCache backed by the shared "responses" cache.
+     *
+     * @param gson The Gson instance used to serialize responses
+     * @param minCompressSize The smallest body, in bytes, that is sent compressed
+     * @param compressionLevel The deflate level, from 1 (fastest) to 9 (smallest)
+     */
+    public ResponseCache(Gson gson, int minCompressSize, int compressionLevel) {
+        this.bodies = CacheManager.getInstance().getCache("responses");
+        this.gson = gson;
+        this.minCompressSize = minCompressSize;
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Writes the response for a GET request, or 304 if the client already has it.
+     *
+     * @param req The request, whose URI and query string identify the resource
+     * @param resp The response to write to
+     * @param version The version of the data the response is built from, which must change
+     *                whenever the response could change; null if there is no such version, in
+     *                which case the body is rendered on every request and only the 304 is saved
+     * @param loader Loads the object to serialize on a miss, or returns null if it does not exist
+     * @return true if a response was written, false if the loader returned null and the caller
+     *         has to answer 404
+     * @throws IOException If writing the response fails
+     */
+    public boolean write(HttpServletRequest req, HttpServletResponse resp, String version,
+                         Supplier<Object> loader) throws IOException {
+        CachedBody body;
+        if (version != null) {
+            String query = req.getQueryString();
+            String key = version + " " + req.getRequestURI() + (query != null ? "?" + query : "");
+            body = bodies.get(key, k -> render(loader.get()));
+        } else {
+            body = render(loader.get());
+        }
+        if (body == null) {
+            return false;
+        }
+
+        boolean compressible = body.bytes.length >= minCompressSize;
+        boolean gzip = compressible && acceptsGzip(req.getHeader("Accept-Encoding"));
+        resp.setHeader("ETag", gzip ? gzipETag(body.etag) : body.etag);
+        resp.setHeader("Cache-Control", "private, no-cache");
+        if (compressible) {
+            resp.setHeader("Vary", "Accept-Encoding");
+        }
+        if (matches(req.getHeader("If-None-Match"), body.etag)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        byte[] bytes = gzip ? body.gzipped(compressionLevel) : body.bytes;
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        if (gzip) {
+            resp.setHeader("Content-Encoding", "gzip");
+        }
+        resp.setContentLength(bytes.length);
+        resp.getOutputStream().write(bytes);
+        return true;
+    }
+
+    private CachedBody render(Object result) {
+        if (result == null) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(INITIAL_BODY_SIZE);
+        try {
+            JsonUtil.writeJson(gson, result, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] bytes = out.toByteArray();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return new CachedBody(bytes, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Checks an If-None-Match header against an ETag. The header may list several tags or "*",
+     * and uses the weak comparison, so a W/ prefix added by a proxy still matches. The gzip
+     * representation's tag matches too, so a client that switches encodings is not sent the body again.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.endsWith(GZIP_ETAG_SUFFIX + "\"")) {
+                tag = tag.substring(0, tag.length() - GZIP_ETAG_SUFFIX.length() - 1) + "\"";
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether an Accept-Encoding header allows gzip, either by name or through *, with a
+     * nonzero quality.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.split(";");
+            String coding = parts[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=") && isZero(parameter.substring(2))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZero(String quality) {
+        try {
+            return Double.parseDouble(quality) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static String gzipETag(String etag) {
+        return etag.substring(0, etag.length() - 1) + GZIP_ETAG_SUFFIX + "\"";
+    }
+
+    /**
+     * A serialized response body and its ETag, with the gzip-compressed body once first requested.
+     */
+    private static final class CachedBody {
+        private final byte[] bytes;
+        private final String etag;
+        private volatile byte[] gzipped;
+
+        private CachedBody(byte[] bytes, String etag) {
+            this.bytes = bytes;
+            this.etag = etag;
+        }
+
+        /**
+         * Gets the body compressed with gzip, compressing it on first use. Concurrent first uses
+         * may each compress it; they produce the same bytes.
+         */
+        private byte[] gzipped(int level) {
+            byte[] result = gzipped;
+            if (result == null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+                    {
+                        def.setLevel(level);
+                    }
+                }) {
+                    gzip.write(bytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                result = out.toByteArray();
+                gzipped = result;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.dao.Page;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.CategoryNode;
+import com.ecommerce.model.Product;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable in-memory copy of the catalog: every product with its categories, every category,
+ * and the sorted views needed to answer the catalog read endpoints without the database.
+ * A snapshot is never modified after it is built; {@link CatalogSnapshotManager} replaces it
+ * as a whole, so readers need no locking. Pages use the same cursors as {@link Page}.
+ * Products are kept in a {@link ProductTable}, either as objects on the heap or encoded off-heap.
+ * Names are sorted and matched folded by {@link #fold}, the way the database's default
+ * accent- and case-insensitive collation compares them, so that a cursor from either source
+ * continues at the same place in the other.
+ */
+public final class CatalogSnapshot {
+    private static final int[] NO_PRODUCTS = new int[0];
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final long version;
+    private final LocalDateTime productWatermark;
+    private final String categoryStamp;
+    private final long builtAtMillis;
+
+    private final ProductTable products;
+    private final Map<Integer, Category> categoriesById;
+    private final int[] activeNewestFirst;
+    private final int[] activeByName;
+    private final String[] foldedNames;
+    private final Map<Integer, int[]> subtreeByName;
+    private final List<Category> categoriesByName;
+    private final List<CategoryNode> tree;
+    private final Map<Integer, CategoryNode> nodesById;
+
+    /**
+     * Builds a snapshot and all of its sorted views. The views hold product IDs only, so a
+     * snapshot over an {@link OffHeapProductStore} keeps no product objects on the heap; only the
+     * folded names of the active products are kept, for the name search to scan.
+     *
+     * @param version The version number of the snapshot, increasing with every rebuild
+     * @param products Every product
+     * @param categories Every category
+     * @param productWatermark The latest product updated_at seen (null if there are no products)
+     * @param categoryStamp The category fingerprint the categories were loaded at
+     */
+    CatalogSnapshot(long version, ProductTable products, List<Category> categories,
+                    LocalDateTime productWatermark, String categoryStamp) {
+        this.version = version;
+        this.productWatermark = productWatermark;
+        this.categoryStamp = categoryStamp;
+        this.builtAtMillis = System.currentTimeMillis();
+        this.products = products;
+
+        Map<Integer, Category> categoryMap = new HashMap<>();
+        Map<Integer, CategoryNode> nodes = new HashMap<>();
+        List<Category> sortedCategories = new ArrayList<>(categories);
+        sortedCategories.sort(Comparator.comparing(Category::getName));
+        for (Category category : sortedCategories) {
+            categoryMap.put(category.getCategoryId(), category);
+            nodes.put(category.getCategoryId(), new CategoryNode(category));
+        }
+        List<CategoryNode> roots = new ArrayList<>();
+        for (Category category : sortedCategories) {
+            CategoryNode node = nodes.get(category.getCategoryId());
+            CategoryNode parent = category.getParentCategoryId() != null ? nodes.get(category.getParentCategoryId()) : null;
+            if (parent != null && !closesCycle(category.getCategoryId(), category.getParentCategoryId(), categoryMap)) {
+                parent.addChild(node);
+            } else {
+                roots.add(node);
+            }
+        }
+        this.categoriesById = Collections.unmodifiableMap(categoryMap);
+        this.categoriesByName = Collections.unmodifiableList(sortedCategories);
+        this.tree = Collections.unmodifiableList(roots);
+        this.nodesById = Collections.unmodifiableMap(nodes);
+
+        // Sort keys are only held while the views are built
+        List<SortKey> active = new ArrayList<>();
+        products.forEachRow((productId, name, createdAt, isActive, categoryIds) -> {
+            if (isActive) {
+                active.add(new SortKey(productId, fold(name), createdAt, categoryIds));
+            }
+        });
+        active.sort(SortKey.NEWEST_FIRST);
+        this.activeNewestFirst = SortKey.ids(active);
+        active.sort(SortKey.BY_NAME);
+        this.activeByName = SortKey.ids(active);
+        this.foldedNames = new String[active.size()];
+        for (int i = 0; i < foldedNames.length; i++) {
+            foldedNames[i] = active.get(i).name;
+        }
+
+        // Each active product is listed under every category it is filed in and all of their ancestors
+        Map<Integer, List<Integer>> subtrees = new HashMap<>();
+        for (SortKey key : active) {
+            Set<Integer> ancestors = new LinkedHashSet<>();
+            for (int categoryId : key.categoryIds) {
+                for (Integer id = categoryId; id != null && ancestors.add(id); ) {
+                    Category current = categoryMap.get(id);
+                    id = current != null ? current.getParentCategoryId() : null;
+                }
+            }
+            for (int categoryId : ancestors) {
+                subtrees.computeIfAbsent(categoryId, id -> new ArrayList<>()).add(key.productId);
+            }
+        }
+        Map<Integer, int[]> subtreeArrays = new HashMap<>();
+        subtrees.forEach((categoryId, ids) -> subtreeArrays.put(categoryId,
+                ids.stream().mapToInt(Integer::intValue).toArray()));
+        this.subtreeByName = Collections.unmodifiableMap(subtreeArrays);
+    }
+
+    // Getters
+    public long getVersion() { return version; }
+    public long getBuiltAtMillis() { return builtAtMillis; }
+    LocalDateTime getProductWatermark() { return productWatermark; }
+    String getCategoryStamp() { return categoryStamp; }
+    ProductTable getProducts() { return products; }
+    Map<Integer, Category> getCategoriesById() { return categoriesById; }
+
+    /**
+     * Gets the number of products, active or not.
+     *
+     * @return The number of products
+     */
+    public int getProductCount() {
+        return products.size();
+    }
+
+    /**
+     * Gets the memory held by the products outside the Java heap.
+     *
+     * @return The number of bytes, 0 when products are kept on the heap
+     */
+    public long getOffHeapBytes() {
+        return products.getOffHeapBytes();
+    }
+
+    /**
+     * Finds a product by its ID, active or not.
+     *
+     * @param productId The ID of the product
+     * @return The product, or null if it does not exist
+     */
+    public Product findProductById(int productId) {
+        return products.get(productId);
+    }
+
+    /**
+     * Finds products by their IDs.
+     *
+     * @param productIds The IDs of the products to find
+     * @return The products found, in the order of the given IDs
+     */
+    public List<Product> findProductsByIds(List<Integer> productIds) {
+        List<Product> found = new ArrayList<>(productIds.size());
+        for (int productId : productIds) {
+            Product product = products.get(productId);
+            if (product != null) {
+                found.add(product);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds a page of active products, newest first.
+     *
+     * @see com.ecommerce.dao.ProductDAO#findAllActive(int, String)
+     */
+    public Page<Product> findAllActive(int limit, String after) {
+        int from = 0;
+        if (after != null) {
+            Page.Cursor cursor = Page.decodeCursor(after);
+            LocalDateTime createdAt;
+            try {
+                createdAt = LocalDateTime.parse(cursor.getSortKey());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor timestamp: " + cursor.getSortKey(), e);
+            }
+            SortKey position = new SortKey(cursor.getId(), null, createdAt, null);
+            from = seek(activeNewestFirst, productId -> SortKey.NEWEST_FIRST.compare(
+                    new SortKey(productId, null, products.getCreatedAt(productId), null), position));
+        }
+        return page(activeNewestFirst, from, limit, position -> true, product -> product.getCreatedAt().toString());
+    }
+
+    /**
+     * Finds a page of active products whose name contains the given text, ignoring case and
+     * accents.
+     *
+     * @see com.ecommerce.dao.ProductDAO#findByName(String, int, String)
+     */
+    public Page<Product> findByName(String name, int limit, String after) {
+        String needle = fold(name);
+        return pageByName(activeByName, limit, after, position -> foldedNames[position].contains(needle));
+    }
+
+    /**
+     * Finds a page of active products filed under a category or any of its descendants.
+     *
+     * @see com.ecommerce.dao.ProductDAO#findByCategorySubtree(int, int, String)
+     */
+    public Page<Product> findByCategorySubtree(int categoryId, int limit, String after) {
+        return pageByName(subtreeByName.getOrDefault(categoryId, NO_PRODUCTS), limit, after, position -> true);
+    }
+
+    /**
+     * Gets all categories, sorted by name.
+     *
+     * @return The categories
+     */
+    public List<Category> findAllCategories() {
+        return categoriesByName;
+    }
+
+    /**
+     * Finds a category by its ID.
+     *
+     * @param categoryId The ID of the category
+     * @return The category, or null if it does not exist
+     */
+    public Category findCategoryById(int categoryId) {
+        return categoriesById.get(categoryId);
+    }
+
+    /**
+     * Gets the whole category hierarchy.
+     *
+     * @return The top-level categories with their subcategories nested below them
+     */
+    public List<CategoryNode> findCategoryTree() {
+        return tree;
+    }
+
+    /**
+     * Gets the hierarchy below a category.
+     *
+     * @param categoryId The ID of the category
+     * @return The node of the category, or null if it does not exist
+     */
+    public CategoryNode findCategorySubtree(int categoryId) {
+        return nodesById.get(categoryId);
+    }
+
+    /**
+     * Gets the breadcrumb trail of a category.
+     *
+     * @param categoryId The ID of the category
+     * @return The ancestors from the top-level category down to the category itself, or an empty
+     *         list if the category does not exist
+     */
+    public List<Category> findCategoryAncestors(int categoryId) {
+        List<Category> ancestors = new ArrayList<>();
+        Set<Integer> visited = new LinkedHashSet<>();
+        for (Integer id = categoryId; id != null && visited.add(id); ) {
+            Category category = categoriesById.get(id);
+            if (category == null) {
+                break;
+            }
+            ancestors.add(category);
+            id = category.getParentCategoryId();
+        }
+        Collections.reverse(ancestors);
+        return ancestors;
+    }
+
+    private Page<Product> pageByName(int[] sorted, int limit, String after, IntPredicate filter) {
+        int from = 0;
+        if (after != null) {
+            Page.Cursor cursor = Page.decodeCursor(after);
+            SortKey position = new SortKey(cursor.getId(), fold(cursor.getSortKey()), null, null);
+            from = seek(sorted, productId -> SortKey.BY_NAME.compare(
+                    new SortKey(productId, fold(products.getName(productId)), null, null), position));
+        }
+        return page(sorted, from, limit, filter, Product::getName);
+    }
+
+    /**
+     * Finds the index of the first product ordered after the cursor position.
+     *
+     * @param compareToPosition Compares a product ID from the view to the cursor position
+     */
+    private int seek(int[] sorted, IntUnaryOperator compareToPosition) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareToPosition.applyAsInt(sorted[middle]) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Builds a page from a sorted view.
+     *
+     * @param filter Tests a position in the view
+     */
+    private Page<Product> page(int[] sorted, int from, int limit, IntPredicate filter,
+                               Function<Product, String> sortKey) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+        List<Product> items = new ArrayList<>(Math.min(limit, sorted.length));
+        for (int i = from; i < sorted.length; i++) {
+            if (!filter.test(i)) {
+                continue;
+            }
+            if (items.size() == limit) {
+                Product last = items.get(limit - 1);
+                return new Page<>(items, Page.encodeCursor(last.getProductId(), sortKey.apply(last)));
+            }
+            items.add(products.get(sorted[i]));
+        }
+        return new Page<>(items, null);
+    }
+
+    /**
+     * Folds a name for comparison the way MySQL's default collation (utf8mb4_0900_ai_ci) compares
+     * it at its primary strength: accents are stripped and letters lower-cased. Names that are
+     * already lower-case ASCII are returned as they are.
+     *
+     * @param name The name
+     * @return The folded name
+     */
+    static String fold(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c >= 0x80 || (c >= 'A' && c <= 'Z')) {
+                String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+                return stripped.toLowerCase(Locale.ROOT);
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Checks whether attaching a category below the given parent would close a cycle.
+     */
+    private static boolean closesCycle(int categoryId, Integer parentId, Map<Integer, Category> categories) {
+        Set<Integer> visited = new LinkedHashSet<>();
+        for (Integer id = parentId; id != null && visited.add(id); ) {
+            if (id == categoryId) {
+                return true;
+            }
+            Category parent = categories.get(id);
+            id = parent != null ? parent.getParentCategoryId() : null;
+        }
+        return false;
+    }
+
+    /**
+     * The fields the product views are sorted and grouped by; the name is folded.
+     */
+    private static final class SortKey {
+        private static final Comparator<SortKey> NEWEST_FIRST = (a, b) -> {
+            int order = Long.compare(b.createdSeconds, a.createdSeconds);
+            order = order != 0 ? order : Integer.compare(b.createdNanos, a.createdNanos);
+            return order != 0 ? order : Integer.compare(b.productId, a.productId);
+        };
+        private static final Comparator<SortKey> BY_NAME = (a, b) -> {
+            int order = a.name.compareTo(b.name);
+            return order != 0 ? order : Integer.compare(a.productId, b.productId);
+        };
+
+        private final int productId;
+        private final String name;
+        // Primitive creation time, which sorts much faster than LocalDateTime
+        private final long createdSeconds;
+        private final int createdNanos;
+        private final int[] categoryIds;
+
+        private SortKey(int productId, String name, LocalDateTime createdAt, int[] categoryIds) {
+            this.productId = productId;
+            this.name = name;
+            this.categoryIds = categoryIds;
+            this.createdSeconds = createdAt != null ? createdAt.toEpochSecond(ZoneOffset.UTC) : 0;
+            this.createdNanos = createdAt != null ? createdAt.getNano() : 0;
+        }
+
+        private static int[] ids(List<SortKey> keys) {
+            int[] ids = new int[keys.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = keys.get(i).productId;
+            }
+            return ids;
+        }
+    }
+}
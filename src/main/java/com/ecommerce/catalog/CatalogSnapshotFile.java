@@ -0,0 +1,238 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads and writes catalog snapshots as versioned binary files, so that a restarted instance
+ * can serve the last exported catalog and only fetch what changed since.
+ * Products are stored as the rows of an {@link OffHeapProductStore}, one block per chunk, and
+ * are read back through {@link FileChannel#map}: the mapped blocks are used in place as the
+ * chunks of the restored table, so nothing is decoded until it is read. A CRC-32C over
+ * everything after the header rejects truncated or damaged files.
+ *
+ * Layout: a header (int magic, int format version, long checksum, int metadata length), the
+ * metadata (long snapshot version, product watermark, category stamp, categories), then blocks
+ * of rows, each preceded by its int length. Numbers are big-endian.
+ */
+final class CatalogSnapshotFile {
+    private static final int MAGIC = 0x43415453; // "CATS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private CatalogSnapshotFile() {
+    }
+
+    /**
+     * Writes a snapshot to a file. The file is written under a temporary name and moved into
+     * place, so readers never see a partly written file.
+     *
+     * @param snapshot The snapshot to write
+     * @param file The file to write
+     * @throws IOException if the file cannot be written
+     */
+    static void write(CatalogSnapshot snapshot, Path file) throws IOException {
+        ProductTable products = snapshot.getProducts();
+        OffHeapProductStore store = products instanceof OffHeapProductStore
+                ? (OffHeapProductStore) products
+                : OffHeapProductStore.build(allProducts(products), snapshot.getCategoriesById());
+        byte[] metadata = encodeMetadata(snapshot);
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            CRC32C checksum = new CRC32C();
+            long position = HEADER_SIZE;
+            checksum.update(metadata);
+            position += writeFully(channel, ByteBuffer.wrap(metadata), position);
+            for (ByteBuffer block : store.getChunks()) {
+                ByteBuffer length = ByteBuffer.allocate(4).putInt(0, block.remaining());
+                checksum.update(length.duplicate());
+                position += writeFully(channel, length, position);
+                checksum.update(block.duplicate());
+                position += writeFully(channel, block, position);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC).putInt(FORMAT_VERSION).putLong(checksum.getValue()).putInt(metadata.length)
+                    .flip();
+            writeFully(channel, header, 0);
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot from a file.
+     *
+     * @param file The file to read
+     * @param offHeap Whether to keep the products off-heap, in the mapped file, or decode them
+     *                onto the heap
+     * @param minimumVersion The lowest version number to give the snapshot, so that versions
+     *                       keep increasing when a file older than the current snapshot is read
+     * @return The snapshot
+     * @throws IOException if the file cannot be read, is not a snapshot file of this format, or is damaged
+     */
+    static CatalogSnapshot read(Path file, boolean offHeap, long minimumVersion) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = readFully(channel, HEADER_SIZE, 0, size);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a catalog snapshot file: " + file);
+            }
+            int format = header.getInt();
+            if (format != FORMAT_VERSION) {
+                throw new IOException("Unsupported catalog snapshot format " + format + ": " + file);
+            }
+            long expectedChecksum = header.getLong();
+            int metadataLength = header.getInt();
+
+            CRC32C checksum = new CRC32C();
+            ByteBuffer metadata = readFully(channel, metadataLength, HEADER_SIZE, size);
+            checksum.update(metadata.duplicate());
+            List<ByteBuffer> blocks = new ArrayList<>();
+            for (long position = HEADER_SIZE + (long) metadataLength; position < size; ) {
+                ByteBuffer length = readFully(channel, 4, position, size);
+                checksum.update(length.duplicate());
+                int blockLength = length.getInt();
+                if (blockLength < 0 || position + 4 + blockLength > size) {
+                    throw new EOFException("Truncated catalog snapshot file: " + file);
+                }
+                ByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, position + 4, blockLength);
+                checksum.update(block.duplicate());
+                blocks.add(block);
+                position += 4 + blockLength;
+            }
+            if (checksum.getValue() != expectedChecksum) {
+                throw new IOException("Damaged catalog snapshot file: " + file);
+            }
+            return decode(metadata, blocks, offHeap, minimumVersion);
+        }
+    }
+
+    private static byte[] encodeMetadata(CatalogSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(snapshot.getVersion());
+        writeTimestamp(out, snapshot.getProductWatermark());
+        writeString(out, snapshot.getCategoryStamp());
+        out.writeInt(snapshot.getCategoriesById().size());
+        for (Category category : snapshot.getCategoriesById().values()) {
+            out.writeInt(category.getCategoryId());
+            writeString(out, category.getName());
+            writeString(out, category.getDescription());
+            out.writeInt(category.getParentCategoryId() != null ? category.getParentCategoryId() : 0);
+            writeTimestamp(out, category.getCreatedAt());
+            writeTimestamp(out, category.getUpdatedAt());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static CatalogSnapshot decode(ByteBuffer metadata, List<ByteBuffer> blocks, boolean offHeap,
+                                          long minimumVersion) {
+        long version = Math.max(metadata.getLong(), minimumVersion);
+        LocalDateTime productWatermark = readTimestamp(metadata);
+        String categoryStamp = readString(metadata);
+        int categoryCount = metadata.getInt();
+        List<Category> categories = new ArrayList<>(categoryCount);
+        Map<Integer, Category> categoriesById = new HashMap<>();
+        for (int i = 0; i < categoryCount; i++) {
+            int categoryId = metadata.getInt();
+            String name = readString(metadata);
+            String description = readString(metadata);
+            int parentId = metadata.getInt();
+            Category category = new Category(categoryId, name, description, parentId != 0 ? parentId : null,
+                                             readTimestamp(metadata), readTimestamp(metadata));
+            categories.add(category);
+            categoriesById.put(categoryId, category);
+        }
+
+        OffHeapProductStore store = OffHeapProductStore.fromChunks(blocks, categoriesById);
+        ProductTable products = offHeap ? store : new HeapProductTable(store.toProducts());
+        return new CatalogSnapshot(version, products, categories, productWatermark, categoryStamp);
+    }
+
+    private static List<Product> allProducts(ProductTable table) {
+        List<Product> products = new ArrayList<>(table.size());
+        for (int productId : table.getIds()) {
+            products.add(table.get(productId));
+        }
+        return products;
+    }
+
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime timestamp) throws IOException {
+        out.writeLong(timestamp != null ? timestamp.toEpochSecond(ZoneOffset.UTC) : NO_TIMESTAMP);
+        out.writeInt(timestamp != null ? timestamp.getNano() : 0);
+    }
+
+    private static LocalDateTime readTimestamp(ByteBuffer in) {
+        long seconds = in.getLong();
+        int nanos = in.getInt();
+        return seconds != NO_TIMESTAMP ? LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC) : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, int length, long position, long size) throws IOException {
+        if (length < 0 || position + length > size) {
+            throw new EOFException("Truncated catalog snapshot file");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Truncated catalog snapshot file");
+            }
+        }
+        return buffer.flip();
+    }
+}
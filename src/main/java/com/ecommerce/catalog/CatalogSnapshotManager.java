@@ -0,0 +1,426 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.config.DatabaseConfig;
+import com.ecommerce.dao.CategoryDAO;
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+import com.ecommerce.util.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps an in-memory {@link CatalogSnapshot} current by polling the database for changes.
+ * Each poll reads the products whose updated_at is past the snapshot's watermark (minus a
+ * configurable lookback for rows committed late), compares the product count to detect deletions,
+ * and reloads everything when the categories fingerprint changes. Since a row committed later than
+ * the lookback, or a deletion offset by an insertion, slips past the delta, everything is also
+ * reloaded periodically. When something changed, a new snapshot is built and published with a
+ * single volatile write, so readers never lock and never see a half-applied refresh. Snapshots can be exported to a {@link CatalogSnapshotFile} and
+ * restored from it, so that a restarted instance serves from memory within seconds.
+ * This class follows the Singleton pattern so that all controllers share one snapshot.
+ */
+public class CatalogSnapshotManager {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotManager.class);
+    private static CatalogSnapshotManager instance;
+
+    private final ProductDAO productDAO = new ProductDAO();
+    private final CategoryDAO categoryDAO = new CategoryDAO();
+    private final long refreshMillis;
+    private final long maxStalenessMillis;
+    private final boolean offHeap;
+    private final Path snapshotFile;
+    private final long exportMillis;
+    private final long lookbackSeconds;
+    private final long reconcileMillis;
+
+    private volatile CatalogSnapshot snapshot;
+    private volatile long lastRefreshMillis;
+    private volatile long exportedVersion;
+    private ScheduledExecutorService poller;
+
+    private CatalogSnapshotManager() {
+        DatabaseConfig config = DatabaseConfig.getInstance();
+        this.refreshMillis = config.getCatalogRefreshMillis();
+        this.maxStalenessMillis = config.getCatalogMaxStalenessMillis();
+        this.offHeap = config.isCatalogOffHeap();
+        this.snapshotFile = config.getCatalogSnapshotFile().isEmpty() ? null : Paths.get(config.getCatalogSnapshotFile());
+        this.exportMillis = config.getCatalogExportMillis();
+        this.lookbackSeconds = config.getCatalogLookbackSeconds();
+        this.reconcileMillis = config.getCatalogReconcileMillis();
+    }
+
+    /**
+     * Gets the singleton instance of CatalogSnapshotManager.
+     *
+     * @return The singleton instance
+     */
+    public static synchronized CatalogSnapshotManager getInstance() {
+        if (instance == null) {
+            instance = new CatalogSnapshotManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the first snapshot and starts polling for changes in the background, with a periodic
+     * full reload. When a snapshot file is configured, the first snapshot is restored from it if
+     * possible, and the current snapshot is exported to it periodically.
+     */
+    public synchronized void start() {
+        if (poller != null) {
+            return;
+        }
+        if (snapshotFile == null || !restore(snapshotFile)) {
+            refresh();
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollSafely, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        logger.info("Catalog snapshot polling every {} ms", refreshMillis);
+        if (reconcileMillis > 0) {
+            poller.scheduleWithFixedDelay(this::reconcileSafely, reconcileMillis, reconcileMillis, TimeUnit.MILLISECONDS);
+            logger.info("Catalog snapshot reloaded in full every {} ms", reconcileMillis);
+        }
+        if (snapshotFile != null) {
+            poller.scheduleWithFixedDelay(this::exportSafely, exportMillis, exportMillis, TimeUnit.MILLISECONDS);
+            logger.info("Catalog snapshot exported to {} every {} ms", snapshotFile, exportMillis);
+        }
+    }
+
+    /**
+     * Stops polling. The last snapshot stays available until it exceeds the staleness bound.
+     */
+    public synchronized void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    /**
+     * Gets the current snapshot for serving reads.
+     *
+     * @return The snapshot, or null if none has been loaded or the last successful refresh is
+     *         older than the configured staleness bound, in which case callers read the database
+     */
+    public CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot;
+        if (current == null || System.currentTimeMillis() - lastRefreshMillis > maxStalenessMillis) {
+            return null;
+        }
+        return current;
+    }
+
+    /**
+     * Schedules an immediate poll, so that writes made through this instance show up without
+     * waiting for the next polling interval.
+     */
+    public void requestRefresh() {
+        ScheduledExecutorService current = poller;
+        if (current != null) {
+            current.execute(this::pollSafely);
+        }
+    }
+
+    /**
+     * Writes the current snapshot to a file, replacing it atomically.
+     *
+     * @param file The file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void export(Path file) throws IOException {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        CatalogSnapshotFile.write(current, file);
+        exportedVersion = current.getVersion();
+        logger.info("Exported catalog snapshot v{} to {} in {} ms", current.getVersion(), file,
+                   System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Publishes the snapshot exported to a file, then catches up with the database through the
+     * usual delta poll. The file is only used if its categories match the database and its
+     * product watermark is not ahead of the database; the catch-up poll then re-reads the
+     * products updated since the watermark and reconciles the product IDs if the counts differ.
+     *
+     * @param file The file to read
+     * @return true if the snapshot was restored; false if the file is missing, unreadable or
+     *         does not match the database, in which case the current snapshot is unchanged
+     */
+    public synchronized boolean restore(Path file) {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        CatalogSnapshot restored;
+        try {
+            restored = CatalogSnapshotFile.read(file, offHeap, snapshot != null ? snapshot.getVersion() + 1 : 1);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring catalog snapshot file {}: {}", file, e.getMessage());
+            return false;
+        }
+        if (!Objects.equals(TransactionTemplate.readFromPrimary(categoryDAO::findVersionStamp), restored.getCategoryStamp())) {
+            logger.info("Ignoring catalog snapshot file {}: categories changed since it was written", file);
+            return false;
+        }
+        LocalDateTime latestUpdate = TransactionTemplate.readFromPrimary(productDAO::findLatestUpdate);
+        if (restored.getProductWatermark() != null
+                && (latestUpdate == null || restored.getProductWatermark().isAfter(latestUpdate))) {
+            logger.warn("Ignoring catalog snapshot file {}: it is ahead of the database", file);
+            return false;
+        }
+
+        long loaded = System.currentTimeMillis();
+        snapshot = restored;
+        lastRefreshMillis = loaded;
+        exportedVersion = restored.getVersion();
+        refresh();
+        logger.info("Restored catalog snapshot v{} with {} products from {} in {} ms, caught up in {} ms",
+                   restored.getVersion(), restored.getProductCount(), file, loaded - start,
+                   System.currentTimeMillis() - loaded);
+        return true;
+    }
+
+    /**
+     * Polls the database once and publishes a new snapshot if the catalog changed.
+     */
+    public synchronized void refresh() {
+        // Read from the primary: the watermark would move past rows a lagging replica has not applied yet
+        TransactionTemplate.readFromPrimary(() -> {
+            refreshFromDatabase(false);
+            return null;
+        });
+    }
+
+    /**
+     * Reloads the whole catalog from the database and publishes it as a new snapshot, picking up
+     * any change the delta polls missed.
+     */
+    public synchronized void reconcile() {
+        TransactionTemplate.readFromPrimary(() -> {
+            refreshFromDatabase(true);
+            return null;
+        });
+    }
+
+    private void refreshFromDatabase(boolean reload) {
+        long start = System.currentTimeMillis();
+        CatalogSnapshot old = snapshot;
+        String categoryStamp = categoryDAO.findVersionStamp();
+        CatalogSnapshot next;
+        if (old == null || reload || !Objects.equals(categoryStamp, old.getCategoryStamp())) {
+            // Products embed their categories, so a category change reloads everything
+            next = fullLoad(old, categoryStamp);
+        } else {
+            next = applyDelta(old);
+        }
+
+        lastRefreshMillis = System.currentTimeMillis();
+        if (next != old) {
+            snapshot = next;
+            logger.info("Published catalog snapshot v{} with {} products and {} categories in {} ms",
+                       next.getVersion(), next.getProductCount(), next.findAllCategories().size(),
+                       lastRefreshMillis - start);
+        }
+    }
+
+    /**
+     * Builds a snapshot of the memory held by the catalog, next to the heap usage and garbage
+     * collection totals of the JVM, so that the on-heap and off-heap product storage can be compared.
+     *
+     * @return The statistics snapshot
+     */
+    public Map<String, Object> metrics() {
+        CatalogSnapshot current = snapshot;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("storage", offHeap ? "off-heap" : "heap");
+        metrics.put("version", current != null ? current.getVersion() : 0);
+        metrics.put("products", current != null ? current.getProductCount() : 0);
+        metrics.put("offHeapBytes", current != null ? current.getOffHeapBytes() : 0);
+        metrics.put("heapUsedBytes", ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        long collections = 0;
+        long collectionMillis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += Math.max(collector.getCollectionCount(), 0);
+            collectionMillis += Math.max(collector.getCollectionTime(), 0);
+        }
+        metrics.put("gcCollections", collections);
+        metrics.put("gcTimeMillis", collectionMillis);
+        return metrics;
+    }
+
+    /**
+     * Renders {@link #metrics()} in the Prometheus text exposition format.
+     *
+     * @return The metrics text
+     */
+    public String toPrometheus() {
+        Map<String, Object> metrics = metrics();
+        String storage = "{storage=\"" + metrics.get("storage") + "\"} ";
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP catalog_products Products in the catalog snapshot.\n");
+        out.append("# TYPE catalog_products gauge\n");
+        out.append("catalog_products").append(storage).append(metrics.get("products")).append('\n');
+        out.append("# HELP catalog_offheap_bytes Direct memory held by the catalog snapshot.\n");
+        out.append("# TYPE catalog_offheap_bytes gauge\n");
+        out.append("catalog_offheap_bytes").append(storage).append(metrics.get("offHeapBytes")).append('\n');
+        out.append("# HELP jvm_heap_used_bytes Java heap in use.\n");
+        out.append("# TYPE jvm_heap_used_bytes gauge\n");
+        out.append("jvm_heap_used_bytes ").append(metrics.get("heapUsedBytes")).append('\n');
+        out.append("# HELP jvm_gc_collections_total Garbage collections since startup.\n");
+        out.append("# TYPE jvm_gc_collections_total counter\n");
+        out.append("jvm_gc_collections_total ").append(metrics.get("gcCollections")).append('\n');
+        out.append("# HELP jvm_gc_time_seconds_total Time spent in garbage collection since startup.\n");
+        out.append("# TYPE jvm_gc_time_seconds_total counter\n");
+        out.append("jvm_gc_time_seconds_total ").append((long) metrics.get("gcTimeMillis") / 1000.0).append('\n');
+        return out.toString();
+    }
+
+    private void pollSafely() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.error("Error refreshing catalog snapshot", e);
+        }
+    }
+
+    private void reconcileSafely() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            logger.error("Error reloading catalog snapshot", e);
+        }
+    }
+
+    private void exportSafely() {
+        CatalogSnapshot current = snapshot;
+        if (current == null || current.getVersion() == exportedVersion) {
+            return;
+        }
+        try {
+            export(snapshotFile);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error exporting catalog snapshot to {}", snapshotFile, e);
+        }
+    }
+
+    private CatalogSnapshot fullLoad(CatalogSnapshot old, String categoryStamp) {
+        List<Category> categories = categoryDAO.findAll();
+        List<Product> products = productDAO.findModifiedSince(null);
+        ProductTable table;
+        if (offHeap) {
+            Map<Integer, Category> categoriesById = new HashMap<>();
+            categories.forEach(category -> categoriesById.put(category.getCategoryId(), category));
+            table = OffHeapProductStore.build(products, categoriesById);
+        } else {
+            table = new HeapProductTable(products);
+        }
+        return new CatalogSnapshot(old != null ? old.getVersion() + 1 : 1, table, categories,
+                                   latestUpdate(products, null), categoryStamp);
+    }
+
+    private CatalogSnapshot applyDelta(CatalogSnapshot old) {
+        ProductTable current = old.getProducts();
+        LocalDateTime since = old.getProductWatermark() != null
+                ? old.getProductWatermark().minusSeconds(lookbackSeconds) : null;
+
+        Map<Integer, Product> changed = new LinkedHashMap<>();
+        for (Product product : productDAO.findModifiedSince(since)) {
+            if (!sameRow(current.get(product.getProductId()), product)) {
+                changed.put(product.getProductId(), product);
+            }
+        }
+
+        Set<Integer> deleted = new HashSet<>();
+        int expected = current.size();
+        for (int productId : changed.keySet()) {
+            if (!current.contains(productId)) {
+                expected++;
+            }
+        }
+        if (expected != productDAO.count()) {
+            // Deleted rows leave no updated_at behind, and rows committed long after their
+            // timestamp can slip past the watermark: reconcile the full ID list
+            Set<Integer> ids = new HashSet<>(productDAO.findAllIds());
+            for (int productId : current.getIds()) {
+                if (!ids.contains(productId)) {
+                    deleted.add(productId);
+                }
+            }
+            List<Integer> missing = new ArrayList<>();
+            for (int productId : ids) {
+                if (!current.contains(productId) && !changed.containsKey(productId)) {
+                    missing.add(productId);
+                }
+            }
+            for (Product product : productDAO.findByIds(missing)) {
+                changed.put(product.getProductId(), product);
+            }
+        }
+
+        if (changed.isEmpty() && deleted.isEmpty()) {
+            return old;
+        }
+        return new CatalogSnapshot(old.getVersion() + 1, current.withChanges(changed.values(), deleted),
+                                   new ArrayList<>(old.getCategoriesById().values()),
+                                   latestUpdate(changed.values(), old.getProductWatermark()), old.getCategoryStamp());
+    }
+
+    private LocalDateTime latestUpdate(Iterable<Product> products, LocalDateTime watermark) {
+        for (Product product : products) {
+            if (watermark == null || product.getUpdatedAt().isAfter(watermark)) {
+                watermark = product.getUpdatedAt();
+            }
+        }
+        return watermark;
+    }
+
+    /**
+     * Checks whether a product re-read from the database is unchanged from the cached copy.
+     */
+    private boolean sameRow(Product cached, Product loaded) {
+        if (cached == null) {
+            return false;
+        }
+        List<Integer> cachedCategories = new ArrayList<>();
+        cached.getCategories().forEach(category -> cachedCategories.add(category.getCategoryId()));
+        List<Integer> loadedCategories = new ArrayList<>();
+        loaded.getCategories().forEach(category -> loadedCategories.add(category.getCategoryId()));
+        return cached.getUpdatedAt().equals(loaded.getUpdatedAt())
+                && cached.isActive() == loaded.isActive()
+                && Objects.equals(cached.getName(), loaded.getName())
+                && Objects.equals(cached.getDescription(), loaded.getDescription())
+                && Objects.equals(cached.getPrice(), loaded.getPrice())
+                && Objects.equals(cached.getSku(), loaded.getSku())
+                && Objects.equals(cached.getWeight(), loaded.getWeight())
+                && Objects.equals(cached.getDimensions(), loaded.getDimensions())
+                && Objects.equals(cached.getBrand(), loaded.getBrand())
+                && new HashSet<>(cachedCategories).equals(new HashSet<>(loadedCategories));
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A product table holding {@link Product} objects in a hash map on the Java heap.
+ */
+final class HeapProductTable implements ProductTable {
+    private final Map<Integer, Product> productsById;
+
+    /**
+     * Builds a table of products.
+     *
+     * @param products The products; the collection is copied
+     */
+    HeapProductTable(Collection<Product> products) {
+        this.productsById = new HashMap<>();
+        for (Product product : products) {
+            productsById.put(product.getProductId(), product);
+        }
+    }
+
+    private HeapProductTable(Map<Integer, Product> productsById) {
+        this.productsById = productsById;
+    }
+
+    @Override
+    public int size() {
+        return productsById.size();
+    }
+
+    @Override
+    public boolean contains(int productId) {
+        return productsById.containsKey(productId);
+    }
+
+    @Override
+    public Product get(int productId) {
+        return productsById.get(productId);
+    }
+
+    @Override
+    public int[] getIds() {
+        return productsById.keySet().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public String getName(int productId) {
+        return productsById.get(productId).getName();
+    }
+
+    @Override
+    public LocalDateTime getCreatedAt(int productId) {
+        return productsById.get(productId).getCreatedAt();
+    }
+
+    @Override
+    public void forEachRow(RowVisitor visitor) {
+        for (Product product : productsById.values()) {
+            visitor.visit(product.getProductId(), product.getName(), product.getCreatedAt(), product.isActive(),
+                          categoryIds(product));
+        }
+    }
+
+    @Override
+    public long getOffHeapBytes() {
+        return 0;
+    }
+
+    private static int[] categoryIds(Product product) {
+        List<Category> categories = product.getCategories();
+        int[] categoryIds = new int[categories.size()];
+        for (int i = 0; i < categoryIds.length; i++) {
+            categoryIds[i] = categories.get(i).getCategoryId();
+        }
+        return categoryIds;
+    }
+
+    @Override
+    public ProductTable withChanges(Collection<Product> changed, Set<Integer> deleted) {
+        Map<Integer, Product> products = new HashMap<>(productsById);
+        for (Product product : changed) {
+            products.put(product.getProductId(), product);
+        }
+        products.keySet().removeAll(deleted);
+        return new HeapProductTable(products);
+    }
+}
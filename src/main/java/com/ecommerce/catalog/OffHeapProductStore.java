@@ -0,0 +1,711 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A product table that keeps its rows in direct byte buffers outside the Java heap.
+ * Each product is encoded once into a compact binary row, and rows are found through an
+ * open-addressing hash index (linear probing, at most half full) that also lives off-heap, so a
+ * table of a million products is a handful of buffer objects to the garbage collector instead of
+ * tens of millions of objects. Fields are decoded on access: the snapshot's sorting and filtering
+ * read single fields, and a {@link Product} is only built for products that are actually returned.
+ * Tables are immutable and safe to read from any number of threads.
+ *
+ * A changed table shares the buffers of the table it was made from: changed rows are appended
+ * after the existing ones, and a small on-heap overlay of the index points at them and tombstones
+ * deleted products, so applying a delta costs memory in proportion to the delta rather than to the
+ * catalog. The rows left behind are garbage; once they make up a quarter of the row bytes, or the
+ * overlay grows past a sixteenth of the products, the table is compacted into fresh buffers. The
+ * memory of buffers no table uses any more is released when they are garbage collected.
+ */
+public final class OffHeapProductStore implements ProductTable {
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
+    private static final int ESTIMATED_ROW_SIZE = 256;
+    private static final int MIN_OVERLAY_LIMIT = 4096;
+    private static final long DELETED = -1;
+    private static final long MISSING = Long.MIN_VALUE;
+    private static final byte NULL_SCALE = Byte.MIN_VALUE;
+    private static final byte ACTIVE = 1;
+
+    // Row layout: fixed-size fields at fixed offsets, then the variable-size fields in order
+    private static final int ROW_LENGTH = 0;    // int, length of the whole row
+    private static final int PRODUCT_ID = 4;    // int
+    private static final int FLAGS = 8;         // byte, ACTIVE bit
+    private static final int CREATED_AT = 9;    // long epoch second (UTC), int nanosecond
+    private static final int UPDATED_AT = 21;   // long epoch second (UTC), int nanosecond
+    private static final int PRICE = 33;        // byte scale (NULL_SCALE if null), long unscaled value
+    private static final int WEIGHT = 42;       // byte scale (NULL_SCALE if null), long unscaled value
+    private static final int STRINGS = 51;      // per string: int UTF-8 length (-1 if null), bytes
+    private static final int NAME = 0;
+    private static final int SKU = 1;
+    private static final int BRAND = 2;
+    private static final int DIMENSIONS = 3;
+    private static final int DESCRIPTION = 4;
+    private static final int STRING_COUNT = 5;  // followed by short category count, int category IDs
+
+    // Index slot layout: int product ID (0 if empty), long row address (chunk << 32 | offset)
+    private static final int SLOT_SIZE = 12;
+
+    private final ByteBuffer[] chunks;
+    private final int[] chunkLengths;
+    private final ByteBuffer index;
+    private final int mask;
+    private final Overlay overlay;
+    private final ByteBuffer tail;
+    private final int size;
+    private final long usedBytes;
+    private final long garbageBytes;
+    private final Map<Integer, Category> categoriesById;
+
+    private OffHeapProductStore(ByteBuffer[] chunks, int[] chunkLengths, ByteBuffer index, Overlay overlay,
+                                ByteBuffer tail, int size, long usedBytes, long garbageBytes,
+                                Map<Integer, Category> categoriesById) {
+        this.chunks = chunks;
+        this.chunkLengths = chunkLengths;
+        this.index = index;
+        this.mask = index.capacity() / SLOT_SIZE - 1;
+        this.overlay = overlay;
+        this.tail = tail;
+        this.size = size;
+        this.usedBytes = usedBytes;
+        this.garbageBytes = garbageBytes;
+        this.categoriesById = categoriesById;
+    }
+
+    /**
+     * Builds a table of products.
+     *
+     * @param products The products; IDs must be positive
+     * @param categoriesById Every category keyed by ID, used to resolve the categories of the
+     *                       products built from the table; the map is not copied
+     * @return The table
+     * @throws IllegalArgumentException if a product has a non-positive ID or a price or weight
+     *                                  too precise for the row layout
+     */
+    public static OffHeapProductStore build(Collection<Product> products, Map<Integer, Category> categoriesById) {
+        Builder builder = new Builder((long) products.size() * ESTIMATED_ROW_SIZE);
+        for (Product product : products) {
+            builder.add(product);
+        }
+        return builder.build(categoriesById);
+    }
+
+    /**
+     * Builds a table over rows that were encoded by another table, such as rows read back from
+     * a {@link CatalogSnapshotFile}. The buffers are used in place, not copied.
+     *
+     * @param chunks Buffers holding whole rows from position 0 to their limit
+     * @param categoriesById Every category keyed by ID; the map is not copied
+     * @return The table
+     * @throws IllegalArgumentException if a buffer does not hold whole, well-formed rows
+     */
+    static OffHeapProductStore fromChunks(List<ByteBuffer> chunks, Map<Integer, Category> categoriesById) {
+        Builder builder = new Builder(0);
+        for (ByteBuffer chunk : chunks) {
+            builder.adopt(chunk);
+        }
+        return builder.build(categoriesById);
+    }
+
+    /**
+     * Gets the buffers holding the rows of this table, for writing them out as they are.
+     *
+     * Buffers that hold replaced or deleted rows are copied without them.
+     *
+     * @return Read-only buffers, each holding whole rows from position 0 to its limit
+     */
+    List<ByteBuffer> getChunks() {
+        List<ByteBuffer> views = new ArrayList<>(chunks.length);
+        for (int i = 0; i < chunks.length; i++) {
+            ByteBuffer view = chunks[i].asReadOnlyBuffer().position(0).limit(chunkLengths[i]);
+            views.add(garbageBytes > 0 ? liveRows(i, view) : view);
+        }
+        return views;
+    }
+
+    /**
+     * Copies the live rows of a buffer to the heap, or returns the view if every row is live.
+     */
+    private ByteBuffer liveRows(int chunk, ByteBuffer view) {
+        int liveBytes = 0;
+        for (int offset = 0; offset < chunkLengths[chunk]; offset += chunks[chunk].getInt(offset + ROW_LENGTH)) {
+            if (isLive(chunk, offset)) {
+                liveBytes += chunks[chunk].getInt(offset + ROW_LENGTH);
+            }
+        }
+        if (liveBytes == chunkLengths[chunk]) {
+            return view;
+        }
+        ByteBuffer copy = ByteBuffer.allocate(liveBytes);
+        for (int offset = 0; offset < chunkLengths[chunk]; offset += chunks[chunk].getInt(offset + ROW_LENGTH)) {
+            if (isLive(chunk, offset)) {
+                copy.put(copy.position(), chunks[chunk], offset, chunks[chunk].getInt(offset + ROW_LENGTH));
+                copy.position(copy.position() + chunks[chunk].getInt(offset + ROW_LENGTH));
+            }
+        }
+        return copy.flip().asReadOnlyBuffer();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int productId) {
+        return find(productId) >= 0;
+    }
+
+    @Override
+    public Product get(int productId) {
+        View view = view(productId);
+        return view != null ? view.toProduct() : null;
+    }
+
+    /**
+     * Gets a view of a product that decodes its fields when they are read.
+     *
+     * @param productId The ID of the product
+     * @return The view, or null if the product is not present
+     */
+    public View view(int productId) {
+        long address = find(productId);
+        return address >= 0 ? new View(chunks[(int) (address >>> 32)], (int) address) : null;
+    }
+
+    @Override
+    public int[] getIds() {
+        int[] ids = new int[size];
+        int count = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            int key = index.getInt(slot * SLOT_SIZE);
+            if (key != 0 && overlay.get(key) == MISSING) {
+                ids[count++] = key;
+            }
+        }
+        for (int slot = 0; slot < overlay.keys.length; slot++) {
+            if (overlay.keys[slot] != 0 && overlay.values[slot] != DELETED) {
+                ids[count++] = overlay.keys[slot];
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public String getName(int productId) {
+        return require(productId).getName();
+    }
+
+    @Override
+    public LocalDateTime getCreatedAt(int productId) {
+        return require(productId).getCreatedAt();
+    }
+
+    /**
+     * Checks whether a present product is active.
+     */
+    public boolean isActive(int productId) {
+        return require(productId).isActive();
+    }
+
+    /**
+     * Gets the IDs of the categories a present product is filed in.
+     */
+    public int[] getCategoryIds(int productId) {
+        return require(productId).getCategoryIds();
+    }
+
+    /**
+     * Decodes every product, reading the rows in storage order.
+     *
+     * @return The products
+     */
+    List<Product> toProducts() {
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < chunks.length; i++) {
+            for (int offset = 0; offset < chunkLengths[i]; offset += chunks[i].getInt(offset + ROW_LENGTH)) {
+                if (isLive(i, offset)) {
+                    products.add(new View(chunks[i], offset).toProduct());
+                }
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public void forEachRow(RowVisitor visitor) {
+        for (int i = 0; i < chunks.length; i++) {
+            for (int offset = 0; offset < chunkLengths[i]; offset += chunks[i].getInt(offset + ROW_LENGTH)) {
+                if (isLive(i, offset)) {
+                    View view = new View(chunks[i], offset);
+                    visitor.visit(view.getProductId(), view.getName(), view.getCreatedAt(), view.isActive(),
+                                  view.getCategoryIds());
+                }
+            }
+        }
+    }
+
+    @Override
+    public long getOffHeapBytes() {
+        long bytes = index.capacity();
+        for (ByteBuffer chunk : chunks) {
+            bytes += chunk.capacity();
+        }
+        return bytes;
+    }
+
+    @Override
+    public OffHeapProductStore withChanges(Collection<Product> changed, Set<Integer> deleted) {
+        Set<Integer> replaced = new HashSet<>(deleted);
+        for (Product product : changed) {
+            replaced.add(product.getProductId());
+        }
+        int newSize = size;
+        long newGarbage = garbageBytes;
+        for (int productId : replaced) {
+            long address = find(productId);
+            if (address >= 0) {
+                newSize--;
+                newGarbage += chunks[(int) (address >>> 32)].getInt((int) address + ROW_LENGTH);
+            }
+        }
+
+        Builder builder;
+        // Only the newest table built on the tail buffer may write past its end; an older table
+        // starts a new buffer instead, so it cannot overwrite rows a newer table points at
+        synchronized (tail != null ? tail : this) {
+            boolean ownsTail = tail != null && tail.position() == chunkLengths[chunks.length - 1];
+            builder = new Builder(chunks, chunkLengths, ownsTail ? tail : null,
+                                  (long) changed.size() * ESTIMATED_ROW_SIZE);
+            for (Product product : changed) {
+                if (!deleted.contains(product.getProductId())) {
+                    builder.add(product);
+                    newSize++;
+                }
+            }
+        }
+        int[] ids = Arrays.copyOf(builder.ids, builder.count + deleted.size());
+        long[] addresses = Arrays.copyOf(builder.addresses, ids.length);
+        int count = builder.count;
+        for (int productId : deleted) {
+            if (find(productId) >= 0) {
+                ids[count] = productId;
+                addresses[count++] = DELETED;
+            }
+        }
+        Overlay newOverlay = overlay.with(ids, addresses, count);
+
+        OffHeapProductStore result = new OffHeapProductStore(
+                builder.chunks.toArray(new ByteBuffer[0]), builder.lengths(), index, newOverlay, builder.current,
+                newSize, usedBytes + builder.usedBytes, newGarbage, categoriesById);
+        boolean compact = newGarbage > result.usedBytes / 4
+                || newOverlay.count > Math.max(MIN_OVERLAY_LIMIT, newSize / 16);
+        return compact ? result.compact() : result;
+    }
+
+    /**
+     * Copies the live rows into fresh buffers with a fresh index and no overlay.
+     */
+    private OffHeapProductStore compact() {
+        Builder builder = new Builder(usedBytes - garbageBytes);
+        for (int i = 0; i < chunks.length; i++) {
+            for (int offset = 0; offset < chunkLengths[i]; offset += chunks[i].getInt(offset + ROW_LENGTH)) {
+                if (isLive(i, offset)) {
+                    builder.copy(chunks[i], offset);
+                }
+            }
+        }
+        return builder.build(categoriesById);
+    }
+
+    private View require(int productId) {
+        View view = view(productId);
+        if (view == null) {
+            throw new IllegalArgumentException("Product not in table: " + productId);
+        }
+        return view;
+    }
+
+    /**
+     * Checks whether a stored row is the current row of its product rather than a replaced or
+     * deleted one.
+     */
+    private boolean isLive(int chunk, int offset) {
+        return garbageBytes == 0
+                || find(chunks[chunk].getInt(offset + PRODUCT_ID)) == ((long) chunk << 32 | offset);
+    }
+
+    /**
+     * Finds the row address of a product, or -1 if it is not present.
+     */
+    private long find(int productId) {
+        if (productId <= 0) {
+            return -1;
+        }
+        long changed = overlay.get(productId);
+        if (changed != MISSING) {
+            return changed;
+        }
+        for (int slot = hash(productId) & mask; ; slot = (slot + 1) & mask) {
+            int key = index.getInt(slot * SLOT_SIZE);
+            if (key == productId) {
+                return index.getLong(slot * SLOT_SIZE + 4);
+            }
+            if (key == 0) {
+                return -1;
+            }
+        }
+    }
+
+    private static int hash(int productId) {
+        int h = productId * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Row addresses of the products changed since the index was built, with {@link #DELETED}
+     * for deleted products. Open addressing on the heap like the index; copied on change, and
+     * kept small by compaction.
+     */
+    private static final class Overlay {
+        private static final Overlay EMPTY = new Overlay(new int[0], new long[0], 0);
+
+        private final int[] keys;
+        private final long[] values;
+        private final int count;
+
+        private Overlay(int[] keys, long[] values, int count) {
+            this.keys = keys;
+            this.values = values;
+            this.count = count;
+        }
+
+        private long get(int productId) {
+            if (count == 0) {
+                return MISSING;
+            }
+            int mask = keys.length - 1;
+            for (int slot = hash(productId) & mask; ; slot = (slot + 1) & mask) {
+                if (keys[slot] == productId) {
+                    return values[slot];
+                }
+                if (keys[slot] == 0) {
+                    return MISSING;
+                }
+            }
+        }
+
+        private Overlay with(int[] productIds, long[] addresses, int added) {
+            if (added == 0) {
+                return this;
+            }
+            int capacity = 16;
+            while (capacity < (count + added) * 2) {
+                capacity <<= 1;
+            }
+            Overlay overlay = new Overlay(new int[capacity], new long[capacity], 0);
+            int newCount = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != 0) {
+                    newCount += overlay.put(keys[slot], values[slot]);
+                }
+            }
+            for (int i = 0; i < added; i++) {
+                newCount += overlay.put(productIds[i], addresses[i]);
+            }
+            return new Overlay(overlay.keys, overlay.values, newCount);
+        }
+
+        /**
+         * Puts an entry into this overlay's arrays and returns 1 if the key is new, else 0.
+         */
+        private int put(int productId, long address) {
+            int mask = keys.length - 1;
+            int slot = hash(productId) & mask;
+            while (keys[slot] != 0 && keys[slot] != productId) {
+                slot = (slot + 1) & mask;
+            }
+            int added = keys[slot] == 0 ? 1 : 0;
+            keys[slot] = productId;
+            values[slot] = address;
+            return added;
+        }
+    }
+
+    /**
+     * A product row read in place. Every getter decodes its field from the buffer on each call,
+     * so a view is cheap to create but should not be kept in place of a {@link Product}.
+     */
+    public final class View {
+        private final ByteBuffer chunk;
+        private final int offset;
+
+        private View(ByteBuffer chunk, int offset) {
+            this.chunk = chunk;
+            this.offset = offset;
+        }
+
+        public int getProductId() { return chunk.getInt(offset + PRODUCT_ID); }
+        public boolean isActive() { return (chunk.get(offset + FLAGS) & ACTIVE) != 0; }
+        public LocalDateTime getCreatedAt() { return readTimestamp(CREATED_AT); }
+        public LocalDateTime getUpdatedAt() { return readTimestamp(UPDATED_AT); }
+        public BigDecimal getPrice() { return readDecimal(PRICE); }
+        public BigDecimal getWeight() { return readDecimal(WEIGHT); }
+        public String getName() { return readString(NAME); }
+        public String getSku() { return readString(SKU); }
+        public String getBrand() { return readString(BRAND); }
+        public String getDimensions() { return readString(DIMENSIONS); }
+        public String getDescription() { return readString(DESCRIPTION); }
+
+        /**
+         * Gets the IDs of the categories the product is filed in.
+         *
+         * @return The category IDs
+         */
+        public int[] getCategoryIds() {
+            int position = skipStrings(STRING_COUNT);
+            int[] categoryIds = new int[chunk.getShort(position)];
+            for (int i = 0; i < categoryIds.length; i++) {
+                categoryIds[i] = chunk.getInt(position + 2 + i * 4);
+            }
+            return categoryIds;
+        }
+
+        /**
+         * Decodes the whole row into a new product. Categories that are no longer known to
+         * the table are left out.
+         *
+         * @return The product
+         */
+        public Product toProduct() {
+            int[] categoryIds = getCategoryIds();
+            List<Category> categories = new ArrayList<>(categoryIds.length);
+            for (int categoryId : categoryIds) {
+                Category category = categoriesById.get(categoryId);
+                if (category != null) {
+                    categories.add(category);
+                }
+            }
+            return new Product(getProductId(), getName(), getDescription(), getPrice(), getSku(), getWeight(),
+                               getDimensions(), getBrand(), getCreatedAt(), getUpdatedAt(), isActive(), categories);
+        }
+
+        private LocalDateTime readTimestamp(int field) {
+            return LocalDateTime.ofEpochSecond(chunk.getLong(offset + field), chunk.getInt(offset + field + 8),
+                                               ZoneOffset.UTC);
+        }
+
+        private BigDecimal readDecimal(int field) {
+            byte scale = chunk.get(offset + field);
+            return scale == NULL_SCALE ? null : BigDecimal.valueOf(chunk.getLong(offset + field + 1), scale);
+        }
+
+        private String readString(int field) {
+            int position = skipStrings(field);
+            int length = chunk.getInt(position);
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            chunk.get(position + 4, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Gets the position of the variable-size field after the given number of strings.
+         */
+        private int skipStrings(int count) {
+            int position = offset + STRINGS;
+            for (int i = 0; i < count; i++) {
+                position += 4 + Math.max(chunk.getInt(position), 0);
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Encodes rows into direct buffers and indexes them.
+     */
+    private static final class Builder {
+        private final int chunkSize;
+        private final List<ByteBuffer> chunks = new ArrayList<>();
+        private final List<Integer> chunkLengths = new ArrayList<>();
+        private ByteBuffer current;
+        private ByteBuffer scratch = ByteBuffer.allocate(1024);
+        private int[] ids = new int[16];
+        private long[] addresses = new long[16];
+        private int count;
+        private long usedBytes;
+
+        private Builder(long expectedBytes) {
+            this.chunkSize = (int) Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, expectedBytes));
+        }
+
+        /**
+         * Creates a builder that appends after the rows of existing buffers without indexing them.
+         *
+         * @param tail The last buffer if rows may be appended to it, else null
+         */
+        private Builder(ByteBuffer[] chunks, int[] chunkLengths, ByteBuffer tail, long expectedBytes) {
+            this(expectedBytes);
+            for (int i = 0; i < chunks.length; i++) {
+                this.chunks.add(chunks[i]);
+                this.chunkLengths.add(chunkLengths[i]);
+            }
+            this.current = tail;
+        }
+
+        private int[] lengths() {
+            return chunkLengths.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private void add(Product product) {
+            if (product.getProductId() <= 0) {
+                throw new IllegalArgumentException("Product ID must be positive: " + product.getProductId());
+            }
+            byte[][] strings = {
+                encode(product.getName()), encode(product.getSku()), encode(product.getBrand()),
+                encode(product.getDimensions()), encode(product.getDescription())
+            };
+            List<Category> categories = product.getCategories();
+            if (categories.size() > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many categories for product " + product.getProductId());
+            }
+            int length = STRINGS + 2 + categories.size() * 4;
+            for (byte[] string : strings) {
+                length += 4 + (string != null ? string.length : 0);
+            }
+            if (scratch.capacity() < length) {
+                scratch = ByteBuffer.allocate(Math.max(length, scratch.capacity() * 2));
+            }
+
+            scratch.clear();
+            scratch.putInt(length);
+            scratch.putInt(product.getProductId());
+            scratch.put(product.isActive() ? ACTIVE : 0);
+            putTimestamp(product.getCreatedAt());
+            putTimestamp(product.getUpdatedAt());
+            putDecimal(product.getPrice(), product.getProductId());
+            putDecimal(product.getWeight(), product.getProductId());
+            for (byte[] string : strings) {
+                scratch.putInt(string != null ? string.length : -1);
+                if (string != null) {
+                    scratch.put(string);
+                }
+            }
+            scratch.putShort((short) categories.size());
+            for (Category category : categories) {
+                scratch.putInt(category.getCategoryId());
+            }
+            append(product.getProductId(), scratch, 0, length);
+        }
+
+        private void copy(ByteBuffer chunk, int offset) {
+            append(chunk.getInt(offset + PRODUCT_ID), chunk, offset, chunk.getInt(offset + ROW_LENGTH));
+        }
+
+        private void append(int productId, ByteBuffer source, int offset, int length) {
+            if (current == null || current.remaining() < length) {
+                current = ByteBuffer.allocateDirect(Math.max(chunkSize, length));
+                chunks.add(current);
+                chunkLengths.add(0);
+            }
+            int position = current.position();
+            current.put(position, source, offset, length);
+            current.position(position + length);
+            chunkLengths.set(chunks.size() - 1, position + length);
+            usedBytes += length;
+            addRow(productId, chunks.size() - 1, position);
+        }
+
+        /**
+         * Indexes the rows of an already encoded buffer and takes it over as a chunk.
+         */
+        private void adopt(ByteBuffer chunk) {
+            current = null;
+            chunks.add(chunk);
+            chunkLengths.add(chunk.limit());
+            for (int offset = 0; offset < chunk.limit(); ) {
+                int length = chunk.limit() - offset >= STRINGS ? chunk.getInt(offset + ROW_LENGTH) : -1;
+                if (length < STRINGS || length > chunk.limit() - offset || chunk.getInt(offset + PRODUCT_ID) <= 0) {
+                    throw new IllegalArgumentException("Malformed row at offset " + offset);
+                }
+                addRow(chunk.getInt(offset + PRODUCT_ID), chunks.size() - 1, offset);
+                offset += length;
+            }
+            usedBytes += chunk.limit();
+        }
+
+        private void addRow(int productId, int chunk, int offset) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                addresses = Arrays.copyOf(addresses, count * 2);
+            }
+            ids[count] = productId;
+            addresses[count] = (long) chunk << 32 | offset;
+            count++;
+        }
+
+        private OffHeapProductStore build(Map<Integer, Category> categoriesById) {
+            int capacity = 16;
+            while (capacity < count * 2) {
+                capacity <<= 1;
+            }
+            ByteBuffer index = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, SLOT_SIZE));
+            int mask = capacity - 1;
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                int slot = hash(ids[i]) & mask;
+                while (index.getInt(slot * SLOT_SIZE) != 0 && index.getInt(slot * SLOT_SIZE) != ids[i]) {
+                    slot = (slot + 1) & mask;
+                }
+                if (index.getInt(slot * SLOT_SIZE) == 0) {
+                    size++;
+                }
+                index.putInt(slot * SLOT_SIZE, ids[i]);
+                index.putLong(slot * SLOT_SIZE + 4, addresses[i]);
+            }
+            return new OffHeapProductStore(chunks.toArray(new ByteBuffer[0]), lengths(), index, Overlay.EMPTY,
+                                           current, size, usedBytes, 0, categoriesById);
+        }
+
+        private void putTimestamp(LocalDateTime timestamp) {
+            scratch.putLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+            scratch.putInt(timestamp.getNano());
+        }
+
+        private void putDecimal(BigDecimal value, int productId) {
+            if (value == null) {
+                scratch.put(NULL_SCALE);
+                scratch.putLong(0);
+                return;
+            }
+            BigInteger unscaled = value.unscaledValue();
+            if (unscaled.bitLength() > 63 || value.scale() <= NULL_SCALE || value.scale() > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Decimal out of range for product " + productId + ": " + value);
+            }
+            scratch.put((byte) value.scale());
+            scratch.putLong(unscaled.longValue());
+        }
+
+        private static byte[] encode(String value) {
+            return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.model.Product;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * The products of a {@link CatalogSnapshot}, keyed by ID. Besides whole products, a table hands
+ * out the few fields the snapshot sorts and filters on, so that a table that does not keep
+ * {@link Product} objects around can answer them without building one.
+ * Tables are immutable; a changed catalog gets a new table from {@link #withChanges}.
+ */
+interface ProductTable {
+
+    /**
+     * Gets the number of products, active or not.
+     */
+    int size();
+
+    /**
+     * Checks whether a product is present.
+     */
+    boolean contains(int productId);
+
+    /**
+     * Gets a product by its ID.
+     *
+     * @return The product, or null if it is not present
+     */
+    Product get(int productId);
+
+    /**
+     * Gets the IDs of all products, in no particular order.
+     */
+    int[] getIds();
+
+    /**
+     * Gets the name of a present product.
+     */
+    String getName(int productId);
+
+    /**
+     * Gets the creation time of a present product.
+     */
+    LocalDateTime getCreatedAt(int productId);
+
+    /**
+     * Visits the fields the snapshot sorts and groups on for every product, in storage order.
+     * Building a snapshot this way reads an off-heap table sequentially instead of looking up
+     * each product several times.
+     *
+     * @param visitor Called once per product
+     */
+    void forEachRow(RowVisitor visitor);
+
+    /**
+     * Gets the memory held outside the Java heap.
+     *
+     * @return The number of bytes, 0 for tables that live on the heap
+     */
+    long getOffHeapBytes();
+
+    /**
+     * Builds a new table with some products added, replaced or removed. This table is unchanged.
+     *
+     * @param changed Products to add or replace
+     * @param deleted IDs of products to remove
+     * @return The new table
+     */
+    ProductTable withChanges(Collection<Product> changed, Set<Integer> deleted);
+
+    /**
+     * Receives the fields of one product from {@link #forEachRow}.
+     */
+    @FunctionalInterface
+    interface RowVisitor {
+        void visit(int productId, String name, LocalDateTime createdAt, boolean active, int[] categoryIds);
+    }
+}
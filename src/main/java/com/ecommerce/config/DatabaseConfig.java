@@ -1,10 +1,14 @@
 package com.ecommerce.config;
 
+import com.ecommerce.util.QueryMetrics;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -14,6 +18,7 @@ import java.util.Properties;
 public class DatabaseConfig {
     private static DatabaseConfig instance;
     private HikariDataSource dataSource;
+    private RoutingDataSource routingDataSource;
     private Properties properties;
 
     // Database configuration properties
@@ -26,6 +31,40 @@ public class DatabaseConfig {
     private long connectionTimeout;
     private long idleTimeout;
     private long maxLifetime;
+    private int streamFetchSize;
+    private boolean requestScopedConnections;
+    private boolean virtualThreads;
+    private List<String> trustedProxies;
+    private boolean compressionEnabled;
+    private int compressionMinSize;
+    private int compressionLevel;
+    private long readYourWritesMillis;
+    private long slowQueryMillis;
+    private boolean cacheEnabled;
+    private int cacheSizeLimit;
+    private long cacheExpirationMinutes;
+    private boolean catalogSnapshotEnabled;
+    private long catalogRefreshMillis;
+    private long catalogMaxStalenessMillis;
+    private boolean catalogOffHeap;
+    private String catalogSnapshotFile;
+    private long catalogExportMillis;
+    private long catalogLookbackSeconds;
+    private long catalogReconcileMillis;
+    private boolean changeLogEnabled;
+    private long changeLogPollMillis;
+    private int changeLogBatchSize;
+    private long changeLogRetentionMinutes;
+    private List<String> authPublicRoutes;
+    private int bcryptCost;
+    private int hashThreads;
+    private int hashQueueSize;
+    private boolean loginThrottleEnabled;
+    private int loginThrottleUsernameBurst;
+    private double loginThrottleUsernamePerMinute;
+    private int loginThrottleIpBurst;
+    private double loginThrottleIpPerMinute;
+    private int loginThrottleMaxKeys;
 
     /**
      * Private constructor to enforce Singleton pattern.
@@ -72,21 +111,115 @@ public class DatabaseConfig {
             idleTimeout = Long.parseLong(properties.getProperty("db.pool.idleTimeout", "600000"));
             maxLifetime = Long.parseLong(properties.getProperty("db.pool.maxLifetime", "1800000"));
 
+            // Load streaming query settings
+            streamFetchSize = Integer.parseInt(properties.getProperty("db.stream.fetchSize", "500"));
+
+            // Load unit-of-work settings
+            requestScopedConnections = Boolean.parseBoolean(
+                    properties.getProperty("db.requestScopedConnections", "false"));
+
+            // Load request execution settings
+            virtualThreads = Boolean.parseBoolean(properties.getProperty("server.virtualThreads", "false"));
+
+            // Load proxy settings
+            trustedProxies = Arrays.stream(properties.getProperty("server.trustedProxies", "").split(","))
+                    .map(String::trim)
+                    .filter(address -> !address.isEmpty())
+                    .toList();
+
+            // Load response compression settings
+            compressionEnabled = Boolean.parseBoolean(properties.getProperty("server.compression.enabled", "true"));
+            compressionMinSize = Integer.parseInt(properties.getProperty("server.compression.minSize", "1024"));
+            compressionLevel = Integer.parseInt(properties.getProperty("server.compression.level", "6"));
+
+            // Load read replica routing settings
+            readYourWritesMillis = Long.parseLong(
+                    properties.getProperty("db.replica.readYourWritesMillis", "2000"));
+
+            // Load query monitoring settings
+            slowQueryMillis = Long.parseLong(properties.getProperty("db.slowQueryMillis", "500"));
+
+            // Load entity cache settings
+            cacheEnabled = Boolean.parseBoolean(properties.getProperty("cache.enabled", "false"));
+            cacheSizeLimit = Integer.parseInt(properties.getProperty("cache.size.limit", "1000"));
+            cacheExpirationMinutes = Long.parseLong(properties.getProperty("cache.expiration.minutes", "30"));
+
+            // Load catalog snapshot settings
+            catalogSnapshotEnabled = Boolean.parseBoolean(properties.getProperty("catalog.snapshot.enabled", "false"));
+            catalogRefreshMillis = Long.parseLong(properties.getProperty("catalog.snapshot.refreshMillis", "2000"));
+            catalogMaxStalenessMillis = Long.parseLong(
+                    properties.getProperty("catalog.snapshot.maxStalenessMillis", "60000"));
+            catalogOffHeap = Boolean.parseBoolean(properties.getProperty("catalog.snapshot.offHeap", "false"));
+            catalogSnapshotFile = properties.getProperty("catalog.snapshot.file", "").trim();
+            catalogExportMillis = Long.parseLong(properties.getProperty("catalog.snapshot.exportMillis", "300000"));
+            catalogLookbackSeconds = Long.parseLong(properties.getProperty("catalog.snapshot.lookbackSeconds", "5"));
+            catalogReconcileMillis = Long.parseLong(properties.getProperty("catalog.snapshot.reconcileMillis", "600000"));
+
+            // Load cross-instance change log settings
+            changeLogEnabled = Boolean.parseBoolean(properties.getProperty("changelog.enabled", "false"));
+            changeLogPollMillis = Long.parseLong(properties.getProperty("changelog.pollMillis", "1000"));
+            changeLogBatchSize = Integer.parseInt(properties.getProperty("changelog.batchSize", "500"));
+            changeLogRetentionMinutes = Long.parseLong(properties.getProperty("changelog.retentionMinutes", "60"));
+
+            // Load authentication settings
+            String publicRoutes = properties.getProperty("auth.publicRoutes",
+                    "POST /api/auth/*, GET /api/products/*, !GET /api/products/export, GET /api/categories/*");
+            authPublicRoutes = Arrays.stream(publicRoutes.split(","))
+                    .map(String::trim)
+                    .filter(route -> !route.isEmpty())
+                    .toList();
+            bcryptCost = Integer.parseInt(properties.getProperty("auth.bcrypt.cost", "10"));
+            hashThreads = Integer.parseInt(properties.getProperty("auth.hash.threads",
+                    String.valueOf(Runtime.getRuntime().availableProcessors())));
+            hashQueueSize = Integer.parseInt(properties.getProperty("auth.hash.queueSize", "32"));
+            loginThrottleEnabled = Boolean.parseBoolean(properties.getProperty("auth.throttle.enabled", "true"));
+            loginThrottleUsernameBurst = Integer.parseInt(properties.getProperty("auth.throttle.username.burst", "5"));
+            loginThrottleUsernamePerMinute = Double.parseDouble(
+                    properties.getProperty("auth.throttle.username.perMinute", "5"));
+            loginThrottleIpBurst = Integer.parseInt(properties.getProperty("auth.throttle.ip.burst", "20"));
+            loginThrottleIpPerMinute = Double.parseDouble(properties.getProperty("auth.throttle.ip.perMinute", "60"));
+            loginThrottleMaxKeys = Integer.parseInt(properties.getProperty("auth.throttle.maxKeys", "100000"));
+
         } catch (IOException e) {
             throw new RuntimeException("Error loading database configuration", e);
         }
     }
 
     /**
-     * Initializes the HikariCP connection pool with configured settings.
+     * Initializes the HikariCP connection pools for the primary database and any read replicas
+     * configured as db.replica.N.url (N = 1, 2, ...), with optional db.replica.N.username and
+     * db.replica.N.password defaulting to the primary credentials.
      */
     private void initializeDataSource() {
+        this.dataSource = createPool("primary", url, username, password);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int n = 1; properties.getProperty("db.replica." + n + ".url") != null; n++) {
+            String prefix = "db.replica." + n + ".";
+            replicas.add(createPool("replica-" + n, properties.getProperty(prefix + "url"),
+                                    properties.getProperty(prefix + "username", username),
+                                    properties.getProperty(prefix + "password", password)));
+        }
+        this.routingDataSource = new RoutingDataSource(dataSource, replicas, readYourWritesMillis, virtualThreads);
+    }
+
+    /**
+     * Creates a HikariCP connection pool with the configured pool settings.
+     *
+     * @param poolName The name of the pool
+     * @param jdbcUrl  The JDBC URL of the database
+     * @param user     The database username
+     * @param pass     The database password
+     * @return The connection pool
+     */
+    private HikariDataSource createPool(String poolName, String jdbcUrl, String user, String pass) {
         HikariConfig config = new HikariConfig();
         
+        config.setPoolName(poolName);
         config.setDriverClassName(driver);
-        config.setJdbcUrl(url);
-        config.setUsername(username);
-        config.setPassword(password);
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(user);
+        config.setPassword(pass);
         
         // Connection pool settings
         config.setMaximumPoolSize(maximumPoolSize);
@@ -108,12 +241,16 @@ public class DatabaseConfig {
         config.addDataSourceProperty("cacheServerConfiguration", "true");
         config.addDataSourceProperty("elideSetAutoCommits", "true");
         config.addDataSourceProperty("maintainTimeStats", "false");
+        config.addDataSourceProperty("useCursorFetch", "true");
 
-        this.dataSource = new HikariDataSource(config);
+        // Record connection wait time per pool
+        config.setMetricsTrackerFactory(QueryMetrics.poolTrackerFactory());
+
+        return new HikariDataSource(config);
     }
 
     /**
-     * Gets the HikariCP data source for database connections.
+     * Gets the HikariCP data source for the primary database.
      *
      * @return The configured data source
      */
@@ -122,12 +259,21 @@ public class DatabaseConfig {
     }
 
     /**
-     * Closes the data source and releases all connections.
+     * Gets the data source that routes reads to replicas and writes to the primary.
+     *
+     * @return The routing data source
+     */
+    public RoutingDataSource getRoutingDataSource() {
+        return routingDataSource;
+    }
+
+    /**
+     * Closes the primary and replica data sources and releases all connections.
      * This should be called when the application shuts down.
      */
     public void closeDataSource() {
-        if (dataSource != null && !dataSource.isClosed()) {
-            dataSource.close();
+        if (routingDataSource != null) {
+            routingDataSource.close();
         }
     }
 
@@ -141,4 +287,38 @@ public class DatabaseConfig {
     public long getConnectionTimeout() { return connectionTimeout; }
     public long getIdleTimeout() { return idleTimeout; }
     public long getMaxLifetime() { return maxLifetime; }
+    public int getStreamFetchSize() { return streamFetchSize; }
+    public boolean isRequestScopedConnections() { return requestScopedConnections; }
+    public boolean isVirtualThreads() { return virtualThreads; }
+    public List<String> getTrustedProxies() { return trustedProxies; }
+    public boolean isCompressionEnabled() { return compressionEnabled; }
+    public int getCompressionMinSize() { return compressionMinSize; }
+    public int getCompressionLevel() { return compressionLevel; }
+    public long getReadYourWritesMillis() { return readYourWritesMillis; }
+    public long getSlowQueryMillis() { return slowQueryMillis; }
+    public boolean isCacheEnabled() { return cacheEnabled; }
+    public int getCacheSizeLimit() { return cacheSizeLimit; }
+    public long getCacheExpirationMinutes() { return cacheExpirationMinutes; }
+    public boolean isCatalogSnapshotEnabled() { return catalogSnapshotEnabled; }
+    public long getCatalogRefreshMillis() { return catalogRefreshMillis; }
+    public long getCatalogMaxStalenessMillis() { return catalogMaxStalenessMillis; }
+    public boolean isCatalogOffHeap() { return catalogOffHeap; }
+    public String getCatalogSnapshotFile() { return catalogSnapshotFile; }
+    public long getCatalogExportMillis() { return catalogExportMillis; }
+    public long getCatalogLookbackSeconds() { return catalogLookbackSeconds; }
+    public long getCatalogReconcileMillis() { return catalogReconcileMillis; }
+    public boolean isChangeLogEnabled() { return changeLogEnabled; }
+    public long getChangeLogPollMillis() { return changeLogPollMillis; }
+    public int getChangeLogBatchSize() { return changeLogBatchSize; }
+    public long getChangeLogRetentionMinutes() { return changeLogRetentionMinutes; }
+    public List<String> getAuthPublicRoutes() { return authPublicRoutes; }
+    public int getBcryptCost() { return bcryptCost; }
+    public int getHashThreads() { return hashThreads; }
+    public int getHashQueueSize() { return hashQueueSize; }
+    public boolean isLoginThrottleEnabled() { return loginThrottleEnabled; }
+    public int getLoginThrottleUsernameBurst() { return loginThrottleUsernameBurst; }
+    public double getLoginThrottleUsernamePerMinute() { return loginThrottleUsernamePerMinute; }
+    public int getLoginThrottleIpBurst() { return loginThrottleIpBurst; }
+    public double getLoginThrottleIpPerMinute() { return loginThrottleIpPerMinute; }
+    public int getLoginThrottleMaxKeys() { return loginThrottleMaxKeys; }
 }
\ No newline at end of file
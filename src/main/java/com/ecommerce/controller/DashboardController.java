@@ -145,7 +145,7 @@ public class DashboardController {
                 "456 Oak Ave", "456 Oak Ave", "Credit Card", 
                 LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), 
                 null, "Shipped", List.of()),
-            new Order(3, 103, OrderStatus.PROCESSING, new BigDecimal("89.99"), 
+            new Order(3, 103, OrderStatus.CONFIRMED, new BigDecimal("89.99"), 
                 "789 Pine Rd", "789 Pine Rd", "PayPal", 
                 LocalDateTime.now().minusDays(2), null, 
                 null, "Processing", List.of())
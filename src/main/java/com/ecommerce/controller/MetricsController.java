@@ -0,0 +1,59 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.cache.CacheManager;
+import com.ecommerce.catalog.CatalogSnapshotManager;
+import com.ecommerce.model.User;
+import com.ecommerce.util.JsonUtil;
+import com.ecommerce.util.QueryMetrics;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+
+/**
+ * Metrics controller that exposes database query, connection pool, entity cache and catalog
+ * memory metrics, as JSON or in the Prometheus text exposition format.
+ * The metrics name queries, tables and cache sizes, so only ADMIN users may read them.
+ */
+public class MetricsController extends HttpServlet {
+    
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        if (!req.isUserInRole(User.UserType.ADMIN.name())) {
+            resp.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            resp.setContentType("application/json");
+            resp.getWriter().write("{\"error\": \"Admin access required\"}");
+            return;
+        }
+        
+        String pathInfo = req.getPathInfo();
+        
+        if (pathInfo == null || pathInfo.equals("/")) {
+            // Metrics as JSON
+            resp.setStatus(HttpServletResponse.SC_OK);
+            resp.setContentType("application/json");
+            resp.setCharacterEncoding("UTF-8");
+            Map<String, Object> metrics = QueryMetrics.snapshot();
+            metrics.put("caches", CacheManager.getInstance().snapshot());
+            metrics.put("catalog", CatalogSnapshotManager.getInstance().metrics());
+            JsonUtil.writeJson(metrics, resp.getOutputStream());
+        } else if (pathInfo.equals("/prometheus")) {
+            // Metrics for a Prometheus scraper
+            resp.setStatus(HttpServletResponse.SC_OK);
+            resp.setContentType("text/plain; version=0.0.4");
+            resp.setCharacterEncoding("UTF-8");
+            PrintWriter out = resp.getWriter();
+            out.print(QueryMetrics.toPrometheus());
+            out.print(CacheManager.getInstance().toPrometheus());
+            out.print(CatalogSnapshotManager.getInstance().toPrometheus());
+            out.flush();
+        } else {
+            resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            resp.getWriter().write("{\"error\": \"Endpoint not found\"}");
+        }
+    }
+}
@@ -1,77 +1,75 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.cache.ResponseCache;
+import com.ecommerce.catalog.CatalogSnapshot;
+import com.ecommerce.catalog.CatalogSnapshotManager;
 import com.ecommerce.dao.ProductDAO;
 import com.ecommerce.model.Product;
-import com.ecommerce.util.JWTUtil;
+import com.ecommerce.model.User;
+import com.ecommerce.search.ProductSearchIndex;
+import com.ecommerce.service.ProductImportService;
+import com.ecommerce.util.JsonUtil;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
 
-import javax.servlet.ServletException;
-import javax.servlet.http.HttpServlet;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Products controller that handles product-related API requests.
  */
 public class ProductsController extends HttpServlet {
     
+    private static final int DEFAULT_PAGE_LIMIT = 50;
+    private static final int MAX_PAGE_LIMIT = 200;
+    
     private ProductDAO productDAO;
+    private ProductImportService importService;
+    private CatalogSnapshotManager catalog;
+    private ResponseCache responses;
     private Gson gson;
     
     public ProductsController() {
         this.productDAO = new ProductDAO();
-        this.gson = new Gson();
+        this.importService = new ProductImportService();
+        this.catalog = CatalogSnapshotManager.getInstance();
+        this.gson = JsonUtil.getGson();
+        this.responses = new ResponseCache(gson);
     }
     
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         String pathInfo = req.getPathInfo();
         
-        // Check for JWT token in Authorization header
-        String authHeader = req.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Authorization token required\"}");
-            return;
-        }
-        
-        String token = authHeader.substring(7); // Remove "Bearer " prefix
-        if (!JWTUtil.validateToken(token)) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Invalid token\"}");
-            return;
-        }
-        
         if (pathInfo == null || pathInfo.equals("/")) {
-            // Get all products
-            List<Product> products = productDAO.findAllActive();
-            resp.setStatus(HttpServletResponse.SC_OK);
-            resp.setContentType("application/json");
-            PrintWriter out = resp.getWriter();
-            out.print(gson.toJson(products));
-            out.flush();
+            handleListProducts(req, resp);
+        } else if (pathInfo.equals("/export")) {
+            handleExportCatalog(resp);
+        } else if (pathInfo.equals("/search")) {
+            handleSearchProducts(req, resp);
         } else {
             // Extract product ID from path
             String[] pathParts = pathInfo.split("/");
             if (pathParts.length == 2) {
                 try {
                     int productId = Integer.parseInt(pathParts[1]);
-                    Product product = productDAO.findById(productId);
-                    if (product != null) {
-                        resp.setStatus(HttpServletResponse.SC_OK);
-                        resp.setContentType("application/json");
-                        PrintWriter out = resp.getWriter();
-                        out.print(gson.toJson(product));
-                        out.flush();
-                    } else {
+                    CatalogSnapshot snapshot = catalog.current();
+                    boolean found = responses.write(req, resp, catalogVersion(snapshot),
+                            () -> snapshot != null ? snapshot.findProductById(productId)
+                                                   : productDAO.findById(productId));
+                    if (!found) {
                         resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
                         resp.getWriter().write("{\"error\": \"Product not found\"}");
                     }
@@ -90,24 +88,11 @@ public class ProductsController extends HttpServlet {
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         String pathInfo = req.getPathInfo();
         
-        // Check for JWT token in Authorization header
-        String authHeader = req.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Authorization token required\"}");
-            return;
-        }
-        
-        String token = authHeader.substring(7); // Remove "Bearer " prefix
-        if (!JWTUtil.validateToken(token)) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Invalid token\"}");
-            return;
-        }
-        
         // Only allow creating products at root path
         if (pathInfo == null || pathInfo.equals("/")) {
             handleCreateProduct(req, resp);
+        } else if (pathInfo.equals("/import")) {
+            handleImportProducts(req, resp);
         } else {
             resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
             resp.getWriter().write("{\"error\": \"Endpoint not found\"}");
@@ -118,21 +103,6 @@ public class ProductsController extends HttpServlet {
     protected void doPut(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         String pathInfo = req.getPathInfo();
         
-        // Check for JWT token in Authorization header
-        String authHeader = req.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Authorization token required\"}");
-            return;
-        }
-        
-        String token = authHeader.substring(7); // Remove "Bearer " prefix
-        if (!JWTUtil.validateToken(token)) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Invalid token\"}");
-            return;
-        }
-        
         if (pathInfo != null) {
             // Extract product ID from path
             String[] pathParts = pathInfo.split("/");
@@ -158,21 +128,6 @@ public class ProductsController extends HttpServlet {
     protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         String pathInfo = req.getPathInfo();
         
-        // Check for JWT token in Authorization header
-        String authHeader = req.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Authorization token required\"}");
-            return;
-        }
-        
-        String token = authHeader.substring(7); // Remove "Bearer " prefix
-        if (!JWTUtil.validateToken(token)) {
-            resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            resp.getWriter().write("{\"error\": \"Invalid token\"}");
-            return;
-        }
-        
         if (pathInfo != null) {
             // Extract product ID from path
             String[] pathParts = pathInfo.split("/");
@@ -194,6 +149,80 @@ public class ProductsController extends HttpServlet {
         }
     }
     
+    private void handleListProducts(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        // Get one page of products, optionally filtered by name or category (including subcategories)
+        try {
+            int limit = parseLimit(req.getParameter("limit"));
+            String after = req.getParameter("after");
+            String name = req.getParameter("name");
+            String category = req.getParameter("category");
+            CatalogSnapshot snapshot = catalog.current();
+            Supplier<Object> loader;
+            if (name != null && !name.isEmpty()) {
+                loader = () -> snapshot != null ? snapshot.findByName(name, limit, after)
+                                                : productDAO.findByName(name, limit, after);
+            } else if (category != null && !category.isEmpty()) {
+                int categoryId = Integer.parseInt(category);
+                loader = () -> snapshot != null ? snapshot.findByCategorySubtree(categoryId, limit, after)
+                                                : productDAO.findByCategorySubtree(categoryId, limit, after);
+            } else {
+                loader = () -> snapshot != null ? snapshot.findAllActive(limit, after)
+                                                : productDAO.findAllActive(limit, after);
+            }
+            responses.write(req, resp, catalogVersion(snapshot), loader);
+        } catch (IllegalArgumentException e) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            resp.getWriter().write("{\"error\": \"Invalid pagination parameters\"}");
+        }
+    }
+    
+    private void handleSearchProducts(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        // Search products by name, brand and description through the in-memory index
+        String query = req.getParameter("q");
+        try {
+            if (query == null || query.isBlank()) {
+                throw new IllegalArgumentException("Query required");
+            }
+            int limit = parseLimit(req.getParameter("limit"));
+            CatalogSnapshot snapshot = catalog.current();
+            responses.write(req, resp, catalogVersion(snapshot), () -> snapshot != null
+                    ? snapshot.findProductsByIds(ProductSearchIndex.getInstance().search(query, limit))
+                    : productDAO.search(query, limit));
+        } catch (IllegalArgumentException e) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            resp.getWriter().write("{\"error\": \"Invalid search parameters\"}");
+        }
+    }
+    
+    private void handleExportCatalog(HttpServletResponse resp) throws IOException {
+        // Stream the full catalog straight to the response without buffering it
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(resp.getOutputStream(), StandardCharsets.UTF_8)));
+        productDAO.exportCatalog(writer);
+    }
+    
+    /**
+     * Gets the version responses built from the snapshot are cached under. Without a snapshot
+     * there is no version that changes on every write, so responses are rendered each time.
+     */
+    private String catalogVersion(CatalogSnapshot snapshot) {
+        return snapshot != null ? "catalog-" + snapshot.getVersion() : null;
+    }
+    
+    private int parseLimit(String limitParam) {
+        if (limitParam == null || limitParam.isEmpty()) {
+            return DEFAULT_PAGE_LIMIT;
+        }
+        int limit = Integer.parseInt(limitParam);
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return Math.min(limit, MAX_PAGE_LIMIT);
+    }
+    
     private void handleCreateProduct(HttpServletRequest req, HttpServletResponse resp) throws IOException {
         // Read the request body
         StringBuilder requestBody = new StringBuilder();
@@ -213,6 +242,43 @@ public class ProductsController extends HttpServlet {
         resp.getWriter().write("{\"error\": \"Product creation not fully implemented in this example\"}");
     }
     
+    private void handleImportProducts(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        // Bulk imports write thousands of catalog rows at once, so only admins may run them
+        if (!req.isUserInRole(User.UserType.ADMIN.name())) {
+            resp.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            resp.setContentType("application/json");
+            resp.getWriter().write("{\"error\": \"Admin access required\"}");
+            return;
+        }
+        
+        // Stream-parse the body as CSV or NDJSON depending on the content type
+        String contentType = req.getContentType() != null ? req.getContentType().toLowerCase() : "";
+        boolean ndjson = contentType.startsWith("application/x-ndjson") || contentType.startsWith("application/jsonl");
+        if (!ndjson && !contentType.startsWith("text/csv")) {
+            resp.setStatus(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+            resp.getWriter().write("{\"error\": \"Content type must be text/csv or application/x-ndjson\"}");
+            return;
+        }
+        if (req.getCharacterEncoding() == null) {
+            req.setCharacterEncoding("UTF-8");
+        }
+        
+        ProductImportService.ImportReport report;
+        try (BufferedReader reader = req.getReader()) {
+            report = ndjson ? importService.importNdjson(reader) : importService.importCsv(reader);
+            catalog.requestRefresh();
+        } catch (IllegalArgumentException e) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            resp.getWriter().write(gson.toJson(Map.of("error", e.getMessage())));
+            return;
+        }
+        
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        JsonUtil.writeJson(report, resp.getOutputStream());
+    }
+    
     private void handleUpdateProduct(HttpServletRequest req, HttpServletResponse resp, int productId) throws IOException {
         // Read the request body
         StringBuilder requestBody = new StringBuilder();
@@ -234,6 +300,7 @@ public class ProductsController extends HttpServlet {
     private void handleDeleteProduct(HttpServletResponse resp, int productId) throws IOException {
         int result = productDAO.delete(productId);
         if (result > 0) {
+            catalog.requestRefresh();
             resp.setStatus(HttpServletResponse.SC_OK);
             resp.getWriter().write("{\"message\": \"Product deleted successfully\"}");
         } else {
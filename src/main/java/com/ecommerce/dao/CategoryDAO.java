@@ -1,31 +1,57 @@
 package com.ecommerce.dao;
 
+import com.ecommerce.cache.CacheManager;
+import com.ecommerce.cache.EntityCache;
 import com.ecommerce.model.Category;
+import com.ecommerce.model.CategoryNode;
+import com.ecommerce.model.ChangeLogEntry;
+import com.ecommerce.model.Product;
 import com.ecommerce.util.DatabaseUtil;
+import com.ecommerce.util.StatementDescriptor;
+import com.ecommerce.util.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Data Access Object for Category entity.
- * Handles all database operations related to categories.
+ * Handles all database operations related to categories, and keeps the category_closure table
+ * of ancestor/descendant pairs in step with the hierarchy so that subtrees and breadcrumbs are
+ * read with a single indexed join.
  */
 public class CategoryDAO {
     private static final Logger logger = LoggerFactory.getLogger(CategoryDAO.class);
 
+    // Columns read by mapResultSetToCategory, in the order of the indexes it uses
+    private static final String[] CATEGORY_COLUMNS = {
+        "category_id", "name", "description", "parent_category_id", "created_at", "updated_at"
+    };
+
+    private final EntityCache<Integer, Category> cache = CacheManager.getInstance().getCache("categories");
+    // Cached products embed their categories, so category changes invalidate them too
+    private final EntityCache<Integer, Product> productCache = CacheManager.getInstance().getCache("products");
+    private final ChangeLogDAO changeLog = new ChangeLogDAO();
+
     /**
-     * Finds a category by its unique ID.
+     * Finds a category by its unique ID, serving repeated lookups from the category cache.
      *
      * @param categoryId The ID of the category to find
      * @return The Category object if found, null otherwise
      */
     public Category findById(int categoryId) {
         String query = "SELECT * FROM categories WHERE category_id = ?";
-        return DatabaseUtil.queryForObject(query, new Object[]{categoryId}, this::mapResultSetToCategory);
+        return cache.get(categoryId, id -> DatabaseUtil.queryForObject(categoryQuery(query), new Object[]{id}));
     }
 
     /**
@@ -35,7 +61,7 @@ public class CategoryDAO {
      */
     public List<Category> findAll() {
         String query = "SELECT * FROM categories ORDER BY name";
-        return DatabaseUtil.queryForList(query, null, this::mapResultSetToCategory);
+        return DatabaseUtil.queryForList(categoryQuery(query), null);
     }
 
     /**
@@ -46,11 +72,60 @@ public class CategoryDAO {
      */
     public List<Category> findByName(String name) {
         String query = "SELECT * FROM categories WHERE name LIKE ? ORDER BY name";
-        return DatabaseUtil.queryForList(query, new Object[]{"%" + name + "%"}, this::mapResultSetToCategory);
+        return DatabaseUtil.queryForList(categoryQuery(query), new Object[]{"%" + name + "%"});
+    }
+
+    /**
+     * Gets a fingerprint of the categories table that changes whenever a category is created,
+     * updated or deleted: the row count and the latest updated_at.
+     *
+     * @return The fingerprint
+     */
+    public String findVersionStamp() {
+        String query = "SELECT COUNT(*), MAX(updated_at) FROM categories";
+        return DatabaseUtil.queryForObject(query, null, rs -> rs.getInt(1) + "@" + rs.getTimestamp(2));
+    }
+
+    /**
+     * Builds the whole category hierarchy, with the categories of each level sorted by name.
+     *
+     * @return The top-level categories with their subcategories nested below them
+     */
+    public List<CategoryNode> findTree() {
+        return buildTree(findAll());
     }
 
     /**
-     * Creates a new category in the database.
+     * Builds the hierarchy below a category from its closure rows.
+     *
+     * @param categoryId The ID of the category at the root of the subtree
+     * @return The node of the category with its descendants nested below it, or null if the
+     *         category does not exist
+     */
+    public CategoryNode findSubtree(int categoryId) {
+        String query = "SELECT c.* FROM categories c " +
+                      "JOIN category_closure cc ON c.category_id = cc.descendant_id " +
+                      "WHERE cc.ancestor_id = ? ORDER BY cc.depth, c.name";
+        List<CategoryNode> roots = buildTree(DatabaseUtil.queryForList(categoryQuery(query), new Object[]{categoryId}));
+        return roots.isEmpty() ? null : roots.get(0);
+    }
+
+    /**
+     * Finds the breadcrumb trail of a category.
+     *
+     * @param categoryId The ID of the category
+     * @return The ancestors of the category from the top-level category down to the category
+     *         itself, or an empty list if the category does not exist
+     */
+    public List<Category> findAncestors(int categoryId) {
+        String query = "SELECT c.* FROM categories c " +
+                      "JOIN category_closure cc ON c.category_id = cc.ancestor_id " +
+                      "WHERE cc.descendant_id = ? ORDER BY cc.depth DESC";
+        return DatabaseUtil.queryForList(categoryQuery(query), new Object[]{categoryId});
+    }
+
+    /**
+     * Creates a new category in the database, together with its closure rows.
      *
      * @param category The category to create
      * @return The ID of the newly created category
@@ -64,31 +139,73 @@ public class CategoryDAO {
             category.getParentCategoryId()
         };
         
-        int categoryId = DatabaseUtil.executeInsert(query, params);
+        int categoryId = TransactionTemplate.inTransaction(() -> {
+            int id = DatabaseUtil.executeInsert(query, params);
+            DatabaseUtil.executeUpdate("INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+                                      "VALUES (?, ?, 0)", new Object[]{id, id});
+            if (category.getParentCategoryId() != null) {
+                linkSubtree(id, category.getParentCategoryId());
+            }
+            changeLog.record(ChangeLogEntry.CATEGORIES, id);
+            return id;
+        });
         logger.info("Created new category with ID: {}", categoryId);
+        cache.invalidate(categoryId);
         return categoryId;
     }
 
     /**
-     * Updates an existing category in the database.
+     * Updates an existing category in the database. When the parent changes, the closure rows
+     * of the category and all of its descendants are moved under the new parent. The updated_at
+     * column is set from the database clock.
      *
      * @param category The category with updated information
      * @return The number of affected rows
+     * @throws IllegalArgumentException if the new parent is the category or one of its descendants
      */
     public int update(Category category) {
-        String query = "UPDATE categories SET name = ?, description = ?, parent_category_id = ?, updated_at = ? " +
+        String query = "UPDATE categories SET name = ?, description = ?, parent_category_id = ?, updated_at = CURRENT_TIMESTAMP " +
                       "WHERE category_id = ?";
         
         Object[] params = {
             category.getName(),
             category.getDescription(),
             category.getParentCategoryId(),
-            category.getUpdatedAt(),
             category.getCategoryId()
         };
         
-        int result = DatabaseUtil.executeUpdate(query, params);
+        int categoryId = category.getCategoryId();
+        Integer newParentId = category.getParentCategoryId();
+        int result = TransactionTemplate.inTransaction(() -> {
+            Integer oldParentId = DatabaseUtil.queryForObject(
+                    "SELECT ancestor_id FROM category_closure WHERE descendant_id = ? AND depth = 1",
+                    new Object[]{categoryId}, rs -> rs.getInt(1));
+            boolean moved = !Objects.equals(oldParentId, newParentId);
+            if (moved && newParentId != null) {
+                // Lock the parent links before checking for a cycle, so that concurrent moves such as
+                // A under B and B under A run one after the other and the second one sees the first
+                Map<Integer, Integer> parents = lockParentLinks();
+                moved = !Objects.equals(parents.get(categoryId), newParentId);
+                if (moved && isInSubtree(parents, newParentId, categoryId)) {
+                    throw new IllegalArgumentException("Category " + categoryId + " cannot be moved below itself");
+                }
+            }
+            
+            int updated = DatabaseUtil.executeUpdate(query, params);
+            if (updated > 0 && moved) {
+                unlinkSubtree(categoryId);
+                if (newParentId != null) {
+                    linkSubtree(categoryId, newParentId);
+                }
+            }
+            if (updated > 0) {
+                changeLog.record(ChangeLogEntry.CATEGORIES, categoryId);
+            }
+            return updated;
+        });
         logger.info("Updated category with ID: {}, {} rows affected", category.getCategoryId(), result);
+        cache.invalidate(category.getCategoryId());
+        productCache.invalidateAll();
         return result;
     }
 
@@ -100,25 +217,195 @@ public class CategoryDAO {
      */
     public int delete(int categoryId) {
         String query = "DELETE FROM categories WHERE category_id = ?";
-        int result = DatabaseUtil.executeUpdate(query, new Object[]{categoryId});
+        int result = TransactionTemplate.inTransaction(() -> {
+            DatabaseUtil.executeUpdate("DELETE FROM category_closure WHERE descendant_id = ?", new Object[]{categoryId});
+            int deleted = DatabaseUtil.executeUpdate(query, new Object[]{categoryId});
+            if (deleted > 0) {
+                changeLog.record(ChangeLogEntry.CATEGORIES, categoryId);
+            }
+            return deleted;
+        });
         logger.info("Deleted category with ID: {}, {} rows affected", categoryId, result);
+        cache.invalidate(categoryId);
+        productCache.invalidateAll();
         return result;
     }
 
+    /**
+     * Fills the closure table from the parent links of all categories if it is still empty, for
+     * databases created before the table existed. Meant to run on every startup: once the table
+     * has rows, this is a single count on the primary.
+     *
+     * @return The number of closure rows written, or 0 if the table was already filled
+     */
+    public int migrateClosure() {
+        if (countClosureRows() > 0) {
+            return 0;
+        }
+        return TransactionTemplate.inTransaction(() -> {
+            // Recheck under the lock, another instance may have filled the table meanwhile
+            Map<Integer, Integer> parents = lockParentLinks();
+            return countClosureRows() > 0 ? 0 : writeClosure(parents);
+        });
+    }
+
+    /**
+     * Rebuilds the closure table from the parent links of all categories. The categories are
+     * locked while the table is rewritten, so concurrent moves cannot leave it out of step.
+     *
+     * @return The number of closure rows written
+     */
+    public int rebuildClosure() {
+        return TransactionTemplate.inTransaction(() -> writeClosure(lockParentLinks()));
+    }
+
+    private long countClosureRows() {
+        Long count = TransactionTemplate.readFromPrimary(() -> DatabaseUtil.queryForObject(
+                "SELECT COUNT(*) FROM category_closure", null, rs -> rs.getLong(1)));
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Reads the parent link of every category with the rows locked, so it must run in a
+     * transaction, which also keeps the read on the primary.
+     */
+    private Map<Integer, Integer> lockParentLinks() {
+        List<Integer[]> links = DatabaseUtil.queryForList(
+                "SELECT category_id, parent_category_id FROM categories FOR UPDATE", null,
+                rs -> new Integer[]{rs.getInt(1), rs.getObject(2, Integer.class)});
+        Map<Integer, Integer> parents = new LinkedHashMap<>();
+        for (Integer[] link : links) {
+            parents.put(link[0], link[1]);
+        }
+        return parents;
+    }
+
+    /**
+     * Replaces the closure table with the rows for the given parent links. The ancestors are
+     * resolved in memory.
+     */
+    private int writeClosure(Map<Integer, Integer> parents) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int categoryId : parents.keySet()) {
+            Set<Integer> visited = new HashSet<>();
+            Integer ancestorId = categoryId;
+            for (int depth = 0; ancestorId != null && visited.add(ancestorId); depth++) {
+                rows.add(new Object[]{ancestorId, categoryId, depth});
+                ancestorId = parents.get(ancestorId);
+            }
+        }
+        
+        DatabaseUtil.executeUpdate("DELETE FROM category_closure", null);
+        int written = DatabaseUtil.executeMultiRowInsert(
+                "INSERT INTO category_closure (ancestor_id, descendant_id, depth) VALUES", rows);
+        logger.info("Rebuilt category closure for {} categories: {} rows", parents.size(), written);
+        return written;
+    }
+
+    /**
+     * Checks whether a category lies in the subtree of another one (the category itself included)
+     * by following the given parent links.
+     */
+    private boolean isInSubtree(Map<Integer, Integer> parents, int categoryId, int rootId) {
+        Set<Integer> visited = new HashSet<>();
+        for (Integer ancestorId = categoryId; ancestorId != null && visited.add(ancestorId);
+             ancestorId = parents.get(ancestorId)) {
+            if (ancestorId == rootId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds closure rows pairing every ancestor of the parent (the parent included) with every
+     * category in the subtree rooted at the given category.
+     */
+    private void linkSubtree(int categoryId, int parentId) {
+        String query = "INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+                      "SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1 " +
+                      "FROM category_closure a JOIN category_closure d ON d.ancestor_id = ? " +
+                      "WHERE a.descendant_id = ?";
+        DatabaseUtil.executeUpdate(query, new Object[]{categoryId, parentId});
+    }
+
+    /**
+     * Removes the closure rows linking the subtree rooted at the given category to the
+     * category's former ancestors, leaving the paths inside the subtree intact.
+     */
+    private void unlinkSubtree(int categoryId) {
+        List<Integer> subtree = DatabaseUtil.queryForList(
+                "SELECT descendant_id FROM category_closure WHERE ancestor_id = ?",
+                new Object[]{categoryId}, rs -> rs.getInt(1));
+        List<Integer> ancestors = DatabaseUtil.queryForList(
+                "SELECT ancestor_id FROM category_closure WHERE descendant_id = ? AND depth > 0",
+                new Object[]{categoryId}, rs -> rs.getInt(1));
+        if (subtree.isEmpty() || ancestors.isEmpty()) {
+            return;
+        }
+        
+        String query = "DELETE FROM category_closure WHERE descendant_id IN (" + placeholders(subtree.size()) + ") " +
+                      "AND ancestor_id IN (" + placeholders(ancestors.size()) + ")";
+        List<Object> params = new ArrayList<>(subtree);
+        params.addAll(ancestors);
+        DatabaseUtil.executeUpdate(query, params.toArray());
+    }
+
+    private String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Nests categories below their parents. Categories whose parent is not in the list become
+     * roots; the order of the list is kept within each level.
+     *
+     * @param categories The categories to arrange
+     * @return The root nodes
+     */
+    private List<CategoryNode> buildTree(List<Category> categories) {
+        Map<Integer, CategoryNode> nodes = new LinkedHashMap<>();
+        for (Category category : categories) {
+            nodes.put(category.getCategoryId(), new CategoryNode(category));
+        }
+        
+        List<CategoryNode> roots = new ArrayList<>();
+        for (CategoryNode node : nodes.values()) {
+            Integer parentId = node.getCategory().getParentCategoryId();
+            CategoryNode parent = parentId != null ? nodes.get(parentId) : null;
+            if (parent != null) {
+                parent.addChild(node);
+            } else {
+                roots.add(node);
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * Creates a statement descriptor that maps the rows of a category query by column index.
+     *
+     * @param query The SQL query selecting category rows
+     * @return The statement descriptor
+     */
+    private StatementDescriptor<Category> categoryQuery(String query) {
+        return new StatementDescriptor<>(query, CATEGORY_COLUMNS, this::mapResultSetToCategory);
+    }
+
     /**
      * Maps a ResultSet row to a Category object.
      *
      * @param rs The ResultSet to map from
+     * @param columns The indexes of {@link #CATEGORY_COLUMNS} in the ResultSet
      * @return The mapped Category object
      * @throws SQLException if there's an error during mapping
      */
-    private Category mapResultSetToCategory(ResultSet rs) throws SQLException {
-        int categoryId = rs.getInt("category_id");
-        String name = rs.getString("name");
-        String description = rs.getString("description");
-        Integer parentCategoryId = rs.getObject("parent_category_id", Integer.class);
-        LocalDateTime createdAt = rs.getTimestamp("created_at").toLocalDateTime();
-        LocalDateTime updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
+    private Category mapResultSetToCategory(ResultSet rs, int[] columns) throws SQLException {
+        int categoryId = rs.getInt(columns[0]);
+        String name = rs.getString(columns[1]);
+        String description = rs.getString(columns[2]);
+        Integer parentCategoryId = rs.getObject(columns[3], Integer.class);
+        LocalDateTime createdAt = rs.getTimestamp(columns[4]).toLocalDateTime();
+        LocalDateTime updatedAt = rs.getTimestamp(columns[5]).toLocalDateTime();
 
         return new Category(categoryId, name, description, parentCategoryId, createdAt, updatedAt);
     }
@@ -0,0 +1,115 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.config.DatabaseConfig;
+import com.ecommerce.model.ChangeLogEntry;
+import com.ecommerce.util.DatabaseUtil;
+import com.ecommerce.util.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Data Access Object for the change log.
+ * The DAOs that own a cache record their writes here, inside the transaction of the write, so a
+ * change becomes visible to other instances exactly when the write commits. Recording is a
+ * no-op unless changelog.enabled is set.
+ * The log is always read from the primary, so a poll sees every committed change no matter
+ * which replica it would have been routed to or how far that replica lags.
+ */
+public class ChangeLogDAO {
+    private static final String SELECT_ENTRIES = "SELECT change_id, entity, entity_id, changed_at FROM change_log ";
+
+    private final boolean enabled = DatabaseConfig.getInstance().isChangeLogEnabled();
+
+    /**
+     * Records a write to one row. Must be called in the transaction of the write.
+     *
+     * @param entity The kind of row written, one of the {@link ChangeLogEntry} constants
+     * @param entityId The ID of the row
+     */
+    public void record(String entity, int entityId) {
+        if (enabled) {
+            DatabaseUtil.executeUpdate("INSERT INTO change_log (entity, entity_id) VALUES (?, ?)",
+                                       new Object[]{entity, entityId});
+        }
+    }
+
+    /**
+     * Records writes to many rows with multi-row inserts. Must be called in the transaction of the writes.
+     *
+     * @param entity The kind of rows written, one of the {@link ChangeLogEntry} constants
+     * @param entityIds The IDs of the rows
+     */
+    public void recordAll(String entity, List<Integer> entityIds) {
+        if (!enabled || entityIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(entityIds.size());
+        for (int entityId : entityIds) {
+            rows.add(new Object[]{entity, entityId});
+        }
+        DatabaseUtil.executeMultiRowInsert("INSERT INTO change_log (entity, entity_id) VALUES", rows);
+    }
+
+    /**
+     * Finds the changes recorded after a change ID, oldest first.
+     *
+     * @param changeId The change ID to read past
+     * @param limit The maximum number of changes to return
+     * @return The changes, in ascending change ID order
+     */
+    public List<ChangeLogEntry> findAfter(long changeId, int limit) {
+        String query = SELECT_ENTRIES + "WHERE change_id > ? ORDER BY change_id LIMIT ?";
+        return TransactionTemplate.readFromPrimary(
+                () -> DatabaseUtil.queryForList(query, new Object[]{changeId, limit}, this::mapResultSetToEntry));
+    }
+
+    /**
+     * Finds changes by their IDs.
+     *
+     * @param changeIds The change IDs to look up
+     * @return The changes found, in ascending change ID order
+     */
+    public List<ChangeLogEntry> findByIds(Collection<Long> changeIds) {
+        if (changeIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String query = SELECT_ENTRIES + "WHERE change_id IN (" +
+                      String.join(", ", Collections.nCopies(changeIds.size(), "?")) + ") ORDER BY change_id";
+        return TransactionTemplate.readFromPrimary(
+                () -> DatabaseUtil.queryForList(query, changeIds.toArray(), this::mapResultSetToEntry));
+    }
+
+    /**
+     * Gets the ID of the latest change.
+     *
+     * @return The highest change ID, or 0 if the log is empty
+     */
+    public long findLatestId() {
+        Long latest = TransactionTemplate.readFromPrimary(
+                () -> DatabaseUtil.queryForObject("SELECT MAX(change_id) FROM change_log", null, rs -> rs.getLong(1)));
+        return latest != null ? latest : 0;
+    }
+
+    /**
+     * Deletes the changes recorded before a point in time.
+     *
+     * @param cutoff The oldest recording time to keep
+     * @return The number of deleted changes
+     */
+    public int deleteOlderThan(LocalDateTime cutoff) {
+        return DatabaseUtil.executeUpdate("DELETE FROM change_log WHERE changed_at < ?", new Object[]{cutoff});
+    }
+
+    private ChangeLogEntry mapResultSetToEntry(ResultSet rs) throws SQLException {
+        Timestamp changedAt = rs.getTimestamp(4);
+        return new ChangeLogEntry(rs.getLong(1), rs.getString(2), rs.getInt(3),
+                                  changedAt != null ? changedAt.toLocalDateTime() : null);
+    }
+}
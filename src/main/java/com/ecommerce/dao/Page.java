@@ -0,0 +1,88 @@
+package com.ecommerce.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * A single page of results from a keyset-paginated query.
+ * The next cursor is opaque to clients and encodes the sort key and ID of the last row returned.
+ *
+ * @param <T> The type of items in the page
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * Constructor for creating a new Page object.
+     *
+     * @param items      The items in this page
+     * @param nextCursor The cursor for the next page (null if this is the last page)
+     */
+    public Page(List<T> items, String nextCursor) {
+        this.items = items != null ? items : List.of();
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<T> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+
+    /**
+     * Checks if there are more results after this page.
+     *
+     * @return true if a next page exists, false otherwise
+     */
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Encodes a keyset position into an opaque cursor string.
+     *
+     * @param id      The ID of the last row in the page
+     * @param sortKey The sort key of the last row in the page
+     * @return The encoded cursor
+     */
+    public static String encodeCursor(int id, String sortKey) {
+        String raw = id + "|" + sortKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes an opaque cursor string into its keyset position.
+     *
+     * @param cursor The encoded cursor
+     * @return The decoded cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new Cursor(Integer.parseInt(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Keyset position decoded from a cursor.
+     */
+    public static class Cursor {
+        private final int id;
+        private final String sortKey;
+
+        public Cursor(int id, String sortKey) {
+            this.id = id;
+            this.sortKey = sortKey;
+        }
+
+        public int getId() { return id; }
+        public String getSortKey() { return sortKey; }
+    }
+}
@@ -1,17 +1,33 @@
 package com.ecommerce.dao;
 
+import com.ecommerce.cache.CacheManager;
+import com.ecommerce.cache.EntityCache;
 import com.ecommerce.model.Category;
+import com.ecommerce.model.ChangeLogEntry;
 import com.ecommerce.model.Product;
+import com.ecommerce.search.ProductSearchIndex;
 import com.ecommerce.util.DatabaseUtil;
+import com.ecommerce.util.StatementDescriptor;
+import com.ecommerce.util.TransactionTemplate;
+import com.google.gson.stream.JsonWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Data Access Object for Product entity.
@@ -20,18 +36,39 @@ import java.util.List;
 public class ProductDAO {
     private static final Logger logger = LoggerFactory.getLogger(ProductDAO.class);
 
+    // Columns read by mapResultSetToProduct, in the order of the indexes it uses
+    private static final String[] PRODUCT_COLUMNS = {
+        "product_id", "name", "description", "price", "sku", "weight", "dimensions", "brand",
+        "created_at", "updated_at", "is_active"
+    };
+
+    // Columns read by mapResultSetToCategory, in the order of the indexes it uses
+    private static final String[] CATEGORY_COLUMNS = {
+        "category_id", "name", "description", "parent_category_id", "created_at", "updated_at"
+    };
+
+    // Category columns followed by the ID of the linked product
+    private static final String[] CATEGORY_LINK_COLUMNS = {
+        "category_id", "name", "description", "parent_category_id", "created_at", "updated_at",
+        "link_product_id"
+    };
+
+    private final ProductSearchIndex searchIndex = ProductSearchIndex.getInstance();
+    private final EntityCache<Integer, Product> cache = CacheManager.getInstance().getCache("products");
+    private final ChangeLogDAO changeLog = new ChangeLogDAO();
+
     /**
-     * Finds a product by its unique ID.
+     * Finds a product by its unique ID, serving repeated lookups from the product cache.
      *
      * @param productId The ID of the product to find
      * @return The Product object if found, null otherwise
      */
     public Product findById(int productId) {
-        String query = "SELECT p.*, i.quantity_available, i.reserved_quantity " +
-                      "FROM products p " +
-                      "LEFT JOIN inventory i ON p.product_id = i.product_id " +
-                      "WHERE p.product_id = ?";
-        return DatabaseUtil.queryForObject(query, new Object[]{productId}, this::mapResultSetToProduct);
+        return cache.get(productId, id -> {
+            List<Product> products = findWithCategories("products p", "p.product_id = ?", "p.product_id",
+                                                         new Object[]{id});
+            return products.isEmpty() ? null : products.get(0);
+        });
     }
 
     /**
@@ -40,12 +77,7 @@ public class ProductDAO {
      * @return A list of all active products
      */
     public List<Product> findAllActive() {
-        String query = "SELECT p.*, i.quantity_available, i.reserved_quantity " +
-                      "FROM products p " +
-                      "LEFT JOIN inventory i ON p.product_id = i.product_id " +
-                      "WHERE p.is_active = TRUE " +
-                      "ORDER BY p.created_at DESC";
-        return DatabaseUtil.queryForList(query, null, this::mapResultSetToProduct);
+        return findWithCategories("products p", "p.is_active = TRUE", "p.created_at DESC", null);
     }
 
     /**
@@ -55,12 +87,8 @@ public class ProductDAO {
      * @return A list of matching products
      */
     public List<Product> findByName(String name) {
-        String query = "SELECT p.*, i.quantity_available, i.reserved_quantity " +
-                      "FROM products p " +
-                      "LEFT JOIN inventory i ON p.product_id = i.product_id " +
-                      "WHERE p.name LIKE ? AND p.is_active = TRUE " +
-                      "ORDER BY p.name";
-        return DatabaseUtil.queryForList(query, new Object[]{"%" + name + "%"}, this::mapResultSetToProduct);
+        return findWithCategories("products p", "p.name LIKE ? AND p.is_active = TRUE", "p.name",
+                                  new Object[]{containsPattern(name)});
     }
 
     /**
@@ -70,13 +98,9 @@ public class ProductDAO {
      * @return A list of products in the specified category
      */
     public List<Product> findByCategory(int categoryId) {
-        String query = "SELECT p.*, i.quantity_available, i.reserved_quantity " +
-                      "FROM products p " +
-                      "JOIN products_categories pc ON p.product_id = pc.product_id " +
-                      "LEFT JOIN inventory i ON p.product_id = i.product_id " +
-                      "WHERE pc.category_id = ? AND p.is_active = TRUE " +
-                      "ORDER BY p.name";
-        return DatabaseUtil.queryForList(query, new Object[]{categoryId}, this::mapResultSetToProduct);
+        return findWithCategories("products p JOIN products_categories pc ON p.product_id = pc.product_id",
+                                  "pc.category_id = ? AND p.is_active = TRUE", "p.name",
+                                  new Object[]{categoryId});
     }
 
     /**
@@ -87,12 +111,190 @@ public class ProductDAO {
      * @return A list of products within the price range
      */
     public List<Product> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        String query = "SELECT p.*, i.quantity_available, i.reserved_quantity " +
-                      "FROM products p " +
-                      "LEFT JOIN inventory i ON p.product_id = i.product_id " +
-                      "WHERE p.price >= ? AND p.price <= ? AND p.is_active = TRUE " +
-                      "ORDER BY p.price";
-        return DatabaseUtil.queryForList(query, new Object[]{minPrice, maxPrice}, this::mapResultSetToProduct);
+        return findWithCategories("products p", "p.price >= ? AND p.price <= ? AND p.is_active = TRUE", "p.price",
+                                  new Object[]{minPrice, maxPrice});
+    }
+
+    /**
+     * Finds products by their IDs.
+     *
+     * @param productIds The IDs of the products to find
+     * @return A list of the products found, in the order of the given IDs
+     */
+    public List<Product> findByIds(List<Integer> productIds) {
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(productIds.size(), "?"));
+        List<Product> products = findWithCategories("products p", "p.product_id IN (" + placeholders + ")",
+                                                    "p.product_id", productIds.toArray());
+        Map<Integer, Product> productsById = new HashMap<>();
+        for (Product product : products) {
+            productsById.put(product.getProductId(), product);
+        }
+        List<Product> ordered = new ArrayList<>(products.size());
+        for (int productId : productIds) {
+            Product product = productsById.get(productId);
+            if (product != null) {
+                ordered.add(product);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Finds every product, active or not, last updated after the given time.
+     *
+     * @param since The lower bound for updated_at, exclusive (null for all products)
+     * @return A list of the products with their categories, ordered by ID
+     */
+    public List<Product> findModifiedSince(LocalDateTime since) {
+        if (since == null) {
+            return findWithCategories("products p", "1 = 1", "p.product_id", null);
+        }
+        return findWithCategories("products p", "p.updated_at > ?", "p.product_id", new Object[]{since});
+    }
+
+    /**
+     * Counts all products, active or not.
+     *
+     * @return The number of products
+     */
+    public int count() {
+        Integer count = DatabaseUtil.queryForObject("SELECT COUNT(*) FROM products", null, rs -> rs.getInt(1));
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Gets the time of the most recent product update.
+     *
+     * @return The latest updated_at, or null if there are no products
+     */
+    public LocalDateTime findLatestUpdate() {
+        return DatabaseUtil.queryForObject("SELECT MAX(updated_at) FROM products", null, rs -> {
+            Timestamp latest = rs.getTimestamp(1);
+            return latest != null ? latest.toLocalDateTime() : null;
+        });
+    }
+
+    /**
+     * Finds the IDs of all products, active or not.
+     *
+     * @return The product IDs in ascending order
+     */
+    public List<Integer> findAllIds() {
+        return DatabaseUtil.queryForList("SELECT product_id FROM products ORDER BY product_id", null,
+                                         rs -> rs.getInt(1));
+    }
+
+    /**
+     * Searches active products by name, brand and description using the in-memory search index.
+     * Every term of the query must match.
+     *
+     * @param query The free-text query
+     * @param limit The maximum number of products to return
+     * @return A list of matching products
+     */
+    public List<Product> search(String query, int limit) {
+        return findByIds(searchIndex.search(query, limit));
+    }
+
+    /**
+     * Finds a page of active products, newest first, using keyset pagination on
+     * {@code (created_at, product_id)} so that deep pages cost the same as the first one.
+     *
+     * @param limit The maximum number of products to return
+     * @param after The cursor returned with the previous page (null for the first page)
+     * @return A page of active products
+     * @throws IllegalArgumentException if the limit or cursor is invalid
+     */
+    public Page<Product> findAllActive(int limit, String after) {
+        String where = "p.is_active = TRUE";
+        Object[] params = {};
+        if (after != null) {
+            Page.Cursor cursor = Page.decodeCursor(after);
+            LocalDateTime createdAt = parseCursorTimestamp(cursor.getSortKey());
+            where += " AND (p.created_at < ? OR (p.created_at = ? AND p.product_id < ?))";
+            params = new Object[]{createdAt, createdAt, cursor.getId()};
+        }
+        List<Product> rows = findWithCategories("products p", where, "p.created_at DESC, p.product_id DESC",
+                                                params, pageSize(limit));
+        return toPage(rows, limit, product -> product.getCreatedAt().toString());
+    }
+
+    /**
+     * Finds a page of products by name (case-insensitive partial match), using keyset
+     * pagination on {@code (name, product_id)}.
+     *
+     * @param name The name to search for
+     * @param limit The maximum number of products to return
+     * @param after The cursor returned with the previous page (null for the first page)
+     * @return A page of matching products
+     * @throws IllegalArgumentException if the limit or cursor is invalid
+     */
+    public Page<Product> findByName(String name, int limit, String after) {
+        return findPageByName("products p", "p.name LIKE ? AND p.is_active = TRUE",
+                              new Object[]{containsPattern(name)}, limit, after);
+    }
+
+    /**
+     * Finds a page of products in a category, using keyset pagination on {@code (name, product_id)}.
+     *
+     * @param categoryId The ID of the category to filter by
+     * @param limit The maximum number of products to return
+     * @param after The cursor returned with the previous page (null for the first page)
+     * @return A page of products in the specified category
+     * @throws IllegalArgumentException if the limit or cursor is invalid
+     */
+    public Page<Product> findByCategory(int categoryId, int limit, String after) {
+        return findPageByName("products p JOIN products_categories pc ON p.product_id = pc.product_id",
+                              "pc.category_id = ? AND p.is_active = TRUE", new Object[]{categoryId}, limit, after);
+    }
+
+    /**
+     * Finds a page of products filed under a category or any of its descendants, using keyset
+     * pagination on {@code (name, product_id)}. The subtree is resolved through the category
+     * closure table in the same statement, so the cost does not depend on the depth of the tree.
+     *
+     * @param categoryId The ID of the category at the root of the subtree
+     * @param limit The maximum number of products to return
+     * @param after The cursor returned with the previous page (null for the first page)
+     * @return A page of products in the category subtree
+     * @throws IllegalArgumentException if the limit or cursor is invalid
+     */
+    public Page<Product> findByCategorySubtree(int categoryId, int limit, String after) {
+        return findPageByName("products p",
+                              "p.product_id IN (SELECT pc.product_id FROM category_closure cc " +
+                              "JOIN products_categories pc ON pc.category_id = cc.descendant_id " +
+                              "WHERE cc.ancestor_id = ?) AND p.is_active = TRUE",
+                              new Object[]{categoryId}, limit, after);
+    }
+
+    /**
+     * Streams the whole active catalog to a JSON writer as an object with {@code categories},
+     * {@code products} and {@code productCategories} arrays. Rows are written as they are read
+     * from the database, so memory use stays constant regardless of catalog size.
+     *
+     * @param writer The JSON writer to stream the catalog to
+     * @throws IOException if writing to the JSON writer fails
+     */
+    public void exportCatalog(JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("categories");
+        DatabaseUtil.queryForJsonArray("SELECT * FROM categories ORDER BY category_id", null, writer);
+        writer.name("products");
+        DatabaseUtil.queryForJsonArray("SELECT p.*, i.quantity_available, i.reserved_quantity " +
+                                      "FROM products p " +
+                                      "LEFT JOIN inventory i ON p.product_id = i.product_id " +
+                                      "WHERE p.is_active = TRUE " +
+                                      "ORDER BY p.product_id", null, writer);
+        writer.name("productCategories");
+        DatabaseUtil.queryForJsonArray("SELECT pc.product_id, pc.category_id FROM products_categories pc " +
+                                      "JOIN products p ON p.product_id = pc.product_id " +
+                                      "WHERE p.is_active = TRUE " +
+                                      "ORDER BY pc.product_id, pc.category_id", null, writer);
+        writer.endObject();
+        writer.flush();
     }
 
     /**
@@ -116,29 +318,118 @@ public class ProductDAO {
             product.isActive()
         };
         
-        int productId = DatabaseUtil.executeInsert(query, params);
-        logger.info("Created new product with ID: {}", productId);
+        // Insert the product, its inventory record and category links on one connection
+        int newProductId = TransactionTemplate.inTransaction(() -> {
+            int productId = DatabaseUtil.executeInsert(query, params);
+            logger.info("Created new product with ID: {}", productId);
+            
+            // Create inventory record for the new product
+            createInventoryRecords(List.of(productId));
+            
+            // Associate with categories if provided
+            if (product.getCategories() != null && !product.getCategories().isEmpty()) {
+                associateWithCategories(productId, product.getCategories());
+            }
+            
+            changeLog.record(ChangeLogEntry.PRODUCTS, productId);
+            return productId;
+        });
+        cache.invalidate(newProductId);
         
-        // Create inventory record for the new product
-        createInventoryRecord(productId);
+        if (product.isActive()) {
+            searchIndex.index(newProductId, product.getName(), product.getBrand(), product.getDescription());
+        }
+        return newProductId;
+    }
+
+    /**
+     * Creates many products with their inventory records and category links in one transaction
+     * (or as part of the current one). Each table is written with multi-row inserts, and the
+     * generated IDs are read back by SKU with a single query.
+     *
+     * @param products The products to create; their SKUs must be unique
+     * @return The IDs of the new products, in the order of the given products
+     */
+    public List<Integer> createAll(List<Product> products) {
+        if (products.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-        // Associate with categories if provided
-        if (product.getCategories() != null && !product.getCategories().isEmpty()) {
-            associateWithCategories(productId, product.getCategories());
+        List<Object[]> productRows = new ArrayList<>(products.size());
+        List<String> skus = new ArrayList<>(products.size());
+        for (Product product : products) {
+            productRows.add(new Object[]{product.getName(), product.getDescription(), product.getPrice(),
+                                         product.getSku(), product.getWeight(), product.getDimensions(),
+                                         product.getBrand(), product.isActive()});
+            skus.add(product.getSku());
         }
         
-        return productId;
+        List<Integer> productIds = TransactionTemplate.inTransaction(() -> {
+            DatabaseUtil.executeMultiRowInsert("INSERT INTO products (name, description, price, sku, weight, " +
+                                               "dimensions, brand, is_active) VALUES", productRows);
+            
+            Map<String, Integer> idsBySku = findIdsBySku(skus);
+            List<Integer> ids = new ArrayList<>(products.size());
+            List<Object[]> linkRows = new ArrayList<>();
+            for (Product product : products) {
+                int productId = idsBySku.get(product.getSku());
+                ids.add(productId);
+                if (product.getCategories() != null) {
+                    for (Category category : product.getCategories()) {
+                        linkRows.add(new Object[]{productId, category.getCategoryId()});
+                    }
+                }
+            }
+            
+            createInventoryRecords(ids);
+            DatabaseUtil.executeMultiRowInsert("INSERT INTO products_categories (product_id, category_id) VALUES",
+                                               linkRows);
+            changeLog.recordAll(ChangeLogEntry.PRODUCTS, ids);
+            return ids;
+        });
+        logger.info("Created {} products", productIds.size());
+        productIds.forEach(cache::invalidate);
+        
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            if (product.isActive()) {
+                searchIndex.index(productIds.get(i), product.getName(), product.getBrand(), product.getDescription());
+            }
+        }
+        return productIds;
     }
 
     /**
-     * Updates an existing product in the database.
+     * Finds the product IDs for the given SKUs.
+     *
+     * @param skus The SKUs to look up
+     * @return The IDs of the existing products keyed by SKU
+     */
+    public Map<String, Integer> findIdsBySku(Collection<String> skus) {
+        Map<String, Integer> idsBySku = new HashMap<>();
+        if (skus.isEmpty()) {
+            return idsBySku;
+        }
+        String query = "SELECT product_id, sku FROM products WHERE sku IN (" +
+                      String.join(", ", Collections.nCopies(skus.size(), "?")) + ")";
+        List<Map.Entry<String, Integer>> rows = DatabaseUtil.queryForList(query, skus.toArray(),
+                rs -> Map.entry(rs.getString(2), rs.getInt(1)));
+        for (Map.Entry<String, Integer> row : rows) {
+            idsBySku.put(row.getKey(), row.getValue());
+        }
+        return idsBySku;
+    }
+
+    /**
+     * Updates an existing product in the database. The updated_at column is set from the database
+     * clock, so that snapshot polls on other instances compare it against one clock.
      *
      * @param product The product with updated information
      * @return The number of affected rows
      */
     public int update(Product product) {
         String query = "UPDATE products SET name = ?, description = ?, price = ?, sku = ?, " +
-                      "weight = ?, dimensions = ?, brand = ?, is_active = ?, updated_at = ? " +
+                      "weight = ?, dimensions = ?, brand = ?, is_active = ?, updated_at = CURRENT_TIMESTAMP " +
                       "WHERE product_id = ?";
         
         Object[] params = {
@@ -150,12 +441,24 @@ public class ProductDAO {
             product.getDimensions(),
             product.getBrand(),
             product.isActive(),
-            product.getUpdatedAt(),
             product.getProductId()
         };
         
-        int result = DatabaseUtil.executeUpdate(query, params);
+        int result = TransactionTemplate.inTransaction(() -> {
+            int updated = DatabaseUtil.executeUpdate(query, params);
+            if (updated > 0) {
+                changeLog.record(ChangeLogEntry.PRODUCTS, product.getProductId());
+            }
+            return updated;
+        });
         logger.info("Updated product with ID: {}, {} rows affected", product.getProductId(), result);
+        cache.invalidate(product.getProductId());
+        
+        if (result > 0 && product.isActive()) {
+            searchIndex.index(product.getProductId(), product.getName(), product.getBrand(), product.getDescription());
+        } else if (result > 0) {
+            searchIndex.remove(product.getProductId());
+        }
         return result;
     }
 
@@ -167,24 +470,37 @@ public class ProductDAO {
      */
     public int delete(int productId) {
         String query = "DELETE FROM products WHERE product_id = ?";
-        int result = DatabaseUtil.executeUpdate(query, new Object[]{productId});
+        int result = TransactionTemplate.inTransaction(() -> {
+            int deleted = DatabaseUtil.executeUpdate(query, new Object[]{productId});
+            if (deleted > 0) {
+                changeLog.record(ChangeLogEntry.PRODUCTS, productId);
+            }
+            return deleted;
+        });
         logger.info("Deleted product with ID: {}, {} rows affected", productId, result);
+        cache.invalidate(productId);
+        searchIndex.remove(productId);
         return result;
     }
 
     /**
-     * Creates an inventory record for a new product.
+     * Creates inventory records for new products in a single batch.
      *
-     * @param productId The ID of the product
+     * @param productIds The IDs of the products
      */
-    private void createInventoryRecord(int productId) {
+    private void createInventoryRecords(List<Integer> productIds) {
         String query = "INSERT INTO inventory (product_id, quantity_available, reserved_quantity, reorder_level) " +
                       "VALUES (?, 0, 0, 10)";
-        DatabaseUtil.executeUpdate(query, new Object[]{productId});
+        List<Object[]> paramsList = new ArrayList<>(productIds.size());
+        for (int productId : productIds) {
+            paramsList.add(new Object[]{productId});
+        }
+        DatabaseUtil.executeBatch(query, paramsList);
     }
 
     /**
-     * Associates a product with multiple categories.
+     * Associates a product with multiple categories, replacing any existing associations.
+     * The new links are written with a single multi-row insert.
      *
      * @param productId The ID of the product
      * @param categories The list of categories to associate with
@@ -193,10 +509,166 @@ public class ProductDAO {
         String deleteQuery = "DELETE FROM products_categories WHERE product_id = ?";
         DatabaseUtil.executeUpdate(deleteQuery, new Object[]{productId});
         
-        String insertQuery = "INSERT INTO products_categories (product_id, category_id) VALUES (?, ?)";
+        List<Object[]> rows = new ArrayList<>(categories.size());
         for (Category category : categories) {
-            DatabaseUtil.executeUpdate(insertQuery, new Object[]{productId, category.getCategoryId()});
+            rows.add(new Object[]{productId, category.getCategoryId()});
         }
+        DatabaseUtil.executeMultiRowInsert("INSERT INTO products_categories (product_id, category_id) VALUES", rows);
+    }
+
+    /**
+     * Finds a page of products ordered by {@code (name, product_id)} for the given filter.
+     *
+     * @param from The FROM clause selecting products
+     * @param where The WHERE clause filtering the products
+     * @param filterParams The parameters for the WHERE clause
+     * @param limit The maximum number of products to return
+     * @param after The cursor returned with the previous page (null for the first page)
+     * @return A page of matching products
+     */
+    private Page<Product> findPageByName(String from, String where, Object[] filterParams, int limit, String after) {
+        Object[] params = filterParams;
+        if (after != null) {
+            Page.Cursor cursor = Page.decodeCursor(after);
+            where += " AND (p.name > ? OR (p.name = ? AND p.product_id > ?))";
+            params = Arrays.copyOf(filterParams, filterParams.length + 3);
+            params[filterParams.length] = cursor.getSortKey();
+            params[filterParams.length + 1] = cursor.getSortKey();
+            params[filterParams.length + 2] = cursor.getId();
+        }
+        List<Product> rows = findWithCategories(from, where, "p.name, p.product_id", params, pageSize(limit));
+        return toPage(rows, limit, Product::getName);
+    }
+
+    /**
+     * Validates a page limit and returns the number of rows to fetch, which is one more than
+     * the limit so that the existence of a next page can be detected without a count query.
+     *
+     * @param limit The requested page size
+     * @return The number of rows to fetch
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    private int pageSize(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive");
+        }
+        return limit + 1;
+    }
+
+    /**
+     * Trims an over-fetched result to the page limit and builds the cursor for the next page.
+     *
+     * @param rows The rows fetched (up to limit + 1)
+     * @param limit The requested page size
+     * @param sortKey Extracts the sort key that precedes product_id in the ordering
+     * @return The page of results
+     */
+    private Page<Product> toPage(List<Product> rows, int limit, Function<Product, String> sortKey) {
+        if (rows.size() <= limit) {
+            return new Page<>(rows, null);
+        }
+        List<Product> items = new ArrayList<>(rows.subList(0, limit));
+        Product last = items.get(limit - 1);
+        return new Page<>(items, Page.encodeCursor(last.getProductId(), sortKey.apply(last)));
+    }
+
+    /**
+     * Parses the timestamp stored in a created_at cursor.
+     *
+     * @param value The cursor sort key
+     * @return The parsed timestamp
+     * @throws IllegalArgumentException if the value is not a valid timestamp
+     */
+    private LocalDateTime parseCursorTimestamp(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor timestamp: " + value, e);
+        }
+    }
+
+    /**
+     * Builds a LIKE pattern matching names that contain the given text, with LIKE's wildcards
+     * and escape character in the text escaped so they match themselves, as in the catalog
+     * snapshot's name search.
+     *
+     * @param text The text to search for
+     * @return The pattern
+     */
+    private static String containsPattern(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Loads the products matching a filter together with their categories.
+     *
+     * @see #findWithCategories(String, String, String, Object[], int)
+     */
+    private List<Product> findWithCategories(String from, String where, String orderBy, Object[] params) {
+        return findWithCategories(from, where, orderBy, params, 0);
+    }
+
+    /**
+     * Loads the products matching a filter together with their categories using exactly two
+     * statements: one for the category links of every matching product and one for the products
+     * themselves. The categories are stitched onto the products in memory, so the number of
+     * round trips does not grow with the number of rows returned. Concurrent callers loading the
+     * same products share one load, so the returned list and products must not be modified.
+     *
+     * @param from The FROM clause selecting products (must alias the products table as {@code p})
+     * @param where The WHERE clause filtering the products
+     * @param orderBy The ORDER BY clause for the product rows
+     * @param params The parameters for the WHERE clause
+     * @param limit The maximum number of products to load (0 for no limit)
+     * @return A list of matching products with their categories populated
+     */
+    private List<Product> findWithCategories(String from, String where, String orderBy, Object[] params, int limit) {
+        String filter = "FROM " + from + " WHERE " + where + " ORDER BY " + orderBy;
+        Object[] allParams = params;
+        if (limit > 0) {
+            filter += " LIMIT ?";
+            allParams = params != null ? Arrays.copyOf(params, params.length + 1) : new Object[1];
+            allParams[allParams.length - 1] = limit;
+        }
+        String productQuery = "SELECT p.*, i.quantity_available, i.reserved_quantity " +
+                             "FROM " + from + " " +
+                             "LEFT JOIN inventory i ON p.product_id = i.product_id " +
+                             "WHERE " + where + " " +
+                             "ORDER BY " + orderBy +
+                             (limit > 0 ? " LIMIT ?" : "");
+
+        // Identical concurrent loads run once; both statements share one connection, which may be a read replica
+        String categoryFilter = filter;
+        Object[] queryParams = allParams;
+        return DatabaseUtil.coalesce(productQuery, queryParams, () -> {
+            try (TransactionTemplate.ConnectionScope scope = TransactionTemplate.openConnectionScope()) {
+                return loadWithCategories(categoryFilter, productQuery, queryParams);
+            }
+        });
+    }
+
+    /**
+     * Runs the two statements behind {@link #findWithCategories(String, String, String, Object[], int)}.
+     */
+    private List<Product> loadWithCategories(String filter, String productQuery, Object[] params) {
+        String categoryQuery = "SELECT link.product_id AS link_product_id, c.* FROM categories c " +
+                              "JOIN products_categories link ON c.category_id = link.category_id " +
+                              "JOIN (SELECT p.product_id " + filter + ") matched " +
+                              "ON matched.product_id = link.product_id";
+        List<Map.Entry<Integer, Category>> links = DatabaseUtil.queryForList(
+                new StatementDescriptor<>(categoryQuery, CATEGORY_LINK_COLUMNS,
+                        (rs, columns) -> Map.entry(rs.getInt(columns[6]), mapResultSetToCategory(rs, columns))),
+                params);
+
+        Map<Integer, List<Category>> categoriesByProduct = new HashMap<>();
+        for (Map.Entry<Integer, Category> link : links) {
+            categoriesByProduct.computeIfAbsent(link.getKey(), id -> new ArrayList<>()).add(link.getValue());
+        }
+
+        return DatabaseUtil.queryForList(
+                new StatementDescriptor<>(productQuery, PRODUCT_COLUMNS, (rs, columns) -> mapResultSetToProduct(rs, columns,
+                        categoriesByProduct.getOrDefault(rs.getInt(columns[0]), new ArrayList<>()))),
+                params);
     }
 
     /**
@@ -209,31 +681,31 @@ public class ProductDAO {
         String query = "SELECT c.* FROM categories c " +
                       "JOIN products_categories pc ON c.category_id = pc.category_id " +
                       "WHERE pc.product_id = ?";
-        return DatabaseUtil.queryForList(query, new Object[]{productId}, this::mapResultSetToCategory);
+        return DatabaseUtil.queryForList(new StatementDescriptor<>(query, CATEGORY_COLUMNS, this::mapResultSetToCategory),
+                                         new Object[]{productId});
     }
 
     /**
      * Maps a ResultSet row to a Product object.
      *
      * @param rs The ResultSet to map from
+     * @param columns The indexes of {@link #PRODUCT_COLUMNS} in the ResultSet
+     * @param categories The categories already loaded for this product
      * @return The mapped Product object
      * @throws SQLException if there's an error during mapping
      */
-    private Product mapResultSetToProduct(ResultSet rs) throws SQLException {
-        int productId = rs.getInt("product_id");
-        String name = rs.getString("name");
-        String description = rs.getString("description");
-        BigDecimal price = rs.getBigDecimal("price");
-        String sku = rs.getString("sku");
-        BigDecimal weight = rs.getBigDecimal("weight");
-        String dimensions = rs.getString("dimensions");
-        String brand = rs.getString("brand");
-        LocalDateTime createdAt = rs.getTimestamp("created_at").toLocalDateTime();
-        LocalDateTime updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
-        boolean isActive = rs.getBoolean("is_active");
-
-        // Get associated categories
-        List<Category> categories = getCategoriesForProduct(productId);
+    private Product mapResultSetToProduct(ResultSet rs, int[] columns, List<Category> categories) throws SQLException {
+        int productId = rs.getInt(columns[0]);
+        String name = rs.getString(columns[1]);
+        String description = rs.getString(columns[2]);
+        BigDecimal price = rs.getBigDecimal(columns[3]);
+        String sku = rs.getString(columns[4]);
+        BigDecimal weight = rs.getBigDecimal(columns[5]);
+        String dimensions = rs.getString(columns[6]);
+        String brand = rs.getString(columns[7]);
+        LocalDateTime createdAt = rs.getTimestamp(columns[8]).toLocalDateTime();
+        LocalDateTime updatedAt = rs.getTimestamp(columns[9]).toLocalDateTime();
+        boolean isActive = rs.getBoolean(columns[10]);
 
         return new Product(productId, name, description, price, sku, weight, dimensions, brand,
                           createdAt, updatedAt, isActive, categories);
@@ -243,16 +715,17 @@ public class ProductDAO {
      * Maps a ResultSet row to a Category object.
      *
      * @param rs The ResultSet to map from
+     * @param columns The indexes of {@link #CATEGORY_COLUMNS} in the ResultSet
      * @return The mapped Category object
      * @throws SQLException if there's an error during mapping
      */
-    private Category mapResultSetToCategory(ResultSet rs) throws SQLException {
-        int categoryId = rs.getInt("category_id");
-        String name = rs.getString("name");
-        String description = rs.getString("description");
-        Integer parentCategoryId = rs.getObject("parent_category_id", Integer.class);
-        LocalDateTime createdAt = rs.getTimestamp("created_at").toLocalDateTime();
-        LocalDateTime updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
+    private Category mapResultSetToCategory(ResultSet rs, int[] columns) throws SQLException {
+        int categoryId = rs.getInt(columns[0]);
+        String name = rs.getString(columns[1]);
+        String description = rs.getString(columns[2]);
+        Integer parentCategoryId = rs.getObject(columns[3], Integer.class);
+        LocalDateTime createdAt = rs.getTimestamp(columns[4]).toLocalDateTime();
+        LocalDateTime updatedAt = rs.getTimestamp(columns[5]).toLocalDateTime();
 
         return new Category(categoryId, name, description, parentCategoryId, createdAt, updatedAt);
     }
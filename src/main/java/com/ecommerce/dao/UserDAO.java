@@ -1,7 +1,13 @@
 package com.ecommerce.dao;
 
+import com.ecommerce.cache.CacheManager;
+import com.ecommerce.cache.EntityCache;
+import com.ecommerce.model.ChangeLogEntry;
 import com.ecommerce.model.User;
 import com.ecommerce.util.DatabaseUtil;
+import com.ecommerce.util.PasswordHasher;
+import com.ecommerce.util.StatementDescriptor;
+import com.ecommerce.util.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -9,6 +15,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Data Access Object for User entity.
@@ -17,15 +28,54 @@ import java.util.List;
 public class UserDAO {
     private static final Logger logger = LoggerFactory.getLogger(UserDAO.class);
 
+    // Columns read by mapResultSetToUser, in the order of the indexes it uses
+    private static final String[] USER_COLUMNS = {
+        "user_id", "username", "email", "first_name", "last_name", "phone", "address",
+        "user_type", "created_at", "updated_at", "is_active"
+    };
+
+    // The user columns followed by the password hash, read by mapResultSetToCredentials
+    private static final String[] CREDENTIAL_COLUMNS = {
+        "user_id", "username", "email", "first_name", "last_name", "phone", "address",
+        "user_type", "created_at", "updated_at", "is_active", "password_hash"
+    };
+
+    // Stores rehashed passwords off the hashing pool, so a slow database cannot hold up BCrypt threads;
+    // when the queue is full the write is dropped and the next login rehashes again
+    private static final int REHASH_QUEUE_SIZE = 100;
+    private static final ExecutorService rehashWriter = new ThreadPoolExecutor(
+            1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(REHASH_QUEUE_SIZE), runnable -> {
+                Thread thread = new Thread(runnable, "password-rehash-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final EntityCache<Integer, User> cache = CacheManager.getInstance().getCache("users");
+    private final ChangeLogDAO changeLog = new ChangeLogDAO();
+    private final PasswordHasher passwordHasher;
+
+    public UserDAO() {
+        this(PasswordHasher.getInstance());
+    }
+
+    /**
+     * Constructor for creating a UserDAO that hashes passwords with the given hasher.
+     *
+     * @param passwordHasher The hasher for checking and storing passwords
+     */
+    public UserDAO(PasswordHasher passwordHasher) {
+        this.passwordHasher = passwordHasher;
+    }
+
     /**
-     * Finds a user by their unique ID.
+     * Finds a user by their unique ID, serving repeated lookups from the user cache.
      *
      * @param userId The ID of the user to find
      * @return The User object if found, null otherwise
      */
     public User findById(int userId) {
         String query = "SELECT * FROM users WHERE user_id = ?";
-        return DatabaseUtil.queryForObject(query, new Object[]{userId}, this::mapResultSetToUser);
+        return cache.get(userId, id -> DatabaseUtil.queryForObject(userQuery(query), new Object[]{id}));
     }
 
     /**
@@ -36,7 +86,7 @@ public class UserDAO {
      */
     public User findByUsername(String username) {
         String query = "SELECT * FROM users WHERE username = ?";
-        return DatabaseUtil.queryForObject(query, new Object[]{username}, this::mapResultSetToUser);
+        return DatabaseUtil.queryForObject(userQuery(query), new Object[]{username});
     }
 
     /**
@@ -47,7 +97,7 @@ public class UserDAO {
      */
     public User findByEmail(String email) {
         String query = "SELECT * FROM users WHERE email = ?";
-        return DatabaseUtil.queryForObject(query, new Object[]{email}, this::mapResultSetToUser);
+        return DatabaseUtil.queryForObject(userQuery(query), new Object[]{email});
     }
 
     /**
@@ -57,7 +107,7 @@ public class UserDAO {
      */
     public List<User> findAll() {
         String query = "SELECT * FROM users ORDER BY created_at DESC";
-        return DatabaseUtil.queryForList(query, null, this::mapResultSetToUser);
+        return DatabaseUtil.queryForList(userQuery(query), null);
     }
 
     /**
@@ -82,8 +132,13 @@ public class UserDAO {
             user.isActive()
         };
         
-        int userId = DatabaseUtil.executeInsert(query, params);
+        int userId = TransactionTemplate.inTransaction(() -> {
+            int id = DatabaseUtil.executeInsert(query, params);
+            changeLog.record(ChangeLogEntry.USERS, id);
+            return id;
+        });
         logger.info("Created new user with ID: {}", userId);
+        cache.invalidate(userId);
         return userId;
     }
 
@@ -111,8 +166,15 @@ public class UserDAO {
             user.getUserId()
         };
         
-        int result = DatabaseUtil.executeUpdate(query, params);
+        int result = TransactionTemplate.inTransaction(() -> {
+            int updated = DatabaseUtil.executeUpdate(query, params);
+            if (updated > 0) {
+                changeLog.record(ChangeLogEntry.USERS, user.getUserId());
+            }
+            return updated;
+        });
         logger.info("Updated user with ID: {}, {} rows affected", user.getUserId(), result);
+        cache.invalidate(user.getUserId());
         return result;
     }
 
@@ -124,47 +186,139 @@ public class UserDAO {
      */
     public int delete(int userId) {
         String query = "DELETE FROM users WHERE user_id = ?";
-        int result = DatabaseUtil.executeUpdate(query, new Object[]{userId});
+        int result = TransactionTemplate.inTransaction(() -> {
+            int deleted = DatabaseUtil.executeUpdate(query, new Object[]{userId});
+            if (deleted > 0) {
+                changeLog.record(ChangeLogEntry.USERS, userId);
+            }
+            return deleted;
+        });
         logger.info("Deleted user with ID: {}, {} rows affected", userId, result);
+        cache.invalidate(userId);
+        return result;
+    }
+
+    /**
+     * Sets a user's password, storing its BCrypt hash.
+     *
+     * @param userId The ID of the user
+     * @param password The new password
+     * @return The number of affected rows
+     * @throws RejectedExecutionException if password hashing is at capacity
+     */
+    public int updatePassword(int userId, String password) {
+        String hash = passwordHasher.hash(password);
+        int result = DatabaseUtil.executeUpdate("UPDATE users SET password_hash = ? WHERE user_id = ?",
+                                                new Object[]{hash, userId});
+        logger.info("Updated password of user with ID: {}, {} rows affected", userId, result);
         return result;
     }
 
     /**
-     * Authenticates a user by username and password.
+     * Authenticates a user by username and password. The password is checked against the stored
+     * BCrypt hash on the password hashing pool; unknown users are checked against a dummy hash so
+     * that they take as long. A hash made with a different cost than the configured one is
+     * replaced in the background after a successful login.
      *
      * @param username The username to authenticate
-     * @param password The password to authenticate (should be hashed in real implementation)
+     * @param password The password to authenticate
      * @return The authenticated User object if credentials are valid, null otherwise
+     * @throws RejectedExecutionException if password hashing is at capacity
      */
     public User authenticate(String username, String password) {
-        // In a real system, you would compare hashed passwords
         String query = "SELECT * FROM users WHERE username = ? AND is_active = TRUE";
-        return DatabaseUtil.queryForObject(query, new Object[]{username}, this::mapResultSetToUser);
+        Credentials credentials = DatabaseUtil.queryForObject(
+                new StatementDescriptor<>(query, CREDENTIAL_COLUMNS, this::mapResultSetToCredentials),
+                new Object[]{username});
+        if (!passwordHasher.verify(password, credentials != null ? credentials.passwordHash : null)) {
+            return null;
+        }
+        if (passwordHasher.needsRehash(credentials.passwordHash)) {
+            rehash(credentials.user.getUserId(), password, credentials.passwordHash);
+        }
+        return credentials.user;
+    }
+
+    /**
+     * Replaces a user's password hash with one of the configured cost, in the background. The
+     * hash is computed on the hashing pool and stored by the rehash writer thread. It is only
+     * replaced if it has not changed in the meantime; if hashing or the writer is at capacity the
+     * next login tries again.
+     */
+    private void rehash(int userId, String password, String oldHash) {
+        try {
+            passwordHasher.hashAsync(password)
+                    .thenAcceptAsync(newHash -> DatabaseUtil.executeUpdate(
+                            "UPDATE users SET password_hash = ? WHERE user_id = ? AND password_hash = ?",
+                            new Object[]{newHash, userId, oldHash}), rehashWriter)
+                    .exceptionally(e -> {
+                        logger.warn("Failed to rehash password of user with ID: {}", userId, e);
+                        return null;
+                    });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Skipped rehashing password of user with ID: {}, hashing is at capacity", userId);
+        }
+    }
+
+    /**
+     * Creates a statement descriptor that maps the rows of a user query by column index.
+     *
+     * @param query The SQL query selecting user rows
+     * @return The statement descriptor
+     */
+    private StatementDescriptor<User> userQuery(String query) {
+        return new StatementDescriptor<>(query, USER_COLUMNS, this::mapResultSetToUser);
     }
 
     /**
      * Maps a ResultSet row to a User object.
      *
      * @param rs The ResultSet to map from
+     * @param columns The indexes of {@link #USER_COLUMNS} in the ResultSet
      * @return The mapped User object
      * @throws SQLException if there's an error during mapping
      */
-    private User mapResultSetToUser(ResultSet rs) throws SQLException {
-        int userId = rs.getInt("user_id");
-        String username = rs.getString("username");
-        String email = rs.getString("email");
-        String firstName = rs.getString("first_name");
-        String lastName = rs.getString("last_name");
-        String phone = rs.getString("phone");
-        String address = rs.getString("address");
-        String userTypeStr = rs.getString("user_type");
-        LocalDateTime createdAt = rs.getTimestamp("created_at").toLocalDateTime();
-        LocalDateTime updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
-        boolean isActive = rs.getBoolean("is_active");
+    private User mapResultSetToUser(ResultSet rs, int[] columns) throws SQLException {
+        int userId = rs.getInt(columns[0]);
+        String username = rs.getString(columns[1]);
+        String email = rs.getString(columns[2]);
+        String firstName = rs.getString(columns[3]);
+        String lastName = rs.getString(columns[4]);
+        String phone = rs.getString(columns[5]);
+        String address = rs.getString(columns[6]);
+        String userTypeStr = rs.getString(columns[7]);
+        LocalDateTime createdAt = rs.getTimestamp(columns[8]).toLocalDateTime();
+        LocalDateTime updatedAt = rs.getTimestamp(columns[9]).toLocalDateTime();
+        boolean isActive = rs.getBoolean(columns[10]);
 
         User.UserType userType = User.UserType.valueOf(userTypeStr);
 
         return new User(userId, username, email, firstName, lastName, phone, address,
                        userType, createdAt, updatedAt, isActive);
     }
-}
\ No newline at end of file
+
+    /**
+     * Maps a ResultSet row to a user and its password hash.
+     *
+     * @param rs The ResultSet to map from
+     * @param columns The indexes of {@link #CREDENTIAL_COLUMNS} in the ResultSet
+     * @return The mapped credentials
+     * @throws SQLException if there's an error during mapping
+     */
+    private Credentials mapResultSetToCredentials(ResultSet rs, int[] columns) throws SQLException {
+        return new Credentials(mapResultSetToUser(rs, columns), rs.getString(columns[11]));
+    }
+
+    /**
+     * A user together with its stored password hash, which the User model does not carry.
+     */
+    private static final class Credentials {
+        private final User user;
+        private final String passwordHash;
+
+        Credentials(User user, String passwordHash) {
+            this.user = user;
+            this.passwordHash = passwordHash;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.filter;
+
+import com.ecommerce.model.User;
+
+import java.security.Principal;
+
+/**
+ * The user an API request was authenticated as, built from the claims of its bearer token.
+ * Controllers get it from {@code HttpServletRequest.getUserPrincipal()}; it is only present on
+ * requests that passed the {@link AuthenticationFilter}.
+ */
+public final class AuthenticatedUser implements Principal {
+    private final int userId;
+    private final String username;
+    private final User.UserType role;
+
+    /**
+     * Constructor for creating a new AuthenticatedUser.
+     *
+     * @param userId The ID of the user
+     * @param username The username
+     * @param role The type of the user, or null if the token carries none
+     */
+    public AuthenticatedUser(int userId, String username, User.UserType role) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+    }
+
+    @Override
+    public String getName() { return username; }
+    public int getUserId() { return userId; }
+    public User.UserType getRole() { return role; }
+
+    /**
+     * Checks whether the user has the given type.
+     *
+     * @param role The name of the user type, such as ADMIN
+     * @return true if the user has that type, false otherwise
+     */
+    public boolean hasRole(String role) {
+        return this.role != null && this.role.name().equals(role);
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{userId=" + userId + ", username='" + username + "', role=" + role + "}";
+    }
+}
@@ -0,0 +1,187 @@
+package com.ecommerce.filter;
+
+import com.ecommerce.model.User;
+import com.ecommerce.util.JWTUtil;
+import io.jsonwebtoken.Claims;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filter that authenticates API requests by their bearer token. The token is verified once per
+ * request and the user it names is attached as the request's principal, an
+ * {@link AuthenticatedUser}, so controllers can read the user and check its role without parsing
+ * the token again or loading the user.
+ * Public routes, such as anonymous catalog reads, pass through without any token check. A route
+ * is written as "METHOD /path", where the method may be * for any method and a path ending in
+ * /* also matches everything below it. A route prefixed with ! is an exception that keeps the
+ * requests it matches protected even when a public route also matches them, such as the full
+ * catalog export below the public product reads. CORS preflight requests are always public.
+ */
+public class AuthenticationFilter implements Filter {
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final List<Route> publicRoutes = new ArrayList<>();
+    private final List<Route> protectedRoutes = new ArrayList<>();
+
+    /**
+     * Constructor for creating a new AuthenticationFilter.
+     *
+     * @param publicRoutes The routes that need no token, such as "GET /api/products/*", and the
+     *                     exceptions to them, such as "!GET /api/products/export"
+     * @throws IllegalArgumentException if a route is not of the form "METHOD /path" or "!METHOD /path"
+     */
+    public AuthenticationFilter(List<String> publicRoutes) {
+        for (String route : publicRoutes) {
+            String trimmed = route.trim();
+            if (trimmed.startsWith("!")) {
+                this.protectedRoutes.add(Route.parse(trimmed.substring(1)));
+            } else {
+                this.publicRoutes.add(Route.parse(trimmed));
+            }
+        }
+    }
+    
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        // Initialization code if needed
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        if (isPublic(httpRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        String authHeader = httpRequest.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            reject(httpResponse, "Authorization token required");
+            return;
+        }
+        
+        Claims claims = JWTUtil.parseToken(authHeader.substring(BEARER_PREFIX.length()));
+        if (claims == null) {
+            reject(httpResponse, "Invalid token");
+            return;
+        }
+        
+        chain.doFilter(new AuthenticatedRequest(httpRequest, toUser(claims)), response);
+    }
+    
+    @Override
+    public void destroy() {
+        // Cleanup code if needed
+    }
+
+    private boolean isPublic(HttpServletRequest request) {
+        String method = request.getMethod();
+        if ("OPTIONS".equals(method)) {
+            return true;
+        }
+        String path = request.getServletPath() + (request.getPathInfo() != null ? request.getPathInfo() : "");
+        for (Route route : protectedRoutes) {
+            if (route.matches(method, path)) {
+                return false;
+            }
+        }
+        for (Route route : publicRoutes) {
+            if (route.matches(method, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static AuthenticatedUser toUser(Claims claims) {
+        Number userId = claims.get(JWTUtil.CLAIM_USER_ID, Number.class);
+        String role = claims.get(JWTUtil.CLAIM_ROLE, String.class);
+        return new AuthenticatedUser(userId != null ? userId.intValue() : 0, claims.getSubject(),
+                                     role != null ? User.UserType.valueOf(role) : null);
+    }
+
+    private static void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\": \"" + message + "\"}");
+    }
+
+    /**
+     * A request carrying the user it was authenticated as.
+     */
+    private static final class AuthenticatedRequest extends HttpServletRequestWrapper {
+        private final AuthenticatedUser user;
+
+        AuthenticatedRequest(HttpServletRequest request, AuthenticatedUser user) {
+            super(request);
+            this.user = user;
+        }
+
+        @Override
+        public Principal getUserPrincipal() {
+            return user;
+        }
+
+        @Override
+        public String getRemoteUser() {
+            return user.getName();
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            return user.hasRole(role);
+        }
+
+        @Override
+        public String getAuthType() {
+            return "BEARER";
+        }
+    }
+
+    /**
+     * A public or protected route: a method, or * for any, and a path or path prefix.
+     */
+    private static final class Route {
+        private final String method;
+        private final String path;
+        private final boolean prefix;
+
+        private Route(String method, String path, boolean prefix) {
+            this.method = method;
+            this.path = path;
+            this.prefix = prefix;
+        }
+
+        static Route parse(String route) {
+            String[] parts = route.trim().split("\\s+");
+            if (parts.length != 2 || !parts[1].startsWith("/")) {
+                throw new IllegalArgumentException("Public route must be of the form \"METHOD /path\": " + route);
+            }
+            String method = parts[0].toUpperCase();
+            if (parts[1].endsWith("/*")) {
+                return new Route(method, parts[1].substring(0, parts[1].length() - 2), true);
+            }
+            return new Route(method, parts[1], false);
+        }
+
+        boolean matches(String requestMethod, String requestPath) {
+            if (!method.equals("*") && !method.equals(requestMethod)) {
+                return false;
+            }
+            if (!prefix) {
+                return path.equals(requestPath);
+            }
+            return requestPath.equals(path) || requestPath.startsWith(path + "/");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.filter;
+
+import com.ecommerce.util.TransactionTemplate;
+
+import jakarta.servlet.*;
+import java.io.IOException;
+
+/**
+ * Filter that opens a request-scoped connection scope, so that every DAO call made while
+ * handling the request shares a single pooled connection. The connection is only borrowed
+ * if the request actually touches the database.
+ */
+public class ConnectionScopeFilter implements Filter {
+    
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        // Initialization code if needed
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        
+        try (TransactionTemplate.ConnectionScope scope = TransactionTemplate.openConnectionScope()) {
+            chain.doFilter(request, response);
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        // Cleanup code if needed
+    }
+}
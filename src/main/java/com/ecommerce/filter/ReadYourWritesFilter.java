@@ -0,0 +1,40 @@
+package com.ecommerce.filter;
+
+import com.ecommerce.config.RoutingDataSource;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+/**
+ * Filter that binds the client's session to the request thread for read replica routing, so
+ * that a client which has just written keeps reading from the primary on its following
+ * requests. The session is identified by the bearer token, or by the remote address for
+ * anonymous clients.
+ */
+public class ReadYourWritesFilter implements Filter {
+    
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        // Initialization code if needed
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        String authHeader = httpRequest.getHeader("Authorization");
+        RoutingDataSource.bindSession(authHeader != null ? authHeader : httpRequest.getRemoteAddr());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RoutingDataSource.clearSession();
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        // Cleanup code if needed
+    }
+}
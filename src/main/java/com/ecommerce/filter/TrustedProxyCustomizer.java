@@ -0,0 +1,70 @@
+package com.ecommerce.filter;
+
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.Request;
+
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Connector customizer that replaces the remote address of requests relayed by a trusted proxy
+ * or load balancer with the client address from their X-Forwarded-For header, so that per-client
+ * limits such as the login throttle see each client instead of the proxy. The header is read from
+ * the right, skipping the trusted proxies, so a client cannot choose its address by sending its
+ * own header; requests from other addresses keep their socket address.
+ */
+public class TrustedProxyCustomizer implements HttpConfiguration.Customizer {
+
+    private final Set<String> trustedProxies;
+
+    /**
+     * Creates a customizer trusting the given proxy addresses.
+     *
+     * @param trustedProxies The IP addresses of the proxies whose X-Forwarded-For header is believed
+     */
+    public TrustedProxyCustomizer(Collection<String> trustedProxies) {
+        this.trustedProxies = Set.copyOf(trustedProxies);
+    }
+
+    @Override
+    public void customize(Connector connector, HttpConfiguration channelConfig, Request request) {
+        if (!trustedProxies.contains(request.getRemoteAddr())) {
+            return;
+        }
+        String client = clientAddress(request.getHttpFields().getValuesList(HttpHeader.X_FORWARDED_FOR));
+        if (client != null) {
+            request.setRemoteAddr(InetSocketAddress.createUnresolved(client, request.getRemotePort()));
+        }
+    }
+
+    /**
+     * Finds the address of the client in the X-Forwarded-For headers of a request: the rightmost
+     * address that is not a trusted proxy, or the leftmost one if all of them are trusted.
+     *
+     * @param headers The X-Forwarded-For header values, in the order received
+     * @return The client address, or null if the request has no X-Forwarded-For header
+     */
+    private String clientAddress(List<String> headers) {
+        String leftmost = null;
+        String client = null;
+        for (String header : headers) {
+            for (String hop : header.split(",")) {
+                String address = hop.trim();
+                if (address.isEmpty()) {
+                    continue;
+                }
+                if (leftmost == null) {
+                    leftmost = address;
+                }
+                if (!trustedProxies.contains(address)) {
+                    client = address;
+                }
+            }
+        }
+        return client != null ? client : leftmost;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.json;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Writes {@link BigDecimal} values as JSON numbers in plain notation, so that a price keeps its
+ * scale ("19.90") and is never written with an exponent ("1E+3"). Numbers and numeric strings
+ * are both read back.
+ */
+public class BigDecimalAdapter extends TypeAdapter<BigDecimal> {
+
+    @Override
+    public void write(JsonWriter out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.jsonValue(value.toPlainString());
+    }
+
+    @Override
+    public BigDecimal read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String value = in.nextString();
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException("Invalid decimal '" + value + "' at " + in.getPath(), e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.json;
+
+import com.ecommerce.model.Category;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Streams {@link Category} objects to and from JSON without reflection.
+ */
+public class CategoryAdapter extends TypeAdapter<Category> {
+    private final LocalDateTimeAdapter timestamps = new LocalDateTimeAdapter();
+
+    @Override
+    public void write(JsonWriter out, Category category) throws IOException {
+        if (category == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("categoryId").value(category.getCategoryId());
+        out.name("name").value(category.getName());
+        out.name("description").value(category.getDescription());
+        out.name("parentCategoryId").value(category.getParentCategoryId());
+        out.name("createdAt");
+        timestamps.write(out, category.getCreatedAt());
+        out.name("updatedAt");
+        timestamps.write(out, category.getUpdatedAt());
+        out.endObject();
+    }
+
+    @Override
+    public Category read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int categoryId = 0;
+        String name = null;
+        String description = null;
+        Integer parentCategoryId = null;
+        LocalDateTime createdAt = null;
+        LocalDateTime updatedAt = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "categoryId":
+                    categoryId = in.nextInt();
+                    break;
+                case "name":
+                    name = JsonFields.nextString(in);
+                    break;
+                case "description":
+                    description = JsonFields.nextString(in);
+                    break;
+                case "parentCategoryId":
+                    parentCategoryId = JsonFields.nextInteger(in);
+                    break;
+                case "createdAt":
+                    createdAt = timestamps.read(in);
+                    break;
+                case "updatedAt":
+                    updatedAt = timestamps.read(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Category(categoryId, name, description, parentCategoryId, createdAt, updatedAt);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.json;
+
+import com.ecommerce.model.Category;
+import com.ecommerce.model.CategoryNode;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Streams {@link CategoryNode} trees to and from JSON without reflection, recursing into the children.
+ */
+public class CategoryNodeAdapter extends TypeAdapter<CategoryNode> {
+    private final CategoryAdapter categories = new CategoryAdapter();
+
+    @Override
+    public void write(JsonWriter out, CategoryNode node) throws IOException {
+        if (node == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("category");
+        categories.write(out, node.getCategory());
+        out.name("children");
+        JsonFields.writeList(out, node.getChildren(), this);
+        out.endObject();
+    }
+
+    @Override
+    public CategoryNode read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Category category = null;
+        List<CategoryNode> children = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "category":
+                    category = categories.read(in);
+                    break;
+                case "children":
+                    children = JsonFields.readList(in, this);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        CategoryNode node = new CategoryNode(category);
+        if (children != null) {
+            for (CategoryNode child : children) {
+                node.addChild(child);
+            }
+        }
+        return node;
+    }
+}
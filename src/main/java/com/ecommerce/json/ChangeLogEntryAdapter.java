@@ -0,0 +1,66 @@
+package com.ecommerce.json;
+
+import com.ecommerce.model.ChangeLogEntry;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Streams {@link ChangeLogEntry} objects to and from JSON without reflection.
+ */
+public class ChangeLogEntryAdapter extends TypeAdapter<ChangeLogEntry> {
+    private final LocalDateTimeAdapter timestamps = new LocalDateTimeAdapter();
+
+    @Override
+    public void write(JsonWriter out, ChangeLogEntry entry) throws IOException {
+        if (entry == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("changeId").value(entry.getChangeId());
+        out.name("entity").value(entry.getEntity());
+        out.name("entityId").value(entry.getEntityId());
+        out.name("changedAt");
+        timestamps.write(out, entry.getChangedAt());
+        out.endObject();
+    }
+
+    @Override
+    public ChangeLogEntry read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        long changeId = 0;
+        String entity = null;
+        int entityId = 0;
+        LocalDateTime changedAt = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "changeId":
+                    changeId = in.nextLong();
+                    break;
+                case "entity":
+                    entity = JsonFields.nextString(in);
+                    break;
+                case "entityId":
+                    entityId = in.nextInt();
+                    break;
+                case "changedAt":
+                    changedAt = timestamps.read(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new ChangeLogEntry(changeId, entity, entityId, changedAt);
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.json;
+
+import com.ecommerce.model.Inventory;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Streams {@link Inventory} records to and from JSON without reflection.
+ */
+public class InventoryAdapter extends TypeAdapter<Inventory> {
+    private final LocalDateTimeAdapter timestamps = new LocalDateTimeAdapter();
+
+    @Override
+    public void write(JsonWriter out, Inventory inventory) throws IOException {
+        if (inventory == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("inventoryId").value(inventory.getInventoryId());
+        out.name("productId").value(inventory.getProductId());
+        out.name("quantityAvailable").value(inventory.getQuantityAvailable());
+        out.name("reservedQuantity").value(inventory.getReservedQuantity());
+        out.name("reorderLevel").value(inventory.getReorderLevel());
+        out.name("lastUpdated");
+        timestamps.write(out, inventory.getLastUpdated());
+        out.endObject();
+    }
+
+    @Override
+    public Inventory read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int inventoryId = 0;
+        int productId = 0;
+        int quantityAvailable = 0;
+        int reservedQuantity = 0;
+        int reorderLevel = 0;
+        LocalDateTime lastUpdated = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "inventoryId":
+                    inventoryId = in.nextInt();
+                    break;
+                case "productId":
+                    productId = in.nextInt();
+                    break;
+                case "quantityAvailable":
+                    quantityAvailable = in.nextInt();
+                    break;
+                case "reservedQuantity":
+                    reservedQuantity = in.nextInt();
+                    break;
+                case "reorderLevel":
+                    reorderLevel = in.nextInt();
+                    break;
+                case "lastUpdated":
+                    lastUpdated = timestamps.read(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Inventory(inventoryId, productId, quantityAvailable, reservedQuantity, reorderLevel, lastUpdated);
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.json;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Writes {@link LocalDateTime} values as ISO-8601 strings such as "2024-05-01T12:30:00", and
+ * reads them back. Without it Gson reflects into the private fields of java.time, which Java 17
+ * refuses unless the module is opened.
+ * Timestamps are formatted by hand into a char array, with the same output as
+ * {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}; the formatter allocates several times as much,
+ * and a product response carries half a dozen timestamps per product.
+ */
+public class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
+    private static final int NANO_DIGITS = 9;
+
+    @Override
+    public void write(JsonWriter out, LocalDateTime value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(format(value));
+    }
+
+    @Override
+    public LocalDateTime read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String value = in.nextString();
+        try {
+            return LocalDateTime.parse(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            throw new JsonSyntaxException("Invalid timestamp '" + value + "' at " + in.getPath(), e);
+        }
+    }
+
+    /**
+     * Formats a timestamp as uuuu-MM-ddTHH:mm:ss, followed by the fraction of a second without
+     * trailing zeros if there is one.
+     */
+    static String format(LocalDateTime value) {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value);
+        }
+        char[] chars = new char[20 + NANO_DIGITS];
+        writeDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        writeDigits(chars, 5, value.getMonthValue(), 2);
+        chars[7] = '-';
+        writeDigits(chars, 8, value.getDayOfMonth(), 2);
+        chars[10] = 'T';
+        writeDigits(chars, 11, value.getHour(), 2);
+        chars[13] = ':';
+        writeDigits(chars, 14, value.getMinute(), 2);
+        chars[16] = ':';
+        writeDigits(chars, 17, value.getSecond(), 2);
+        int length = 19;
+        int nano = value.getNano();
+        if (nano != 0) {
+            chars[19] = '.';
+            writeDigits(chars, 20, nano, NANO_DIGITS);
+            length = 20 + NANO_DIGITS;
+            while (chars[length - 1] == '0') {
+                length--;
+            }
+        }
+        return new String(chars, 0, length);
+    }
+
+    private static void writeDigits(char[] chars, int offset, int value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
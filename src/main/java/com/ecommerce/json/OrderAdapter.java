@@ -0,0 +1,118 @@
+package com.ecommerce.json;
+
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.OrderStatus;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Streams {@link Order} objects, including their items, to and from JSON without reflection.
+ * The status is written by its constant name, as Gson writes enums.
+ */
+public class OrderAdapter extends TypeAdapter<Order> {
+    private final LocalDateTimeAdapter timestamps = new LocalDateTimeAdapter();
+    private final BigDecimalAdapter decimals = new BigDecimalAdapter();
+    private final OrderItemAdapter items = new OrderItemAdapter();
+
+    @Override
+    public void write(JsonWriter out, Order order) throws IOException {
+        if (order == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("orderId").value(order.getOrderId());
+        out.name("userId").value(order.getUserId());
+        out.name("orderStatus").value(order.getOrderStatus() != null ? order.getOrderStatus().name() : null);
+        out.name("totalAmount");
+        decimals.write(out, order.getTotalAmount());
+        out.name("shippingAddress").value(order.getShippingAddress());
+        out.name("billingAddress").value(order.getBillingAddress());
+        out.name("paymentMethod").value(order.getPaymentMethod());
+        out.name("orderDate");
+        timestamps.write(out, order.getOrderDate());
+        out.name("shippedDate");
+        timestamps.write(out, order.getShippedDate());
+        out.name("deliveredDate");
+        timestamps.write(out, order.getDeliveredDate());
+        out.name("notes").value(order.getNotes());
+        out.name("orderItems");
+        JsonFields.writeList(out, order.getOrderItems(), items);
+        out.endObject();
+    }
+
+    @Override
+    public Order read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int orderId = 0;
+        int userId = 0;
+        OrderStatus orderStatus = null;
+        BigDecimal totalAmount = null;
+        String shippingAddress = null;
+        String billingAddress = null;
+        String paymentMethod = null;
+        LocalDateTime orderDate = null;
+        LocalDateTime shippedDate = null;
+        LocalDateTime deliveredDate = null;
+        String notes = null;
+        List<OrderItem> orderItems = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "orderId":
+                    orderId = in.nextInt();
+                    break;
+                case "userId":
+                    userId = in.nextInt();
+                    break;
+                case "orderStatus":
+                    orderStatus = JsonFields.nextEnum(in, OrderStatus.class);
+                    break;
+                case "totalAmount":
+                    totalAmount = decimals.read(in);
+                    break;
+                case "shippingAddress":
+                    shippingAddress = JsonFields.nextString(in);
+                    break;
+                case "billingAddress":
+                    billingAddress = JsonFields.nextString(in);
+                    break;
+                case "paymentMethod":
+                    paymentMethod = JsonFields.nextString(in);
+                    break;
+                case "orderDate":
+                    orderDate = timestamps.read(in);
+                    break;
+                case "shippedDate":
+                    shippedDate = timestamps.read(in);
+                    break;
+                case "deliveredDate":
+                    deliveredDate = timestamps.read(in);
+                    break;
+                case "notes":
+                    notes = JsonFields.nextString(in);
+                    break;
+                case "orderItems":
+                    orderItems = JsonFields.readList(in, items);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Order(orderId, userId, orderStatus, totalAmount, shippingAddress, billingAddress,
+                         paymentMethod, orderDate, shippedDate, deliveredDate, notes, orderItems);
+    }
+}
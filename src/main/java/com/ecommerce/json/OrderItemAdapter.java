@@ -0,0 +1,74 @@
+package com.ecommerce.json;
+
+import com.ecommerce.model.OrderItem;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Streams {@link OrderItem} objects to and from JSON without reflection. The total price is
+ * written for clients but recomputed from the unit price and quantity when read.
+ */
+public class OrderItemAdapter extends TypeAdapter<OrderItem> {
+    private final BigDecimalAdapter decimals = new BigDecimalAdapter();
+
+    @Override
+    public void write(JsonWriter out, OrderItem item) throws IOException {
+        if (item == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("orderItemId").value(item.getOrderItemId());
+        out.name("orderId").value(item.getOrderId());
+        out.name("productId").value(item.getProductId());
+        out.name("quantity").value(item.getQuantity());
+        out.name("unitPrice");
+        decimals.write(out, item.getUnitPrice());
+        out.name("totalPrice");
+        decimals.write(out, item.getTotalPrice());
+        out.endObject();
+    }
+
+    @Override
+    public OrderItem read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int orderItemId = 0;
+        int orderId = 0;
+        int productId = 0;
+        int quantity = 0;
+        BigDecimal unitPrice = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "orderItemId":
+                    orderItemId = in.nextInt();
+                    break;
+                case "orderId":
+                    orderId = in.nextInt();
+                    break;
+                case "productId":
+                    productId = in.nextInt();
+                    break;
+                case "quantity":
+                    quantity = in.nextInt();
+                    break;
+                case "unitPrice":
+                    unitPrice = decimals.read(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new OrderItem(orderItemId, orderId, productId, quantity, unitPrice);
+    }
+}
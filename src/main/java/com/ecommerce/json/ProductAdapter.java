@@ -0,0 +1,116 @@
+package com.ecommerce.json;
+
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Streams {@link Product} objects, including their categories, to and from JSON without reflection.
+ */
+public class ProductAdapter extends TypeAdapter<Product> {
+    private final LocalDateTimeAdapter timestamps = new LocalDateTimeAdapter();
+    private final BigDecimalAdapter decimals = new BigDecimalAdapter();
+    private final CategoryAdapter categories = new CategoryAdapter();
+
+    @Override
+    public void write(JsonWriter out, Product product) throws IOException {
+        if (product == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("productId").value(product.getProductId());
+        out.name("name").value(product.getName());
+        out.name("description").value(product.getDescription());
+        out.name("price");
+        decimals.write(out, product.getPrice());
+        out.name("sku").value(product.getSku());
+        out.name("weight");
+        decimals.write(out, product.getWeight());
+        out.name("dimensions").value(product.getDimensions());
+        out.name("brand").value(product.getBrand());
+        out.name("createdAt");
+        timestamps.write(out, product.getCreatedAt());
+        out.name("updatedAt");
+        timestamps.write(out, product.getUpdatedAt());
+        out.name("isActive").value(product.isActive());
+        out.name("categories");
+        JsonFields.writeList(out, product.getCategories(), categories);
+        out.endObject();
+    }
+
+    @Override
+    public Product read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int productId = 0;
+        String name = null;
+        String description = null;
+        BigDecimal price = null;
+        String sku = null;
+        BigDecimal weight = null;
+        String dimensions = null;
+        String brand = null;
+        LocalDateTime createdAt = null;
+        LocalDateTime updatedAt = null;
+        boolean isActive = false;
+        List<Category> productCategories = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "productId":
+                    productId = in.nextInt();
+                    break;
+                case "name":
+                    name = JsonFields.nextString(in);
+                    break;
+                case "description":
+                    description = JsonFields.nextString(in);
+                    break;
+                case "price":
+                    price = decimals.read(in);
+                    break;
+                case "sku":
+                    sku = JsonFields.nextString(in);
+                    break;
+                case "weight":
+                    weight = decimals.read(in);
+                    break;
+                case "dimensions":
+                    dimensions = JsonFields.nextString(in);
+                    break;
+                case "brand":
+                    brand = JsonFields.nextString(in);
+                    break;
+                case "createdAt":
+                    createdAt = timestamps.read(in);
+                    break;
+                case "updatedAt":
+                    updatedAt = timestamps.read(in);
+                    break;
+                case "isActive":
+                    isActive = in.nextBoolean();
+                    break;
+                case "categories":
+                    productCategories = JsonFields.readList(in, categories);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Product(productId, name, description, price, sku, weight, dimensions, brand,
+                           createdAt, updatedAt, isActive, productCategories);
+    }
+}
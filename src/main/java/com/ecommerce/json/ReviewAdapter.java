@@ -0,0 +1,86 @@
+package com.ecommerce.json;
+
+import com.ecommerce.model.Review;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Streams {@link Review} objects to and from JSON without reflection.
+ */
+public class ReviewAdapter extends TypeAdapter<Review> {
+    private final LocalDateTimeAdapter timestamps = new LocalDateTimeAdapter();
+
+    @Override
+    public void write(JsonWriter out, Review review) throws IOException {
+        if (review == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("reviewId").value(review.getReviewId());
+        out.name("productId").value(review.getProductId());
+        out.name("userId").value(review.getUserId());
+        out.name("rating").value(review.getRating());
+        out.name("title").value(review.getTitle());
+        out.name("comment").value(review.getComment());
+        out.name("createdAt");
+        timestamps.write(out, review.getCreatedAt());
+        out.name("isVerifiedPurchase").value(review.isVerifiedPurchase());
+        out.endObject();
+    }
+
+    @Override
+    public Review read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int reviewId = 0;
+        int productId = 0;
+        int userId = 0;
+        int rating = 0;
+        String title = null;
+        String comment = null;
+        LocalDateTime createdAt = null;
+        boolean isVerifiedPurchase = false;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "reviewId":
+                    reviewId = in.nextInt();
+                    break;
+                case "productId":
+                    productId = in.nextInt();
+                    break;
+                case "userId":
+                    userId = in.nextInt();
+                    break;
+                case "rating":
+                    rating = in.nextInt();
+                    break;
+                case "title":
+                    title = JsonFields.nextString(in);
+                    break;
+                case "comment":
+                    comment = JsonFields.nextString(in);
+                    break;
+                case "createdAt":
+                    createdAt = timestamps.read(in);
+                    break;
+                case "isVerifiedPurchase":
+                    isVerifiedPurchase = in.nextBoolean();
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Review(reviewId, productId, userId, rating, title, comment, createdAt, isVerifiedPurchase);
+    }
+}
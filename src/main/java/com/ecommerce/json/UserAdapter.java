@@ -0,0 +1,103 @@
+package com.ecommerce.json;
+
+import com.ecommerce.model.User;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Streams {@link User} objects to and from JSON without reflection.
+ */
+public class UserAdapter extends TypeAdapter<User> {
+    private final LocalDateTimeAdapter timestamps = new LocalDateTimeAdapter();
+
+    @Override
+    public void write(JsonWriter out, User user) throws IOException {
+        if (user == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("userId").value(user.getUserId());
+        out.name("username").value(user.getUsername());
+        out.name("email").value(user.getEmail());
+        out.name("firstName").value(user.getFirstName());
+        out.name("lastName").value(user.getLastName());
+        out.name("phone").value(user.getPhone());
+        out.name("address").value(user.getAddress());
+        out.name("userType").value(user.getUserType() != null ? user.getUserType().name() : null);
+        out.name("createdAt");
+        timestamps.write(out, user.getCreatedAt());
+        out.name("updatedAt");
+        timestamps.write(out, user.getUpdatedAt());
+        out.name("isActive").value(user.isActive());
+        out.endObject();
+    }
+
+    @Override
+    public User read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int userId = 0;
+        String username = null;
+        String email = null;
+        String firstName = null;
+        String lastName = null;
+        String phone = null;
+        String address = null;
+        User.UserType userType = null;
+        LocalDateTime createdAt = null;
+        LocalDateTime updatedAt = null;
+        boolean isActive = false;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "userId":
+                    userId = in.nextInt();
+                    break;
+                case "username":
+                    username = JsonFields.nextString(in);
+                    break;
+                case "email":
+                    email = JsonFields.nextString(in);
+                    break;
+                case "firstName":
+                    firstName = JsonFields.nextString(in);
+                    break;
+                case "lastName":
+                    lastName = JsonFields.nextString(in);
+                    break;
+                case "phone":
+                    phone = JsonFields.nextString(in);
+                    break;
+                case "address":
+                    address = JsonFields.nextString(in);
+                    break;
+                case "userType":
+                    userType = JsonFields.nextEnum(in, User.UserType.class);
+                    break;
+                case "createdAt":
+                    createdAt = timestamps.read(in);
+                    break;
+                case "updatedAt":
+                    updatedAt = timestamps.read(in);
+                    break;
+                case "isActive":
+                    isActive = in.nextBoolean();
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new User(userId, username, email, firstName, lastName, phone, address, userType,
+                        createdAt, updatedAt, isActive);
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a category together with its subcategories in a category tree.
+ */
+public class CategoryNode {
+    private final Category category;
+    private final List<CategoryNode> children;
+
+    /**
+     * Constructor for creating a new CategoryNode object without children.
+     *
+     * @param category The category at this node
+     */
+    public CategoryNode(Category category) {
+        this.category = category;
+        this.children = new ArrayList<>();
+    }
+
+    // Getters
+    public Category getCategory() { return category; }
+    public List<CategoryNode> getChildren() { return children; }
+
+    /**
+     * Adds a subcategory to this node.
+     *
+     * @param child The node of the subcategory
+     */
+    public void addChild(CategoryNode child) {
+        children.add(child);
+    }
+
+    @Override
+    public String toString() {
+        return "CategoryNode{" +
+                "category=" + category +
+                ", children=" + children.size() +
+                '}';
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents one row of the change log: a write to a product, category or user, recorded so
+ * that other application instances can evict the row from their caches.
+ */
+public class ChangeLogEntry {
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES = "categories";
+    public static final String USERS = "users";
+
+    private final long changeId;
+    private final String entity;
+    private final int entityId;
+    private final LocalDateTime changedAt;
+
+    /**
+     * Constructor for creating a new ChangeLogEntry object.
+     *
+     * @param changeId  The monotonic identifier of the change
+     * @param entity    The kind of row changed, one of {@link #PRODUCTS}, {@link #CATEGORIES} or {@link #USERS}
+     * @param entityId  The ID of the changed row
+     * @param changedAt The timestamp when the change was recorded
+     */
+    public ChangeLogEntry(long changeId, String entity, int entityId, LocalDateTime changedAt) {
+        this.changeId = changeId;
+        this.entity = entity;
+        this.entityId = entityId;
+        this.changedAt = changedAt;
+    }
+
+    // Getters
+    public long getChangeId() { return changeId; }
+    public String getEntity() { return entity; }
+    public int getEntityId() { return entityId; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+
+    @Override
+    public String toString() {
+        return "ChangeLogEntry{" +
+                "changeId=" + changeId +
+                ", entity='" + entity + '\'' +
+                ", entityId=" + entityId +
+                '}';
+    }
+}
@@ -0,0 +1,264 @@
+package com.ecommerce.search;
+
+import com.ecommerce.util.DatabaseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the name, brand and description of active products.
+ * Each term maps to a sorted posting list of product IDs, so a multi-term query is answered
+ * by intersecting posting lists, shortest first, without touching the database.
+ * This class follows the Singleton pattern; the index is built at startup and kept current by
+ * {@link com.ecommerce.dao.ProductDAO} on create, update and delete.
+ */
+public class ProductSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static ProductSearchIndex instance;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Integer, Set<String>> termsByProduct = new HashMap<>();
+
+    /**
+     * Gets the singleton instance of ProductSearchIndex.
+     *
+     * @return The singleton instance
+     */
+    public static synchronized ProductSearchIndex getInstance() {
+        if (instance == null) {
+            instance = new ProductSearchIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Rebuilds the index from the active products in the database, streaming the rows.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<String, PostingList> newPostings = new HashMap<>();
+        Map<Integer, Set<String>> newTerms = new HashMap<>();
+        String query = "SELECT product_id, name, brand, description FROM products WHERE is_active = TRUE " +
+                      "ORDER BY product_id";
+        try {
+            DatabaseUtil.queryForEach(query, null, rs -> {
+                int productId = rs.getInt(1);
+                Set<String> terms = analyzeProduct(rs.getString(2), rs.getString(3), rs.getString(4));
+                newTerms.put(productId, terms);
+                for (String term : terms) {
+                    // Rows arrive in ID order, so appending keeps every posting list sorted
+                    newPostings.computeIfAbsent(term, key -> new PostingList()).append(productId);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error building search index", e);
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            postings.putAll(newPostings);
+            termsByProduct.clear();
+            termsByProduct.putAll(newTerms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Built search index with {} products and {} terms in {} ms",
+                   newTerms.size(), newPostings.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Adds a product to the index, replacing any terms previously indexed for it.
+     *
+     * @param productId The ID of the product
+     * @param name The product name
+     * @param brand The product brand
+     * @param description The product description
+     */
+    public void index(int productId, String name, String brand, String description) {
+        Set<String> terms = analyzeProduct(name, brand, description);
+        lock.writeLock().lock();
+        try {
+            removeTerms(productId);
+            termsByProduct.put(productId, terms);
+            for (String term : terms) {
+                postings.computeIfAbsent(term, key -> new PostingList()).add(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a product from the index.
+     *
+     * @param productId The ID of the product
+     */
+    public void remove(int productId) {
+        lock.writeLock().lock();
+        try {
+            removeTerms(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the products that contain every term of the query.
+     *
+     * @param query The free-text query
+     * @param limit The maximum number of product IDs to return
+     * @return The IDs of the matching products in ascending order
+     */
+    public List<Integer> search(String query, int limit) {
+        Set<String> terms = TextAnalyzer.analyze(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            return intersect(lists, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed products.
+     *
+     * @return The number of indexed products
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<String> analyzeProduct(String name, String brand, String description) {
+        Set<String> terms = TextAnalyzer.analyze(name);
+        terms.addAll(TextAnalyzer.analyze(brand));
+        terms.addAll(TextAnalyzer.analyze(description));
+        return terms;
+    }
+
+    private void removeTerms(int productId) {
+        Set<String> terms = termsByProduct.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            if (list != null && list.remove(productId) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Intersects posting lists sorted by ascending length. Every candidate from the shortest
+     * list is looked up in the others with a galloping search that resumes where the previous
+     * lookup ended, so the cost is driven by the shortest list.
+     */
+    private static List<Integer> intersect(List<PostingList> lists, int limit) {
+        PostingList shortest = lists.get(0);
+        int[] cursors = new int[lists.size()];
+        List<Integer> result = new ArrayList<>(Math.min(limit, shortest.size));
+        candidates:
+        for (int i = 0; i < shortest.size && result.size() < limit; i++) {
+            int candidate = shortest.ids[i];
+            for (int l = 1; l < lists.size(); l++) {
+                PostingList other = lists.get(l);
+                int position = other.advanceTo(candidate, cursors[l]);
+                cursors[l] = position;
+                if (position >= other.size) {
+                    break candidates;
+                }
+                if (other.ids[position] != candidate) {
+                    continue candidates;
+                }
+            }
+            result.add(candidate);
+        }
+        return result;
+    }
+
+    /**
+     * A sorted, growable list of product IDs.
+     */
+    private static class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void append(int id) {
+            ensureCapacity();
+            ids[size++] = id;
+        }
+
+        private void add(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        private boolean remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Finds the first position at or after {@code from} holding an ID not less than the target.
+         */
+        private int advanceTo(int target, int from) {
+            int bound = 1;
+            while (from + bound < size && ids[from + bound] < target) {
+                bound <<= 1;
+            }
+            int low = from + (bound >> 1);
+            int high = Math.min(from + bound + 1, size);
+            int position = Arrays.binarySearch(ids, low, high, target);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+}
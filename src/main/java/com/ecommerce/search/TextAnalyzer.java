@@ -0,0 +1,79 @@
+package com.ecommerce.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns free text into index terms: splits on anything that is not a letter or digit,
+ * lower-cases, drops stop words and applies a light English suffix stemmer, so that
+ * "Running Shoes" and "running shoe" produce the same terms.
+ */
+public final class TextAnalyzer {
+    private static final int MIN_STEM_LENGTH = 3;
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+        "of", "on", "or", "the", "to", "with"
+    );
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Analyzes text into its distinct terms, in order of first appearance.
+     *
+     * @param text The text to analyze (may be null)
+     * @return The distinct terms
+     */
+    public static Set<String> analyze(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean tokenChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!STOP_WORDS.contains(token)) {
+                    terms.add(stem(token));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Strips common English inflections: plural "s"/"es"/"ies" (after Harman's S-stemmer)
+     * and the "ing"/"ed" verb endings. Stems never become shorter than three characters.
+     *
+     * @param token The lower-cased token
+     * @return The stemmed token
+     */
+    static String stem(String token) {
+        int length = token.length();
+        if (token.endsWith("ies") && !token.endsWith("eies") && !token.endsWith("aies")
+                && length - 2 >= MIN_STEM_LENGTH) {
+            return token.substring(0, length - 3) + "y";
+        }
+        if (token.endsWith("es") && !token.endsWith("aes") && !token.endsWith("ees") && !token.endsWith("oes")
+                && length - 1 >= MIN_STEM_LENGTH) {
+            return token.substring(0, length - 1);
+        }
+        if (token.endsWith("s") && !token.endsWith("us") && !token.endsWith("ss")
+                && length - 1 >= MIN_STEM_LENGTH) {
+            return token.substring(0, length - 1);
+        }
+        if (token.endsWith("ing") && length - 3 >= MIN_STEM_LENGTH + 1) {
+            return token.substring(0, length - 3);
+        }
+        if (token.endsWith("ed") && !token.endsWith("eed") && length - 2 >= MIN_STEM_LENGTH + 1) {
+            return token.substring(0, length - 2);
+        }
+        return token;
+    }
+}
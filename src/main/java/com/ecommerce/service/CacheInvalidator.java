@@ -0,0 +1,107 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.CacheManager;
+import com.ecommerce.cache.EntityCache;
+import com.ecommerce.catalog.CatalogSnapshotManager;
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.ChangeLogEntry;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import com.ecommerce.search.ProductSearchIndex;
+import com.ecommerce.util.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Applies change log entries to the caches of this instance: changed rows are evicted, changed
+ * products are re-read into the search index, and the catalog snapshot is asked to refresh.
+ * Changes written by this instance were already applied by its DAOs; applying them again is
+ * harmless and keeps the poller free of any notion of which instance wrote what.
+ */
+public class CacheInvalidator implements Consumer<List<ChangeLogEntry>> {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidator.class);
+
+    private final EntityCache<Integer, Product> productCache;
+    private final EntityCache<Integer, Category> categoryCache;
+    private final EntityCache<Integer, User> userCache;
+    private final ProductDAO productDAO = new ProductDAO();
+    private final ProductSearchIndex searchIndex = ProductSearchIndex.getInstance();
+
+    /**
+     * Constructor for creating a new CacheInvalidator for the shared caches.
+     */
+    public CacheInvalidator() {
+        this(CacheManager.getInstance().getCache("products"),
+             CacheManager.getInstance().getCache("categories"),
+             CacheManager.getInstance().getCache("users"));
+    }
+
+    /**
+     * Constructor for creating a new CacheInvalidator for the given caches.
+     *
+     * @param productCache The cache of products by ID
+     * @param categoryCache The cache of categories by ID
+     * @param userCache The cache of users by ID
+     */
+    public CacheInvalidator(EntityCache<Integer, Product> productCache,
+                            EntityCache<Integer, Category> categoryCache,
+                            EntityCache<Integer, User> userCache) {
+        this.productCache = productCache;
+        this.categoryCache = categoryCache;
+        this.userCache = userCache;
+    }
+
+    @Override
+    public void accept(List<ChangeLogEntry> changes) {
+        Set<Integer> productIds = new LinkedHashSet<>();
+        boolean categoriesChanged = false;
+        for (ChangeLogEntry change : changes) {
+            switch (change.getEntity()) {
+                case ChangeLogEntry.PRODUCTS:
+                    productCache.invalidate(change.getEntityId());
+                    productIds.add(change.getEntityId());
+                    break;
+                case ChangeLogEntry.CATEGORIES:
+                    categoryCache.invalidate(change.getEntityId());
+                    categoriesChanged = true;
+                    break;
+                case ChangeLogEntry.USERS:
+                    userCache.invalidate(change.getEntityId());
+                    break;
+                default:
+                    logger.warn("Ignoring change to unknown entity {}", change.getEntity());
+            }
+        }
+
+        if (categoriesChanged) {
+            // Cached products embed their categories
+            productCache.invalidateAll();
+        }
+        if (!productIds.isEmpty()) {
+            reindex(productIds);
+        }
+        if (categoriesChanged || !productIds.isEmpty()) {
+            CatalogSnapshotManager.getInstance().requestRefresh();
+        }
+    }
+
+    private void reindex(Set<Integer> productIds) {
+        // A replica may not have the change yet, and nothing would reindex the product again
+        Set<Integer> removed = new LinkedHashSet<>(productIds);
+        List<Product> products = TransactionTemplate.readFromPrimary(() -> productDAO.findByIds(new ArrayList<>(productIds)));
+        for (Product product : products) {
+            if (product.isActive()) {
+                searchIndex.index(product.getProductId(), product.getName(), product.getBrand(), product.getDescription());
+                removed.remove(product.getProductId());
+            }
+        }
+        removed.forEach(searchIndex::remove);
+    }
+}
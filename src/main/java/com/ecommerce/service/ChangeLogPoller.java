@@ -0,0 +1,200 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dao.ChangeLogDAO;
+import com.ecommerce.model.ChangeLogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Follows the change log and hands every change written by any instance to a listener.
+ * Each poll reads the entries past a change ID watermark in batches, so an idle poll is a single
+ * indexed range query. Change IDs are assigned when a row is inserted, not when its transaction
+ * commits, so an ID skipped by the watermark may still show up later: such gaps are remembered
+ * and re-checked on every poll until they appear or time out (the transaction rolled back).
+ * Entries older than the retention period are pruned once a minute.
+ * With read replicas, an instance may evict a row and then reload it from a replica that has not
+ * applied the change yet, caching the old row again. Every batch is therefore handed to the
+ * listener a second time once the replica lag bound has passed, which evicts such reloads.
+ */
+public class ChangeLogPoller {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeLogPoller.class);
+    private static final long GAP_TIMEOUT_MILLIS = 10_000;
+    private static final int MAX_PENDING_GAPS = 1000;
+    private static final long PRUNE_INTERVAL_MILLIS = 60_000;
+
+    private final ChangeLogDAO changeLogDAO;
+    private final Consumer<List<ChangeLogEntry>> listener;
+    private final int batchSize;
+    private final long retentionMinutes;
+    // Change IDs below the watermark not seen yet, with the time they were first missed
+    private final Map<Long, Long> pendingGaps = new HashMap<>();
+    private final long replayDelayMillis;
+    // Batches already delivered, to be delivered again once replicas have caught up
+    private final Deque<Replay> replays = new ArrayDeque<>();
+
+    private long watermark;
+    private long lastPruneMillis = System.currentTimeMillis();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor for creating a new ChangeLogPoller that starts at the latest change, since a
+     * new instance has nothing cached that older changes could affect.
+     *
+     * @param changeLogDAO Reads and prunes the change log
+     * @param listener Receives each batch of new changes, in ascending change ID order
+     * @param batchSize The maximum number of changes read per query
+     * @param retentionMinutes How long changes are kept before they are pruned
+     */
+    public ChangeLogPoller(ChangeLogDAO changeLogDAO, Consumer<List<ChangeLogEntry>> listener,
+                           int batchSize, long retentionMinutes) {
+        this(changeLogDAO, listener, batchSize, retentionMinutes, 0);
+    }
+
+    /**
+     * Constructor for creating a new ChangeLogPoller that starts at the latest change and
+     * delivers every batch again after a delay.
+     *
+     * @param changeLogDAO Reads and prunes the change log
+     * @param listener Receives each batch of new changes, in ascending change ID order, and
+     *                 each batch again after the replay delay
+     * @param batchSize The maximum number of changes read per query
+     * @param retentionMinutes How long changes are kept before they are pruned
+     * @param replayDelayMillis How long after its first delivery a batch is delivered again,
+     *                          at least the lag of the slowest replica; 0 for no replay
+     */
+    public ChangeLogPoller(ChangeLogDAO changeLogDAO, Consumer<List<ChangeLogEntry>> listener,
+                           int batchSize, long retentionMinutes, long replayDelayMillis) {
+        this.changeLogDAO = changeLogDAO;
+        this.listener = listener;
+        this.batchSize = batchSize;
+        this.retentionMinutes = retentionMinutes;
+        this.replayDelayMillis = replayDelayMillis;
+        this.watermark = changeLogDAO.findLatestId();
+    }
+
+    /**
+     * Starts polling in the background.
+     *
+     * @param pollMillis The delay between polls in milliseconds
+     */
+    public synchronized void start(long pollMillis) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-log-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::pollSafely, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        logger.info("Change log polling every {} ms from change {}", pollMillis, watermark);
+    }
+
+    /**
+     * Stops polling.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Reads the changes recorded since the last poll and passes them to the listener, after
+     * replaying the batches whose replay delay has passed.
+     * The watermark only advances once the listener has accepted a batch, so a failed poll is
+     * retried from the same point.
+     *
+     * @return The number of new changes passed to the listener
+     */
+    public synchronized int poll() {
+        long now = System.currentTimeMillis();
+        int applied = 0;
+
+        while (!replays.isEmpty() && replays.peek().dueMillis <= now) {
+            listener.accept(replays.peek().changes);
+            replays.poll();
+        }
+
+        if (!pendingGaps.isEmpty()) {
+            List<ChangeLogEntry> late = changeLogDAO.findByIds(pendingGaps.keySet());
+            if (!late.isEmpty()) {
+                deliver(late, now);
+                late.forEach(entry -> pendingGaps.remove(entry.getChangeId()));
+                applied += late.size();
+            }
+        }
+
+        List<ChangeLogEntry> batch;
+        do {
+            batch = changeLogDAO.findAfter(watermark, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            deliver(batch, now);
+            for (ChangeLogEntry entry : batch) {
+                for (long id = watermark + 1; id < entry.getChangeId() && pendingGaps.size() < MAX_PENDING_GAPS; id++) {
+                    pendingGaps.put(id, now);
+                }
+                watermark = entry.getChangeId();
+            }
+            applied += batch.size();
+        } while (batch.size() == batchSize);
+
+        pendingGaps.values().removeIf(firstMissed -> now - firstMissed >= GAP_TIMEOUT_MILLIS);
+
+        if (now - lastPruneMillis >= PRUNE_INTERVAL_MILLIS) {
+            lastPruneMillis = now;
+            int pruned = changeLogDAO.deleteOlderThan(LocalDateTime.now().minusMinutes(retentionMinutes));
+            if (pruned > 0) {
+                logger.info("Pruned {} change log entries older than {} minutes", pruned, retentionMinutes);
+            }
+        }
+        return applied;
+    }
+
+    // Getters
+    public synchronized long getWatermark() { return watermark; }
+    public synchronized int getPendingGaps() { return pendingGaps.size(); }
+    public synchronized int getPendingReplays() { return replays.size(); }
+
+    private void deliver(List<ChangeLogEntry> changes, long now) {
+        listener.accept(changes);
+        if (replayDelayMillis > 0) {
+            replays.add(new Replay(now + replayDelayMillis, changes));
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            logger.error("Error polling change log", e);
+        }
+    }
+
+    /**
+     * A delivered batch of changes and the time to deliver it again.
+     */
+    private static final class Replay {
+        private final long dueMillis;
+        private final List<ChangeLogEntry> changes;
+
+        private Replay(long dueMillis, List<ChangeLogEntry> changes) {
+            this.dueMillis = dueMillis;
+            this.changes = changes;
+        }
+    }
+}
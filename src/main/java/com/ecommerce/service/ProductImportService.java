@@ -0,0 +1,396 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dao.CategoryDAO;
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+import com.ecommerce.util.CsvReader;
+import com.ecommerce.util.TransactionTemplate;
+import com.ecommerce.util.ValidationUtil;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class for bulk product imports.
+ * Parses CSV or NDJSON input as a stream, validates every row and writes the valid rows in
+ * chunks, each chunk in its own transaction, so that memory use does not depend on the size of
+ * the import and a failing chunk does not undo the chunks before it. A chunk that fails is
+ * retried a row at a time, so only the offending rows are rejected. SKUs are compared
+ * case-insensitively, as the database's collation compares them.
+ */
+public class ProductImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final String[] REQUIRED_FIELDS = {"name", "price", "sku"};
+    private static final BigDecimal MAX_PRICE = new BigDecimal("100000000");
+    private static final BigDecimal MAX_WEIGHT = new BigDecimal("1000000");
+
+    private final ProductDAO productDAO;
+    private final CategoryDAO categoryDAO;
+
+    public ProductImportService() {
+        this.productDAO = new ProductDAO();
+        this.categoryDAO = new CategoryDAO();
+    }
+
+    /**
+     * Imports products from CSV. The first record is a header naming the columns: name, price
+     * and sku are required; description, weight, dimensions, brand, is_active and categories
+     * (category IDs separated by ';') are optional.
+     *
+     * @param reader The CSV input
+     * @return The import report
+     * @throws IOException if reading the input fails
+     * @throws IllegalArgumentException if the header is missing or lacks a required column
+     */
+    public ImportReport importCsv(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV header row required");
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        for (String column : header) {
+            columns.add(normalizeField(column));
+        }
+        for (String required : REQUIRED_FIELDS) {
+            if (!columns.contains(required)) {
+                throw new IllegalArgumentException("Missing required column: " + required);
+            }
+        }
+
+        Importer importer = new Importer();
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                fields.put(columns.get(i), i < record.size() ? record.get(i) : null);
+            }
+            importer.accept(csv.getLineNumber(), fields);
+        }
+        return importer.finish();
+    }
+
+    /**
+     * Imports products from newline-delimited JSON, one product object per line, with the same
+     * fields as the CSV columns. The categories field may also be an array of category IDs.
+     *
+     * @param reader The NDJSON input
+     * @return The import report
+     * @throws IOException if reading the input fails
+     */
+    public ImportReport importNdjson(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        Importer importer = new Importer();
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            try {
+                JsonObject object = JsonParser.parseString(line).getAsJsonObject();
+                for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                    fields.put(normalizeField(entry.getKey()), jsonFieldValue(entry.getValue()));
+                }
+            } catch (JsonParseException | IllegalStateException e) {
+                importer.reject(lineNumber, null, "Malformed JSON object");
+                continue;
+            }
+            importer.accept(lineNumber, fields);
+        }
+        return importer.finish();
+    }
+
+    /**
+     * Normalizes a field name so that snake_case and camelCase spellings match.
+     */
+    private static String normalizeField(String name) {
+        return name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String jsonFieldValue(JsonElement value) {
+        if (value.isJsonNull()) {
+            return null;
+        }
+        if (value.isJsonArray()) {
+            List<String> items = new ArrayList<>();
+            for (JsonElement item : value.getAsJsonArray()) {
+                items.add(item.getAsString());
+            }
+            return String.join(";", items);
+        }
+        return value.isJsonPrimitive() ? value.getAsString() : value.toString();
+    }
+
+    /**
+     * Validates and collects rows for one import, writing them a chunk at a time.
+     */
+    private class Importer {
+        private final ImportReport report = new ImportReport();
+        private final Map<Integer, Category> categoriesById = new HashMap<>();
+        private final Set<String> seenSkus = new HashSet<>();
+        private final List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        private Importer() {
+            for (Category category : categoryDAO.findAll()) {
+                categoriesById.put(category.getCategoryId(), category);
+            }
+        }
+
+        private void accept(int line, Map<String, String> fields) {
+            String sku = trimToNull(fields.get("sku"));
+            Product product;
+            try {
+                product = toProduct(fields);
+            } catch (IllegalArgumentException e) {
+                reject(line, sku, e.getMessage());
+                return;
+            }
+            if (!seenSkus.add(sku.toLowerCase(Locale.ROOT))) {
+                reject(line, sku, "Duplicate SKU in import");
+                return;
+            }
+            chunk.add(new PendingRow(line, product));
+            if (chunk.size() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        private void reject(int line, String sku, String error) {
+            report.failed++;
+            if (report.errors.size() < MAX_REPORTED_ERRORS) {
+                report.errors.add(new RowError(line, sku, error));
+            } else {
+                report.errorsTruncated = true;
+            }
+        }
+
+        private ImportReport finish() {
+            flush();
+            logger.info("Product import finished: {} imported, {} failed", report.imported, report.failed);
+            return report;
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                write(chunk);
+            } catch (RuntimeException e) {
+                logger.warn("Chunk starting on line {} rolled back, retrying its rows one at a time",
+                            chunk.get(0).line, e);
+                for (PendingRow row : chunk) {
+                    try {
+                        write(List.of(row));
+                    } catch (RuntimeException rowError) {
+                        Throwable cause = rowError.getCause() != null ? rowError.getCause() : rowError;
+                        reject(row.line, row.product.getSku(), "Insert failed: " + cause.getMessage());
+                    }
+                }
+            }
+            chunk.clear();
+        }
+
+        /**
+         * Writes rows in one transaction, skipping and rejecting those whose SKU already exists.
+         * The report is only updated once the transaction has committed.
+         */
+        private void write(List<PendingRow> rows) {
+            List<PendingRow> existing = new ArrayList<>();
+            int created = TransactionTemplate.inTransaction(() -> {
+                List<String> skus = new ArrayList<>(rows.size());
+                for (PendingRow row : rows) {
+                    skus.add(row.product.getSku());
+                }
+                Set<String> existingSkus = new HashSet<>();
+                for (String sku : productDAO.findIdsBySku(skus).keySet()) {
+                    existingSkus.add(sku.toLowerCase(Locale.ROOT));
+                }
+                List<Product> products = new ArrayList<>(rows.size());
+                for (PendingRow row : rows) {
+                    if (existingSkus.contains(row.product.getSku().toLowerCase(Locale.ROOT))) {
+                        existing.add(row);
+                    } else {
+                        products.add(row.product);
+                    }
+                }
+                return productDAO.createAll(products).size();
+            });
+            report.imported += created;
+            for (PendingRow row : existing) {
+                reject(row.line, row.product.getSku(), "SKU already exists");
+            }
+        }
+
+        private Product toProduct(Map<String, String> fields) {
+            String name = trimToNull(fields.get("name"));
+            String sku = trimToNull(fields.get("sku"));
+            if (name == null || !ValidationUtil.isStringLengthValid(name, 1, 255)) {
+                throw new IllegalArgumentException("Name is required and must be at most 255 characters");
+            }
+            if (sku == null || !ValidationUtil.isStringLengthValid(sku, 1, 100)) {
+                throw new IllegalArgumentException("SKU is required and must be at most 100 characters");
+            }
+            BigDecimal price = parseAmount(fields.get("price"), "Price", MAX_PRICE);
+            if (price == null) {
+                throw new IllegalArgumentException("Price is required");
+            }
+            BigDecimal weight = parseAmount(fields.get("weight"), "Weight", MAX_WEIGHT);
+            String dimensions = trimToNull(fields.get("dimensions"));
+            if (dimensions != null && dimensions.length() > 50) {
+                throw new IllegalArgumentException("Dimensions must be at most 50 characters");
+            }
+            String brand = trimToNull(fields.get("brand"));
+            if (brand != null && brand.length() > 100) {
+                throw new IllegalArgumentException("Brand must be at most 100 characters");
+            }
+            return new Product(0, name, trimToNull(fields.get("description")), price, sku, weight, dimensions,
+                              brand, null, null, parseActive(fields.get("isactive")),
+                              parseCategories(fields.get("categories")));
+        }
+
+        private BigDecimal parseAmount(String value, String field, BigDecimal max) {
+            value = trimToNull(value);
+            if (value == null) {
+                return null;
+            }
+            BigDecimal amount;
+            try {
+                amount = new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(field + " is not a number: " + value);
+            }
+            if (amount.signum() < 0 || amount.compareTo(max) >= 0 || amount.stripTrailingZeros().scale() > 2) {
+                throw new IllegalArgumentException(field + " must be between 0 and " + max
+                                                   + " with at most 2 decimals: " + value);
+            }
+            return amount;
+        }
+
+        private boolean parseActive(String value) {
+            value = trimToNull(value);
+            if (value == null) {
+                return true;
+            }
+            switch (value.toLowerCase(Locale.ROOT)) {
+                case "true":
+                case "1":
+                case "yes":
+                    return true;
+                case "false":
+                case "0":
+                case "no":
+                    return false;
+                default:
+                    throw new IllegalArgumentException("is_active is not a boolean: " + value);
+            }
+        }
+
+        private List<Category> parseCategories(String value) {
+            value = trimToNull(value);
+            List<Category> categories = new ArrayList<>();
+            if (value == null) {
+                return categories;
+            }
+            for (String id : value.split("[;|]")) {
+                if (id.isBlank()) {
+                    continue;
+                }
+                Category category;
+                try {
+                    category = categoriesById.get(Integer.parseInt(id.trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid category ID: " + id.trim());
+                }
+                if (category == null) {
+                    throw new IllegalArgumentException("Unknown category ID: " + id.trim());
+                }
+                if (!categories.contains(category)) {
+                    categories.add(category);
+                }
+            }
+            return categories;
+        }
+
+        private String trimToNull(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            return value.trim();
+        }
+    }
+
+    /**
+     * A validated row waiting for its chunk to be written.
+     */
+    private static class PendingRow {
+        private final int line;
+        private final Product product;
+
+        private PendingRow(int line, Product product) {
+            this.line = line;
+            this.product = product;
+        }
+    }
+
+    /**
+     * The outcome of an import: the number of imported and failed rows and the errors of the
+     * failed rows (the first {@value #MAX_REPORTED_ERRORS} of them).
+     */
+    public static class ImportReport {
+        private int imported;
+        private int failed;
+        private final List<RowError> errors = new ArrayList<>();
+        private boolean errorsTruncated;
+
+        // Getters
+        public int getImported() { return imported; }
+        public int getFailed() { return failed; }
+        public List<RowError> getErrors() { return errors; }
+        public boolean isErrorsTruncated() { return errorsTruncated; }
+    }
+
+    /**
+     * The error that caused a row to be rejected.
+     */
+    public static class RowError {
+        private final int line;
+        private final String sku;
+        private final String error;
+
+        public RowError(int line, String sku, String error) {
+            this.line = line;
+            this.sku = sku;
+            this.error = error;
+        }
+
+        // Getters
+        public int getLine() { return line; }
+        public String getSku() { return sku; }
+        public String getError() { return error; }
+    }
+}
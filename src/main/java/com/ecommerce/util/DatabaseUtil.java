@@ -1,22 +1,38 @@
 package com.ecommerce.util;
 
 import com.ecommerce.config.DatabaseConfig;
+import com.google.gson.stream.JsonWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * Utility class for common database operations.
  * Provides methods for executing queries, managing connections, and handling results.
+ * Connections are obtained through {@link TransactionTemplate}, so every method joins the
+ * unit of work bound to the current thread when one is open.
  */
 public class DatabaseUtil {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseUtil.class);
+    private static final int BATCH_SIZE = 1000;
+    private static final SingleFlight<List<Object>, Object> sharedReads =
+            new SingleFlight<>(key -> QueryMetrics.recordCoalesced((String) key.get(0)));
+    private static final AtomicLong writeEpoch = new AtomicLong();
 
     /**
      * Executes a query that returns a single result.
@@ -28,18 +44,25 @@ public class DatabaseUtil {
      * @return The result object or null if not found
      */
     public static <T> T queryForObject(String query, Object[] params, ResultSetMapper<T> mapper) {
-        try (Connection conn = DatabaseConfig.getInstance().getDataSource().getConnection();
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = false;
+        try (Connection conn = TransactionTemplate.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             setParameters(stmt, params);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
+                    rows = 1;
                     return mapper.map(rs);
                 }
             }
         } catch (SQLException e) {
+            failed = true;
             logger.error("Error executing query: {}", query, e);
             throw new RuntimeException("Database query failed", e);
+        } finally {
+            QueryMetrics.recordQuery(query, paramCount(params), System.nanoTime() - start, rows, failed);
         }
         return null;
     }
@@ -55,7 +78,9 @@ public class DatabaseUtil {
      */
     public static <T> List<T> queryForList(String query, Object[] params, ResultSetMapper<T> mapper) {
         List<T> results = new ArrayList<>();
-        try (Connection conn = DatabaseConfig.getInstance().getDataSource().getConnection();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try (Connection conn = TransactionTemplate.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             setParameters(stmt, params);
@@ -65,12 +90,219 @@ public class DatabaseUtil {
                 }
             }
         } catch (SQLException e) {
+            failed = true;
             logger.error("Error executing query: {}", query, e);
             throw new RuntimeException("Database query failed", e);
+        } finally {
+            QueryMetrics.recordQuery(query, paramCount(params), System.nanoTime() - start, results.size(), failed);
         }
         return results;
     }
 
+    /**
+     * Executes a described query that returns a single result, mapping it by column index.
+     *
+     * @param descriptor The statement descriptor holding the query and its mapper
+     * @param params The parameters for the query
+     * @param <T> The type of object to return
+     * @return The result object or null if not found
+     */
+    public static <T> T queryForObject(StatementDescriptor<T> descriptor, Object[] params) {
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = false;
+        try (Connection conn = TransactionTemplate.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(descriptor.getSql())) {
+            
+            setParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    rows = 1;
+                    return descriptor.map(rs, descriptor.resolveColumns(rs));
+                }
+            }
+        } catch (SQLException e) {
+            failed = true;
+            logger.error("Error executing query: {}", descriptor.getSql(), e);
+            throw new RuntimeException("Database query failed", e);
+        } finally {
+            QueryMetrics.recordQuery(descriptor.getSql(), paramCount(params), System.nanoTime() - start, rows, failed);
+        }
+        return null;
+    }
+
+    /**
+     * Executes a described query that returns a list of results. Column indexes are resolved
+     * once for the ResultSet and reused for every row.
+     *
+     * @param descriptor The statement descriptor holding the query and its mapper
+     * @param params The parameters for the query
+     * @param <T> The type of objects in the list
+     * @return A list of result objects
+     */
+    public static <T> List<T> queryForList(StatementDescriptor<T> descriptor, Object[] params) {
+        List<T> results = new ArrayList<>();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try (Connection conn = TransactionTemplate.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(descriptor.getSql())) {
+            
+            setParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                int[] columns = null;
+                while (rs.next()) {
+                    if (columns == null) {
+                        columns = descriptor.resolveColumns(rs);
+                    }
+                    results.add(descriptor.map(rs, columns));
+                }
+            }
+        } catch (SQLException e) {
+            failed = true;
+            logger.error("Error executing query: {}", descriptor.getSql(), e);
+            throw new RuntimeException("Database query failed", e);
+        } finally {
+            QueryMetrics.recordQuery(descriptor.getSql(), paramCount(params), System.nanoTime() - start, results.size(), failed);
+        }
+        return results;
+    }
+
+    /**
+     * Executes a query and hands each row to a callback as it is read, without buffering the
+     * result. The statement is forward-only with a driver fetch size so that MySQL (with
+     * {@code useCursorFetch}) and PostgreSQL (with autocommit off) read the rows through a
+     * server-side cursor in chunks, keeping memory constant regardless of result size.
+     *
+     * @param query The SQL query to execute
+     * @param params The parameters for the query
+     * @param callback The callback invoked for each row
+     * @throws IOException if the callback fails to write a row
+     */
+    public static void queryForEach(String query, Object[] params, RowCallback callback) throws IOException {
+        int fetchSize = DatabaseConfig.getInstance().getStreamFetchSize();
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = false;
+        try (Connection conn = TransactionTemplate.getReadConnection()) {
+            boolean localTransaction = conn.getAutoCommit();
+            if (localTransaction) {
+                conn.setAutoCommit(false);
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                                                                ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(fetchSize);
+                setParameters(stmt, params);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        callback.process(rs);
+                        rows++;
+                    }
+                }
+                if (localTransaction) {
+                    conn.commit();
+                }
+            } finally {
+                if (localTransaction) {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            failed = true;
+            logger.error("Error executing streaming query: {}", query, e);
+            throw new RuntimeException("Database query failed", e);
+        } finally {
+            QueryMetrics.recordQuery(query, paramCount(params), System.nanoTime() - start, rows, failed);
+        }
+    }
+
+    /**
+     * Executes a query and streams the rows to a JSON array, one object per row keyed by
+     * column label. Column labels and types are resolved once from the result set metadata.
+     *
+     * @param query The SQL query to execute
+     * @param params The parameters for the query
+     * @param writer The JSON writer to write the array to
+     * @throws IOException if writing to the JSON writer fails
+     */
+    public static void queryForJsonArray(String query, Object[] params, JsonWriter writer) throws IOException {
+        writer.beginArray();
+        queryForEach(query, params, new RowCallback() {
+            private String[] labels;
+            private int[] types;
+
+            @Override
+            public void process(ResultSet rs) throws SQLException, IOException {
+                if (labels == null) {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    labels = new String[metaData.getColumnCount()];
+                    types = new int[labels.length];
+                    for (int i = 0; i < labels.length; i++) {
+                        labels[i] = metaData.getColumnLabel(i + 1).toLowerCase();
+                        types[i] = metaData.getColumnType(i + 1);
+                    }
+                }
+                writer.beginObject();
+                for (int i = 0; i < labels.length; i++) {
+                    writer.name(labels[i]);
+                    writeJsonValue(writer, rs, i + 1, types[i]);
+                }
+                writer.endObject();
+            }
+        });
+        writer.endArray();
+    }
+
+    /**
+     * Writes a single column value as JSON according to its SQL type.
+     *
+     * @param writer The JSON writer to write to
+     * @param rs The ResultSet positioned on the current row
+     * @param column The column index
+     * @param type The SQL type of the column from {@link Types}
+     * @throws SQLException if there's an error reading the column
+     * @throws IOException if writing to the JSON writer fails
+     */
+    private static void writeJsonValue(JsonWriter writer, ResultSet rs, int column, int type)
+            throws SQLException, IOException {
+        switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                long longValue = rs.getLong(column);
+                if (rs.wasNull()) {
+                    writer.nullValue();
+                } else {
+                    writer.value(longValue);
+                }
+                break;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                writer.value(rs.getBigDecimal(column));
+                break;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                boolean booleanValue = rs.getBoolean(column);
+                if (rs.wasNull()) {
+                    writer.nullValue();
+                } else {
+                    writer.value(booleanValue);
+                }
+                break;
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                Timestamp timestamp = rs.getTimestamp(column);
+                writer.value(timestamp != null ? timestamp.toLocalDateTime().toString() : null);
+                break;
+            default:
+                writer.value(rs.getString(column));
+                break;
+        }
+    }
+
     /**
      * Executes an update statement (INSERT, UPDATE, DELETE).
      *
@@ -79,16 +311,24 @@ public class DatabaseUtil {
      * @return The number of affected rows
      */
     public static int executeUpdate(String query, Object[] params) {
-        try (Connection conn = DatabaseConfig.getInstance().getDataSource().getConnection();
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = false;
+        try (Connection conn = TransactionTemplate.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             
             setParameters(stmt, params);
             int result = stmt.executeUpdate();
+            rows = result;
             logger.debug("Query executed successfully: {} rows affected", result);
             return result;
         } catch (SQLException e) {
+            failed = true;
             logger.error("Error executing update: {}", query, e);
             throw new RuntimeException("Database update failed", e);
+        } finally {
+            QueryMetrics.recordQuery(query, paramCount(params), System.nanoTime() - start, rows, failed);
+            markWritten();
         }
     }
 
@@ -100,11 +340,14 @@ public class DatabaseUtil {
      * @return The generated key from the insert operation
      */
     public static int executeInsert(String query, Object[] params) {
-        try (Connection conn = DatabaseConfig.getInstance().getDataSource().getConnection();
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = false;
+        try (Connection conn = TransactionTemplate.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query, PreparedStatement.RETURN_GENERATED_KEYS)) {
             
             setParameters(stmt, params);
-            stmt.executeUpdate();
+            rows = stmt.executeUpdate();
             
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
@@ -116,11 +359,184 @@ public class DatabaseUtil {
                 }
             }
         } catch (SQLException e) {
+            failed = true;
             logger.error("Error executing insert: {}", query, e);
             throw new RuntimeException("Database insert failed", e);
+        } finally {
+            QueryMetrics.recordQuery(query, paramCount(params), System.nanoTime() - start, rows, failed);
+            markWritten();
+        }
+    }
+
+    /**
+     * Executes the same statement for many parameter sets as a JDBC batch on a single connection.
+     * The batch runs in one transaction (or joins the current one) and is flushed every {@value #BATCH_SIZE} rows; with
+     * {@code rewriteBatchedStatements} enabled the MySQL driver collapses each flush into
+     * multi-value inserts.
+     *
+     * @param query The SQL statement to execute
+     * @param paramsList The parameters for each execution
+     * @return The update counts for each execution, as reported by the driver
+     */
+    public static int[] executeBatch(String query, List<Object[]> paramsList) {
+        int[] results = new int[paramsList.size()];
+        if (paramsList.isEmpty()) {
+            return results;
+        }
+
+        long start = System.nanoTime();
+        long rows = 0;
+        boolean failed = false;
+        try (Connection conn = TransactionTemplate.getConnection()) {
+            boolean localTransaction = conn.getAutoCommit();
+            if (localTransaction) {
+                conn.setAutoCommit(false);
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                int executed = 0;
+                for (int i = 0; i < paramsList.size(); i++) {
+                    setParameters(stmt, paramsList.get(i));
+                    stmt.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0 || i == paramsList.size() - 1) {
+                        int[] counts = stmt.executeBatch();
+                        System.arraycopy(counts, 0, results, executed, counts.length);
+                        executed += counts.length;
+                    }
+                }
+                if (localTransaction) {
+                    conn.commit();
+                }
+                rows = paramsList.size();
+                logger.debug("Batch executed successfully: {} statements", paramsList.size());
+                return results;
+            } catch (SQLException e) {
+                if (localTransaction) {
+                    conn.rollback();
+                }
+                throw e;
+            } finally {
+                if (localTransaction) {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            failed = true;
+            logger.error("Error executing batch: {}", query, e);
+            throw new RuntimeException("Database batch failed", e);
+        } finally {
+            QueryMetrics.recordQuery(query, paramCount(paramsList.get(0)), System.nanoTime() - start, rows, failed);
+            markWritten();
         }
     }
 
+    /**
+     * Inserts many rows using multi-row {@code INSERT ... VALUES (...), (...)} statements on a
+     * single connection. Rows are grouped into statements of at most {@value #BATCH_SIZE} rows
+     * and all statements run in one transaction (or join the current one).
+     *
+     * @param insertPrefix The insert statement up to and including {@code VALUES},
+     *                     e.g. {@code "INSERT INTO t (a, b) VALUES"}
+     * @param rows The column values for each row; every row must have the same length
+     * @return The total number of inserted rows
+     */
+    public static int executeMultiRowInsert(String insertPrefix, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        int columnCount = rows.get(0).length;
+        String rowPlaceholders = "(" + String.join(", ", Collections.nCopies(columnCount, "?")) + ")";
+        long start = System.nanoTime();
+        int inserted = 0;
+        boolean failed = false;
+        try (Connection conn = TransactionTemplate.getConnection()) {
+            boolean localTransaction = conn.getAutoCommit();
+            if (localTransaction) {
+                conn.setAutoCommit(false);
+            }
+            try {
+                for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+                    List<Object[]> chunk = rows.subList(from, Math.min(from + BATCH_SIZE, rows.size()));
+                    String query = insertPrefix + " " + String.join(", ", Collections.nCopies(chunk.size(), rowPlaceholders));
+                    try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                        int index = 1;
+                        for (Object[] row : chunk) {
+                            for (Object value : row) {
+                                setParameter(stmt, index++, value);
+                            }
+                        }
+                        inserted += stmt.executeUpdate();
+                    }
+                }
+                if (localTransaction) {
+                    conn.commit();
+                }
+                logger.debug("Multi-row insert executed successfully: {} rows inserted", inserted);
+                return inserted;
+            } catch (SQLException e) {
+                if (localTransaction) {
+                    conn.rollback();
+                }
+                throw e;
+            } finally {
+                if (localTransaction) {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            failed = true;
+            logger.error("Error executing multi-row insert: {}", insertPrefix, e);
+            throw new RuntimeException("Database insert failed", e);
+        } finally {
+            QueryMetrics.recordQuery(insertPrefix + " " + rowPlaceholders, columnCount * Math.min(rows.size(), BATCH_SIZE),
+                                     System.nanoTime() - start, inserted, failed);
+            markWritten();
+        }
+    }
+
+    /**
+     * Runs a read so that concurrent callers issuing the same query with the same parameters share
+     * one execution instead of each borrowing a connection; see {@link SingleFlight}. A read only
+     * joins a load that started after the latest write made through this class completed, so a
+     * caller never receives rows read before its own committed write. The result is shared
+     * between callers and must not be modified.
+     *
+     * @param query The SQL query the read executes, which identifies it together with the parameters
+     * @param params The parameters for the query
+     * @param read Performs the read, typically through the query methods of this class
+     * @param <T> The type of result returned by the read
+     * @return The result of the read
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T coalesce(String query, Object[] params, Supplier<T> read) {
+        List<Object> key = new ArrayList<>(paramCount(params) + 2);
+        key.add(query);
+        key.add(writeEpoch.get());
+        if (params != null) {
+            Collections.addAll(key, params);
+        }
+        return (T) sharedReads.execute(key, read::get);
+    }
+
+    /**
+     * Advances the write epoch after a write statement and again once the current transaction
+     * completes, so that reads started before the write became visible are no longer joined.
+     */
+    private static void markWritten() {
+        writeEpoch.incrementAndGet();
+        TransactionTemplate.afterCompletion(writeEpoch::incrementAndGet);
+    }
+
+    /**
+     * Counts the bind parameters of a statement.
+     *
+     * @param params The parameters for the statement
+     * @return The number of parameters
+     */
+    private static int paramCount(Object[] params) {
+        return params != null ? params.length : 0;
+    }
+
     /**
      * Sets parameters for a PreparedStatement.
      *
@@ -131,11 +547,55 @@ public class DatabaseUtil {
     private static void setParameters(PreparedStatement stmt, Object[] params) throws SQLException {
         if (params != null) {
             for (int i = 0; i < params.length; i++) {
-                stmt.setObject(i + 1, params[i]);
+                setParameter(stmt, i + 1, params[i]);
             }
         }
     }
 
+    /**
+     * Sets a single parameter using the setter specialized for its type, falling back to
+     * {@code setObject} for null and other types.
+     *
+     * @param stmt The PreparedStatement to set the parameter for
+     * @param index The 1-based parameter index
+     * @param value The parameter value
+     * @throws SQLException if there's an error setting the parameter
+     */
+    private static void setParameter(PreparedStatement stmt, int index, Object value) throws SQLException {
+        if (value instanceof Integer) {
+            stmt.setInt(index, (Integer) value);
+        } else if (value instanceof String) {
+            stmt.setString(index, (String) value);
+        } else if (value instanceof BigDecimal) {
+            stmt.setBigDecimal(index, (BigDecimal) value);
+        } else if (value instanceof Boolean) {
+            stmt.setBoolean(index, (Boolean) value);
+        } else if (value instanceof Long) {
+            stmt.setLong(index, (Long) value);
+        } else if (value instanceof LocalDateTime) {
+            stmt.setTimestamp(index, Timestamp.valueOf((LocalDateTime) value));
+        } else if (value instanceof Timestamp) {
+            stmt.setTimestamp(index, (Timestamp) value);
+        } else {
+            stmt.setObject(index, value);
+        }
+    }
+
+    /**
+     * Interface for processing rows of a streaming query one at a time.
+     */
+    @FunctionalInterface
+    public interface RowCallback {
+        /**
+         * Processes the current ResultSet row.
+         *
+         * @param rs The ResultSet positioned on the row to process
+         * @throws SQLException if there's an error reading the row
+         * @throws IOException if there's an error writing the row out
+         */
+        void process(ResultSet rs) throws SQLException, IOException;
+    }
+
     /**
      * Interface for mapping ResultSet to objects.
      * This allows for flexible conversion of database results to domain objects.
@@ -1,38 +1,82 @@
 package com.ecommerce.util;
 
+import com.ecommerce.cache.CacheManager;
+import com.ecommerce.cache.EntityCache;
+import com.ecommerce.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 
 /**
  * Utility class for JWT token operations.
+ * Verified tokens are cached by the SHA-256 digest of the token, so a client presenting the same
+ * token again skips the signature check and JSON parsing. A cached token is only served until
+ * its expiration time; tampered or expired tokens are never cached.
  */
 public class JWTUtil {
     
     private static final SecretKey SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
     private static final long EXPIRATION_TIME = 86400000; // 24 hours
+
+    /** Claim holding the user's ID. */
+    public static final String CLAIM_USER_ID = "uid";
+    /** Claim holding the user's type, such as ADMIN. */
+    public static final String CLAIM_ROLE = "role";
+
+    // Parsers are immutable and thread-safe, so one is shared by all requests
+    private static final JwtParser PARSER = Jwts.parserBuilder().setSigningKey(SECRET_KEY).build();
+    private static final EntityCache<String, Claims> VERIFIED_TOKENS = CacheManager.getInstance().getCache("tokens");
     
     /**
-     * Generates a JWT token for the given username.
+     * Generates a JWT token for the given user. The username, user ID and user type are embedded
+     * in the token, so that authenticated requests can be authorized without loading the user.
      *
-     * @param username The username to include in the token
+     * @param user The user to include in the token
      * @return The generated JWT token
      */
-    public static String generateToken(String username) {
+    public static String generateToken(User user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + EXPIRATION_TIME);
         
         return Jwts.builder()
-                .setSubject(username)
+                .setSubject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getUserId())
+                .claim(CLAIM_ROLE, user.getUserType().name())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(SECRET_KEY)
                 .compact();
     }
+
+    /**
+     * Verifies a JWT token and returns its claims, from the cache when the token was verified before.
+     * The claims are shared between callers and must not be modified.
+     *
+     * @param token The JWT token to verify
+     * @return The claims of the token, or null if the token is missing, invalid or expired
+     */
+    public static Claims parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String digest = digest(token);
+        Claims claims = VERIFIED_TOKENS.get(digest, key -> verify(token));
+        if (claims != null && isExpired(claims)) {
+            VERIFIED_TOKENS.invalidate(digest);
+            return null;
+        }
+        return claims;
+    }
     
     /**
      * Validates a JWT token.
@@ -41,29 +85,39 @@ public class JWTUtil {
      * @return true if the token is valid, false otherwise
      */
     public static boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return parseToken(token) != null;
     }
     
     /**
      * Extracts the username from a JWT token.
      *
      * @param token The JWT token to extract the username from
-     * @return The username contained in the token
+     * @return The username contained in the token, or null if the token is invalid
      */
     public static String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        Claims claims = parseToken(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    private static Claims verify(String token) {
+        try {
+            return PARSER.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package com.ecommerce.util;
+
+import com.ecommerce.json.BigDecimalAdapter;
+import com.ecommerce.json.CategoryAdapter;
+import com.ecommerce.json.CategoryNodeAdapter;
+import com.ecommerce.json.ChangeLogEntryAdapter;
+import com.ecommerce.json.InventoryAdapter;
+import com.ecommerce.json.LocalDateTimeAdapter;
+import com.ecommerce.json.OrderAdapter;
+import com.ecommerce.json.OrderItemAdapter;
+import com.ecommerce.json.ProductAdapter;
+import com.ecommerce.json.ReviewAdapter;
+import com.ecommerce.json.UserAdapter;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.CategoryNode;
+import com.ecommerce.model.ChangeLogEntry;
+import com.ecommerce.model.Inventory;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.Review;
+import com.ecommerce.model.User;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Utility class for JSON serialization.
+ * The shared Gson instance has a hand-written streaming adapter registered for every model, so
+ * responses are written field by field without reflection, with ISO-8601 timestamps and decimals
+ * in plain notation. Objects are written straight to an output stream as UTF-8 rather than built
+ * up as a String first.
+ */
+public class JsonUtil {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Gson instances are immutable and thread-safe, and cache their adapters, so one is shared
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .registerTypeAdapter(BigDecimal.class, new BigDecimalAdapter())
+            .registerTypeAdapter(Product.class, new ProductAdapter())
+            .registerTypeAdapter(Category.class, new CategoryAdapter())
+            .registerTypeAdapter(CategoryNode.class, new CategoryNodeAdapter())
+            .registerTypeAdapter(User.class, new UserAdapter())
+            .registerTypeAdapter(Order.class, new OrderAdapter())
+            .registerTypeAdapter(OrderItem.class, new OrderItemAdapter())
+            .registerTypeAdapter(Inventory.class, new InventoryAdapter())
+            .registerTypeAdapter(Review.class, new ReviewAdapter())
+            .registerTypeAdapter(ChangeLogEntry.class, new ChangeLogEntryAdapter())
+            .create();
+
+    /**
+     * Gets the shared Gson instance with the model adapters registered.
+     *
+     * @return The Gson instance
+     */
+    public static Gson getGson() {
+        return GSON;
+    }
+
+    /**
+     * Writes an object as JSON to an output stream with the shared Gson instance.
+     *
+     * @param value The object to write
+     * @param out The stream to write to; it is flushed but not closed
+     * @throws IOException If writing to the stream fails
+     */
+    public static void writeJson(Object value, OutputStream out) throws IOException {
+        writeJson(GSON, value, out);
+    }
+
+    /**
+     * Writes an object as JSON to an output stream, encoding UTF-8 through a buffer so that the
+     * stream sees a few large writes instead of one per token.
+     *
+     * @param gson The Gson instance to serialize with
+     * @param value The object to write
+     * @param out The stream to write to; it is flushed but not closed
+     * @throws IOException If writing to the stream fails
+     */
+    public static void writeJson(Gson gson, Object value, OutputStream out) throws IOException {
+        JsonWriter writer = gson.newJsonWriter(new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+        gson.toJson(value, value != null ? value.getClass() : Object.class, writer);
+        writer.flush();
+    }
+
+    /**
+     * Serializes an object to UTF-8 JSON bytes with the shared Gson instance.
+     *
+     * @param value The object to serialize
+     * @return The JSON bytes
+     */
+    public static byte[] toJsonBytes(Object value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+        try {
+            writeJson(value, out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory failed", e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,176 @@
+package com.ecommerce.util;
+
+import com.ecommerce.config.DatabaseConfig;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hashes and verifies passwords with BCrypt on a dedicated, bounded pool of threads.
+ * A BCrypt check costs tens of milliseconds of CPU, so running it on the request threads would
+ * let a burst of logins starve every other request. Here at most threads hashes run at once and
+ * at most queueSize more wait; anything beyond that is rejected at once with a
+ * {@link RejectedExecutionException}, which callers answer with 503 Service Unavailable.
+ * Unknown users are checked against a dummy hash, so a login takes as long whether or not the
+ * user exists.
+ * This class follows the Singleton pattern so that all logins share one pool.
+ */
+public class PasswordHasher {
+    private static PasswordHasher instance;
+
+    private final int cost;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile String dummyHash;
+
+    /**
+     * Constructor for creating a new PasswordHasher.
+     *
+     * @param cost The BCrypt cost factor (log2 of the number of rounds) of new hashes
+     * @param threads The number of hashes computed at once
+     * @param queueSize The number of hashes that may wait for a thread
+     */
+    public PasswordHasher(int cost, int threads, int queueSize) {
+        if (cost < 4 || cost > 31 || threads <= 0 || queueSize < 0) {
+            throw new IllegalArgumentException("BCrypt cost must be 4-31, threads positive and queue size not negative");
+        }
+        this.cost = cost;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    rejected.incrementAndGet();
+                    throw new RejectedExecutionException("Password hashing is at capacity");
+                });
+    }
+
+    /**
+     * Gets the singleton instance of PasswordHasher, configured by the auth.bcrypt.* and
+     * auth.hash.* settings.
+     *
+     * @return The singleton instance
+     */
+    public static synchronized PasswordHasher getInstance() {
+        if (instance == null) {
+            DatabaseConfig config = DatabaseConfig.getInstance();
+            instance = new PasswordHasher(config.getBcryptCost(), config.getHashThreads(), config.getHashQueueSize());
+        }
+        return instance;
+    }
+
+    /**
+     * Hashes a password with the configured cost, waiting for the result.
+     *
+     * @param password The password to hash
+     * @return The BCrypt hash
+     * @throws RejectedExecutionException if the pool and its queue are full
+     */
+    public String hash(String password) {
+        return join(hashAsync(password));
+    }
+
+    /**
+     * Hashes a password with the configured cost on the hashing pool.
+     *
+     * @param password The password to hash
+     * @return The BCrypt hash, once computed
+     * @throws RejectedExecutionException if the pool and its queue are full
+     */
+    public CompletableFuture<String> hashAsync(String password) {
+        return CompletableFuture.supplyAsync(() -> BCrypt.hashpw(password, BCrypt.gensalt(cost)), executor);
+    }
+
+    /**
+     * Checks a password against a hash, waiting for the result.
+     *
+     * @param password The password to check
+     * @param hash The stored BCrypt hash, or null for an unknown user
+     * @return true if the password matches, false otherwise (always false for a null hash)
+     * @throws RejectedExecutionException if the pool and its queue are full
+     */
+    public boolean verify(String password, String hash) {
+        return join(verifyAsync(password, hash));
+    }
+
+    /**
+     * Checks a password against a hash on the hashing pool. A null or malformed hash is checked
+     * against the dummy hash instead, so that it costs as much as a real check.
+     *
+     * @param password The password to check
+     * @param hash The stored BCrypt hash, or null for an unknown user
+     * @return Whether the password matches, once checked
+     * @throws RejectedExecutionException if the pool and its queue are full
+     */
+    public CompletableFuture<Boolean> verifyAsync(String password, String hash) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (hash != null) {
+                try {
+                    return BCrypt.checkpw(password, hash);
+                } catch (IllegalArgumentException e) {
+                    // Not a BCrypt hash; fall through to the dummy check
+                }
+            }
+            BCrypt.checkpw(password, getDummyHash());
+            return false;
+        }, executor);
+    }
+
+    /**
+     * Checks whether a hash was made with a different cost than the configured one, so that
+     * it should be replaced after the next successful login.
+     *
+     * @param hash The stored BCrypt hash
+     * @return true if the hash should be recomputed, false otherwise
+     */
+    public boolean needsRehash(String hash) {
+        // A BCrypt hash starts with $2a$ or $2b$ followed by a two-digit cost
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6)) != cost;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Getters
+    public int getCost() { return cost; }
+    public long getRejectedCount() { return rejected.get(); }
+
+    /**
+     * Gets the hash that unknown users are checked against, computing it on first use.
+     */
+    private String getDummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = BCrypt.hashpw("dummy-password", BCrypt.gensalt(cost));
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
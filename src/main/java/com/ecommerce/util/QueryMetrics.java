@@ -0,0 +1,244 @@
+package com.ecommerce.util;
+
+import com.ecommerce.config.DatabaseConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Registry of database metrics: a latency histogram, row count, error count and coalesced read
+ * count per SQL statement template, and connection wait time per pool. Templates are keyed with
+ * their IN lists collapsed to {@code IN (?...)}, so a list of any length counts as one statement,
+ * the way multi-row inserts are keyed by a single VALUES tuple. Statements slower than
+ * the configured threshold are logged. The metrics can be rendered as a JSON-ready map or in the
+ * Prometheus text exposition format.
+ */
+public class QueryMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(QueryMetrics.class);
+    private static final double[] PERCENTILES = {50.0, 99.0, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p99", "p999"};
+    private static final String[] QUANTILES = {"0.5", "0.99", "0.999"};
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private static final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private static final Map<String, PoolStats> pools = new ConcurrentHashMap<>();
+
+    private QueryMetrics() {
+    }
+
+    /**
+     * Records the execution of a statement and logs it if it exceeded the slow-query threshold.
+     *
+     * @param sql The SQL statement template
+     * @param paramCount The number of bind parameters
+     * @param nanos The execution time in nanoseconds, including reading the results
+     * @param rows The number of rows returned or affected
+     * @param failed Whether the statement failed
+     */
+    public static void recordQuery(String sql, int paramCount, long nanos, long rows, boolean failed) {
+        sql = normalize(sql);
+        StatementStats stats = statements.computeIfAbsent(sql, key -> new StatementStats());
+        stats.latency.recordNanos(nanos);
+        stats.rows.addAndGet(rows);
+        if (failed) {
+            stats.errors.incrementAndGet();
+        }
+
+        long millis = nanos / 1_000_000;
+        long threshold = DatabaseConfig.getInstance().getSlowQueryMillis();
+        if (threshold > 0 && millis >= threshold) {
+            logger.warn("Slow query ({} ms, {} bind parameters, {} rows): {}", millis, paramCount, rows, sql);
+        }
+    }
+
+    /**
+     * Records a read that shared the result of an identical read already in flight instead of
+     * executing the statement itself.
+     *
+     * @param sql The SQL statement template
+     */
+    public static void recordCoalesced(String sql) {
+        statements.computeIfAbsent(normalize(sql), key -> new StatementStats()).coalesced.incrementAndGet();
+    }
+
+    /**
+     * Collapses the IN lists of bind parameters in a statement template to {@code IN (?...)}.
+     *
+     * @param sql The SQL statement template
+     * @return The template to key the metrics by
+     */
+    private static String normalize(String sql) {
+        if (sql.indexOf('?') < 0 || !(sql.contains("IN") || sql.contains("in"))) {
+            return sql;
+        }
+        return IN_LIST.matcher(sql).replaceAll("IN (?...)");
+    }
+
+    /**
+     * Creates a HikariCP metrics tracker factory that records connection wait time per pool.
+     *
+     * @return The metrics tracker factory
+     */
+    public static MetricsTrackerFactory poolTrackerFactory() {
+        return (poolName, poolStats) -> {
+            PoolStats stats = pools.computeIfAbsent(poolName, key -> new PoolStats());
+            return new IMetricsTracker() {
+                @Override
+                public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                    stats.wait.recordNanos(elapsedAcquiredNanos);
+                }
+
+                @Override
+                public void recordConnectionTimeout() {
+                    stats.timeouts.incrementAndGet();
+                }
+            };
+        };
+    }
+
+    /**
+     * Builds a snapshot of all metrics as nested maps, suitable for JSON serialization.
+     *
+     * @return The metrics snapshot
+     */
+    public static Map<String, Object> snapshot() {
+        List<Map<String, Object>> statementList = new ArrayList<>();
+        statements.forEach((sql, stats) -> {
+            Map<String, Object> entry = histogramSnapshot(stats.latency);
+            entry.put("sql", sql);
+            entry.put("rows", stats.rows.get());
+            entry.put("errors", stats.errors.get());
+            entry.put("coalesced", stats.coalesced.get());
+            statementList.add(entry);
+        });
+        statementList.sort((a, b) -> Long.compare((long) b.get("totalMicros"), (long) a.get("totalMicros")));
+
+        Map<String, Object> poolMap = new LinkedHashMap<>();
+        pools.forEach((poolName, stats) -> {
+            Map<String, Object> entry = histogramSnapshot(stats.wait);
+            entry.put("timeouts", stats.timeouts.get());
+            HikariPoolMXBean pool = findPool(poolName);
+            if (pool != null) {
+                entry.put("active", pool.getActiveConnections());
+                entry.put("idle", pool.getIdleConnections());
+                entry.put("waiting", pool.getThreadsAwaitingConnection());
+            }
+            poolMap.put(poolName, entry);
+        });
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("statements", statementList);
+        snapshot.put("pools", poolMap);
+        return snapshot;
+    }
+
+    /**
+     * Renders all metrics in the Prometheus text exposition format.
+     *
+     * @return The metrics text
+     */
+    public static String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP db_query_duration_seconds Statement execution time per SQL template.\n");
+        out.append("# TYPE db_query_duration_seconds summary\n");
+        statements.forEach((sql, stats) ->
+                appendSummary(out, "db_query_duration_seconds", "query=\"" + escapeLabel(sql) + "\"", stats.latency));
+
+        out.append("# HELP db_query_rows_total Rows returned or affected per SQL template.\n");
+        out.append("# TYPE db_query_rows_total counter\n");
+        statements.forEach((sql, stats) -> out.append("db_query_rows_total{query=\"").append(escapeLabel(sql))
+                                              .append("\"} ").append(stats.rows.get()).append('\n'));
+
+        out.append("# HELP db_query_errors_total Failed executions per SQL template.\n");
+        out.append("# TYPE db_query_errors_total counter\n");
+        statements.forEach((sql, stats) -> out.append("db_query_errors_total{query=\"").append(escapeLabel(sql))
+                                              .append("\"} ").append(stats.errors.get()).append('\n'));
+
+        out.append("# HELP db_query_coalesced_total Reads that shared an identical read in flight per SQL template.\n");
+        out.append("# TYPE db_query_coalesced_total counter\n");
+        statements.forEach((sql, stats) -> out.append("db_query_coalesced_total{query=\"").append(escapeLabel(sql))
+                                              .append("\"} ").append(stats.coalesced.get()).append('\n'));
+
+        out.append("# HELP db_pool_wait_seconds Time spent waiting for a pooled connection.\n");
+        out.append("# TYPE db_pool_wait_seconds summary\n");
+        pools.forEach((poolName, stats) ->
+                appendSummary(out, "db_pool_wait_seconds", "pool=\"" + escapeLabel(poolName) + "\"", stats.wait));
+
+        out.append("# HELP db_pool_timeouts_total Connection requests that timed out.\n");
+        out.append("# TYPE db_pool_timeouts_total counter\n");
+        pools.forEach((poolName, stats) -> out.append("db_pool_timeouts_total{pool=\"").append(escapeLabel(poolName))
+                                              .append("\"} ").append(stats.timeouts.get()).append('\n'));
+        return out.toString();
+    }
+
+    private static Map<String, Object> histogramSnapshot(LatencyHistogram histogram) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("count", histogram.getCount());
+        entry.put("totalMicros", histogram.getTotalMicros());
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            entry.put(PERCENTILE_NAMES[i] + "Micros", histogram.getValueAtPercentile(PERCENTILES[i]));
+        }
+        entry.put("maxMicros", histogram.getMaxMicros());
+        return entry;
+    }
+
+    private static void appendSummary(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            out.append(name).append('{').append(labels).append(",quantile=\"").append(QUANTILES[i]).append("\"} ")
+               .append(toSeconds(histogram.getValueAtPercentile(PERCENTILES[i]))).append('\n');
+        }
+        out.append(name).append("_sum{").append(labels).append("} ")
+           .append(toSeconds(histogram.getTotalMicros())).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ").append(histogram.getCount()).append('\n');
+    }
+
+    private static HikariPoolMXBean findPool(String poolName) {
+        HikariDataSource primary = DatabaseConfig.getInstance().getDataSource();
+        if (poolName.equals(primary.getPoolName())) {
+            return primary.getHikariPoolMXBean();
+        }
+        for (HikariDataSource replica : DatabaseConfig.getInstance().getRoutingDataSource().getReplicas()) {
+            if (poolName.equals(replica.getPoolName())) {
+                return replica.getHikariPoolMXBean();
+            }
+        }
+        return null;
+    }
+
+    private static String toSeconds(long micros) {
+        return Double.toString(micros / 1_000_000.0);
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Metrics for one SQL statement template.
+     */
+    private static class StatementStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong coalesced = new AtomicLong();
+    }
+
+    /**
+     * Metrics for one connection pool.
+     */
+    private static class PoolStats {
+        private final LatencyHistogram wait = new LatencyHistogram();
+        private final AtomicLong timeouts = new AtomicLong();
+    }
+}
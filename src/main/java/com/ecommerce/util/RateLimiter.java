@@ -0,0 +1,159 @@
+package com.ecommerce.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token-bucket rate limiter with one bucket per key, such as a username or client IP.
+ * A bucket holds up to capacity tokens and gains refillPerSecond tokens per second; each request
+ * takes one token and is refused while the bucket is empty. Refills are computed when a bucket is
+ * used, so no background thread is needed.
+ * The number of buckets is bounded by maxKeys. When a new key would exceed it, buckets that have
+ * refilled completely are dropped, which changes nothing since a missing bucket starts full. If
+ * that is not enough, as under a flood of distinct keys, arbitrary buckets are dropped as well,
+ * so memory stays bounded at the cost of forgetting some keys' history.
+ */
+public class RateLimiter {
+    private static final double TRIM_RATIO = 0.9;
+
+    private final int capacity;
+    private final double tokensPerNano;
+    private final int maxKeys;
+    private final LongSupplier clock;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final ReentrantLock trimLock = new ReentrantLock();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Constructor for creating a new RateLimiter.
+     *
+     * @param capacity The number of requests a key may make in a burst
+     * @param refillPerSecond The sustained number of requests per second a key may make
+     * @param maxKeys The maximum number of keys tracked at once
+     */
+    public RateLimiter(int capacity, double refillPerSecond, int maxKeys) {
+        this(capacity, refillPerSecond, maxKeys, System::nanoTime);
+    }
+
+    /**
+     * Constructor for creating a new RateLimiter with its own clock.
+     *
+     * @param capacity The number of requests a key may make in a burst
+     * @param refillPerSecond The sustained number of requests per second a key may make
+     * @param maxKeys The maximum number of keys tracked at once
+     * @param clock The time source in nanoseconds, such as System::nanoTime
+     */
+    public RateLimiter(int capacity, double refillPerSecond, int maxKeys, LongSupplier clock) {
+        if (capacity <= 0 || refillPerSecond <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("Capacity, refill rate and key limit must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes a token from the bucket of a key.
+     *
+     * @param key The key to charge
+     * @return 0 if the request is allowed, otherwise the number of milliseconds until the
+     *         bucket has a token again
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                trim(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+        }
+        long waitNanos = bucket.tryTake(now);
+        if (waitNanos > 0) {
+            rejected.incrementAndGet();
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the number of keys currently tracked.
+     *
+     * @return The number of buckets
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    // Getters
+    public long getRejectedCount() { return rejected.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+
+    /**
+     * Shrinks the store below the key limit, first by dropping full buckets and then, if still
+     * needed, arbitrary ones. Only one thread trims at a time; others carry on meanwhile.
+     */
+    private void trim(long now) {
+        if (!trimLock.tryLock()) {
+            return;
+        }
+        try {
+            int target = (int) (maxKeys * TRIM_RATIO);
+            for (Iterator<Bucket> it = buckets.values().iterator(); it.hasNext(); ) {
+                if (it.next().isFull(now)) {
+                    it.remove();
+                }
+            }
+            for (Iterator<Bucket> it = buckets.values().iterator(); buckets.size() > target && it.hasNext(); ) {
+                it.next();
+                it.remove();
+                dropped.incrementAndGet();
+            }
+        } finally {
+            trimLock.unlock();
+        }
+    }
+
+    /**
+     * The tokens of one key, refilled lazily from the time of the last refill.
+     */
+    private final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+
+        synchronized long tryTake(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            long elapsed = now - refilledAt;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+                refilledAt = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.util;
+
+import com.ecommerce.config.DatabaseConfig;
+import com.ecommerce.config.RoutingDataSource;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical loads. The first caller for a key runs the load; callers
+ * arriving while it is in flight wait for it and share its result (or its exception), so a burst
+ * of requests for the same row costs one database round trip and one pool connection.
+ * Results are shared between callers and must not be modified.
+ * Loads inside a transaction, for a session inside its read-your-writes window, or under
+ * {@link TransactionTemplate#readFromPrimary}, are never shared: such a caller must see its own
+ * or the primary's latest writes, which a load started by someone else on a replica may not.
+ *
+ * @param <K> The type of the keys identifying identical loads
+ * @param <V> The type of the loaded values
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final Consumer<K> onCoalesced;
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Constructor for creating a new SingleFlight.
+     */
+    public SingleFlight() {
+        this(key -> { });
+    }
+
+    /**
+     * Constructor for creating a new SingleFlight that reports every coalesced call.
+     *
+     * @param onCoalesced Called with the key whenever a caller shares a load already in flight
+     */
+    public SingleFlight(Consumer<K> onCoalesced) {
+        this.onCoalesced = onCoalesced;
+    }
+
+    /**
+     * Runs a load, or waits for the identical load already in flight and returns its result.
+     *
+     * @param key The key identifying the load
+     * @param loader Performs the load
+     * @return The loaded value
+     */
+    public V execute(K key, Supplier<V> loader) {
+        if (!isShareable()) {
+            loads.incrementAndGet();
+            return loader.get();
+        }
+
+        Flight<V> flight = new Flight<>();
+        Flight<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            loads.incrementAndGet();
+            try {
+                V value = loader.get();
+                flight.result.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                flight.result.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        }
+        if (existing.leader == Thread.currentThread()) {
+            // A load that re-enters itself with the same key would wait for its own result
+            loads.incrementAndGet();
+            return loader.get();
+        }
+
+        coalesced.incrementAndGet();
+        onCoalesced.accept(key);
+        try {
+            return existing.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // Getters
+    public long getLoads() { return loads.get(); }
+    public long getCoalesced() { return coalesced.get(); }
+
+    private static boolean isShareable() {
+        if (TransactionTemplate.isTransactionActive() || TransactionTemplate.isReadingFromPrimary()) {
+            return false;
+        }
+        RoutingDataSource router = DatabaseConfig.getInstance().getRoutingDataSource();
+        return !router.hasReplicas() || router.shouldReadFromReplica();
+    }
+
+    /**
+     * A load in progress, with the thread running it.
+     */
+    private static class Flight<V> {
+        private final Thread leader = Thread.currentThread();
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Describes a query together with the columns its mapper reads.
+ * Column labels are resolved to indexes once per ResultSet, so the mapper reads every cell by
+ * index instead of paying a case-insensitive label lookup per cell in the driver.
+ *
+ * @param <T> The type of object each row is mapped to
+ */
+public class StatementDescriptor<T> {
+    private final String sql;
+    private final String[] columns;
+    private final IndexedRowMapper<T> mapper;
+
+    /**
+     * Constructor for creating a new StatementDescriptor.
+     *
+     * @param sql     The SQL query to execute
+     * @param columns The column labels read by the mapper, in the order it expects their indexes
+     * @param mapper  The mapper that converts a row using the resolved column indexes
+     */
+    public StatementDescriptor(String sql, String[] columns, IndexedRowMapper<T> mapper) {
+        this.sql = sql;
+        this.columns = columns;
+        this.mapper = mapper;
+    }
+
+    // Getters
+    public String getSql() { return sql; }
+
+    /**
+     * Resolves the descriptor's column labels to indexes in the given ResultSet.
+     *
+     * @param rs The ResultSet to resolve the columns against
+     * @return The column indexes, in the same order as the column labels
+     * @throws SQLException if a column is not present in the ResultSet
+     */
+    int[] resolveColumns(ResultSet rs) throws SQLException {
+        int[] indexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            indexes[i] = rs.findColumn(columns[i]);
+        }
+        return indexes;
+    }
+
+    /**
+     * Maps the current ResultSet row.
+     *
+     * @param rs The ResultSet positioned on the row to map
+     * @param indexes The column indexes returned by {@link #resolveColumns(ResultSet)}
+     * @return The mapped object
+     * @throws SQLException if there's an error during mapping
+     */
+    T map(ResultSet rs, int[] indexes) throws SQLException {
+        return mapper.map(rs, indexes);
+    }
+
+    /**
+     * Interface for mapping a ResultSet row using pre-resolved column indexes.
+     *
+     * @param <T> The type of object to map to
+     */
+    @FunctionalInterface
+    public interface IndexedRowMapper<T> {
+        /**
+         * Maps a ResultSet row to an object.
+         *
+         * @param rs The ResultSet to map from
+         * @param columns The column indexes, in the order of the descriptor's column labels
+         * @return The mapped object
+         * @throws SQLException if there's an error during mapping
+         */
+        T map(ResultSet rs, int[] columns) throws SQLException;
+    }
+}
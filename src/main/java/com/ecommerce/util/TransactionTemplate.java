@@ -0,0 +1,320 @@
+package com.ecommerce.util;
+
+import com.ecommerce.config.DatabaseConfig;
+import com.ecommerce.config.RoutingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Unit-of-work support that binds a single pooled connection to the current thread.
+ * While a scope is open, every {@link DatabaseUtil} call reuses the bound connection instead of
+ * borrowing its own, so multi-statement operations cost one pool acquisition and, inside
+ * {@link #inTransaction(Supplier)}, commit or roll back together.
+ * When read replicas are configured a scope may hold a second, replica connection for reads;
+ * once the scope writes, its reads move to the primary connection as well.
+ * Work that must not observe replication lag can force its reads to the primary with
+ * {@link #readFromPrimary(Supplier)}.
+ */
+public class TransactionTemplate {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionTemplate.class);
+    private static final ThreadLocal<ConnectionScope> currentScope = new ThreadLocal<>();
+
+    private TransactionTemplate() {
+    }
+
+    /**
+     * Runs the given work in a transaction on a single connection. The transaction is committed
+     * when the work returns and rolled back if it throws. If a transaction is already active on
+     * this thread the work joins it; if only a connection scope is open, its connection is used.
+     *
+     * @param work The work to run
+     * @param <T> The type of result returned by the work
+     * @return The result of the work
+     */
+    public static <T> T inTransaction(Supplier<T> work) {
+        ConnectionScope scope = currentScope.get();
+        if (scope != null && scope.transactional) {
+            return work.get();
+        }
+
+        boolean ownsScope = scope == null;
+        if (ownsScope) {
+            scope = openConnectionScope();
+        }
+        scope.transactional = true;
+        try {
+            T result = work.get();
+            scope.commit();
+            return result;
+        } catch (RuntimeException | Error e) {
+            scope.rollback();
+            throw e;
+        } finally {
+            scope.transactional = false;
+            scope.runCompletionCallbacks();
+            if (ownsScope) {
+                scope.close();
+            }
+        }
+    }
+
+    /**
+     * Runs the given work with every read on the primary connection, without a transaction.
+     * This is for background work that acts on what it reads, such as following the change log
+     * or refreshing in-memory copies of rows: a lagging replica would hand it rows that nothing
+     * corrects later. Reads on the primary do not start a read-your-writes window. If a scope is
+     * already open on this thread the work joins it, and its reads move to the primary for the
+     * duration of the work.
+     *
+     * @param work The work to run
+     * @param <T> The type of result returned by the work
+     * @return The result of the work
+     */
+    public static <T> T readFromPrimary(Supplier<T> work) {
+        ConnectionScope scope = currentScope.get();
+        boolean ownsScope = scope == null;
+        if (ownsScope) {
+            scope = openConnectionScope();
+        }
+        boolean primaryReads = scope.primaryReads;
+        scope.primaryReads = true;
+        try {
+            return work.get();
+        } finally {
+            scope.primaryReads = primaryReads;
+            if (ownsScope) {
+                scope.close();
+            }
+        }
+    }
+
+    /**
+     * Registers a callback to run once the current transaction has committed or rolled back.
+     * Without an active transaction the callback runs immediately.
+     *
+     * @param callback The callback to run
+     */
+    public static void afterCompletion(Runnable callback) {
+        ConnectionScope scope = currentScope.get();
+        if (scope != null && scope.transactional) {
+            scope.completionCallbacks.add(callback);
+        } else {
+            callback.run();
+        }
+    }
+
+    /**
+     * Opens a connection scope for the current thread. The connection is only borrowed from the
+     * pool on first use and is returned when the scope is closed. Scopes do not nest: if one is
+     * already open, a no-op scope is returned.
+     *
+     * @return The scope, to be closed when the unit of work ends
+     */
+    public static ConnectionScope openConnectionScope() {
+        if (currentScope.get() != null) {
+            return new ConnectionScope(false);
+        }
+        ConnectionScope scope = new ConnectionScope(true);
+        currentScope.set(scope);
+        return scope;
+    }
+
+    /**
+     * Checks if a transaction is active on the current thread.
+     *
+     * @return true if a transaction is active, false otherwise
+     */
+    public static boolean isTransactionActive() {
+        ConnectionScope scope = currentScope.get();
+        return scope != null && scope.transactional;
+    }
+
+    /**
+     * Checks if reads on the current thread are forced to the primary by {@link #readFromPrimary}.
+     *
+     * @return true if the current scope reads from the primary, false otherwise
+     */
+    public static boolean isReadingFromPrimary() {
+        ConnectionScope scope = currentScope.get();
+        return scope != null && scope.primaryReads;
+    }
+
+    /**
+     * Gets a primary connection for a write or transactional operation and records the write for
+     * read-your-writes routing. Inside a scope this is the bound primary connection, wrapped so
+     * that closing it leaves it bound; otherwise it is a fresh pooled connection that the caller
+     * must close.
+     *
+     * @return The connection to use
+     * @throws SQLException if a connection cannot be obtained
+     */
+    static Connection getConnection() throws SQLException {
+        RoutingDataSource router = DatabaseConfig.getInstance().getRoutingDataSource();
+        router.recordWrite();
+        ConnectionScope scope = currentScope.get();
+        if (scope == null) {
+            return router.getPrimaryConnection();
+        }
+        return nonClosing(scope.primaryConnection());
+    }
+
+    /**
+     * Gets a connection for a read-only operation, routed to a replica when one may serve it.
+     * Inside a transaction, or a scope that already holds its primary connection, the primary
+     * connection is used.
+     *
+     * @return The connection to use
+     * @throws SQLException if a connection cannot be obtained
+     */
+    static Connection getReadConnection() throws SQLException {
+        ConnectionScope scope = currentScope.get();
+        if (scope == null) {
+            return DatabaseConfig.getInstance().getRoutingDataSource().getReadConnection();
+        }
+        return nonClosing(scope.readConnection());
+    }
+
+    /**
+     * Wraps a connection so that {@code close()} is ignored.
+     *
+     * @param connection The connection to wrap
+     * @return The wrapped connection
+     */
+    private static Connection nonClosing(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if ("close".equals(method.getName())) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * A unit of work holding at most one pooled primary connection and one pooled replica
+     * connection for the current thread.
+     */
+    public static class ConnectionScope implements AutoCloseable {
+        private final boolean owner;
+        private boolean transactional;
+        private boolean primaryReads;
+        private final List<Runnable> completionCallbacks = new ArrayList<>();
+        private Connection connection;
+        private Connection readConnection;
+
+        private ConnectionScope(boolean owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * Gets the bound primary connection, borrowing it from the pool on first use.
+         *
+         * @return The bound primary connection
+         * @throws SQLException if a connection cannot be obtained
+         */
+        private Connection primaryConnection() throws SQLException {
+            if (connection == null) {
+                connection = DatabaseConfig.getInstance().getRoutingDataSource().getPrimaryConnection();
+            }
+            if (transactional && connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+            }
+            return connection;
+        }
+
+        /**
+         * Gets the connection to read from, borrowing a replica connection on first use when
+         * the read may be served by a replica and the scope does not require primary reads.
+         *
+         * @return The bound connection to read from
+         * @throws SQLException if a connection cannot be obtained
+         */
+        private Connection readConnection() throws SQLException {
+            RoutingDataSource router = DatabaseConfig.getInstance().getRoutingDataSource();
+            if (transactional || primaryReads || connection != null || !router.shouldReadFromReplica()) {
+                return primaryConnection();
+            }
+            if (readConnection == null) {
+                readConnection = router.getReadConnection();
+            }
+            return readConnection;
+        }
+
+        private void commit() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                rollback();
+                throw new RuntimeException("Transaction commit failed", e);
+            }
+        }
+
+        private void rollback() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                logger.error("Error rolling back transaction", e);
+            }
+        }
+
+        private void runCompletionCallbacks() {
+            List<Runnable> callbacks = new ArrayList<>(completionCallbacks);
+            completionCallbacks.clear();
+            for (Runnable callback : callbacks) {
+                try {
+                    callback.run();
+                } catch (RuntimeException e) {
+                    logger.error("Error running transaction completion callback", e);
+                }
+            }
+        }
+
+        /**
+         * Ends the scope and returns the connection to the pool.
+         */
+        @Override
+        public void close() {
+            if (!owner) {
+                return;
+            }
+            currentScope.remove();
+            connection = release(connection);
+            readConnection = release(readConnection);
+        }
+
+        private static Connection release(Connection connection) {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.error("Error closing scoped connection", e);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -2,12 +2,14 @@
 -- Normalized to 3NF
 
 -- Drop existing tables if they exist (for development)
+DROP TABLE IF EXISTS change_log;
 DROP TABLE IF EXISTS order_items;
 DROP TABLE IF EXISTS orders;
 DROP TABLE IF EXISTS reviews;
 DROP TABLE IF EXISTS inventory;
 DROP TABLE IF EXISTS products_categories;
 DROP TABLE IF EXISTS products;
+DROP TABLE IF EXISTS category_closure;
 DROP TABLE IF EXISTS categories;
 DROP TABLE IF EXISTS users;
 
@@ -38,6 +40,17 @@ CREATE TABLE categories (
     FOREIGN KEY (parent_category_id) REFERENCES categories(category_id)
 );
 
+-- Category closure table: one row per ancestor/descendant pair (including each category
+-- paired with itself at depth 0), maintained by CategoryDAO on every category write
+CREATE TABLE category_closure (
+    ancestor_id INT NOT NULL,
+    descendant_id INT NOT NULL,
+    depth INT NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    FOREIGN KEY (ancestor_id) REFERENCES categories(category_id) ON DELETE CASCADE,
+    FOREIGN KEY (descendant_id) REFERENCES categories(category_id) ON DELETE CASCADE
+);
+
 -- Products table
 CREATE TABLE products (
     product_id INT PRIMARY KEY AUTO_INCREMENT,
@@ -115,10 +128,22 @@ CREATE TABLE reviews (
     FOREIGN KEY (user_id) REFERENCES users(user_id)
 );
 
+-- Change log: one row per product, category or user write, inserted in the same transaction
+-- and polled by every application instance to evict its local caches
+CREATE TABLE change_log (
+    change_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    entity VARCHAR(32) NOT NULL,
+    entity_id INT NOT NULL,
+    changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 -- Create indexes for performance optimization
 CREATE INDEX idx_products_name ON products(name);
 CREATE INDEX idx_products_sku ON products(sku);
 CREATE INDEX idx_products_price ON products(price);
+CREATE INDEX idx_products_created_at ON products(created_at, product_id);
+CREATE INDEX idx_category_closure_descendant ON category_closure(descendant_id, depth);
+CREATE INDEX idx_products_categories_category ON products_categories(category_id, product_id);
 CREATE INDEX idx_orders_user_id ON orders(user_id);
 CREATE INDEX idx_orders_status ON orders(order_status);
 CREATE INDEX idx_orders_date ON orders(order_date);
@@ -126,6 +151,7 @@ CREATE INDEX idx_order_items_order_id ON order_items(order_id);
 CREATE INDEX idx_order_items_product_id ON order_items(product_id);
 CREATE INDEX idx_reviews_product_id ON reviews(product_id);
 CREATE INDEX idx_inventory_product_id ON inventory(product_id);
+CREATE INDEX idx_change_log_changed_at ON change_log(changed_at);
 
 -- Insert sample data
 
@@ -137,6 +163,10 @@ INSERT INTO categories (name, description) VALUES
 ('Home & Garden', 'Home improvement and gardening supplies'),
 ('Sports & Outdoors', 'Sports equipment and outdoor gear');
 
+-- Every sample category is top-level, so it is its only ancestor
+INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+SELECT category_id, category_id, 0 FROM categories;
+
 -- Sample users
 INSERT INTO users (username, email, password_hash, first_name, last_name, phone, address, user_type) VALUES
 ('admin', 'admin@ecommerce.com', '$2a$10$NQzWyYJ4qM6.lFkXwvQoIuTlKtB6VrG9UOYs3R5p6n8z1c2v4w5x6', 'Admin', 'User', '+1234567890', '123 Admin St, City, Country', 'ADMIN'),
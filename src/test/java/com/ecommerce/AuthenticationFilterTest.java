@@ -0,0 +1,136 @@
+package com.ecommerce;
+
+import com.ecommerce.config.DatabaseConfig;
+import com.ecommerce.filter.AuthenticatedUser;
+import com.ecommerce.filter.AuthenticationFilter;
+import com.ecommerce.model.User;
+import com.ecommerce.util.JWTUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for AuthenticationFilter functionality.
+ * Tests public routes and their exceptions, rejection of missing or invalid tokens and the request
+ * principal.
+ */
+class AuthenticationFilterTest {
+
+    private final AuthenticationFilter filter =
+            new AuthenticationFilter(List.of("GET /api/products/*", "* /api/auth/login"));
+
+    @Test
+    @DisplayName("Should pass public routes through without checking a token")
+    void shouldPassPublicRoutes() throws IOException, ServletException {
+        // Arrange
+        HttpServletRequest request = request("GET", "/api/products", "/42", "Bearer not-a-token");
+        HttpServletRequest login = request("POST", "/api/auth", "/login", null);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        FilterChain chain = mock(FilterChain.class);
+
+        // Act
+        filter.doFilter(request, response, chain);
+        filter.doFilter(login, response, chain);
+
+        // Assert
+        verify(chain).doFilter(request, response);
+        verify(chain).doFilter(login, response);
+        verify(request, never()).getHeader("Authorization");
+        verify(response, never()).setStatus(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject protected routes without a valid token")
+    void shouldRejectMissingOrInvalidTokens() throws IOException, ServletException {
+        // Arrange
+        StringWriter missingBody = new StringWriter();
+        StringWriter invalidBody = new StringWriter();
+        HttpServletResponse missing = response(missingBody);
+        HttpServletResponse invalid = response(invalidBody);
+        FilterChain chain = mock(FilterChain.class);
+
+        // Act
+        filter.doFilter(request("POST", "/api/products", null, null), missing, chain);
+        filter.doFilter(request("GET", "/api/categories", "/1", "Bearer not-a-token"), invalid, chain);
+
+        // Assert
+        verify(chain, never()).doFilter(any(), any());
+        verify(missing).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        verify(invalid).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        assertTrue(missingBody.toString().contains("Authorization token required"), "Missing token should be reported");
+        assertTrue(invalidBody.toString().contains("Invalid token"), "Invalid token should be reported");
+    }
+
+    @Test
+    @DisplayName("Should attach the user from the token claims as the request principal")
+    void shouldAttachPrincipal() throws IOException, ServletException {
+        // Arrange
+        User user = new User(7, "filter_admin", "admin@example.com", "Filter", "Admin", null, null,
+                             User.UserType.ADMIN, null, null, true);
+        HttpServletRequest request = request("DELETE", "/api/products", "/5",
+                                             "Bearer " + JWTUtil.generateToken(user));
+        FilterChain chain = mock(FilterChain.class);
+        ArgumentCaptor<ServletRequest> forwarded = ArgumentCaptor.forClass(ServletRequest.class);
+
+        // Act
+        filter.doFilter(request, mock(HttpServletResponse.class), chain);
+
+        // Assert
+        verify(chain).doFilter(forwarded.capture(), any());
+        HttpServletRequest authenticated = (HttpServletRequest) forwarded.getValue();
+        AuthenticatedUser principal = (AuthenticatedUser) authenticated.getUserPrincipal();
+        assertEquals(7, principal.getUserId(), "User ID should come from the token");
+        assertEquals("filter_admin", principal.getName(), "Username should come from the token");
+        assertEquals(User.UserType.ADMIN, principal.getRole(), "Role should come from the token");
+        assertTrue(authenticated.isUserInRole("ADMIN"), "Admin role should be recognized");
+        assertFalse(authenticated.isUserInRole("CUSTOMER"), "Other roles should not be granted");
+    }
+
+    @Test
+    @DisplayName("Should keep the catalog export protected under the default public routes")
+    void shouldProtectExportByDefault() throws IOException, ServletException {
+        // Arrange
+        AuthenticationFilter defaults = new AuthenticationFilter(DatabaseConfig.getInstance().getAuthPublicRoutes());
+        HttpServletRequest product = request("GET", "/api/products", "/42", null);
+        HttpServletRequest export = request("GET", "/api/products", "/export", null);
+        HttpServletResponse exportResponse = response(new StringWriter());
+        FilterChain chain = mock(FilterChain.class);
+
+        // Act
+        defaults.doFilter(product, mock(HttpServletResponse.class), chain);
+        defaults.doFilter(export, exportResponse, chain);
+
+        // Assert
+        verify(chain).doFilter(eq(product), any());
+        verify(chain, never()).doFilter(eq(export), any());
+        verify(exportResponse).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+    }
+
+    private HttpServletRequest request(String method, String servletPath, String pathInfo, String authorization) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getServletPath()).thenReturn(servletPath);
+        when(request.getPathInfo()).thenReturn(pathInfo);
+        when(request.getHeader("Authorization")).thenReturn(authorization);
+        return request;
+    }
+
+    private HttpServletResponse response(StringWriter body) throws IOException {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getWriter()).thenReturn(new PrintWriter(body, true));
+        return response;
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce;
+
+import com.ecommerce.catalog.CatalogSnapshot;
+import com.ecommerce.catalog.CatalogSnapshotManager;
+import com.ecommerce.dao.CategoryDAO;
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for exporting and restoring the catalog snapshot.
+ * Tests warm restores with catch-up and the rejection of damaged or outdated files.
+ */
+class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    private CatalogSnapshotManager manager;
+    private ProductDAO productDAO;
+    private CategoryDAO categoryDAO;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        manager = CatalogSnapshotManager.getInstance();
+        productDAO = new ProductDAO();
+        categoryDAO = new CategoryDAO();
+        file = directory.resolve("catalog-snapshot.bin");
+    }
+
+    @Test
+    @DisplayName("Should restore an exported snapshot and catch up with later changes")
+    void shouldRestoreAndCatchUp() throws IOException {
+        // Arrange
+        String tag = TestData.uniqueTag("F");
+        int category = categoryDAO.create(new Category(0, tag, "Restored category", null, null, null));
+        int updated = TestData.createProduct(tag, "updated", category);
+        int deleted = TestData.createProduct(tag, "deleted", category);
+        manager.refresh();
+        CatalogSnapshot exported = manager.current();
+        manager.export(file);
+        Product product = productDAO.findById(updated);
+        product.setPrice(new BigDecimal("3.25"));
+        productDAO.update(product);
+        productDAO.delete(deleted);
+        int created = TestData.createProduct(tag, "created", category);
+
+        // Act
+        boolean restored = manager.restore(file);
+        CatalogSnapshot current = manager.current();
+
+        // Assert
+        assertTrue(restored, "Exported file should be restored");
+        assertTrue(current.getVersion() > exported.getVersion(), "Versions should keep increasing");
+        assertEquals(new BigDecimal("3.25"), current.findProductById(updated).getPrice(), "Update should be caught up");
+        assertNull(current.findProductById(deleted), "Delete should be caught up");
+        assertNotNull(current.findProductById(created), "Create should be caught up");
+        assertEquals("Restored category", current.findCategoryById(category).getDescription(),
+                    "Categories should be restored");
+        assertEquals(List.of(category), current.findProductById(updated).getCategories().stream()
+                    .map(Category::getCategoryId).toList(), "Category links should be restored");
+    }
+
+    @Test
+    @DisplayName("Should ignore a damaged file and keep the current snapshot")
+    void shouldRejectDamagedFile() throws IOException {
+        // Arrange
+        TestData.createProduct(TestData.uniqueTag("F"), "damaged", categoryDAO.create(new Category(0, TestData.uniqueTag("F"), null, null, null, null)));
+        manager.refresh();
+        manager.export(file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 3] ^= 0x5A;
+        Files.write(file, bytes);
+        CatalogSnapshot before = manager.current();
+
+        // Act
+        boolean restored = manager.restore(file);
+
+        // Assert
+        assertFalse(restored, "Damaged file should be rejected");
+        assertSame(before, manager.current(), "Current snapshot should be kept");
+        assertFalse(manager.restore(directory.resolve("missing.bin")), "Missing file should be ignored");
+    }
+
+    @Test
+    @DisplayName("Should ignore a file written before the categories changed")
+    void shouldRejectOutdatedCategories() throws IOException {
+        // Arrange
+        manager.refresh();
+        manager.export(file);
+        categoryDAO.create(new Category(0, TestData.uniqueTag("F"), null, null, null, null));
+        CatalogSnapshot before = manager.current();
+
+        // Act
+        boolean restored = manager.restore(file);
+
+        // Assert
+        assertFalse(restored, "Outdated file should be rejected");
+        assertSame(before, manager.current(), "Current snapshot should be kept");
+    }
+}
@@ -0,0 +1,173 @@
+package com.ecommerce;
+
+import com.ecommerce.catalog.CatalogSnapshot;
+import com.ecommerce.catalog.CatalogSnapshotManager;
+import com.ecommerce.dao.CategoryDAO;
+import com.ecommerce.dao.Page;
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+import com.ecommerce.util.DatabaseUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the catalog snapshot.
+ * Tests serving reads from memory, applying polled creates, updates and deletes, and the full
+ * reload catching changes the polls missed.
+ */
+class CatalogSnapshotTest {
+
+    private CatalogSnapshotManager manager;
+    private ProductDAO productDAO;
+    private CategoryDAO categoryDAO;
+
+    @BeforeEach
+    void setUp() {
+        manager = CatalogSnapshotManager.getInstance();
+        productDAO = new ProductDAO();
+        categoryDAO = new CategoryDAO();
+    }
+
+    @Test
+    @DisplayName("Should publish a new snapshot for created, updated and deleted products")
+    void shouldApplyPolledChanges() {
+        // Arrange
+        String tag = TestData.uniqueTag("S");
+        int parent = categoryDAO.create(new Category(0, tag + "-parent", null, null, null, null));
+        int child = categoryDAO.create(new Category(0, tag + "-child", null, parent, null, null));
+        int kept = TestData.createProduct(tag, "kept", child);
+        int updated = TestData.createProduct(tag, "updated", child);
+        int deleted = TestData.createProduct(tag, "deleted", child);
+        manager.refresh();
+        CatalogSnapshot before = manager.current();
+
+        // Act
+        Product product = productDAO.findById(updated);
+        product.setPrice(new BigDecimal("7.50"));
+        product.setActive(false);
+        productDAO.update(product);
+        productDAO.delete(deleted);
+        int created = TestData.createProduct(tag, "created", parent);
+        manager.refresh();
+        CatalogSnapshot after = manager.current();
+
+        // Assert
+        assertEquals(3, before.findByCategorySubtree(parent, 10, null).getItems().size(),
+                    "Subtree should include products filed under the child category");
+        assertTrue(after.getVersion() > before.getVersion(), "Changes should publish a new snapshot");
+        assertNotNull(before.findProductById(deleted), "Old snapshot should stay unchanged");
+        assertNull(after.findProductById(deleted), "Deleted product should be dropped");
+        assertEquals(new BigDecimal("7.50"), after.findProductById(updated).getPrice(), "Update should be applied");
+        assertNotNull(after.findProductById(created), "Created product should be added");
+        List<Integer> subtree = new ArrayList<>();
+        after.findByCategorySubtree(parent, 10, null).getItems().forEach(p -> subtree.add(p.getProductId()));
+        assertEquals(List.of(created, kept), subtree, "Only active products should be listed, by name");
+    }
+
+    @Test
+    @DisplayName("Should page through products with keyset cursors")
+    void shouldPageWithCursors() {
+        // Arrange
+        String tag = TestData.uniqueTag("S");
+        int category = categoryDAO.create(new Category(0, tag, null, null, null, null));
+        for (int i = 0; i < 5; i++) {
+            TestData.createProduct(tag, String.valueOf(i), category);
+        }
+        manager.refresh();
+        CatalogSnapshot snapshot = manager.current();
+
+        // Act
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Page<Product> page = snapshot.findByName(tag.toLowerCase(), 2, cursor);
+            page.getItems().forEach(p -> names.add(p.getName()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        Page<Product> newest = snapshot.findAllActive(1, null);
+
+        // Assert
+        assertEquals(3, pages, "Five products should span three pages of two");
+        assertEquals(List.of(tag + " 0", tag + " 1", tag + " 2", tag + " 3", tag + " 4"), names,
+                    "Every product should be returned once, by name, ignoring case");
+        assertEquals(productDAO.findAllActive(1, null).getItems().get(0).getProductId(),
+                    newest.getItems().get(0).getProductId(), "Newest-first order should match the database");
+        assertThrows(IllegalArgumentException.class, () -> snapshot.findAllActive(2, "not-a-cursor"),
+                    "Malformed cursors should be rejected");
+    }
+
+    @Test
+    @DisplayName("Should order and match names ignoring case and accents as the database collation does")
+    void shouldFoldNamesLikeCollation() {
+        // Arrange
+        String tag = TestData.uniqueTag("S");
+        int category = categoryDAO.create(new Category(0, tag, null, null, null, null));
+        int eclair = TestData.createProduct(tag, "Éclair", category);
+        int banana = TestData.createProduct(tag, "Banana", category);
+        int cherry = TestData.createProduct(tag, "cherry", category);
+        int apple = TestData.createProduct(tag, "apple", category);
+        manager.refresh();
+        CatalogSnapshot snapshot = manager.current();
+
+        // Act
+        Page<Product> first = snapshot.findByCategorySubtree(category, 2, null);
+        Page<Product> second = snapshot.findByCategorySubtree(category, 2, first.getNextCursor());
+        List<Product> accentFree = snapshot.findByName(tag + " ECLAIR", 10, null).getItems();
+
+        // Assert
+        List<Integer> order = new ArrayList<>();
+        first.getItems().forEach(p -> order.add(p.getProductId()));
+        second.getItems().forEach(p -> order.add(p.getProductId()));
+        assertEquals(List.of(apple, banana, cherry, eclair), order,
+                    "Names should sort ignoring case and accents, across cursor pages");
+        assertEquals(List.of(eclair), accentFree.stream().map(Product::getProductId).toList(),
+                    "Name search should ignore case and accents");
+    }
+
+    @Test
+    @DisplayName("Should keep the same snapshot when nothing changed")
+    void shouldKeepSnapshotWhenUnchanged() {
+        // Arrange
+        manager.refresh();
+        CatalogSnapshot before = manager.current();
+
+        // Act
+        manager.refresh();
+
+        // Assert
+        assertSame(before, manager.current(), "An unchanged catalog should not be rebuilt");
+    }
+
+    @Test
+    @DisplayName("Should pick up a change committed behind the watermark on the full reload")
+    void shouldReconcileMissedChanges() {
+        // Arrange
+        String tag = TestData.uniqueTag("S");
+        int productId = TestData.createProduct(tag, "late");
+        manager.refresh();
+        // A transaction committing long after it stamped the row leaves updated_at behind the watermark
+        DatabaseUtil.executeUpdate("UPDATE products SET price = ?, updated_at = ? WHERE product_id = ?",
+                                   new Object[]{new BigDecimal("9.99"), LocalDateTime.now().minusHours(1), productId});
+
+        // Act
+        manager.refresh();
+        BigDecimal polled = manager.current().findProductById(productId).getPrice();
+        manager.reconcile();
+        BigDecimal reconciled = manager.current().findProductById(productId).getPrice();
+
+        // Assert
+        assertEquals(new BigDecimal("5.00"), polled, "The delta poll should not see the late row");
+        assertEquals(new BigDecimal("9.99"), reconciled, "The full reload should apply the late row");
+    }
+}
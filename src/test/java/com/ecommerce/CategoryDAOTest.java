@@ -0,0 +1,205 @@
+package com.ecommerce;
+
+import com.ecommerce.dao.CategoryDAO;
+import com.ecommerce.dao.Page;
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.CategoryNode;
+import com.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CategoryDAO functionality.
+ * Tests maintenance of the category closure table, including under concurrent moves, and subtree
+ * queries.
+ */
+class CategoryDAOTest {
+
+    private CategoryDAO categoryDAO;
+    private ProductDAO productDAO;
+
+    @BeforeEach
+    void setUp() {
+        categoryDAO = new CategoryDAO();
+        productDAO = new ProductDAO();
+    }
+
+    @Test
+    @DisplayName("Should find products filed anywhere in a category subtree")
+    void shouldFindProductsInCategorySubtree() {
+        // Arrange
+        String tag = TestData.uniqueTag("H");
+        int root = TestData.createCategory(tag + "-root", null);
+        int child = TestData.createCategory(tag + "-child", root);
+        int grandchild = TestData.createCategory(tag + "-grandchild", child);
+        int other = TestData.createCategory(tag + "-other", null);
+        TestData.createProduct(tag, "a", root);
+        TestData.createProduct(tag, "b", grandchild);
+        TestData.createProduct(tag, "c", other);
+        TestData.createProduct(tag, "d", child, grandchild);
+
+        // Act
+        Page<Product> rootPage = productDAO.findByCategorySubtree(root, 10, null);
+        Page<Product> childPage = productDAO.findByCategorySubtree(child, 10, null);
+
+        // Assert
+        assertEquals(List.of(tag + " a", tag + " b", tag + " d"), names(rootPage.getItems()),
+                    "Root subtree should include descendants once each");
+        assertEquals(List.of(tag + " b", tag + " d"), names(childPage.getItems()),
+                    "Child subtree should exclude the parent's products");
+    }
+
+    @Test
+    @DisplayName("Should build subtrees and breadcrumbs from the closure table")
+    void shouldBuildSubtreeAndBreadcrumbs() {
+        // Arrange
+        String tag = TestData.uniqueTag("H");
+        int root = TestData.createCategory(tag + "-root", null);
+        int child = TestData.createCategory(tag + "-child", root);
+        int grandchild = TestData.createCategory(tag + "-grandchild", child);
+
+        // Act
+        CategoryNode subtree = categoryDAO.findSubtree(root);
+        List<Category> breadcrumbs = categoryDAO.findAncestors(grandchild);
+
+        // Assert
+        assertEquals(root, subtree.getCategory().getCategoryId(), "Subtree should start at the root");
+        assertEquals(child, subtree.getChildren().get(0).getCategory().getCategoryId(), "Child should be nested");
+        assertEquals(grandchild, subtree.getChildren().get(0).getChildren().get(0).getCategory().getCategoryId(),
+                    "Grandchild should be nested below the child");
+        assertEquals(List.of(root, child, grandchild),
+                    breadcrumbs.stream().map(Category::getCategoryId).collect(Collectors.toList()),
+                    "Breadcrumbs should run from the top-level category down");
+        assertNull(categoryDAO.findSubtree(-1), "Unknown categories should have no subtree");
+    }
+
+    @Test
+    @DisplayName("Should move the closure of a subtree when its parent changes")
+    void shouldMoveSubtreeOnParentChange() {
+        // Arrange
+        String tag = TestData.uniqueTag("H");
+        int first = TestData.createCategory(tag + "-first", null);
+        int second = TestData.createCategory(tag + "-second", null);
+        int child = TestData.createCategory(tag + "-child", first);
+        int grandchild = TestData.createCategory(tag + "-grandchild", child);
+        TestData.createProduct(tag, "leaf", grandchild);
+
+        // Act
+        categoryDAO.update(new Category(child, tag + "-child", null, second, null, LocalDateTime.now()));
+
+        // Assert
+        assertTrue(productDAO.findByCategorySubtree(first, 10, null).getItems().isEmpty(),
+                  "Old ancestor should lose the moved subtree");
+        assertEquals(1, productDAO.findByCategorySubtree(second, 10, null).getItems().size(),
+                    "New ancestor should gain the moved subtree");
+        assertEquals(List.of(second, child, grandchild),
+                    categoryDAO.findAncestors(grandchild).stream().map(Category::getCategoryId)
+                               .collect(Collectors.toList()),
+                    "Breadcrumbs should follow the move");
+        assertThrows(IllegalArgumentException.class,
+                    () -> categoryDAO.update(new Category(second, tag + "-second", null, grandchild, null,
+                                                          LocalDateTime.now())),
+                    "Moving a category below its own descendant should be rejected");
+    }
+
+    @Test
+    @DisplayName("Should not let concurrent moves close a cycle")
+    void shouldSerializeConcurrentMoves() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 10; round++) {
+                // Arrange
+                String tag = TestData.uniqueTag("H");
+                int first = TestData.createCategory(tag + "-first", null);
+                int second = TestData.createCategory(tag + "-second", null);
+                CountDownLatch start = new CountDownLatch(1);
+
+                // Act
+                Future<Integer> firstMove = executor.submit(() -> {
+                    start.await();
+                    return categoryDAO.update(new Category(first, tag + "-first", null, second, null, null));
+                });
+                Future<Integer> secondMove = executor.submit(() -> {
+                    start.await();
+                    return categoryDAO.update(new Category(second, tag + "-second", null, first, null, null));
+                });
+                start.countDown();
+                int succeeded = 0;
+                for (Future<Integer> move : List.of(firstMove, secondMove)) {
+                    try {
+                        succeeded += move.get(10, TimeUnit.SECONDS);
+                    } catch (ExecutionException e) {
+                        assertInstanceOf(IllegalArgumentException.class, e.getCause(), "Only the cycle check may fail");
+                    }
+                }
+
+                // Assert
+                assertEquals(1, succeeded, "Exactly one of the opposite moves should win");
+                List<Integer> firstAncestors = categoryDAO.findAncestors(first).stream()
+                        .map(Category::getCategoryId).collect(Collectors.toList());
+                List<Integer> secondAncestors = categoryDAO.findAncestors(second).stream()
+                        .map(Category::getCategoryId).collect(Collectors.toList());
+                assertEquals(3, firstAncestors.size() + secondAncestors.size(),
+                            "One category should end up below the other, not both");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should rebuild the closure table from parent links")
+    void shouldRebuildClosureFromParentLinks() {
+        // Arrange
+        String tag = TestData.uniqueTag("H");
+        int root = TestData.createCategory(tag + "-root", null);
+        int child = TestData.createCategory(tag + "-child", root);
+        int grandchild = TestData.createCategory(tag + "-grandchild", child);
+
+        // Act
+        categoryDAO.rebuildClosure();
+
+        // Assert
+        assertEquals(List.of(root, child, grandchild),
+                    categoryDAO.findAncestors(grandchild).stream().map(Category::getCategoryId)
+                               .collect(Collectors.toList()),
+                    "Rebuilt closure should match the hierarchy");
+    }
+
+    @Test
+    @DisplayName("Should leave a filled closure table alone on startup")
+    void shouldMigrateClosureOnlyWhenEmpty() {
+        // Arrange
+        String tag = TestData.uniqueTag("H");
+        int root = TestData.createCategory(tag + "-root", null);
+        int child = TestData.createCategory(tag + "-child", root);
+
+        // Act
+        int written = categoryDAO.migrateClosure();
+
+        // Assert
+        assertEquals(0, written, "A filled closure table should not be rewritten");
+        assertEquals(List.of(root, child),
+                    categoryDAO.findAncestors(child).stream().map(Category::getCategoryId)
+                               .collect(Collectors.toList()),
+                    "Closure should be unchanged");
+    }
+
+    private List<String> names(List<Product> products) {
+        return products.stream().map(Product::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,186 @@
+package com.ecommerce;
+
+import com.ecommerce.cache.EntityCache;
+import com.ecommerce.dao.ChangeLogDAO;
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.ChangeLogEntry;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import com.ecommerce.service.CacheInvalidator;
+import com.ecommerce.service.ChangeLogPoller;
+import com.ecommerce.util.TransactionTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the change log poller.
+ * Simulates a second application instance with its own caches and poller against the shared
+ * database, and tests eviction, batching and changes that commit out of order.
+ */
+class ChangeLogPollerTest {
+
+    private ExecutorService executor;
+    private ChangeLogDAO changeLogDAO;
+    private ProductDAO productDAO;
+    private List<ChangeLogEntry> received;
+    private List<Integer> batchSizes;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        changeLogDAO = new ChangeLogDAO();
+        productDAO = new ProductDAO();
+        received = new ArrayList<>();
+        batchSizes = new ArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should evict a product from another instance's cache when it is updated")
+    void shouldEvictOnOtherInstance() {
+        // Arrange
+        EntityCache<Integer, Product> nodeBProducts = new EntityCache<>("node-b-products", 100, 10, TimeUnit.MINUTES);
+        EntityCache<Integer, Category> nodeBCategories = new EntityCache<>("node-b-categories", 100, 10, TimeUnit.MINUTES);
+        EntityCache<Integer, User> nodeBUsers = new EntityCache<>("node-b-users", 100, 10, TimeUnit.MINUTES);
+        ChangeLogPoller nodeB = new ChangeLogPoller(changeLogDAO,
+                new CacheInvalidator(nodeBProducts, nodeBCategories, nodeBUsers), 100, 60);
+        int productId = createProduct();
+        nodeB.poll();
+        assertEquals(new BigDecimal("5.00"), nodeBProducts.get(productId, this::loadFromDatabase).getPrice());
+
+        // Act
+        Product product = productDAO.findById(productId);
+        product.setPrice(new BigDecimal("9.25"));
+        productDAO.update(product);
+        Product staleRead = nodeBProducts.get(productId, this::loadFromDatabase);
+        int applied = nodeB.poll();
+        Product freshRead = nodeBProducts.get(productId, this::loadFromDatabase);
+
+        // Assert
+        assertEquals(new BigDecimal("5.00"), staleRead.getPrice(), "Other instance should serve its cache until it polls");
+        assertEquals(1, applied, "The update should be picked up as one change");
+        assertEquals(new BigDecimal("9.25"), freshRead.getPrice(), "Other instance should reload after polling");
+    }
+
+    @Test
+    @DisplayName("Should read past the latest change in batches")
+    void shouldReadInBatches() {
+        // Arrange
+        ChangeLogPoller poller = new ChangeLogPoller(changeLogDAO, this::receive, 2, 60);
+        int idleApplied = poller.poll();
+
+        // Act
+        TransactionTemplate.inTransaction(() -> {
+            changeLogDAO.recordAll(ChangeLogEntry.USERS, List.of(101, 102, 103, 104, 105));
+            return null;
+        });
+        int applied = poller.poll();
+
+        // Assert
+        assertEquals(0, idleApplied, "A new poller should start at the latest change");
+        assertEquals(5, applied, "Every change should be read");
+        assertEquals(List.of(2, 2, 1), batchSizes, "Changes should be read in batches");
+        List<Integer> ids = new ArrayList<>();
+        received.forEach(entry -> ids.add(entry.getEntityId()));
+        assertEquals(List.of(101, 102, 103, 104, 105), ids, "Changes should arrive in order");
+        assertEquals(changeLogDAO.findLatestId(), poller.getWatermark(), "Watermark should reach the latest change");
+    }
+
+    @Test
+    @DisplayName("Should pick up a change that commits after a later one")
+    void shouldPickUpLateCommit() throws Exception {
+        // Arrange
+        ChangeLogPoller poller = new ChangeLogPoller(changeLogDAO, this::receive, 100, 60);
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        Future<?> slowWriter = executor.submit(() -> TransactionTemplate.inTransaction(() -> {
+            changeLogDAO.record(ChangeLogEntry.PRODUCTS, 201);
+            recorded.countDown();
+            await(commit);
+            return null;
+        }));
+        assertTrue(recorded.await(5, TimeUnit.SECONDS), "Slow writer should record its change");
+
+        // Act
+        changeLogDAO.record(ChangeLogEntry.PRODUCTS, 202);
+        int beforeCommit = poller.poll();
+        int gapsBeforeCommit = poller.getPendingGaps();
+        commit.countDown();
+        slowWriter.get(5, TimeUnit.SECONDS);
+        int afterCommit = poller.poll();
+
+        // Assert
+        assertEquals(1, beforeCommit, "Only the committed change should be visible");
+        assertEquals(1, gapsBeforeCommit, "The uncommitted change ID should be remembered");
+        assertEquals(1, afterCommit, "The late change should be picked up once committed");
+        assertEquals(0, poller.getPendingGaps(), "No gaps should remain");
+        List<Integer> ids = new ArrayList<>();
+        received.forEach(entry -> ids.add(entry.getEntityId()));
+        assertEquals(List.of(202, 201), ids, "Both changes should be delivered");
+    }
+
+    @Test
+    @DisplayName("Should deliver a batch again once the replica lag bound has passed")
+    void shouldReplayAfterReplicaLag() throws InterruptedException {
+        // Arrange
+        ChangeLogPoller poller = new ChangeLogPoller(changeLogDAO, this::receive, 100, 60, 200);
+        changeLogDAO.record(ChangeLogEntry.PRODUCTS, 301);
+
+        // Act
+        int applied = poller.poll();
+        int immediatePoll = poller.poll();
+        int receivedBeforeDelay = received.size();
+        Thread.sleep(250);
+        int delayedPoll = poller.poll();
+
+        // Assert
+        assertEquals(1, applied, "The change should be delivered");
+        assertEquals(0, immediatePoll, "No new changes should be found");
+        assertEquals(1, receivedBeforeDelay, "The batch should not be replayed before the delay");
+        assertEquals(0, delayedPoll, "A replay should not count as a new change");
+        assertEquals(List.of(1, 1), batchSizes, "The batch should be delivered twice");
+        assertEquals(301, received.get(1).getEntityId(), "The same change should be replayed");
+        assertEquals(0, poller.getPendingReplays(), "No replays should remain");
+    }
+
+    private void receive(List<ChangeLogEntry> batch) {
+        batchSizes.add(batch.size());
+        received.addAll(batch);
+    }
+
+    private Product loadFromDatabase(int productId) {
+        // Bypasses this instance's cache, as the other instance would
+        return productDAO.findByIds(List.of(productId)).get(0);
+    }
+
+    private int createProduct() {
+        String tag = TestData.uniqueTag("C");
+        return TestData.createProduct(tag, "product", TestData.createCategory(tag, null));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce;
+
+import com.ecommerce.util.DatabaseUtil;
+import com.ecommerce.util.TransactionTemplate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the bulk writes of DatabaseUtil.
+ * Tests chunking of batches and multi-row inserts, empty input, rollback on failure and joining
+ * an enclosing transaction.
+ */
+class DatabaseUtilTest {
+
+    private static final String INSERT = "INSERT INTO categories (name, description) VALUES (?, ?)";
+    private static final String INSERT_PREFIX = "INSERT INTO categories (name, description) VALUES";
+
+    @Test
+    @DisplayName("Should write every row when the input spans several chunks")
+    void shouldWriteAcrossChunkBoundary() {
+        // Arrange
+        String batchTag = TestData.uniqueTag("B");
+        String insertTag = TestData.uniqueTag("M");
+
+        // Act
+        int[] counts = DatabaseUtil.executeBatch(INSERT, rows(batchTag, 1001));
+        int inserted = DatabaseUtil.executeMultiRowInsert(INSERT_PREFIX, rows(insertTag, 2001));
+
+        // Assert
+        assertEquals(1001, counts.length, "Every statement should get an update count");
+        assertTrue(Arrays.stream(counts).allMatch(count -> count == 1), "Each statement should insert one row");
+        assertEquals(1001, count(batchTag), "The row after the first flush should be written too");
+        assertEquals(2001, inserted, "Inserted rows should be summed over the statements");
+        assertEquals(2001, count(insertTag), "Every chunk should be inserted");
+    }
+
+    @Test
+    @DisplayName("Should do nothing for empty input")
+    void shouldAcceptEmptyInput() {
+        // Act & Assert
+        assertArrayEquals(new int[0], DatabaseUtil.executeBatch(INSERT, List.of()));
+        assertEquals(0, DatabaseUtil.executeMultiRowInsert(INSERT_PREFIX, List.of()));
+    }
+
+    @Test
+    @DisplayName("Should roll back earlier chunks when a later one fails")
+    void shouldRollBackOnFailure() {
+        // Arrange
+        String batchTag = TestData.uniqueTag("B");
+        String insertTag = TestData.uniqueTag("M");
+        List<Object[]> batchRows = rows(batchTag, 1200);
+        batchRows.add(batchRows.get(0));
+        List<Object[]> insertRows = rows(insertTag, 1200);
+        insertRows.add(insertRows.get(0));
+
+        // Act
+        assertThrows(RuntimeException.class, () -> DatabaseUtil.executeBatch(INSERT, batchRows));
+        assertThrows(RuntimeException.class, () -> DatabaseUtil.executeMultiRowInsert(INSERT_PREFIX, insertRows));
+
+        // Assert
+        assertEquals(0, count(batchTag), "The flushed first chunk of the batch should be rolled back");
+        assertEquals(0, count(insertTag), "The inserted first chunk should be rolled back");
+        assertFalse(TransactionTemplate.isTransactionActive(), "No transaction should be left open");
+    }
+
+    @Test
+    @DisplayName("Should join an enclosing transaction instead of committing on its own")
+    void shouldJoinEnclosingTransaction() {
+        // Arrange
+        String batchTag = TestData.uniqueTag("B");
+        String insertTag = TestData.uniqueTag("M");
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> TransactionTemplate.inTransaction(() -> {
+            DatabaseUtil.executeBatch(INSERT, rows(batchTag, 10));
+            DatabaseUtil.executeMultiRowInsert(INSERT_PREFIX, rows(insertTag, 10));
+            assertEquals(10, count(batchTag), "Rows should be visible inside the transaction");
+            assertEquals(10, count(insertTag), "Rows should be visible inside the transaction");
+            throw new IllegalStateException("Simulated failure");
+        }));
+
+        // Assert
+        assertEquals(0, count(batchTag), "Batch should be rolled back with the enclosing transaction");
+        assertEquals(0, count(insertTag), "Insert should be rolled back with the enclosing transaction");
+    }
+
+    private List<Object[]> rows(String tag, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{tag + "-" + i, "Bulk write test"});
+        }
+        return rows;
+    }
+
+    private long count(String tag) {
+        return DatabaseUtil.queryForObject("SELECT COUNT(*) FROM categories WHERE name LIKE ?",
+                                           new Object[]{tag + "-%"}, rs -> rs.getLong(1));
+    }
+}
@@ -0,0 +1,137 @@
+package com.ecommerce;
+
+import com.ecommerce.cache.EntityCache;
+import com.ecommerce.dao.CategoryDAO;
+import com.ecommerce.model.Category;
+import com.ecommerce.util.TransactionTemplate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for EntityCache functionality.
+ * Tests read-through loading, eviction, expiry and invalidation from DAO writes.
+ */
+class EntityCacheTest {
+
+    @Test
+    @DisplayName("Should load once and serve repeated reads from the cache")
+    void shouldServeRepeatedReadsFromCache() {
+        // Arrange
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 1, TimeUnit.MINUTES);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            cache.get(1, key -> "value-" + loads.incrementAndGet());
+        }
+        String missing = cache.get(2, key -> null);
+
+        // Assert
+        assertEquals(1, loads.get(), "Value should be loaded once");
+        assertEquals(4, cache.getHits(), "Repeated reads should hit");
+        assertNull(missing, "Missing values should be returned as null");
+        assertEquals(1, cache.size(), "Null values should not be cached");
+    }
+
+    @Test
+    @DisplayName("Should keep frequently read entries when one-off reads overflow the cache")
+    void shouldKeepFrequentlyReadEntriesOnOverflow() {
+        // Arrange
+        EntityCache<Integer, Integer> cache = new EntityCache<>("test", 10, 1, TimeUnit.MINUTES);
+        for (int hot = 0; hot < 5; hot++) {
+            cache.get(hot, key -> key);
+            cache.get(hot, key -> key);
+        }
+
+        // Act
+        for (int cold = 100; cold < 200; cold++) {
+            cache.get(cold, key -> key);
+        }
+        long missesBefore = cache.getMisses();
+        for (int hot = 0; hot < 5; hot++) {
+            cache.get(hot, key -> key);
+        }
+
+        // Assert
+        assertEquals(10, cache.size(), "Cache should stay within its size limit");
+        assertEquals(95, cache.getEvictions(), "Overflowing entries should be evicted");
+        assertEquals(missesBefore, cache.getMisses(), "Hot entries should survive the scan");
+    }
+
+    @Test
+    @DisplayName("Should reload entries after their time-to-live")
+    void shouldReloadAfterTimeToLive() throws InterruptedException {
+        // Arrange
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 20, TimeUnit.MILLISECONDS);
+        cache.get(1, key -> "old");
+
+        // Act
+        Thread.sleep(50);
+        String value = cache.get(1, key -> "new");
+
+        // Assert
+        assertEquals("new", value, "Expired entry should be reloaded");
+        assertEquals(1, cache.getExpirations(), "Expiry should be counted");
+    }
+
+    @Test
+    @DisplayName("Should not cache a value loaded while its key was invalidated")
+    void shouldNotCacheValueLoadedDuringInvalidation() {
+        // Arrange
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 1, TimeUnit.MINUTES);
+
+        // Act
+        String stale = cache.get(1, key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+        String fresh = cache.get(1, key -> "fresh");
+
+        // Assert
+        assertEquals("stale", stale, "Loaded value should still be returned");
+        assertEquals("fresh", fresh, "Stale value should not have been cached");
+    }
+
+    @Test
+    @DisplayName("Should not cache a value loaded inside a transaction")
+    void shouldNotCacheValueLoadedInTransaction() {
+        // Arrange
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 1, TimeUnit.MINUTES);
+
+        // Act
+        String uncommitted = TransactionTemplate.inTransaction(() -> cache.get(1, key -> "uncommitted"));
+        String committed = cache.get(1, key -> "committed");
+
+        // Assert
+        assertEquals("uncommitted", uncommitted, "Loaded value should still be returned");
+        assertEquals("committed", committed, "Value loaded in the transaction should not have been cached");
+    }
+
+    @Test
+    @DisplayName("Should invalidate cached categories on update, including after commit")
+    void shouldInvalidateCachedCategoryOnUpdate() {
+        // Arrange
+        CategoryDAO categoryDAO = new CategoryDAO();
+        String name = "C" + UUID.randomUUID().toString().substring(0, 8);
+        int categoryId = categoryDAO.create(new Category(0, name, "Before", null, null, null));
+        Category cached = categoryDAO.findById(categoryId);
+        assertSame(cached, categoryDAO.findById(categoryId), "Repeated lookup should return the cached category");
+
+        // Act
+        TransactionTemplate.inTransaction(() -> categoryDAO.update(new Category(categoryId, name, "After", null,
+                                                                               cached.getCreatedAt(),
+                                                                               LocalDateTime.now())));
+        Category reloaded = categoryDAO.findById(categoryId);
+
+        // Assert
+        assertEquals("After", reloaded.getDescription(), "Update should invalidate the cached category");
+        assertSame(reloaded, categoryDAO.findById(categoryId), "Reloaded category should be cached again");
+    }
+}
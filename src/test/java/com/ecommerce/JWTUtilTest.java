@@ -0,0 +1,87 @@
+package com.ecommerce;
+
+import com.ecommerce.cache.CacheManager;
+import com.ecommerce.cache.EntityCache;
+import com.ecommerce.model.User;
+import com.ecommerce.util.JWTUtil;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for JWTUtil functionality.
+ * Tests token verification, rejection of tampered tokens and the verified-token cache.
+ */
+class JWTUtilTest {
+
+    @Test
+    @DisplayName("Should verify a generated token and extract its claims")
+    void shouldVerifyGeneratedToken() {
+        // Arrange
+        String username = uniqueUsername();
+        String token = JWTUtil.generateToken(user(username));
+
+        // Act
+        Claims claims = JWTUtil.parseToken(token);
+
+        // Assert
+        assertNotNull(claims, "Generated token should be valid");
+        assertEquals(username, claims.getSubject(), "Subject should be the username");
+        assertEquals(42, claims.get(JWTUtil.CLAIM_USER_ID, Integer.class), "User ID should be embedded");
+        assertEquals("ADMIN", claims.get(JWTUtil.CLAIM_ROLE, String.class), "User type should be embedded");
+        assertTrue(JWTUtil.validateToken(token), "Generated token should validate");
+        assertEquals(username, JWTUtil.getUsernameFromToken(token), "Username should be extracted");
+    }
+
+    @Test
+    @DisplayName("Should reject tampered and malformed tokens")
+    void shouldRejectTamperedTokens() {
+        // Arrange
+        String token = JWTUtil.generateToken(user(uniqueUsername()));
+        String[] parts = token.split("\\.");
+        String otherPayload = JWTUtil.generateToken(user(uniqueUsername())).split("\\.")[1];
+        String tampered = parts[0] + "." + otherPayload + "." + parts[2];
+
+        // Act & Assert
+        assertFalse(JWTUtil.validateToken(tampered), "Token with a swapped payload should be rejected");
+        assertFalse(JWTUtil.validateToken(parts[0] + "." + parts[1] + "."), "Unsigned token should be rejected");
+        assertFalse(JWTUtil.validateToken("not-a-token"), "Malformed token should be rejected");
+        assertFalse(JWTUtil.validateToken(null), "Missing token should be rejected");
+        assertNull(JWTUtil.getUsernameFromToken(tampered), "Tampered token should have no username");
+        assertTrue(JWTUtil.validateToken(token), "Original token should still be valid");
+    }
+
+    @Test
+    @DisplayName("Should serve repeated verifications of a token from the cache")
+    void shouldCacheVerifiedTokens() {
+        // Arrange
+        EntityCache<String, Claims> cache = CacheManager.getInstance().getCache("tokens");
+        String token = JWTUtil.generateToken(user(uniqueUsername()));
+        Claims first = JWTUtil.parseToken(token);
+        long hitsBefore = cache.getHits();
+        long missesBefore = cache.getMisses();
+
+        // Act
+        Claims second = JWTUtil.parseToken(token);
+        String username = JWTUtil.getUsernameFromToken(token);
+
+        // Assert
+        assertSame(first, second, "Cached claims should be returned");
+        assertEquals(first.getSubject(), username, "Username should come from the cached claims");
+        assertEquals(hitsBefore + 2, cache.getHits(), "Repeated verifications should hit the cache");
+        assertEquals(missesBefore, cache.getMisses(), "Repeated verifications should not re-verify");
+    }
+
+    private User user(String username) {
+        return new User(42, username, username + "@example.com", "Jwt", "User", null, null,
+                        User.UserType.ADMIN, null, null, true);
+    }
+
+    private String uniqueUsername() {
+        return "jwt_" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
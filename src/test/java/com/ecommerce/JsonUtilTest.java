@@ -0,0 +1,120 @@
+package com.ecommerce;
+
+import com.ecommerce.dao.Page;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.CategoryNode;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.OrderStatus;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import com.ecommerce.util.JsonUtil;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for JSON serialization of the models.
+ * Tests timestamp and decimal formats, round trips through the adapters and streaming output.
+ */
+class JsonUtilTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 5, 1, 12, 30);
+
+    private final Gson gson = JsonUtil.getGson();
+
+    @Test
+    @DisplayName("Should write ISO timestamps and plain decimals and leave out null fields")
+    void shouldWriteIsoTimestampsAndPlainDecimals() {
+        // Arrange
+        Product product = new Product(7, "Desk", null, new BigDecimal("1E+3"), "DESK-7", new BigDecimal("0.50"),
+                                      "120x60x75cm", "Acme", CREATED, CREATED.plusNanos(250_000_000), true,
+                                      List.of(category(3, null)));
+
+        // Act
+        String json = gson.toJson(product);
+        JsonObject object = JsonParser.parseString(json).getAsJsonObject();
+
+        // Assert
+        assertTrue(json.contains("\"price\":1000,"), "Price should be a number in plain notation: " + json);
+        assertTrue(json.contains("\"weight\":0.50,"), "Weight should keep its scale: " + json);
+        assertEquals("2024-05-01T12:30:00", object.get("createdAt").getAsString(), "Seconds should always be written");
+        assertEquals("2024-05-01T12:30:00.25", object.get("updatedAt").getAsString(), "Fractions should be kept");
+        for (LocalDateTime timestamp : List.of(CREATED.plusNanos(1), CREATED.plusNanos(123_456_000),
+                                               LocalDateTime.of(12345, 1, 2, 3, 4, 5))) {
+            assertEquals("\"" + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp) + "\"", gson.toJson(timestamp),
+                        "Timestamps should be formatted as ISO_LOCAL_DATE_TIME does");
+        }
+        assertFalse(object.has("description"), "Null fields should be left out");
+        assertTrue(object.get("isActive").getAsBoolean(), "Active flag should keep its field name");
+        assertEquals(3, object.getAsJsonArray("categories").get(0).getAsJsonObject().get("categoryId").getAsInt(),
+                    "Categories should be nested");
+    }
+
+    @Test
+    @DisplayName("Should read back what the adapters write")
+    void shouldRoundTripModels() {
+        // Arrange
+        Order order = new Order(11, 5, OrderStatus.SHIPPED, new BigDecimal("39.80"), "1 Main St", "1 Main St",
+                                "card", CREATED, CREATED.plusDays(1), null, null,
+                                List.of(new OrderItem(1, 11, 7, 2, new BigDecimal("19.90"))));
+        User user = new User(5, "jdoe", "jdoe@example.com", "Jane", "Doe", null, null, User.UserType.CUSTOMER,
+                             CREATED, CREATED, true);
+        CategoryNode tree = new CategoryNode(category(1, null));
+        tree.addChild(new CategoryNode(category(2, 1)));
+
+        // Act
+        Order orderCopy = gson.fromJson(gson.toJson(order), Order.class);
+        User userCopy = gson.fromJson(gson.toJson(user), User.class);
+        CategoryNode treeCopy = gson.fromJson(gson.toJson(tree), CategoryNode.class);
+
+        // Assert
+        assertEquals(OrderStatus.SHIPPED, orderCopy.getOrderStatus(), "Status should be read by name");
+        assertEquals(CREATED.plusDays(1), orderCopy.getShippedDate(), "Timestamps should be read back");
+        assertNull(orderCopy.getDeliveredDate(), "Missing timestamps should stay null");
+        assertEquals(new BigDecimal("39.80"), orderCopy.getOrderItems().get(0).getTotalPrice(),
+                    "Item totals should be recomputed");
+        assertEquals(gson.toJson(order), gson.toJson(orderCopy), "Order should survive a round trip");
+        assertEquals(gson.toJson(user), gson.toJson(userCopy), "User should survive a round trip");
+        assertEquals(Integer.valueOf(1), treeCopy.getChildren().get(0).getCategory().getParentCategoryId(),
+                    "Children should be read recursively");
+    }
+
+    @Test
+    @DisplayName("Should stream the same UTF-8 bytes as serializing to a String")
+    void shouldStreamUtf8() throws IOException {
+        // Arrange
+        Product product = new Product(8, "Café ☕ 製品", "Mug", new BigDecimal("9.99"), "MUG-8",
+                                      null, null, "Acme", CREATED, CREATED, true, List.of());
+        Page<Product> page = new Page<>(List.of(product), "next");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        JsonUtil.writeJson(page, out);
+        JsonUtil.writeJson(product, out);
+
+        // Assert
+        byte[] expected = (gson.toJson(page) + gson.toJson(product)).getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected, out.toByteArray(), "Streamed bytes should match, and the stream stay open");
+        assertArrayEquals(gson.toJson(product).getBytes(StandardCharsets.UTF_8), JsonUtil.toJsonBytes(product),
+                         "Byte serialization should match");
+        assertTrue(gson.toJson(page).startsWith("{\"items\":[{\"productId\":8,"),
+                   "Models inside other objects should use their adapters");
+    }
+
+    private Category category(int categoryId, Integer parentCategoryId) {
+        return new Category(categoryId, "Category " + categoryId, null, parentCategoryId, CREATED, CREATED);
+    }
+}
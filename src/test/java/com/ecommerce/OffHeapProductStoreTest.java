@@ -0,0 +1,156 @@
+package com.ecommerce;
+
+import com.ecommerce.catalog.OffHeapProductStore;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for OffHeapProductStore functionality.
+ * Tests the binary row round trip, the hash index and copy-on-write changes.
+ */
+class OffHeapProductStoreTest {
+
+    private static final Category SHOES = new Category(3, "Shoes", null, null, null, null);
+    private static final Category SALE = new Category(9, "Sale", null, null, null, null);
+    private static final Map<Integer, Category> CATEGORIES = Map.of(3, SHOES, 9, SALE);
+
+    @Test
+    @DisplayName("Should decode every field as it was stored")
+    void shouldRoundTripFields() {
+        // Arrange
+        LocalDateTime created = LocalDateTime.of(2024, 2, 29, 23, 59, 58, 123_456_789);
+        Product full = new Product(42, "Läufer „Ω“ 🏃", "Light\nrunning shoe", new BigDecimal("129.90"), "RUN-42",
+                                   new BigDecimal("0.350"), "30x20x12cm", "Fleet", created, created.plusDays(1),
+                                   true, List.of(SHOES, SALE, new Category(77, "Gone", null, null, null, null)));
+        Product sparse = new Product(43, "Plain", null, null, null, null, null, null, created, created, false, null);
+
+        // Act
+        OffHeapProductStore store = OffHeapProductStore.build(List.of(full, sparse), CATEGORIES);
+        Product decoded = store.get(42);
+        Product decodedSparse = store.get(43);
+
+        // Assert
+        assertEquals(full.getName(), decoded.getName(), "Name should survive UTF-8 encoding");
+        assertEquals(full.getDescription(), decoded.getDescription());
+        assertEquals(full.getPrice(), decoded.getPrice(), "Price should keep its scale");
+        assertEquals(full.getWeight(), decoded.getWeight(), "Weight should keep its scale");
+        assertEquals(full.getSku(), decoded.getSku());
+        assertEquals(full.getDimensions(), decoded.getDimensions());
+        assertEquals(full.getBrand(), decoded.getBrand());
+        assertEquals(created, decoded.getCreatedAt(), "Creation time should keep its nanoseconds");
+        assertEquals(created.plusDays(1), decoded.getUpdatedAt());
+        assertTrue(decoded.isActive());
+        assertEquals(List.of(SHOES, SALE), decoded.getCategories(), "Unknown categories should be left out");
+        assertArrayEquals(new int[]{3, 9, 77}, store.getCategoryIds(42), "Stored category IDs should be kept");
+        assertNull(decodedSparse.getDescription(), "Null strings should stay null");
+        assertNull(decodedSparse.getPrice(), "Null decimals should stay null");
+        assertFalse(store.isActive(43));
+        assertEquals("Plain", store.view(43).getName(), "Views should read single fields");
+    }
+
+    @Test
+    @DisplayName("Should find every stored product and nothing else")
+    void shouldIndexProducts() {
+        // Arrange
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            products.add(product(i * 7919, "Product " + i));
+        }
+
+        // Act
+        OffHeapProductStore store = OffHeapProductStore.build(products, CATEGORIES);
+
+        // Assert
+        assertEquals(10_000, store.size());
+        for (Product product : products) {
+            assertEquals(product.getName(), store.getName(product.getProductId()));
+        }
+        assertNull(store.get(7918), "Missing products should not be found");
+        assertNull(store.get(0), "Zero should not match an empty index slot");
+        assertFalse(store.contains(-7919));
+        int[] ids = store.getIds();
+        Arrays.sort(ids);
+        assertEquals(10_000, ids.length);
+        assertEquals(7919, ids[0]);
+        assertTrue(store.getOffHeapBytes() > 0, "Rows and index should live in direct memory");
+    }
+
+    @Test
+    @DisplayName("Should build a changed copy and leave the original untouched")
+    void shouldApplyChangesToCopy() {
+        // Arrange
+        OffHeapProductStore store = OffHeapProductStore.build(
+                List.of(product(1, "Kept"), product(2, "Old name"), product(3, "Deleted")), CATEGORIES);
+
+        // Act
+        OffHeapProductStore changed = store.withChanges(List.of(product(2, "New name"), product(4, "Added")), Set.of(3));
+
+        // Assert
+        assertEquals(3, changed.size());
+        assertEquals("Kept", changed.getName(1), "Unchanged rows should be kept");
+        assertEquals("New name", changed.getName(2), "Changed rows should be replaced");
+        assertFalse(changed.contains(3), "Deleted rows should be dropped");
+        assertEquals("Added", changed.getName(4), "New rows should be added");
+        assertEquals("Old name", store.getName(2), "Original should be unchanged");
+        assertTrue(store.contains(3), "Original should be unchanged");
+    }
+
+    @Test
+    @DisplayName("Should append changes to the shared buffers and compact once they are mostly garbage")
+    void shouldAppendChangesAndCompact() {
+        // Arrange
+        OffHeapProductStore store = OffHeapProductStore.build(
+                List.of(product(1, "Kept"), product(2, "Renamed"), product(3, "Deleted")), CATEGORIES);
+
+        // Act
+        OffHeapProductStore changed = store.withChanges(List.of(product(2, "Version 0")), Set.of(3));
+        OffHeapProductStore branch = store.withChanges(List.of(product(2, "Branch")), Set.of());
+        OffHeapProductStore latest = changed;
+        for (int version = 1; version <= 1000; version++) {
+            latest = latest.withChanges(List.of(product(2, "Version " + version)), Set.of());
+        }
+        List<String> names = new ArrayList<>();
+        latest.forEachRow((productId, name, createdAt, active, categoryIds) -> names.add(name));
+
+        // Assert
+        assertEquals(store.getOffHeapBytes(), changed.getOffHeapBytes(), "Changed rows should share the buffers");
+        assertEquals("Version 0", changed.getName(2), "An older table should not write over a newer one");
+        assertEquals("Branch", branch.getName(2));
+        assertFalse(changed.contains(3), "Deleted rows should be hidden");
+        int[] ids = changed.getIds();
+        Arrays.sort(ids);
+        assertArrayEquals(new int[]{1, 2}, ids, "Replaced and deleted rows should not be listed");
+        assertEquals(List.of("Kept", "Version 1000"), names, "Scans should skip replaced rows");
+        assertTrue(latest.getOffHeapBytes() <= 2 * store.getOffHeapBytes(), "Garbage should be compacted away");
+    }
+
+    @Test
+    @DisplayName("Should reject products the row layout cannot hold")
+    void shouldRejectUnsupportedValues() {
+        // Arrange
+        Product unsaved = product(0, "Unsaved");
+        Product huge = new Product(5, "Huge", null, new BigDecimal("123456789012345678901234567890"), null, null,
+                                   null, null, null, null, true, null);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> OffHeapProductStore.build(List.of(unsaved), CATEGORIES));
+        assertThrows(IllegalArgumentException.class, () -> OffHeapProductStore.build(List.of(huge), CATEGORIES));
+    }
+
+    private Product product(int productId, String name) {
+        return new Product(productId, name, "Description of " + name, new BigDecimal("9.99"), "SKU-" + productId,
+                           new BigDecimal("1.00"), "1x1x1cm", "Brand", null, null, true, List.of(SHOES));
+    }
+}
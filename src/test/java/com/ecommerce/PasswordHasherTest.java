@@ -0,0 +1,92 @@
+package com.ecommerce;
+
+import com.ecommerce.dao.UserDAO;
+import com.ecommerce.model.User;
+import com.ecommerce.util.DatabaseUtil;
+import com.ecommerce.util.PasswordHasher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for password hashing and verification.
+ * Tests BCrypt logins, rehashing after a cost change and rejection when hashing is at capacity.
+ */
+class PasswordHasherTest {
+
+    @Test
+    @DisplayName("Should authenticate only with the stored password")
+    void shouldAuthenticateWithStoredPassword() {
+        // Arrange
+        UserDAO userDAO = new UserDAO(new PasswordHasher(4, 2, 4));
+        User user = createUser(userDAO);
+        userDAO.updatePassword(user.getUserId(), "correct horse");
+
+        // Act
+        User authenticated = userDAO.authenticate(user.getUsername(), "correct horse");
+        User wrongPassword = userDAO.authenticate(user.getUsername(), "battery staple");
+        User unknownUser = userDAO.authenticate("missing_" + user.getUsername(), "correct horse");
+
+        // Assert
+        assertNotNull(authenticated, "Correct password should authenticate");
+        assertEquals(user.getUserId(), authenticated.getUserId(), "Authenticated user should be returned");
+        assertNull(wrongPassword, "Wrong password should be rejected");
+        assertNull(unknownUser, "Unknown user should be rejected");
+        assertTrue(passwordHash(user).startsWith("$2a$04$"), "Password should be stored as a BCrypt hash");
+    }
+
+    @Test
+    @DisplayName("Should rehash the password after a login when the configured cost changed")
+    void shouldRehashOnCostChange() throws InterruptedException {
+        // Arrange
+        UserDAO oldCost = new UserDAO(new PasswordHasher(4, 2, 4));
+        User user = createUser(oldCost);
+        oldCost.updatePassword(user.getUserId(), "rehash me");
+        UserDAO newCost = new UserDAO(new PasswordHasher(5, 2, 4));
+
+        // Act
+        User authenticated = newCost.authenticate(user.getUsername(), "rehash me");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!passwordHash(user).startsWith("$2a$05$") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        // Assert
+        assertNotNull(authenticated, "Login with the old hash should succeed");
+        assertTrue(passwordHash(user).startsWith("$2a$05$"), "Hash should be replaced with the new cost");
+        assertNotNull(newCost.authenticate(user.getUsername(), "rehash me"), "Login should work with the new hash");
+    }
+
+    @Test
+    @DisplayName("Should reject hashing at once when the pool and its queue are full")
+    void shouldRejectWhenAtCapacity() {
+        // Arrange
+        String hash = new PasswordHasher(10, 1, 1).hash("busy");
+        PasswordHasher hasher = new PasswordHasher(10, 1, 1);
+        CompletableFuture<Boolean> running = hasher.verifyAsync("busy", hash);
+        CompletableFuture<Boolean> queued = hasher.verifyAsync("busy", hash);
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> hasher.verifyAsync("busy", hash),
+                     "Check beyond the queue limit should be rejected");
+        assertEquals(1, hasher.getRejectedCount(), "Rejection should be counted");
+        assertTrue(running.join() && queued.join(), "Accepted checks should complete");
+    }
+
+    private User createUser(UserDAO userDAO) {
+        String username = "pw_" + UUID.randomUUID().toString().substring(0, 8);
+        int userId = userDAO.create(new User(0, username, username + "@example.com", "Password", "User",
+                                             null, null, User.UserType.CUSTOMER, null, null, true));
+        return userDAO.findById(userId);
+    }
+
+    private String passwordHash(User user) {
+        return DatabaseUtil.queryForObject("SELECT password_hash FROM users WHERE user_id = ?",
+                                           new Object[]{user.getUserId()}, rs -> rs.getString(1));
+    }
+}
@@ -0,0 +1,204 @@
+package com.ecommerce;
+
+import com.ecommerce.config.DatabaseConfig;
+import com.ecommerce.dao.CategoryDAO;
+import com.ecommerce.dao.Page;
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ProductDAO functionality.
+ * Tests product loading and the number of statements issued per lookup.
+ */
+class ProductDAOTest {
+
+    private ProductDAO productDAO;
+    private CategoryDAO categoryDAO;
+
+    @BeforeAll
+    static void enableQueryStatistics() throws SQLException {
+        try (Connection conn = DatabaseConfig.getInstance().getDataSource().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("SET QUERY_STATISTICS_MAX_ENTRIES 10000");
+            stmt.execute("SET QUERY_STATISTICS TRUE");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        productDAO = new ProductDAO();
+        categoryDAO = new CategoryDAO();
+    }
+
+    @Test
+    @DisplayName("Should load categories with each product")
+    void shouldLoadCategoriesWithEachProduct() {
+        // Arrange
+        String tag = TestData.uniqueTag("T");
+        Category first = createCategory(tag + "-a");
+        Category second = createCategory(tag + "-b");
+        int bothId = productDAO.create(TestData.newProduct(tag, "both", List.of(first, second)));
+        int noneId = productDAO.create(TestData.newProduct(tag, "none", List.of()));
+
+        // Act
+        List<Product> products = productDAO.findByName(tag);
+        Product found = productDAO.findById(bothId);
+
+        // Assert
+        assertEquals(2, products.size(), "Both products should be found");
+        for (Product product : products) {
+            int expected = product.getProductId() == noneId ? 0 : 2;
+            assertEquals(expected, product.getCategories().size(), "Categories should match the links");
+        }
+        assertNotNull(found, "Product should be found by ID");
+        assertEquals(2, found.getCategories().size(), "Categories should be loaded by ID");
+    }
+
+    @Test
+    @DisplayName("Should issue the same number of queries regardless of result size")
+    void shouldIssueConstantQueriesRegardlessOfResultSize() throws SQLException {
+        // Arrange
+        String tag = TestData.uniqueTag("T");
+        Category category = createCategory(tag);
+        createProducts(tag, category, 0, 2);
+
+        long smallActive = countStatements(() -> productDAO.findAllActive());
+        long smallByName = countStatements(() -> productDAO.findByName(tag));
+        long smallByCategory = countStatements(() -> productDAO.findByCategory(category.getCategoryId()));
+        long smallByPrice = countStatements(() -> productDAO.findByPriceRange(BigDecimal.ZERO, BigDecimal.TEN));
+
+        createProducts(tag, category, 2, 40);
+
+        // Act
+        long largeActive = countStatements(() -> productDAO.findAllActive());
+        long largeByName = countStatements(() -> productDAO.findByName(tag));
+        long largeByCategory = countStatements(() -> productDAO.findByCategory(category.getCategoryId()));
+        long largeByPrice = countStatements(() -> productDAO.findByPriceRange(BigDecimal.ZERO, BigDecimal.TEN));
+
+        // Assert
+        assertEquals(42, productDAO.findByCategory(category.getCategoryId()).size(), "All products should be found");
+        assertEquals(2, largeByName, "Products and categories should load in two statements");
+        assertEquals(smallActive, largeActive, "findAllActive query count should not grow");
+        assertEquals(smallByName, largeByName, "findByName query count should not grow");
+        assertEquals(smallByCategory, largeByCategory, "findByCategory query count should not grow");
+        assertEquals(smallByPrice, largeByPrice, "findByPriceRange query count should not grow");
+    }
+
+    @Test
+    @DisplayName("Should walk every product exactly once using keyset cursors")
+    void shouldWalkEveryProductExactlyOnceUsingCursors() {
+        // Arrange
+        String tag = TestData.uniqueTag("T");
+        Category category = createCategory(tag);
+        createProducts(tag, category, 0, 7);
+
+        // Act
+        List<Integer> byName = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Page<Product> page = productDAO.findByName(tag, 3, cursor);
+            page.getItems().forEach(product -> byName.add(product.getProductId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        Set<Integer> newestFirst = new HashSet<>();
+        cursor = null;
+        do {
+            Page<Product> page = productDAO.findAllActive(4, cursor);
+            for (Product product : page.getItems()) {
+                assertTrue(newestFirst.add(product.getProductId()), "No product should appear twice");
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(3, pages, "Seven products should span three pages of three");
+        assertEquals(7, byName.size(), "Every product should be returned");
+        assertEquals(7, new HashSet<>(byName).size(), "No product should appear twice");
+        assertTrue(newestFirst.containsAll(byName), "Newest-first walk should include every product");
+        assertThrows(IllegalArgumentException.class, () -> productDAO.findAllActive(4, "not-a-cursor"),
+                    "Malformed cursors should be rejected");
+    }
+
+    @Test
+    @DisplayName("Should stream the catalog export as JSON")
+    void shouldStreamCatalogExportAsJson() throws IOException {
+        // Arrange
+        String tag = TestData.uniqueTag("T");
+        Category category = createCategory(tag);
+        int productId = productDAO.create(TestData.newProduct(tag, "export", List.of(category)));
+        StringWriter output = new StringWriter();
+
+        // Act
+        productDAO.exportCatalog(new JsonWriter(output));
+
+        // Assert
+        JsonObject catalog = JsonParser.parseString(output.toString()).getAsJsonObject();
+        JsonObject exported = null;
+        for (JsonElement product : catalog.getAsJsonArray("products")) {
+            if (product.getAsJsonObject().get("product_id").getAsInt() == productId) {
+                exported = product.getAsJsonObject();
+            }
+        }
+        assertNotNull(exported, "Product should be exported");
+        assertEquals(tag + "-export", exported.get("sku").getAsString(), "SKU should be exported");
+        assertEquals(new BigDecimal("5.00"), exported.get("price").getAsBigDecimal(), "Price should be exported");
+        assertTrue(catalog.getAsJsonArray("productCategories").toString()
+                          .contains("{\"product_id\":" + productId + ",\"category_id\":" + category.getCategoryId() + "}"),
+                  "Category link should be exported");
+    }
+
+    private long countStatements(Supplier<List<Product>> lookup) throws SQLException {
+        long before = executedStatements();
+        lookup.get();
+        return executedStatements() - before;
+    }
+
+    private long executedStatements() throws SQLException {
+        String query = "SELECT COALESCE(SUM(EXECUTION_COUNT), 0) FROM INFORMATION_SCHEMA.QUERY_STATISTICS " +
+                      "WHERE SQL_STATEMENT LIKE 'SELECT %' AND SQL_STATEMENT NOT LIKE '%QUERY_STATISTICS%' " +
+                      "AND SQL_STATEMENT <> 'SELECT 1'";
+        try (Connection conn = DatabaseConfig.getInstance().getDataSource().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private void createProducts(String tag, Category category, int first, int count) {
+        for (int i = first; i < first + count; i++) {
+            productDAO.create(TestData.newProduct(tag, String.valueOf(i), List.of(category)));
+        }
+    }
+
+    private Category createCategory(String name) {
+        return categoryDAO.findById(TestData.createCategory(name, null));
+    }
+}
@@ -0,0 +1,135 @@
+package com.ecommerce;
+
+import com.ecommerce.dao.CategoryDAO;
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+import com.ecommerce.service.ProductImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ProductImportService functionality.
+ * Tests CSV and NDJSON imports and the per-row error report.
+ */
+class ProductImportServiceTest {
+
+    private ProductImportService importService;
+    private ProductDAO productDAO;
+    private CategoryDAO categoryDAO;
+
+    @BeforeEach
+    void setUp() {
+        importService = new ProductImportService();
+        productDAO = new ProductDAO();
+        categoryDAO = new CategoryDAO();
+    }
+
+    @Test
+    @DisplayName("Should import valid CSV rows and report invalid ones")
+    void shouldImportValidCsvRowsAndReportInvalidOnes() throws IOException {
+        // Arrange
+        String tag = TestData.uniqueTag("I");
+        int categoryId = categoryDAO.create(new Category(0, tag, "Test category", null, null, null));
+        String csv = "name,price,sku,brand,categories,description\n" +
+                     tag + " lamp,19.99," + tag + "-1,Acme," + categoryId + ",\"Warm, dimmable\"\n" +
+                     tag + " desk,abc," + tag + "-2,Acme,,\n" +
+                     tag + " chair,49.00," + tag + "-1,Acme,,\n" +
+                     tag + " shelf,29.50," + tag + "-3,Acme,999999,\n";
+
+        // Act
+        ProductImportService.ImportReport report = importService.importCsv(new StringReader(csv));
+
+        // Assert
+        assertEquals(1, report.getImported(), "Only the valid row should be imported");
+        assertEquals(3, report.getFailed(), "Invalid rows should be reported");
+        assertEquals(List.of(3, 4, 5), report.getErrors().stream().map(ProductImportService.RowError::getLine).toList(),
+                    "Errors should carry the line numbers of the failed rows");
+        List<Product> products = productDAO.findByName(tag);
+        assertEquals(1, products.size(), "Imported product should be stored");
+        assertEquals("Warm, dimmable", products.get(0).getDescription(), "Quoted fields should be parsed");
+        assertEquals(1, products.get(0).getCategories().size(), "Category link should be stored");
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON across chunks and reject existing SKUs")
+    void shouldImportNdjsonAcrossChunksAndRejectExistingSkus() throws IOException {
+        // Arrange
+        String tag = TestData.uniqueTag("I");
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 2500; i++) {
+            ndjson.append("{\"name\":\"").append(tag).append(" item ").append(i)
+                  .append("\",\"price\":\"1.50\",\"sku\":\"").append(tag).append('-').append(i)
+                  .append("\",\"isActive\":true}\n");
+        }
+        ndjson.append("not json\n");
+
+        // Act
+        ProductImportService.ImportReport first = importService.importNdjson(new StringReader(ndjson.toString()));
+        ProductImportService.ImportReport second = importService.importNdjson(
+                new StringReader("{\"name\":\"again\",\"price\":1,\"sku\":\"" + tag + "-0\"}\n"));
+
+        // Assert
+        assertEquals(2500, first.getImported(), "Every valid row should be imported");
+        assertEquals(1, first.getFailed(), "Malformed line should be reported");
+        assertEquals(2500, productDAO.findByName(tag).size(), "Imported products should be stored");
+        assertEquals(new BigDecimal("1.50"), productDAO.findByName(tag).get(0).getPrice(), "Price should be stored");
+        assertEquals(0, second.getImported(), "Existing SKU should not be imported again");
+        assertEquals("SKU already exists", second.getErrors().get(0).getError(), "Existing SKU should be reported");
+    }
+
+    @Test
+    @DisplayName("Should reject only the failing rows of a rolled back chunk")
+    void shouldRetryRolledBackChunkRowByRow() throws IOException {
+        // Arrange
+        String tag = TestData.uniqueTag("I");
+        int categoryId = categoryDAO.create(new Category(0, tag, "Deleted during import", null, null, null));
+        String ndjson = "{\"name\":\"" + tag + " kept\",\"price\":1,\"sku\":\"" + tag + "-K\"}\n" +
+                        "{\"name\":\"" + tag + " linked\",\"price\":1,\"sku\":\"" + tag + "-L\"," +
+                        "\"categories\":[" + categoryId + "]}\n" +
+                        "{\"name\":\"" + tag + " twin\",\"price\":1,\"sku\":\"" + tag.toLowerCase() + "-k\"}\n";
+        // The category is known when the import starts but gone by the time its chunk is written
+        Reader reader = new FilterReader(new StringReader(ndjson)) {
+            private boolean deleted;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                if (!deleted) {
+                    deleted = true;
+                    categoryDAO.delete(categoryId);
+                }
+                return super.read(buffer, offset, length);
+            }
+        };
+
+        // Act
+        ProductImportService.ImportReport report = importService.importNdjson(reader);
+
+        // Assert
+        assertEquals(1, report.getImported(), "Rows that can be written should survive the rollback");
+        assertEquals(List.of(3, 2), report.getErrors().stream().map(ProductImportService.RowError::getLine).toList(),
+                    "Only the duplicate and the failing row should be rejected");
+        assertEquals("Duplicate SKU in import", report.getErrors().get(0).getError(),
+                    "SKUs differing only in case should be duplicates");
+        assertTrue(report.getErrors().get(1).getError().startsWith("Insert failed"), "Insert failure should be reported");
+        assertEquals(1, productDAO.findByName(tag).size(), "Only the kept row should be stored");
+    }
+
+    @Test
+    @DisplayName("Should reject CSV without required columns")
+    void shouldRejectCsvWithoutRequiredColumns() {
+        assertThrows(IllegalArgumentException.class,
+                    () -> importService.importCsv(new StringReader("name,price\nlamp,1.00\n")),
+                    "Missing sku column should be rejected");
+    }
+}
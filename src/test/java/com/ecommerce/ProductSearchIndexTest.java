@@ -0,0 +1,97 @@
+package com.ecommerce;
+
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.model.Product;
+import com.ecommerce.search.ProductSearchIndex;
+import com.ecommerce.search.TextAnalyzer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ProductSearchIndex functionality.
+ * Tests text analysis, multi-term queries and index maintenance through ProductDAO.
+ */
+class ProductSearchIndexTest {
+
+    private ProductDAO productDAO;
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        productDAO = new ProductDAO();
+        searchIndex = ProductSearchIndex.getInstance();
+    }
+
+    @Test
+    @DisplayName("Should lower-case, drop stop words and stem terms")
+    void shouldAnalyzeText() {
+        // Act
+        Set<String> terms = TextAnalyzer.analyze("The Wireless Headphones, with Batteries!");
+
+        // Assert
+        assertEquals(Set.of("wireless", "headphone", "battery"), terms);
+    }
+
+    @Test
+    @DisplayName("Should match products containing every query term")
+    void shouldMatchAllQueryTerms() {
+        // Arrange
+        String tag = TestData.uniqueTag("t") + "x";
+        int both = productDAO.create(newProduct(tag, "Trail Running Shoe", "Acme"));
+        int nameOnly = productDAO.create(newProduct(tag, "Trail Jacket", "Other"));
+
+        // Act & Assert
+        assertEquals(List.of(both, nameOnly), searchIndex.search(tag + " trail", 10));
+        assertEquals(List.of(both), searchIndex.search(tag + " trails acme", 10), "Terms should be stemmed");
+        assertEquals(List.of(), searchIndex.search(tag + " missing", 10));
+        assertEquals(List.of(both), searchIndex.search(tag, 1), "Results should respect the limit");
+    }
+
+    @Test
+    @DisplayName("Should keep the index current on update and delete")
+    void shouldFollowUpdatesAndDeletes() {
+        // Arrange
+        String tag = TestData.uniqueTag("t") + "x";
+        int productId = productDAO.create(newProduct(tag, "Camping Lantern", "Acme"));
+        Product product = productDAO.findById(productId);
+
+        // Act
+        product.setName(tag + " Camping Stove");
+        productDAO.update(product);
+
+        // Assert
+        assertEquals(List.of(), searchIndex.search(tag + " lantern", 10));
+        assertEquals(List.of(productId), searchIndex.search(tag + " stove", 10));
+        assertEquals(productId, productDAO.search(tag + " stove", 10).get(0).getProductId());
+
+        productDAO.delete(productId);
+        assertEquals(List.of(), searchIndex.search(tag, 10));
+    }
+
+    @Test
+    @DisplayName("Should rebuild the index from the products table")
+    void shouldRebuildFromDatabase() {
+        // Arrange
+        String tag = TestData.uniqueTag("t") + "x";
+        int productId = productDAO.create(newProduct(tag, "Desk Lamp", "Acme"));
+        searchIndex.remove(productId);
+
+        // Act
+        searchIndex.rebuild();
+
+        // Assert
+        assertEquals(List.of(productId), searchIndex.search(tag + " lamp", 10));
+    }
+
+    private Product newProduct(String tag, String name, String brand) {
+        Product product = TestData.newProduct(tag, name, List.of());
+        product.setBrand(brand);
+        return product;
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecommerce;
+
+import com.ecommerce.controller.ProductsController;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ProductsController access control.
+ * Tests that bulk imports are reserved for admins.
+ */
+class ProductsControllerTest {
+
+    private final ProductsController controller = new ProductsController();
+
+    @Test
+    @DisplayName("Should reject imports from users who are not admins")
+    void shouldRejectImportWithoutAdminRole() throws IOException, ServletException {
+        // Arrange
+        HttpServletRequest req = importRequest(false);
+        StringWriter body = new StringWriter();
+        HttpServletResponse resp = response(body);
+
+        // Act
+        controller.service(req, resp);
+
+        // Assert
+        verify(resp).setStatus(HttpServletResponse.SC_FORBIDDEN);
+        verify(req, never()).getReader();
+        assertTrue(body.toString().contains("Admin access required"), "The refusal should be explained");
+    }
+
+    @Test
+    @DisplayName("Should let admins through to the import")
+    void shouldAcceptImportFromAdmin() throws IOException, ServletException {
+        // Arrange
+        HttpServletRequest req = importRequest(true);
+        HttpServletResponse resp = response(new StringWriter());
+
+        // Act
+        controller.service(req, resp);
+
+        // Assert
+        verify(resp, never()).setStatus(HttpServletResponse.SC_FORBIDDEN);
+        verify(resp).setStatus(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+    }
+
+    private HttpServletRequest importRequest(boolean admin) {
+        HttpServletRequest req = mock(HttpServletRequest.class);
+        when(req.getMethod()).thenReturn("POST");
+        when(req.getPathInfo()).thenReturn("/import");
+        when(req.getContentType()).thenReturn("application/xml");
+        when(req.isUserInRole("ADMIN")).thenReturn(admin);
+        return req;
+    }
+
+    private HttpServletResponse response(StringWriter body) throws IOException {
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        when(resp.getWriter()).thenReturn(new PrintWriter(body, true));
+        return resp;
+    }
+}
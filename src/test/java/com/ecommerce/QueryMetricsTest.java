@@ -0,0 +1,83 @@
+package com.ecommerce;
+
+import com.ecommerce.util.DatabaseUtil;
+import com.ecommerce.util.LatencyHistogram;
+import com.ecommerce.util.QueryMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for QueryMetrics functionality.
+ * Tests latency percentiles, per-statement recording through DatabaseUtil and IN list keys.
+ */
+class QueryMetricsTest {
+
+    @Test
+    @DisplayName("Should report percentiles within the histogram precision")
+    void shouldReportPercentiles() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 10000; micros++) {
+            histogram.recordNanos(micros * 1000L);
+        }
+
+        // Act & Assert
+        assertEquals(10000, histogram.getCount());
+        assertEquals(5000, histogram.getValueAtPercentile(50.0), 5000 * 0.04);
+        assertEquals(9900, histogram.getValueAtPercentile(99.0), 9900 * 0.04);
+        assertEquals(9990, histogram.getValueAtPercentile(99.9), 9990 * 0.04);
+        assertEquals(10000, histogram.getMaxMicros());
+    }
+
+    @Test
+    @DisplayName("Should record statement latency, rows and pool wait time")
+    @SuppressWarnings("unchecked")
+    void shouldRecordStatements() {
+        // Arrange
+        String query = "SELECT category_id FROM categories WHERE category_id > ?";
+        int rowCount = DatabaseUtil.queryForList(query, new Object[]{0}, rs -> rs.getInt(1)).size();
+
+        // Act
+        Map<String, Object> snapshot = QueryMetrics.snapshot();
+
+        // Assert
+        Map<String, Object> statement = ((List<Map<String, Object>>) snapshot.get("statements")).stream()
+                .filter(entry -> query.equals(entry.get("sql")))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1L, statement.get("count"));
+        assertEquals((long) rowCount, statement.get("rows"));
+        assertEquals(0L, statement.get("errors"));
+
+        Map<String, Object> primaryPool = ((Map<String, Map<String, Object>>) snapshot.get("pools")).get("primary");
+        assertNotNull(primaryPool, "Primary pool wait time should be recorded");
+        assertTrue((long) primaryPool.get("count") > 0);
+        assertTrue(QueryMetrics.toPrometheus().contains("db_query_duration_seconds_count{query=\"" + query + "\"} 1"));
+    }
+
+    @Test
+    @DisplayName("Should key statements with IN lists of any length as one template")
+    @SuppressWarnings("unchecked")
+    void shouldCollapseInLists() {
+        // Arrange
+        String prefix = "SELECT name FROM categories WHERE category_id < 0 AND category_id IN (";
+        DatabaseUtil.queryForList(prefix + "?)", new Object[]{-1}, rs -> rs.getString(1));
+        DatabaseUtil.queryForList(prefix + "?, ?, ?)", new Object[]{-1, -2, -3}, rs -> rs.getString(1));
+
+        // Act
+        List<Map<String, Object>> statements = (List<Map<String, Object>>) QueryMetrics.snapshot().get("statements");
+
+        // Assert
+        List<Map<String, Object>> matching = statements.stream()
+                .filter(entry -> ((String) entry.get("sql")).startsWith(prefix))
+                .toList();
+        assertEquals(1, matching.size(), "Lists of different lengths should share one entry");
+        assertEquals(prefix + "?...)", matching.get(0).get("sql"));
+        assertEquals(2L, matching.get(0).get("count"));
+    }
+}
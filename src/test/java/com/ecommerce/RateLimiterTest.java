@@ -0,0 +1,82 @@
+package com.ecommerce;
+
+import com.ecommerce.util.RateLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RateLimiter functionality.
+ * Tests bursts, lazy refills, per-key buckets and the bound on tracked keys.
+ */
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Should allow a burst, refuse the excess and refill over time")
+    void shouldAllowBurstThenRefill() {
+        // Arrange
+        RateLimiter limiter = new RateLimiter(3, 1, 100, now::get);
+
+        // Act
+        long[] burst = {limiter.tryAcquire("alice"), limiter.tryAcquire("alice"), limiter.tryAcquire("alice")};
+        long refused = limiter.tryAcquire("alice");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        long stillRefused = limiter.tryAcquire("alice");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        long refilled = limiter.tryAcquire("alice");
+
+        // Assert
+        assertArrayEquals(new long[]{0, 0, 0}, burst, "Burst up to the capacity should be allowed");
+        assertEquals(1000, refused, "Excess request should wait one refill interval");
+        assertEquals(600, stillRefused, "Wait should shrink as the bucket refills");
+        assertEquals(0, refilled, "Request should be allowed once a token is refilled");
+        assertEquals(2, limiter.getRejectedCount(), "Refusals should be counted");
+    }
+
+    @Test
+    @DisplayName("Should keep a separate bucket per key")
+    void shouldKeepSeparateBuckets() {
+        // Arrange
+        RateLimiter limiter = new RateLimiter(1, 1, 100, now::get);
+        limiter.tryAcquire("10.0.0.1");
+
+        // Act
+        long sameKey = limiter.tryAcquire("10.0.0.1");
+        long otherKey = limiter.tryAcquire("10.0.0.2");
+
+        // Assert
+        assertTrue(sameKey > 0, "Exhausted key should be refused");
+        assertEquals(0, otherKey, "Other keys should be unaffected");
+    }
+
+    @Test
+    @DisplayName("Should drop refilled buckets first and stay within the key limit")
+    void shouldBoundTrackedKeys() {
+        // Arrange
+        RateLimiter limiter = new RateLimiter(1, 1, 100, now::get);
+        for (int i = 0; i < 99; i++) {
+            limiter.tryAcquire("idle-" + i);
+        }
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limiter.tryAcquire("attacker");
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire("new-" + i);
+        }
+        long attacker = limiter.tryAcquire("attacker");
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("flood-" + i);
+        }
+
+        // Assert
+        assertTrue(attacker > 0, "Partly drained bucket should be kept while refilled ones are dropped");
+        assertTrue(limiter.size() <= 100, "Tracked keys should stay within the limit under a flood");
+    }
+}
@@ -0,0 +1,169 @@
+package com.ecommerce;
+
+import com.ecommerce.cache.ResponseCache;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ResponseCache functionality.
+ * Tests ETag generation, 304 answers and reuse of serialized bodies.
+ */
+class ResponseCacheTest {
+
+    private ResponseCache responses;
+    private String uri;
+
+    @BeforeEach
+    void setUp() {
+        responses = new ResponseCache(new Gson());
+        uri = "/api/test/" + UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should answer a matching If-None-Match with 304 without serializing again")
+    void shouldAnswerNotModifiedForMatchingETag() throws IOException {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpServletResponse first = response(body);
+        responses.write(request(null), first, "v1", () -> List.of("item-" + loads.incrementAndGet()));
+        String etag = etagOf(first);
+        HttpServletResponse second = response(new ByteArrayOutputStream());
+
+        // Act
+        boolean written = responses.write(request("W/" + etag), second, "v1",
+                                          () -> List.of("item-" + loads.incrementAndGet()));
+
+        // Assert
+        assertTrue(written, "Response should be written");
+        assertEquals("[\"item-1\"]", body.toString(StandardCharsets.UTF_8), "First response should carry the body");
+        verify(first).setStatus(HttpServletResponse.SC_OK);
+        verify(second).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(second, never()).getOutputStream();
+        assertEquals(1, loads.get(), "Body should be serialized once per version");
+    }
+
+    @Test
+    @DisplayName("Should derive the ETag from the content rather than the version")
+    void shouldDeriveETagFromContent() throws IOException {
+        // Arrange
+        HttpServletResponse first = response(new ByteArrayOutputStream());
+        HttpServletResponse sameContent = response(new ByteArrayOutputStream());
+        HttpServletResponse changed = response(new ByteArrayOutputStream());
+
+        // Act
+        responses.write(request(null), first, "v1", () -> List.of("a"));
+        responses.write(request(null), sameContent, "v2", () -> List.of("a"));
+        responses.write(request(null), changed, "v3", () -> List.of("b"));
+
+        // Assert
+        assertEquals(etagOf(first), etagOf(sameContent), "Equal bodies should share an ETag");
+        assertNotEquals(etagOf(first), etagOf(changed), "Changed bodies should get a new ETag");
+        assertTrue(etagOf(first).startsWith("\"") && etagOf(first).endsWith("\""), "ETag should be quoted");
+    }
+
+    @Test
+    @DisplayName("Should leave missing resources to the caller")
+    void shouldReportMissingResource() throws IOException {
+        // Arrange
+        HttpServletResponse resp = response(new ByteArrayOutputStream());
+
+        // Act
+        boolean written = responses.write(request("*"), resp, null, () -> null);
+
+        // Assert
+        assertFalse(written, "Missing resources should not be written");
+        verifyNoInteractions(resp);
+    }
+
+    @Test
+    @DisplayName("Should send large bodies gzip-compressed to clients that accept it")
+    void shouldCompressLargeBodies() throws IOException {
+        // Arrange
+        ResponseCache compressing = new ResponseCache(new Gson(), 256, 6);
+        List<String> large = Collections.nCopies(100, "compressible item");
+        ByteArrayOutputStream plainBody = new ByteArrayOutputStream();
+        ByteArrayOutputStream gzipBody = new ByteArrayOutputStream();
+        HttpServletResponse plain = response(plainBody);
+        HttpServletResponse gzip = response(gzipBody);
+        HttpServletResponse small = response(new ByteArrayOutputStream());
+        HttpServletResponse revalidated = response(new ByteArrayOutputStream());
+
+        // Act
+        compressing.write(request(null), plain, "v1", () -> large);
+        compressing.write(request(null, "br;q=1.0, gzip;q=0.8"), gzip, "v1", () -> large);
+        compressing.write(request(null, "gzip"), small, "v2", () -> List.of("small"));
+        compressing.write(request(etagOf(gzip), "gzip"), revalidated, "v1", () -> large);
+
+        // Assert
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipBody.toByteArray()))) {
+            assertArrayEquals(plainBody.toByteArray(), in.readAllBytes(), "Compressed body should inflate to the plain body");
+        }
+        assertTrue(gzipBody.size() < plainBody.size() / 4, "Repetitive body should compress well");
+        verify(gzip).setHeader("Content-Encoding", "gzip");
+        verify(gzip).setHeader("Vary", "Accept-Encoding");
+        verify(plain, never()).setHeader(eq("Content-Encoding"), anyString());
+        verify(small, never()).setHeader(eq("Content-Encoding"), anyString());
+        assertEquals(etagOf(plain).replace("\"", "") + "--gzip", etagOf(gzip).replace("\"", ""),
+                     "Compressed representation should have its own ETag");
+        verify(revalidated).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+
+    private HttpServletRequest request(String ifNoneMatch) {
+        return request(ifNoneMatch, null);
+    }
+
+    private HttpServletRequest request(String ifNoneMatch, String acceptEncoding) {
+        HttpServletRequest req = mock(HttpServletRequest.class);
+        when(req.getRequestURI()).thenReturn(uri);
+        when(req.getHeader("If-None-Match")).thenReturn(ifNoneMatch);
+        when(req.getHeader("Accept-Encoding")).thenReturn(acceptEncoding);
+        return req;
+    }
+
+    private HttpServletResponse response(ByteArrayOutputStream body) throws IOException {
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+        when(resp.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+        return resp;
+    }
+
+    private String etagOf(HttpServletResponse resp) {
+        ArgumentCaptor<String> etag = ArgumentCaptor.forClass(String.class);
+        verify(resp).setHeader(eq("ETag"), etag.capture());
+        return etag.getValue();
+    }
+}
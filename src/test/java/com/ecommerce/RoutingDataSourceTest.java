@@ -0,0 +1,119 @@
+package com.ecommerce;
+
+import com.ecommerce.config.RoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RoutingDataSource functionality.
+ * Uses two in-memory databases standing in for the primary and a read replica.
+ */
+class RoutingDataSourceTest {
+
+    private static final long READ_YOUR_WRITES_MILLIS = 200;
+
+    private RoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new RoutingDataSource(pool("routing_primary"), List.of(pool("routing_replica")),
+                                                  READ_YOUR_WRITES_MILLIS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RoutingDataSource.clearSession();
+        routingDataSource.close();
+    }
+
+    @Test
+    @DisplayName("Should route reads to the replica and writes to the primary")
+    void shouldRouteReadsToReplica() throws SQLException {
+        // Act & Assert
+        assertEquals("routing_replica", databaseName(routingDataSource.getReadConnection()));
+        assertEquals("routing_primary", databaseName(routingDataSource.getPrimaryConnection()));
+    }
+
+    @Test
+    @DisplayName("Should read from the primary within the read-your-writes window")
+    void shouldReadYourWrites() throws SQLException, InterruptedException {
+        // Arrange
+        RoutingDataSource.bindSession("writer");
+        routingDataSource.recordWrite();
+
+        // Act & Assert
+        assertEquals("routing_primary", databaseName(routingDataSource.getReadConnection()));
+
+        RoutingDataSource.bindSession("other-client");
+        assertEquals("routing_replica", databaseName(routingDataSource.getReadConnection()),
+                     "Other sessions should keep reading from the replica");
+
+        RoutingDataSource.bindSession("writer");
+        Thread.sleep(READ_YOUR_WRITES_MILLIS + 50);
+        assertEquals("routing_replica", databaseName(routingDataSource.getReadConnection()),
+                     "Reads should return to the replica after the window");
+    }
+
+    @Test
+    @DisplayName("Should hold borrowers beyond the pool size at the gate until a connection is closed")
+    void shouldGateBorrowersToPoolSize() throws Exception {
+        // Arrange
+        RoutingDataSource gated = new RoutingDataSource(pool("gated_primary"), List.of(), READ_YOUR_WRITES_MILLIS, true);
+        try {
+            Connection first = gated.getPrimaryConnection();
+            Connection second = gated.getPrimaryConnection();
+
+            // Act
+            CompletableFuture<String> third = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return databaseName(gated.getPrimaryConnection());
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(100);
+            boolean doneWhilePoolBusy = third.isDone();
+            first.close();
+            first.close();
+
+            // Assert
+            assertFalse(doneWhilePoolBusy, "Borrower beyond the pool size should wait");
+            assertEquals("gated_primary", third.get(5, TimeUnit.SECONDS), "Waiting borrower should get the freed connection");
+            second.close();
+        } finally {
+            gated.close();
+        }
+    }
+
+    private static HikariDataSource pool(String database) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(database);
+        config.setJdbcUrl("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(2);
+        return new HikariDataSource(config);
+    }
+
+    private static String databaseName(Connection connection) throws SQLException {
+        try (connection;
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT DATABASE()")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.ecommerce;
+
+import com.ecommerce.util.SingleFlight;
+import com.ecommerce.util.TransactionTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SingleFlight functionality.
+ * Tests coalescing of concurrent identical loads and the cases that must not be shared.
+ */
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private ExecutorService executor;
+    private SingleFlight<String, String> flight;
+    private AtomicInteger coalescedKeys;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(CALLERS);
+        coalescedKeys = new AtomicInteger();
+        flight = new SingleFlight<>(key -> coalescedKeys.incrementAndGet());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should run one load for concurrent callers of the same key")
+    void shouldShareOneLoadAmongConcurrentCallers() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Future<String> leader = executor.submit(() -> flight.execute("product:1", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "value";
+        }));
+        waitForLoads(loads, 1);
+
+        // Act
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 1; i < CALLERS; i++) {
+            followers.add(executor.submit(() -> flight.execute("product:1", () -> "value-" + loads.incrementAndGet())));
+        }
+        waitForCoalesced(CALLERS - 1);
+        release.countDown();
+
+        // Assert
+        assertEquals("value", leader.get(5, TimeUnit.SECONDS), "Leader should get its own result");
+        for (Future<String> follower : followers) {
+            assertSame(leader.get(), follower.get(5, TimeUnit.SECONDS), "Followers should share the leader's result");
+        }
+        assertEquals(1, loads.get(), "Only one load should run");
+        assertEquals(1, flight.getLoads(), "One load should be counted");
+        assertEquals(CALLERS - 1, flight.getCoalesced(), "Every follower should be counted as coalesced");
+        assertEquals(CALLERS - 1, coalescedKeys.get(), "Every coalesced call should be reported");
+    }
+
+    @Test
+    @DisplayName("Should pass a failed load on to every waiting caller and retry afterwards")
+    void shouldShareFailureAndRetry() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Future<String> leader = executor.submit(() -> flight.execute("product:2", () -> {
+            loads.incrementAndGet();
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        waitForLoads(loads, 1);
+        Future<String> follower = executor.submit(() -> flight.execute("product:2", () -> "unused"));
+        waitForCoalesced(1);
+
+        // Act
+        release.countDown();
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerFailure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        String retried = flight.execute("product:2", () -> "recovered");
+
+        // Assert
+        assertInstanceOf(IllegalStateException.class, leaderFailure.getCause(), "Leader should see the failure");
+        assertInstanceOf(IllegalStateException.class, followerFailure.getCause(), "Follower should see the failure");
+        assertEquals("recovered", retried, "A failed load should not be remembered");
+    }
+
+    @Test
+    @DisplayName("Should not share loads with a caller inside a transaction")
+    void shouldNotShareInsideTransaction() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Future<String> outside = executor.submit(() -> flight.execute("product:3", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "committed";
+        }));
+        waitForLoads(loads, 1);
+
+        // Act
+        String inside = TransactionTemplate.inTransaction(() -> flight.execute("product:3", () -> "own"));
+        release.countDown();
+
+        // Assert
+        assertEquals("own", inside, "Transactional caller should run its own load");
+        assertEquals("committed", outside.get(5, TimeUnit.SECONDS), "Outside caller should be unaffected");
+        assertEquals(0, flight.getCoalesced(), "Nothing should be coalesced");
+    }
+
+    @Test
+    @DisplayName("Should not share loads with a caller that forces primary reads")
+    void shouldNotShareWhenReadingFromPrimary() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Future<String> outside = executor.submit(() -> flight.execute("product:4", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "replica";
+        }));
+        waitForLoads(loads, 1);
+
+        // Act
+        String primary = TransactionTemplate.readFromPrimary(() -> flight.execute("product:4", () -> "primary"));
+        release.countDown();
+
+        // Assert
+        assertEquals("primary", primary, "Primary reader should run its own load");
+        assertEquals("replica", outside.get(5, TimeUnit.SECONDS), "Outside caller should be unaffected");
+        assertEquals(0, flight.getCoalesced(), "Nothing should be coalesced");
+    }
+
+    private void waitForLoads(AtomicInteger loads, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loads.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void waitForCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.getCoalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
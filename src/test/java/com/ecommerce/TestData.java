@@ -0,0 +1,73 @@
+package com.ecommerce;
+
+import com.ecommerce.dao.CategoryDAO;
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Test data shared by the test classes. The tests share one in-memory database, so each test
+ * tags the names and SKUs of the rows it creates with a unique tag and only looks at those.
+ */
+final class TestData {
+
+    private TestData() {
+    }
+
+    /**
+     * Creates a tag that no other test uses.
+     *
+     * @param prefix A letter telling which test class the rows came from
+     * @return The prefix followed by eight random hex digits
+     */
+    static String uniqueTag(String prefix) {
+        return prefix + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Builds an unsaved active product named "tag suffix" with SKU "tag-suffix".
+     *
+     * @param tag The tag of the test
+     * @param suffix The part of the name and SKU that tells the test's products apart
+     * @param categories The categories to file the product in
+     * @return The product
+     */
+    static Product newProduct(String tag, String suffix, List<Category> categories) {
+        return new Product(0, tag + " " + suffix, "Test product", new BigDecimal("5.00"),
+                          tag + "-" + suffix, new BigDecimal("1.00"), "1x1x1cm", "TestBrand",
+                          null, null, true, categories);
+    }
+
+    /**
+     * Stores a product built by {@link #newProduct}.
+     *
+     * @param tag The tag of the test
+     * @param suffix The part of the name and SKU that tells the test's products apart
+     * @param categoryIds The IDs of the categories to file the product in
+     * @return The ID of the product
+     */
+    static int createProduct(String tag, String suffix, int... categoryIds) {
+        CategoryDAO categoryDAO = new CategoryDAO();
+        List<Category> categories = new ArrayList<>();
+        for (int categoryId : categoryIds) {
+            categories.add(categoryDAO.findById(categoryId));
+        }
+        return new ProductDAO().create(newProduct(tag, suffix, categories));
+    }
+
+    /**
+     * Stores a category.
+     *
+     * @param name The name of the category, usually starting with the tag of the test
+     * @param parentId The ID of the parent category, or null for a top-level category
+     * @return The ID of the category
+     */
+    static int createCategory(String name, Integer parentId) {
+        return new CategoryDAO().create(new Category(0, name, "Test category", parentId, null, null));
+    }
+}
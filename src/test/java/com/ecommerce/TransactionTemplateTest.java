@@ -0,0 +1,89 @@
+package com.ecommerce;
+
+import com.ecommerce.dao.CategoryDAO;
+import com.ecommerce.model.Category;
+import com.ecommerce.util.DatabaseUtil;
+import com.ecommerce.util.TransactionTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TransactionTemplate functionality.
+ * Tests connection sharing, commit and rollback of units of work.
+ */
+class TransactionTemplateTest {
+
+    private static final String SESSION_QUERY = "SELECT SESSION_ID()";
+
+    private CategoryDAO categoryDAO;
+
+    @BeforeEach
+    void setUp() {
+        categoryDAO = new CategoryDAO();
+    }
+
+    @Test
+    @DisplayName("Should commit all statements of a successful transaction")
+    void shouldCommitSuccessfulTransaction() {
+        // Arrange
+        String name = uniqueName();
+
+        // Act
+        int categoryId = TransactionTemplate.inTransaction(() -> {
+            int id = categoryDAO.create(new Category(0, name, "Committed", null, null, null));
+            assertTrue(TransactionTemplate.isTransactionActive(), "Transaction should be active");
+            return id;
+        });
+
+        // Assert
+        assertFalse(TransactionTemplate.isTransactionActive(), "Transaction should be closed");
+        assertNotNull(categoryDAO.findById(categoryId), "Category should be committed");
+    }
+
+    @Test
+    @DisplayName("Should roll back all statements when the work fails")
+    void shouldRollBackFailedTransaction() {
+        // Arrange
+        String name = uniqueName();
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> TransactionTemplate.inTransaction(() -> {
+            categoryDAO.create(new Category(0, name, "Rolled back", null, null, null));
+            throw new IllegalStateException("Simulated failure");
+        }));
+
+        // Assert
+        assertTrue(categoryDAO.findByName(name).isEmpty(), "Category should be rolled back");
+    }
+
+    @Test
+    @DisplayName("Should reuse one connection for every statement in a scope")
+    void shouldReuseOneConnectionInScope() {
+        // Act
+        Integer first;
+        Integer second;
+        Integer inTransaction;
+        try (TransactionTemplate.ConnectionScope scope = TransactionTemplate.openConnectionScope()) {
+            first = sessionId();
+            second = sessionId();
+            inTransaction = TransactionTemplate.inTransaction(this::sessionId);
+        }
+
+        // Assert
+        assertEquals(first, second, "Statements in a scope should share a connection");
+        assertEquals(first, inTransaction, "A transaction inside a scope should use the scoped connection");
+    }
+
+    private Integer sessionId() {
+        return DatabaseUtil.queryForObject(SESSION_QUERY, null, rs -> rs.getInt(1));
+    }
+
+    private String uniqueName() {
+        return "TX-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
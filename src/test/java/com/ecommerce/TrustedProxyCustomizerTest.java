@@ -0,0 +1,84 @@
+package com.ecommerce;
+
+import com.ecommerce.config.DatabaseConfig;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TrustedProxyCustomizer.
+ * Tests that logins relayed by the trusted proxy are throttled per forwarded client address and
+ * that a client cannot pick its address by sending its own X-Forwarded-For header. The tests
+ * connect from the loopback address, which the test configuration trusts as the proxy.
+ */
+class TrustedProxyCustomizerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Server server;
+    private int port;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = MainAPI.createServer(0, false);
+        server.start();
+        port = ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("Should give clients behind the same proxy separate login buckets")
+    void shouldThrottlePerForwardedClient() throws Exception {
+        // Arrange
+        int burst = DatabaseConfig.getInstance().getLoginThrottleIpBurst();
+        for (int i = 0; i < burst; i++) {
+            assertEquals(400, login("198.51.100.1"), "Logins within the burst should reach validation");
+        }
+
+        // Act
+        int throttled = login("198.51.100.1");
+        int other = login("198.51.100.2");
+
+        // Assert
+        assertEquals(429, throttled, "The client past its burst should be throttled");
+        assertEquals(400, other, "Another client behind the proxy should keep its own bucket");
+    }
+
+    @Test
+    @DisplayName("Should ignore addresses the client put in front of the proxy's entry")
+    void shouldIgnoreSpoofedForwardedAddresses() throws Exception {
+        // Arrange
+        int burst = DatabaseConfig.getInstance().getLoginThrottleIpBurst();
+        for (int i = 0; i < burst; i++) {
+            login("198.51.100.3");
+        }
+
+        // Act
+        int spoofed = login("203.0.113.7, 198.51.100.3");
+
+        // Assert
+        assertEquals(429, spoofed, "A forged leading address should not escape the client's bucket");
+    }
+
+    private int login(String forwardedFor) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.cache.CacheManager;
+import com.ecommerce.cache.EntityCache;
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.model.Product;
+import com.ecommerce.util.DatabaseUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares repeated {@link ProductDAO#findById(int)} reads over a hot set of 500 products served
+ * from the product cache against the same reads with the entry invalidated first, which is the
+ * uncached database path.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main EntityCacheBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityCacheBenchmark {
+
+    private static final int HOT_SET_SIZE = 500;
+
+    private final ProductDAO productDAO = new ProductDAO();
+    private final EntityCache<Integer, Product> cache = CacheManager.getInstance().getCache("products");
+    private int[] productIds;
+
+    @Setup
+    public void setUp() {
+        List<Object[]> rows = new ArrayList<>(HOT_SET_SIZE);
+        for (int i = 0; i < HOT_SET_SIZE; i++) {
+            rows.add(new Object[]{"Cached product " + i, "Benchmark product " + i, new BigDecimal("19.99"),
+                                  "CACHE-" + i, new BigDecimal("1.25"), "10x10x10cm", "BenchBrand", true});
+        }
+        DatabaseUtil.executeUpdate("DELETE FROM products WHERE sku LIKE 'CACHE-%'", null);
+        DatabaseUtil.executeMultiRowInsert("INSERT INTO products (name, description, price, sku, weight, " +
+                                          "dimensions, brand, is_active) VALUES", rows);
+        List<Integer> ids = DatabaseUtil.queryForList("SELECT product_id FROM products WHERE sku LIKE 'CACHE-%'",
+                                                      null, rs -> rs.getInt(1));
+        productIds = ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Benchmark
+    public Product cachedRead() {
+        return productDAO.findById(nextId());
+    }
+
+    @Benchmark
+    public Product uncachedRead() {
+        int productId = nextId();
+        cache.invalidate(productId);
+        return productDAO.findById(productId);
+    }
+
+    private int nextId() {
+        return productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+import com.ecommerce.util.JsonUtil;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serializing a page of products the way controllers used to, with reflective Gson into
+ * a String that is then encoded, against the registered model adapters, both into a String and
+ * streamed as UTF-8 into an output buffer. Scores are per product; add -prof gc to also report
+ * the bytes allocated per product (gc.alloc.rate.norm).
+ * The reflective case needs java.time opened to Gson on Java 17, so the fork opens it.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main JsonSerializationBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.time=ALL-UNNAMED")
+public class JsonSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private final Gson reflectiveGson = new Gson();
+    private final Gson adapterGson = JsonUtil.getGson();
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+    private List<Product> page;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Category> categories = List.of(new Category(1, "Furniture", "Tables and chairs", null, now, now),
+                                            new Category(2, "Office", "Office furniture", 1, now, now));
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(new Product(i + 1, "Product " + i, "Benchmark product " + i + " with a longer description",
+                                 new BigDecimal("19.99"), "BENCH-" + i, new BigDecimal("1.25"), "10x10x10cm",
+                                 "BenchBrand", now, now, true, categories));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public byte[] reflectiveToString() {
+        return reflectiveGson.toJson(page).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public byte[] adapterToString() {
+        return adapterGson.toJson(page).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public int adapterStreaming() throws IOException {
+        buffer.reset();
+        JsonUtil.writeJson(page, buffer);
+        return buffer.size();
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.cache.CacheManager;
+import com.ecommerce.cache.EntityCache;
+import com.ecommerce.model.User;
+import com.ecommerce.util.JWTUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link JWTUtil#parseToken(String)} for a token already in the verified-token cache
+ * against the same call with the cache cleared first, which checks the signature and parses
+ * the claims again.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main JwtValidationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private final EntityCache<String, Claims> cache = CacheManager.getInstance().getCache("tokens");
+    private String token;
+
+    @Setup
+    public void setUp() {
+        token = JWTUtil.generateToken(new User(1, "benchmark_user", "bench@example.com", "Bench", "User", null, null,
+                                              User.UserType.CUSTOMER, null, null, true));
+        JWTUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public Claims cachedValidation() {
+        return JWTUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public Claims uncachedValidation() {
+        cache.invalidateAll();
+        return JWTUtil.parseToken(token);
+    }
+}
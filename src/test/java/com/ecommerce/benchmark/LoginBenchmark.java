@@ -0,0 +1,62 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.dao.UserDAO;
+import com.ecommerce.model.User;
+import com.ecommerce.util.DatabaseUtil;
+import com.ecommerce.util.PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures login throughput through {@link UserDAO#authenticate(String, String)} at several
+ * BCrypt cost factors, with 8 concurrent clients sharing a hashing pool of one thread per CPU.
+ * Each step in cost doubles the work per login, so throughput should roughly halve.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main LoginBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String USERNAME = "login_benchmark";
+    private static final String PASSWORD = "benchmark-password";
+
+    @Param({"8", "10", "12"})
+    private int cost;
+
+    private UserDAO userDAO;
+
+    @Setup
+    public void setUp() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        userDAO = new UserDAO(new PasswordHasher(cost, threads, 64));
+        DatabaseUtil.executeUpdate("DELETE FROM users WHERE username = ?", new Object[]{USERNAME});
+        int userId = userDAO.create(new User(0, USERNAME, "login@benchmark.example", "Login", "Benchmark",
+                                             null, null, User.UserType.CUSTOMER, null, null, true));
+        userDAO.updatePassword(userId, PASSWORD);
+    }
+
+    @Benchmark
+    public User login() {
+        return userDAO.authenticate(USERNAME, PASSWORD);
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.catalog.OffHeapProductStore;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a catalog of one million products held as {@link Product} objects in a hash map
+ * against the same catalog in an {@link OffHeapProductStore}: whole-product lookups, single-field
+ * reads, and a full scan of the names as the snapshot's name search does. Setup prints the heap
+ * retained by each variant, the off-heap bytes, and the GC count and time spent during the run.
+ *
+ * Run with (add -prof gc for allocation rates):
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main ProductStoreBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ProductStoreBenchmark {
+
+    private static final int PRODUCT_COUNT = 1_000_000;
+
+    @Param({"heap", "offHeap"})
+    public String storage;
+
+    private Map<Integer, Product> heap;
+    private OffHeapProductStore offHeap;
+    private long gcCountAtStart;
+    private long gcMillisAtStart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Category category = new Category(1, "Benchmark", null, null, null, null);
+        Map<Integer, Category> categories = Map.of(1, category);
+        long before = usedHeapAfterGc();
+        List<Product> products = new ArrayList<>(PRODUCT_COUNT);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= PRODUCT_COUNT; i++) {
+            products.add(new Product(i, "Product " + i, "Benchmark product number " + i, new BigDecimal("19.99"),
+                                     "BENCH-" + i, new BigDecimal("1.25"), "10x10x10cm", "BenchBrand",
+                                     now.minusSeconds(i), now, true, List.of(category)));
+        }
+        if (storage.equals("heap")) {
+            heap = new HashMap<>();
+            products.forEach(product -> heap.put(product.getProductId(), product));
+        } else {
+            offHeap = OffHeapProductStore.build(products, categories);
+        }
+        products = null;
+        long retained = usedHeapAfterGc() - before;
+        System.out.printf("%n%s: %,d bytes retained on heap, %,d bytes off-heap%n", storage, retained,
+                          offHeap != null ? offHeap.getOffHeapBytes() : 0);
+        gcCountAtStart = gcCount();
+        gcMillisAtStart = gcMillis();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s: %d collections, %d ms in GC during the run%n", storage,
+                          gcCount() - gcCountAtStart, gcMillis() - gcMillisAtStart);
+    }
+
+    @Benchmark
+    public Product lookup() {
+        int productId = nextId();
+        return heap != null ? heap.get(productId) : offHeap.get(productId);
+    }
+
+    @Benchmark
+    public String readName() {
+        int productId = nextId();
+        return heap != null ? heap.get(productId).getName() : offHeap.getName(productId);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int scanNames() {
+        int matches = 0;
+        if (heap != null) {
+            for (Product product : heap.values()) {
+                matches += product.getName().endsWith("7") ? 1 : 0;
+            }
+        } else {
+            for (int productId : offHeap.getIds()) {
+                matches += offHeap.getName(productId).endsWith("7") ? 1 : 0;
+            }
+        }
+        return matches;
+    }
+
+    private int nextId() {
+        return ThreadLocalRandom.current().nextInt(PRODUCT_COUNT) + 1;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(collector.getCollectionCount(), 0);
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(collector.getCollectionTime(), 0);
+        }
+        return millis;
+    }
+}
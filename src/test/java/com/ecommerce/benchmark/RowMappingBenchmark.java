@@ -0,0 +1,89 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.model.Product;
+import com.ecommerce.util.DatabaseUtil;
+import com.ecommerce.util.StatementDescriptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares label-based row mapping against index-based mapping through a
+ * {@link StatementDescriptor} on a 100k-row product result.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main RowMappingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    private static final int ROW_COUNT = 100_000;
+    private static final String QUERY = "SELECT p.* FROM products p WHERE p.sku LIKE 'BENCH-%'";
+    private static final String[] PRODUCT_COLUMNS = {
+        "product_id", "name", "description", "price", "sku", "weight", "dimensions", "brand",
+        "created_at", "updated_at", "is_active"
+    };
+
+    private StatementDescriptor<Product> descriptor;
+
+    @Setup
+    public void setUp() {
+        List<Object[]> rows = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            rows.add(new Object[]{"Product " + i, "Benchmark product " + i, new BigDecimal("19.99"),
+                                  "BENCH-" + i, new BigDecimal("1.25"), "10x10x10cm", "BenchBrand", true});
+        }
+        DatabaseUtil.executeUpdate("DELETE FROM products WHERE sku LIKE 'BENCH-%'", null);
+        DatabaseUtil.executeMultiRowInsert("INSERT INTO products (name, description, price, sku, weight, " +
+                                          "dimensions, brand, is_active) VALUES", rows);
+        descriptor = new StatementDescriptor<>(QUERY, PRODUCT_COLUMNS, RowMappingBenchmark::mapByIndex);
+    }
+
+    @Benchmark
+    public List<Product> mapByLabel() {
+        return DatabaseUtil.queryForList(QUERY, null, RowMappingBenchmark::mapByLabel);
+    }
+
+    @Benchmark
+    public List<Product> mapByIndex() {
+        return DatabaseUtil.queryForList(descriptor, null);
+    }
+
+    private static Product mapByLabel(ResultSet rs) throws SQLException {
+        return new Product(rs.getInt("product_id"), rs.getString("name"), rs.getString("description"),
+                          rs.getBigDecimal("price"), rs.getString("sku"), rs.getBigDecimal("weight"),
+                          rs.getString("dimensions"), rs.getString("brand"),
+                          rs.getTimestamp("created_at").toLocalDateTime(),
+                          rs.getTimestamp("updated_at").toLocalDateTime(),
+                          rs.getBoolean("is_active"), List.of());
+    }
+
+    private static Product mapByIndex(ResultSet rs, int[] columns) throws SQLException {
+        return new Product(rs.getInt(columns[0]), rs.getString(columns[1]), rs.getString(columns[2]),
+                          rs.getBigDecimal(columns[3]), rs.getString(columns[4]), rs.getBigDecimal(columns[5]),
+                          rs.getString(columns[6]), rs.getString(columns[7]),
+                          rs.getTimestamp(columns[8]).toLocalDateTime(),
+                          rs.getTimestamp(columns[9]).toLocalDateTime(),
+                          rs.getBoolean(columns[10]), List.of());
+    }
+}
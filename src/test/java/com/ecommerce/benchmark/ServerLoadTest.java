@@ -0,0 +1,122 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.MainAPI;
+import com.ecommerce.util.DatabaseUtil;
+import com.ecommerce.util.LatencyHistogram;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test comparing the API server with requests on platform threads and on virtual threads.
+ * For each mode it starts the server in-process against the test database and lets 5,000
+ * concurrent clients each send a series of product name searches, which are answered from the
+ * database, then reports throughput, latency percentiles and errors. Virtual threads need
+ * Java 21; on older JVMs both runs use platform threads.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath com.ecommerce.benchmark.ServerLoadTest [clients] [requestsPerClient]"
+ */
+public class ServerLoadTest {
+
+    private static final int PRODUCT_COUNT = 2000;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int requestsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        seedProducts();
+
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            Server server = MainAPI.createServer(0, virtualThreads);
+            server.start();
+            try {
+                int port = ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+                // Warm up the JIT and the connection pool before measuring
+                run(port, 100, 20);
+                Result result = run(port, clients, requestsPerClient);
+                System.out.printf("%-8s threads: %d clients x %d requests in %.1f s, %.0f req/s, "
+                                  + "p50 %.1f ms, p99 %.1f ms, max %.1f ms, %d errors%n",
+                                  virtualThreads ? "virtual" : "platform", clients, requestsPerClient,
+                                  result.elapsedNanos / 1e9, result.requests * 1e9 / result.elapsedNanos,
+                                  result.latency.getValueAtPercentile(50) / 1000.0,
+                                  result.latency.getValueAtPercentile(99) / 1000.0,
+                                  result.latency.getMaxMicros() / 1000.0, result.errors);
+            } finally {
+                server.stop();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static Result run(int port, int clients, int requestsPerClient) {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> sessions = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            CompletableFuture<Void> session = CompletableFuture.completedFuture(null);
+            for (int r = 0; r < requestsPerClient; r++) {
+                session = session.thenCompose(ignored -> search(client, port, latency, errors));
+            }
+            sessions.add(session);
+        }
+        CompletableFuture.allOf(sessions.toArray(new CompletableFuture[0])).join();
+        return new Result((long) clients * requestsPerClient, System.nanoTime() - start, latency, errors.get());
+    }
+
+    private static CompletableFuture<Void> search(HttpClient client, int port, LatencyHistogram latency,
+                                                  AtomicLong errors) {
+        int product = ThreadLocalRandom.current().nextInt(PRODUCT_COUNT);
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/products?limit=20&name=Load%20product%20" + product))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        long sent = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    latency.recordNanos(System.nanoTime() - sent);
+                    if (failure != null || response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    }
+                    return null;
+                });
+    }
+
+    private static void seedProducts() {
+        List<Object[]> rows = new ArrayList<>(PRODUCT_COUNT);
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            rows.add(new Object[]{"Load product " + i, "Load test product " + i, new BigDecimal("9.99"),
+                                  "LOAD-" + i, new BigDecimal("1.00"), "10x10x10cm", "LoadBrand", true});
+        }
+        DatabaseUtil.executeUpdate("DELETE FROM products WHERE sku LIKE 'LOAD-%'", null);
+        DatabaseUtil.executeMultiRowInsert("INSERT INTO products (name, description, price, sku, weight, " +
+                                          "dimensions, brand, is_active) VALUES", rows);
+    }
+
+    private static final class Result {
+        private final long requests;
+        private final long elapsedNanos;
+        private final LatencyHistogram latency;
+        private final long errors;
+
+        Result(long requests, long elapsedNanos, LatencyHistogram latency, long errors) {
+            this.requests = requests;
+            this.elapsedNanos = elapsedNanos;
+            this.latency = latency;
+            this.errors = errors;
+        }
+    }
+}